@@ -0,0 +1,248 @@
+package com.bibliotech.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache com validade (TTL), carga única por chave e renovação em
+ * segundo plano, para dados caros de calcular e lidos por muitos
+ * terminais ao mesmo tempo (dashboard, relatórios).
+ *
+ * <p>Usado pelo {@code @Cacheable(sync = true)}, que entrega o método
+ * anotado como {@code valueLoader}. Conforme a idade da entrada:</p>
+ * <ul>
+ *   <li><strong>até {@code ttl × fracaoRenovacao}:</strong> devolve o valor guardado;</li>
+ *   <li><strong>até {@code ttl + obsoletoMaximo}:</strong> devolve o valor guardado
+ *       e dispara uma única recarga no executor (renovação antecipada antes do
+ *       vencimento, ou valor vencido servido enquanto a recarga não termina);</li>
+ *   <li><strong>ausente ou mais antiga:</strong> carrega na hora; chamadas
+ *       simultâneas para a mesma chave aguardam essa mesma carga.</li>
+ * </ul>
+ *
+ * <p>Assim, um pico de acessos sobre uma entrada vencida gera uma única
+ * consulta ao banco, e não uma por requisição. Leituras sem
+ * {@code valueLoader} ({@code @Cacheable} sem {@code sync}) tratam
+ * entradas vencidas como ausentes.</p>
+ *
+ * <p>{@code evict} e {@code clear} invalidam as cargas em andamento das
+ * chaves afetadas. Uma carga invalidada ainda é devolvida a quem a pediu,
+ * mas não é guardada: ela pode ter lido o banco antes da alteração que
+ * motivou a remoção.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public class CacheComRenovacao extends AbstractValueAdaptingCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheComRenovacao.class);
+
+    private final String nome;
+
+    private final long ttlNanos;
+
+    private final long renovarAposNanos;
+
+    private final long obsoletoMaximoNanos;
+
+    private final Executor executor;
+
+    private final LongSupplier relogio;
+
+    private final ConcurrentMap<Object, Entrada> entradas = new ConcurrentHashMap<>();
+
+    /**
+     * Cargas em andamento; cada uma existe só enquanto o carregador roda.
+     */
+    private final ConcurrentMap<Object, Carga> cargas = new ConcurrentHashMap<>();
+
+    /**
+     * Cria o cache usando {@link System#nanoTime()} como relógio.
+     *
+     * @param nome nome do cache
+     * @param ttl validade de cada entrada
+     * @param fracaoRenovacao fração do TTL a partir da qual a entrada é
+     *        renovada em segundo plano (entre 0 e 1; 1 desativa a renovação antecipada)
+     * @param obsoletoMaximo tempo após o vencimento em que o valor antigo
+     *        ainda é servido enquanto a recarga acontece
+     * @param executor executor das recargas em segundo plano
+     */
+    public CacheComRenovacao(String nome, Duration ttl, double fracaoRenovacao,
+                             Duration obsoletoMaximo, Executor executor) {
+        this(nome, ttl, fracaoRenovacao, obsoletoMaximo, executor, System::nanoTime);
+    }
+
+    CacheComRenovacao(String nome, Duration ttl, double fracaoRenovacao,
+                      Duration obsoletoMaximo, Executor executor, LongSupplier relogio) {
+        super(true);
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("TTL do cache " + nome + " deve ser positivo");
+        }
+        if (fracaoRenovacao <= 0 || fracaoRenovacao > 1) {
+            throw new IllegalArgumentException("Fração de renovação deve estar entre 0 e 1");
+        }
+        this.nome = nome;
+        this.ttlNanos = ttl.toNanos();
+        this.renovarAposNanos = (long) (ttlNanos * fracaoRenovacao);
+        this.obsoletoMaximoNanos = Math.max(0, obsoletoMaximo.toNanos());
+        this.executor = executor;
+        this.relogio = relogio;
+    }
+
+    @Override
+    public String getName() {
+        return nome;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return entradas;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Entrada entrada = entradas.get(key);
+        if (entrada == null || idade(entrada) >= ttlNanos) {
+            return null;
+        }
+        return entrada.valor;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Entrada entrada = entradas.get(key);
+        if (entrada != null) {
+            long idade = idade(entrada);
+            if (idade < renovarAposNanos) {
+                return (T) fromStoreValue(entrada.valor);
+            }
+            if (idade < ttlNanos + obsoletoMaximoNanos) {
+                renovarEmSegundoPlano(key, entrada, valueLoader);
+                return (T) fromStoreValue(entrada.valor);
+            }
+        }
+        return (T) fromStoreValue(carregar(key, valueLoader));
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        entradas.put(key, new Entrada(toStoreValue(value), relogio.getAsLong()));
+    }
+
+    @Override
+    public void evict(Object key) {
+        // A carga é invalidada antes da remoção: se ainda não guardou o valor,
+        // o descarta; se já guardou, a entrada é removida logo abaixo
+        Carga carga = cargas.remove(key);
+        if (carga != null) {
+            carga.invalidada = true;
+        }
+        entradas.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        for (Carga carga : cargas.values()) {
+            carga.invalidada = true;
+        }
+        cargas.clear();
+        entradas.clear();
+    }
+
+    /**
+     * Carrega o valor na thread atual; quem chegar durante a carga
+     * aguarda o mesmo resultado.
+     */
+    private Object carregar(Object key, Callable<?> valueLoader) {
+        Carga nova = new Carga();
+        Carga emAndamento = cargas.putIfAbsent(key, nova);
+        if (emAndamento != null) {
+            try {
+                return emAndamento.resultado.join();
+            } catch (CompletionException e) {
+                throw new ValueRetrievalException(key, valueLoader, e.getCause());
+            }
+        }
+
+        try {
+            Object valor = toStoreValue(valueLoader.call());
+            entradas.compute(key, (chave, atual) -> nova.invalidada
+                ? atual : new Entrada(valor, relogio.getAsLong()));
+            nova.resultado.complete(valor);
+            return valor;
+        } catch (Exception e) {
+            nova.resultado.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            cargas.remove(key, nova);
+        }
+    }
+
+    /**
+     * Dispara uma recarga da entrada, se nenhuma estiver em andamento.
+     * Em caso de falha o valor antigo continua sendo servido até o limite
+     * de obsolescência e a próxima leitura tenta de novo.
+     */
+    private void renovarEmSegundoPlano(Object key, Entrada entrada, Callable<?> valueLoader) {
+        if (!entrada.renovando.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    Object valor = toStoreValue(valueLoader.call());
+                    entradas.replace(key, entrada, new Entrada(valor, relogio.getAsLong()));
+                } catch (Exception e) {
+                    log.warn("Falha ao renovar entrada {} do cache {}: {}", key, nome, e.getMessage());
+                    entrada.renovando.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            entrada.renovando.set(false);
+        }
+    }
+
+    private long idade(Entrada entrada) {
+        return relogio.getAsLong() - entrada.carregadaEm;
+    }
+
+    /**
+     * Valor guardado, instante da carga e indicador de recarga em andamento.
+     */
+    private static final class Entrada {
+
+        private final Object valor;
+
+        private final long carregadaEm;
+
+        private final AtomicBoolean renovando = new AtomicBoolean();
+
+        private Entrada(Object valor, long carregadaEm) {
+            this.valor = valor;
+            this.carregadaEm = carregadaEm;
+        }
+    }
+
+    /**
+     * Carga em andamento de uma chave: o resultado aguardado por quem chegar
+     * durante a carga e se ela foi invalidada por uma remoção.
+     */
+    private static final class Carga {
+
+        private final CompletableFuture<Object> resultado = new CompletableFuture<>();
+
+        private volatile boolean invalidada;
+    }
+}
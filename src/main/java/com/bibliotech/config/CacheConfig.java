@@ -0,0 +1,87 @@
+package com.bibliotech.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Habilita o cache de dados derivados e as tarefas agendadas que os
+ * mantêm consistentes (por exemplo, a virada de dia dos atrasos).
+ *
+ * <p>Todos os caches são {@link CacheComRenovacao}. A validade padrão vem
+ * de {@code bibliotech.cache.ttl-padrao} e pode ser ajustada por cache em
+ * {@code bibliotech.cache.ttl.<nome>}. As recargas em segundo plano rodam
+ * em um pool pequeno próprio.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+@Configuration
+@EnableCaching
+@EnableScheduling
+public class CacheConfig {
+
+    @Value("${bibliotech.cache.ttl-padrao:PT5M}")
+    private Duration ttlPadrao = Duration.ofMinutes(5);
+
+    @Value("${bibliotech.cache.fracao-renovacao:0.8}")
+    private double fracaoRenovacao = 0.8;
+
+    @Value("${bibliotech.cache.obsoleto-maximo:PT5M}")
+    private Duration obsoletoMaximo = Duration.ofMinutes(5);
+
+    @Value("${bibliotech.cache.renovacoes-simultaneas:2}")
+    private int renovacoesSimultaneas = 2;
+
+    /**
+     * Pool das recargas em segundo plano. Com a fila cheia a recarga é
+     * descartada e tentada de novo na próxima leitura.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService renovacaoCacheExecutor() {
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory fabrica = tarefa -> {
+            Thread thread = new Thread(tarefa, "renovacao-cache-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(renovacoesSimultaneas, renovacoesSimultaneas, 0L,
+            TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(100), fabrica,
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Bean
+    public CacheManager cacheManager(Environment ambiente, ExecutorService renovacaoCacheExecutor) {
+        ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+        return new CacheManager() {
+            @Override
+            public Cache getCache(String nome) {
+                return caches.computeIfAbsent(nome, n -> new CacheComRenovacao(n,
+                    ambiente.getProperty("bibliotech.cache.ttl." + n, Duration.class, ttlPadrao),
+                    fracaoRenovacao, obsoletoMaximo, renovacaoCacheExecutor));
+            }
+
+            @Override
+            public Collection<String> getCacheNames() {
+                return Collections.unmodifiableSet(caches.keySet());
+            }
+        };
+    }
+}
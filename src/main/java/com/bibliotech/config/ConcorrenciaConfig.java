@@ -0,0 +1,20 @@
+package com.bibliotech.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.annotation.EnableRetry;
+
+/**
+ * Habilita a repetição automática de operações que falham por conflito
+ * de concorrência otimista (ver {@code @Retryable} no EmprestimoService).
+ *
+ * <p>O aspecto de repetição envolve o transacional, de modo que cada
+ * tentativa ocorre em uma transação nova, com dados relidos do banco.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+@Configuration
+@EnableRetry
+public class ConcorrenciaConfig {
+}
@@ -6,10 +6,14 @@ import com.bibliotech.model.Emprestimo;
 import com.bibliotech.repository.LivroRepository;
 import com.bibliotech.repository.UsuarioRepository;
 import com.bibliotech.repository.EmprestimoRepository;
+import com.bibliotech.service.CuboCirculacaoService;
+import com.bibliotech.service.SenhaService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
 
 @Component
 public class DataInitializer implements CommandLineRunner {
@@ -23,25 +27,35 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private EmprestimoRepository emprestimoRepository;
 
+    @Autowired
+    private SenhaService senhaService;
+
+    @Autowired
+    private CuboCirculacaoService cuboCirculacaoService;
+
     @Override
     public void run(String... args) throws Exception {
+        // Banco em arquivo já populado (perfil producao): nada a carregar
+        if (usuarioRepository.count() > 0) {
+            System.out.println("ℹ️ Banco já contém dados; dados de exemplo não carregados.");
+            return;
+        }
+
         // Criar usuários de teste
         Usuario admin = new Usuario("Administrador", "admin@bibliotech.com", 
-            "000.000.000-00", "admin123", Usuario.TipoUsuario.FUNCIONARIO);
+            "391.204.578-04", senhaService.codificar("admin123"), Usuario.TipoUsuario.FUNCIONARIO);
 
         Usuario aluno1 = new Usuario("João Silva", "joao@email.com",
-            "111.111.111-11", "senha123", Usuario.TipoUsuario.ALUNO);
+            "714.385.260-08", senhaService.codificar("senha123"), Usuario.TipoUsuario.ALUNO);
 
         Usuario aluno2 = new Usuario("Maria Santos", "maria@email.com",
-            "222.222.222-22", "senha123", Usuario.TipoUsuario.ALUNO);
+            "268.037.914-40", senhaService.codificar("senha123"), Usuario.TipoUsuario.ALUNO);
 
         Usuario professor = new Usuario("Prof. Carlos", "carlos@email.com",
-            "333.333.333-33", "senha123", Usuario.TipoUsuario.PROFESSOR);
+            "845.126.093-42", senhaService.codificar("senha123"), Usuario.TipoUsuario.PROFESSOR);
 
-        usuarioRepository.save(admin);
-        usuarioRepository.save(aluno1);
-        usuarioRepository.save(aluno2);
-        usuarioRepository.save(professor);
+        // saveAll grava todos em uma única transação, com os INSERTs em lote JDBC
+        usuarioRepository.saveAll(List.of(admin, aluno1, aluno2, professor));
 
         // Criar livros de teste
         Livro livro1 = new Livro("Clean Code", "Robert C. Martin", 
@@ -59,11 +73,7 @@ public class DataInitializer implements CommandLineRunner {
         Livro livro5 = new Livro("The Pragmatic Programmer", "Hunt & Thomas",
             "978-0135957059", "Addison-Wesley", 2019, 3);
 
-        livroRepository.save(livro1);
-        livroRepository.save(livro2);
-        livroRepository.save(livro3);
-        livroRepository.save(livro4);
-        livroRepository.save(livro5);
+        livroRepository.saveAll(List.of(livro1, livro2, livro3, livro4, livro5));
 
         // Criar alguns empréstimos de exemplo
         Emprestimo emp1 = new Emprestimo(aluno1, livro1, 
@@ -81,12 +91,17 @@ public class DataInitializer implements CommandLineRunner {
         emp3.setAtivo(false);
         emp3.setMulta(0.0);
 
-        emprestimoRepository.save(emp1);
-        emprestimoRepository.save(emp2);
-        emprestimoRepository.save(emp3);
+        List<Emprestimo> emprestimos = emprestimoRepository.saveAll(List.of(emp1, emp2, emp3));
+
+        // Contadores de popularidade pela mesma atualização usada nas retiradas
+        for (Emprestimo emprestimo : emprestimos) {
+            livroRepository.incrementarTotalEmprestimos(emprestimo.getLivro().getId());
+        }
+
+        livroRepository.saveAll(List.of(livro1, livro2));
 
-        livroRepository.save(livro1);
-        livroRepository.save(livro2);
+        // Gravados sem passar pelas retiradas: entram no cubo pela reagregação
+        cuboCirculacaoService.reagregar(YearMonth.from(emp3.getDataEmprestimo()));
 
         System.out.println("✅ Dados de exemplo carregados!");
         System.out.println("📌 Login: admin@bibliotech.com / admin123");
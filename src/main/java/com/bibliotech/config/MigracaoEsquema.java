@@ -0,0 +1,173 @@
+package com.bibliotech.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StreamUtils;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Migrações versionadas do esquema do banco.
+ *
+ * <p>Os scripts ficam em {@code bibliotech.migracoes.local}, nomeados
+ * {@code V<versão>__<descrição>.sql}, e são aplicados na subida em ordem
+ * de versão, antes do JPA (que apenas valida o esquema). Cada versão
+ * aplicada é registrada em {@value #TABELA_HISTORICO} com o checksum do
+ * script; um script já aplicado que tenha sido alterado impede a subida.
+ * Mudanças de esquema entram sempre como uma nova versão.</p>
+ *
+ * <p>No H2, comandos DDL confirmam a transação corrente: se um script
+ * falhar no meio, o que já foi executado permanece. Por isso os scripts
+ * usam {@code IF NOT EXISTS} e podem ser reaplicados depois da correção.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+@Component
+public class MigracaoEsquema implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(MigracaoEsquema.class);
+
+    static final String TABELA_HISTORICO = "historico_migracoes";
+
+    private static final Pattern NOME_SCRIPT = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${bibliotech.migracoes.habilitadas:true}")
+    private boolean habilitadas = true;
+
+    @Value("${bibliotech.migracoes.local:classpath:db/migracao/}")
+    private String local = "classpath:db/migracao/";
+
+    @Override
+    public void afterPropertiesSet() {
+        if (habilitadas) {
+            migrar();
+        }
+    }
+
+    /**
+     * Aplica as versões ainda não registradas no histórico.
+     *
+     * @return quantidade de versões aplicadas
+     * @throws IllegalStateException se um script aplicado foi alterado ou
+     *         se duas migrações têm a mesma versão
+     */
+    public synchronized int migrar() {
+        List<Migracao> migracoes = localizar();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS " + TABELA_HISTORICO + " ("
+            + "versao integer NOT NULL PRIMARY KEY, "
+            + "descricao varchar(200) NOT NULL, "
+            + "checksum bigint NOT NULL, "
+            + "aplicada_em timestamp NOT NULL, "
+            + "duracao_ms bigint NOT NULL)");
+
+        Map<Integer, Long> aplicadas = new HashMap<>();
+        jdbc.query("SELECT versao, checksum FROM " + TABELA_HISTORICO,
+            linha -> { aplicadas.put(linha.getInt("versao"), linha.getLong("checksum")); });
+
+        TransactionTemplate transacao = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        int aplicadasAgora = 0;
+        for (Migracao migracao : migracoes) {
+            Long checksum = aplicadas.get(migracao.versao);
+            if (checksum != null) {
+                if (checksum != migracao.checksum) {
+                    throw new IllegalStateException("Migração V" + migracao.versao
+                        + " foi alterada depois de aplicada: " + migracao.recurso.getFilename());
+                }
+                continue;
+            }
+
+            long inicio = System.currentTimeMillis();
+            transacao.executeWithoutResult(status -> {
+                jdbc.execute((ConnectionCallback<Void>) conexao -> {
+                    ScriptUtils.executeSqlScript(conexao, migracao.recurso);
+                    return null;
+                });
+                jdbc.update("INSERT INTO " + TABELA_HISTORICO
+                    + " (versao, descricao, checksum, aplicada_em, duracao_ms) "
+                    + "VALUES (?, ?, ?, CURRENT_TIMESTAMP, ?)",
+                    migracao.versao, migracao.descricao, migracao.checksum,
+                    System.currentTimeMillis() - inicio);
+            });
+            log.info("Migração V{} ({}) aplicada em {} ms", migracao.versao, migracao.descricao,
+                System.currentTimeMillis() - inicio);
+            aplicadasAgora++;
+        }
+        return aplicadasAgora;
+    }
+
+    private List<Migracao> localizar() {
+        List<Migracao> migracoes = new ArrayList<>();
+        try {
+            for (Resource recurso : new PathMatchingResourcePatternResolver().getResources(local + "V*__*.sql")) {
+                Matcher nome = NOME_SCRIPT.matcher(String.valueOf(recurso.getFilename()));
+                if (!nome.matches()) {
+                    throw new IllegalStateException("Nome de migração inválido: " + recurso.getFilename());
+                }
+                migracoes.add(new Migracao(Integer.parseInt(nome.group(1)),
+                    nome.group(2).replace('_', ' '), checksum(recurso), recurso));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Erro ao ler as migrações em " + local, e);
+        }
+
+        migracoes.sort(Comparator.comparingInt(migracao -> migracao.versao));
+        for (int i = 1; i < migracoes.size(); i++) {
+            if (migracoes.get(i).versao == migracoes.get(i - 1).versao) {
+                throw new IllegalStateException("Versão de migração repetida: V" + migracoes.get(i).versao);
+            }
+        }
+        return migracoes;
+    }
+
+    /**
+     * CRC32 do conteúdo, com quebras de linha normalizadas para que o
+     * mesmo script tenha o mesmo checksum em qualquer sistema.
+     */
+    private static long checksum(Resource recurso) throws IOException {
+        String conteudo = StreamUtils.copyToString(recurso.getInputStream(), StandardCharsets.UTF_8)
+            .replace("\r\n", "\n");
+        CRC32 crc = new CRC32();
+        crc.update(conteudo.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private static class Migracao {
+        private final int versao;
+        private final String descricao;
+        private final long checksum;
+        private final Resource recurso;
+
+        Migracao(int versao, String descricao, long checksum, Resource recurso) {
+            this.versao = versao;
+            this.descricao = descricao;
+            this.checksum = checksum;
+            this.recurso = recurso;
+        }
+    }
+}
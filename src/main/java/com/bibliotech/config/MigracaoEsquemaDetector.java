@@ -0,0 +1,21 @@
+package com.bibliotech.config;
+
+import org.springframework.boot.sql.init.dependency.AbstractBeansOfTypeDatabaseInitializerDetector;
+import java.util.Set;
+
+/**
+ * Declara a {@link MigracaoEsquema} como inicializadora do banco, para que
+ * o JPA e os demais beans que dependem do esquema só sejam criados depois
+ * das migrações (registrado em {@code META-INF/spring.factories}).
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public class MigracaoEsquemaDetector extends AbstractBeansOfTypeDatabaseInitializerDetector {
+
+    @Override
+    protected Set<Class<?>> getDatabaseInitializerBeanTypes() {
+        return Set.of(MigracaoEsquema.class);
+    }
+}
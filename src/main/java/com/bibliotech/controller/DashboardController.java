@@ -1,10 +1,25 @@
 package com.bibliotech.controller;
 
+import com.bibliotech.model.Livro;
 import com.bibliotech.service.DashboardService;
+import com.bibliotech.service.PainelEventosService;
+import com.bibliotech.service.PontoTendencia;
+import com.bibliotech.service.TendenciasService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @Controller
@@ -13,6 +28,12 @@ public class DashboardController {
     @Autowired
     private DashboardService dashboardService;
 
+    @Autowired
+    private PainelEventosService painelEventosService;
+
+    @Autowired
+    private TendenciasService tendenciasService;
+
     @GetMapping("/dashboard")
     public String dashboard(Model model) {
         Map<String, Object> estatisticas = dashboardService.obterEstatisticas();
@@ -25,4 +46,51 @@ public class DashboardController {
 
         return "dashboard";
     }
+
+    @GetMapping(path = "/dashboard/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter eventos() {
+        return painelEventosService.assinar();
+    }
+
+    @GetMapping("/dashboard/em-alta")
+    @ResponseBody
+    public List<Map<String, Object>> emAlta(@RequestParam(defaultValue = "7") int dias,
+                                            @RequestParam(defaultValue = "10") int limite) {
+        List<Object[]> ranking;
+        try {
+            ranking = dashboardService.obterLivrosEmAlta(dias, Math.min(limite, 100));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        List<Map<String, Object>> resposta = new ArrayList<>();
+        for (Object[] item : ranking) {
+            Livro livro = (Livro) item[0];
+            Map<String, Object> linha = new LinkedHashMap<>();
+            linha.put("id", livro.getId());
+            linha.put("titulo", livro.getTitulo());
+            linha.put("autor", livro.getAutor());
+            linha.put("emprestimos", item[1]);
+            resposta.add(linha);
+        }
+        return resposta;
+    }
+
+    @GetMapping("/dashboard/tendencias")
+    @ResponseBody
+    public List<PontoTendencia> tendencias(
+            @RequestParam(defaultValue = "DIA") TendenciasService.Resolucao resolucao,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate) {
+        LocalDate fim = ate != null ? ate : LocalDate.now();
+        LocalDate inicio = de != null ? de : switch (resolucao) {
+            case HORA -> fim.minusDays(1);
+            case DIA -> fim.minusDays(29);
+            case MES -> fim.minusYears(1).withDayOfMonth(1);
+        };
+        if (inicio.isAfter(fim)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Intervalo inválido");
+        }
+        return tendenciasService.consultar(resolucao, inicio, fim);
+    }
 }
@@ -4,19 +4,30 @@ import com.bibliotech.model.Emprestimo;
 import com.bibliotech.model.Livro;
 import com.bibliotech.model.Usuario;
 import com.bibliotech.service.EmprestimoService;
+import com.bibliotech.service.HistoricoService;
+import com.bibliotech.service.IndiceBuscaService;
+import com.bibliotech.service.ItemBusca;
 import com.bibliotech.service.LivroService;
+import com.bibliotech.service.PaginaEmprestimos;
 import com.bibliotech.service.UsuarioService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import java.time.LocalDate;
 import java.util.List;
 
 @Controller
 @RequestMapping("/emprestimos")
 public class EmprestimoController {
 
+    /**
+     * Opções exibidas ao abrir o formulário e limite das buscas incrementais.
+     */
+    private static final int LIMITE_OPCOES = 50;
+
     @Autowired
     private EmprestimoService emprestimoService;
 
@@ -26,35 +37,52 @@ public class EmprestimoController {
     @Autowired
     private UsuarioService usuarioService;
 
-    @GetMapping
-    public String listar(@RequestParam(required = false) String filtro, Model model) {
-        List<Emprestimo> emprestimos;
-
-        if ("ativos".equals(filtro)) {
-            emprestimos = emprestimoService.listarAtivos();
-        } else if ("atrasados".equals(filtro)) {
-            emprestimos = emprestimoService.listarAtrasados();
-        } else {
-            emprestimos = emprestimoService.listarTodos();
-        }
+    @Autowired
+    private HistoricoService historicoService;
+
+    @Autowired
+    private IndiceBuscaService indiceBuscaService;
 
-        model.addAttribute("emprestimos", emprestimos);
+    @GetMapping
+    public String listar(@RequestParam(required = false) String filtro,
+                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate cursorData,
+                        @RequestParam(required = false) Long cursorId,
+                        @RequestParam(defaultValue = "20") int tamanho,
+                        Model model) {
+        PaginaEmprestimos pagina =
+            emprestimoService.listarPagina(filtro, cursorData, cursorId, tamanho);
+
+        model.addAttribute("emprestimos", pagina.getItens());
+        model.addAttribute("pagina", pagina);
         model.addAttribute("filtro", filtro);
+        model.addAttribute("tamanho", tamanho);
+        model.addAttribute("paginado", cursorId != null);
 
         return "emprestimos/lista";
     }
 
     @GetMapping("/novo")
     public String novo(Model model) {
-        List<Usuario> usuarios = usuarioService.listarAtivos();
-        List<Livro> livros = livroService.listarDisponiveis();
-
-        model.addAttribute("usuarios", usuarios);
-        model.addAttribute("livros", livros);
+        model.addAttribute("usuarios", indiceBuscaService.buscarUsuarios("", LIMITE_OPCOES));
+        model.addAttribute("livros", indiceBuscaService.buscarLivros("", LIMITE_OPCOES));
 
         return "emprestimos/form";
     }
 
+    @GetMapping("/busca/usuarios")
+    @ResponseBody
+    public List<ItemBusca> buscarUsuarios(@RequestParam(defaultValue = "") String q,
+                                          @RequestParam(defaultValue = "10") int limite) {
+        return indiceBuscaService.buscarUsuarios(q, Math.max(1, Math.min(limite, LIMITE_OPCOES)));
+    }
+
+    @GetMapping("/busca/livros")
+    @ResponseBody
+    public List<ItemBusca> buscarLivros(@RequestParam(defaultValue = "") String q,
+                                        @RequestParam(defaultValue = "10") int limite) {
+        return indiceBuscaService.buscarLivros(q, Math.max(1, Math.min(limite, LIMITE_OPCOES)));
+    }
+
     @PostMapping("/realizar")
     public String realizar(@RequestParam Long usuarioId,
                           @RequestParam Long livroId,
@@ -95,12 +123,21 @@ public class EmprestimoController {
     }
 
     @GetMapping("/usuario/{usuarioId}")
-    public String listarPorUsuario(@PathVariable Long usuarioId, Model model, RedirectAttributes redirectAttributes) {
+    public String listarPorUsuario(@PathVariable Long usuarioId,
+                                  @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate cursorData,
+                                  @RequestParam(required = false) Long cursorId,
+                                  @RequestParam(defaultValue = "20") int tamanho,
+                                  Model model, RedirectAttributes redirectAttributes) {
         return usuarioService.buscarPorId(usuarioId)
             .map(usuario -> {
-                List<Emprestimo> emprestimos = emprestimoService.listarPorUsuario(usuario);
+                PaginaEmprestimos pagina = emprestimoService.listarPaginaPorUsuario(
+                    usuarioId, cursorData, cursorId, tamanho);
                 model.addAttribute("usuario", usuario);
-                model.addAttribute("emprestimos", emprestimos);
+                model.addAttribute("resumo", historicoService.obterResumo(usuarioId));
+                model.addAttribute("emprestimos", pagina.getItens());
+                model.addAttribute("pagina", pagina);
+                model.addAttribute("tamanho", tamanho);
+                model.addAttribute("paginado", cursorId != null);
                 return "emprestimos/historico";
             })
             .orElseGet(() -> {
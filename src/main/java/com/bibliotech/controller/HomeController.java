@@ -2,6 +2,7 @@ package com.bibliotech.controller;
 
 import com.bibliotech.model.Usuario;
 import com.bibliotech.service.UsuarioService;
+import com.bibliotech.service.UsuarioSessao;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
@@ -32,10 +33,16 @@ public class HomeController {
                        HttpSession session,
                        RedirectAttributes redirectAttributes) {
 
-        Optional<Usuario> usuario = usuarioService.autenticar(email, senha);
+        Optional<Usuario> usuario;
+        try {
+            usuario = usuarioService.autenticar(email, senha);
+        } catch (RuntimeException e) {
+            redirectAttributes.addFlashAttribute("erro", e.getMessage());
+            return "redirect:/login";
+        }
 
         if (usuario.isPresent() && usuario.get().getAtivo()) {
-            session.setAttribute("usuarioLogado", usuario.get());
+            session.setAttribute(UsuarioSessao.ATRIBUTO, UsuarioSessao.de(usuario.get()));
             return "redirect:/dashboard";
         }
 
@@ -0,0 +1,112 @@
+package com.bibliotech.controller;
+
+import com.bibliotech.model.Usuario;
+import com.bibliotech.service.AnaliseEmprestimosService;
+import com.bibliotech.service.CelulaCubo;
+import com.bibliotech.service.ConsultaAnalise;
+import com.bibliotech.service.CuboCirculacaoService;
+import com.bibliotech.service.GrupoAnalise;
+import com.bibliotech.service.RelatorioCirculacao;
+import com.bibliotech.service.RelatorioCirculacaoService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.server.ResponseStatusException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.EnumSet;
+import java.util.List;
+
+@Controller
+@RequestMapping("/relatorios")
+public class RelatorioController {
+
+    @Autowired
+    private RelatorioCirculacaoService relatorioCirculacaoService;
+
+    @Autowired
+    private AnaliseEmprestimosService analiseEmprestimosService;
+
+    @Autowired
+    private CuboCirculacaoService cuboCirculacaoService;
+
+    @GetMapping("/circulacao")
+    public String circulacao(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+                             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+                             Model model) {
+        LocalDate fim = ate != null ? ate : LocalDate.now();
+        LocalDate inicio = de != null ? de : fim.minusMonths(11).withDayOfMonth(1);
+
+        model.addAttribute("relatorio", gerar(inicio, fim));
+        return "relatorios/circulacao";
+    }
+
+    @GetMapping("/circulacao.csv")
+    public void circulacaoCsv(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+                              HttpServletResponse response) throws IOException {
+        LocalDate fim = ate != null ? ate : LocalDate.now();
+        LocalDate inicio = de != null ? de : fim.minusMonths(11).withDayOfMonth(1);
+        RelatorioCirculacao relatorio = gerar(inicio, fim);
+
+        response.setContentType("text/csv");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            "attachment; filename=\"circulacao-" + inicio + "-a-" + fim + ".csv\"");
+        relatorioCirculacaoService.escreverCsv(relatorio, response.getWriter());
+    }
+
+    @GetMapping("/analise")
+    @ResponseBody
+    public List<GrupoAnalise> analise(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate de,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate ate,
+                                      @RequestParam(required = false) Usuario.TipoUsuario tipo,
+                                      @RequestParam(required = false) Long usuarioId,
+                                      @RequestParam(required = false) Long livroId,
+                                      @RequestParam(defaultValue = "TODOS") ConsultaAnalise.Situacao situacao,
+                                      @RequestParam(defaultValue = "MES") ConsultaAnalise.Agrupamento agrupar,
+                                      @RequestParam(defaultValue = "0") int limite) {
+        ConsultaAnalise consulta = new ConsultaAnalise()
+            .retiradosEntre(de, ate)
+            .doTipo(tipo)
+            .doUsuario(usuarioId)
+            .doLivro(livroId)
+            .naSituacao(situacao)
+            .agruparPor(agrupar)
+            .limitar(limite);
+        try {
+            return analiseEmprestimosService.consultar(consulta);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+
+    @GetMapping("/cubo")
+    @ResponseBody
+    public List<CelulaCubo> cubo(@RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth de,
+                                 @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth ate,
+                                 @RequestParam(required = false) Usuario.TipoUsuario tipo,
+                                 @RequestParam(required = false) String editora,
+                                 @RequestParam(defaultValue = "ANO") List<CuboCirculacaoService.Dimensao> dimensoes) {
+        return cuboCirculacaoService.consultar(de, ate, tipo, editora,
+            dimensoes.isEmpty() ? EnumSet.noneOf(CuboCirculacaoService.Dimensao.class) : EnumSet.copyOf(dimensoes));
+    }
+
+    private RelatorioCirculacao gerar(LocalDate inicio, LocalDate fim) {
+        try {
+            return relatorioCirculacaoService.gerar(inicio, fim);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
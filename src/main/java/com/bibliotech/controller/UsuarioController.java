@@ -1,6 +1,8 @@
 package com.bibliotech.controller;
 
 import com.bibliotech.model.Usuario;
+import com.bibliotech.service.ImportacaoUsuariosService;
+import com.bibliotech.service.ResultadoImportacao;
 import com.bibliotech.service.UsuarioService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,7 +10,10 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 
 @Controller
@@ -18,6 +23,9 @@ public class UsuarioController {
     @Autowired
     private UsuarioService usuarioService;
 
+    @Autowired
+    private ImportacaoUsuariosService importacaoUsuariosService;
+
     @GetMapping
     public String listar(Model model) {
         List<Usuario> usuarios = usuarioService.listarTodos();
@@ -34,7 +42,7 @@ public class UsuarioController {
 
     @GetMapping("/editar/{id}")
     public String editar(@PathVariable Long id, Model model, RedirectAttributes redirectAttributes) {
-        return usuarioService.buscarPorId(id)
+        return usuarioService.buscarParaEdicao(id)
             .map(usuario -> {
                 model.addAttribute("usuario", usuario);
                 model.addAttribute("tiposUsuario", Usuario.TipoUsuario.values());
@@ -52,7 +60,10 @@ public class UsuarioController {
                         Model model,
                         RedirectAttributes redirectAttributes) {
 
-        if (result.hasErrors()) {
+        // Na edição, senha em branco mantém a senha cadastrada
+        boolean apenasSenhaEmBranco = usuario.getId() != null
+            && result.getErrorCount() == result.getFieldErrorCount("senha");
+        if (result.hasErrors() && !apenasSenhaEmBranco) {
             model.addAttribute("tiposUsuario", Usuario.TipoUsuario.values());
             return "usuarios/form";
         }
@@ -78,4 +89,31 @@ public class UsuarioController {
         }
         return "redirect:/usuarios";
     }
+
+    @GetMapping("/importar")
+    public String importarForm(Model model) {
+        model.addAttribute("modos", ImportacaoUsuariosService.Modo.values());
+        return "usuarios/importar";
+    }
+
+    @PostMapping("/importar")
+    public String importar(@RequestParam MultipartFile arquivo,
+                           @RequestParam(defaultValue = "INSERIR") ImportacaoUsuariosService.Modo modo,
+                           Model model) {
+        model.addAttribute("modos", ImportacaoUsuariosService.Modo.values());
+        model.addAttribute("modo", modo);
+
+        if (arquivo.isEmpty()) {
+            model.addAttribute("erro", "Selecione um arquivo CSV");
+            return "usuarios/importar";
+        }
+
+        try (InputStream conteudo = arquivo.getInputStream()) {
+            ResultadoImportacao resultado = importacaoUsuariosService.importar(conteudo, modo);
+            model.addAttribute("resultado", resultado);
+        } catch (IOException | RuntimeException e) {
+            model.addAttribute("erro", e.getMessage());
+        }
+        return "usuarios/importar";
+    }
 }
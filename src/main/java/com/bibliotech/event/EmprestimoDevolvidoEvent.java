@@ -0,0 +1,17 @@
+package com.bibliotech.event;
+
+import com.bibliotech.model.Emprestimo;
+
+/**
+ * Publicado após o registro da devolução de um empréstimo.
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public class EmprestimoDevolvidoEvent extends EmprestimoEvent {
+
+    public EmprestimoDevolvidoEvent(Emprestimo emprestimo) {
+        super(emprestimo);
+    }
+}
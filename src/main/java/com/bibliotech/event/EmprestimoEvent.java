@@ -0,0 +1,61 @@
+package com.bibliotech.event;
+
+import com.bibliotech.model.Emprestimo;
+import com.bibliotech.model.Livro;
+
+/**
+ * Evento base publicado quando um empréstimo muda de estado.
+ *
+ * <p>Permite que caches, contadores e demais visões derivadas reajam a
+ * retiradas e devoluções sem que o {@code EmprestimoService} precise
+ * conhecer cada um deles.</p>
+ *
+ * <p>A disponibilidade e a versão do livro são copiadas na publicação,
+ * depois do flush da transação: são os valores gravados por esta
+ * alteração. Como os listeners pós-commit de transações diferentes podem
+ * rodar em qualquer ordem, a versão permite descartar eventos mais
+ * antigos que o estado já conhecido.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public abstract class EmprestimoEvent {
+
+    private final Emprestimo emprestimo;
+    private final Integer quantidadeDisponivel;
+    private final Long versaoLivro;
+
+    protected EmprestimoEvent(Emprestimo emprestimo) {
+        this.emprestimo = emprestimo;
+        Livro livro = emprestimo.getLivro();
+        this.quantidadeDisponivel = livro != null ? livro.getQuantidadeDisponivel() : null;
+        this.versaoLivro = livro != null ? livro.getVersao() : null;
+    }
+
+    public Emprestimo getEmprestimo() { return emprestimo; }
+
+    /**
+     * @return exemplares disponíveis do livro gravados por esta alteração
+     */
+    public Integer getQuantidadeDisponivel() { return quantidadeDisponivel; }
+
+    /**
+     * @return versão do livro gravada por esta alteração, ou null se desconhecida
+     */
+    public Long getVersaoLivro() { return versaoLivro; }
+
+    /**
+     * @return id do usuário dono do empréstimo
+     */
+    public Long getUsuarioId() {
+        return emprestimo.getUsuario().getId();
+    }
+
+    /**
+     * @return id do livro emprestado
+     */
+    public Long getLivroId() {
+        return emprestimo.getLivro().getId();
+    }
+}
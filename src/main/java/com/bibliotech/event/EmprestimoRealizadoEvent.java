@@ -0,0 +1,17 @@
+package com.bibliotech.event;
+
+import com.bibliotech.model.Emprestimo;
+
+/**
+ * Publicado após a criação de um novo empréstimo.
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public class EmprestimoRealizadoEvent extends EmprestimoEvent {
+
+    public EmprestimoRealizadoEvent(Emprestimo emprestimo) {
+        super(emprestimo);
+    }
+}
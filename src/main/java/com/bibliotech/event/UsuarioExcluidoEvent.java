@@ -0,0 +1,32 @@
+package com.bibliotech.event;
+
+/**
+ * Publicado após a exclusão (anonimização) de um usuário.
+ *
+ * <p>Os listeners pós-commit retiram o usuário das visões em memória;
+ * se a transação for desfeita, nada muda.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public class UsuarioExcluidoEvent {
+
+    private final Long usuarioId;
+    private final boolean estavaAtivo;
+
+    public UsuarioExcluidoEvent(Long usuarioId, boolean estavaAtivo) {
+        this.usuarioId = usuarioId;
+        this.estavaAtivo = estavaAtivo;
+    }
+
+    /**
+     * @return id do usuário excluído
+     */
+    public Long getUsuarioId() { return usuarioId; }
+
+    /**
+     * @return true se o usuário estava ativo antes da exclusão
+     */
+    public boolean isEstavaAtivo() { return estavaAtivo; }
+}
@@ -19,8 +19,13 @@ import java.time.temporal.ChronoUnit;
 @Table(name = "emprestimos")
 public class Emprestimo {
 
+    /**
+     * Identificador obtido de sequência em blocos de 50 (otimizador pooled-lo):
+     * ao contrário de IDENTITY, permite ao Hibernate agrupar os INSERTs em lote.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "emprestimos_seq")
+    @SequenceGenerator(name = "emprestimos_seq", sequenceName = "emprestimos_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -50,6 +55,21 @@ public class Emprestimo {
     @Column(nullable = false)
     private Boolean ativo = true;
 
+    @Version
+    private Long versao;
+
+    /**
+     * Data em que o lembrete de vencimento próximo foi enviado (null se não enviado).
+     */
+    @Column
+    private LocalDate lembreteEnviadoEm;
+
+    /**
+     * Data em que o aviso de atraso foi enviado (null se não enviado).
+     */
+    @Column
+    private LocalDate avisoAtrasoEnviadoEm;
+
     public Emprestimo() {
     }
 
@@ -88,6 +108,15 @@ public class Emprestimo {
     public Boolean getAtivo() { return ativo; }
     public void setAtivo(Boolean ativo) { this.ativo = ativo; }
 
+    public Long getVersao() { return versao; }
+    public void setVersao(Long versao) { this.versao = versao; }
+
+    public LocalDate getLembreteEnviadoEm() { return lembreteEnviadoEm; }
+    public void setLembreteEnviadoEm(LocalDate d) { this.lembreteEnviadoEm = d; }
+
+    public LocalDate getAvisoAtrasoEnviadoEm() { return avisoAtrasoEnviadoEm; }
+    public void setAvisoAtrasoEnviadoEm(LocalDate d) { this.avisoAtrasoEnviadoEm = d; }
+
     /**
      * Verifica se o empréstimo está atrasado.
      * 
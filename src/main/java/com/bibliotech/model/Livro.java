@@ -19,8 +19,13 @@ import java.util.List;
 @Table(name = "livros")
 public class Livro {
 
+    /**
+     * Identificador obtido de sequência em blocos de 50 (otimizador pooled-lo):
+     * ao contrário de IDENTITY, permite ao Hibernate agrupar os INSERTs em lote.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "livros_seq")
+    @SequenceGenerator(name = "livros_seq", sequenceName = "livros_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank(message = "Título é obrigatório")
@@ -48,6 +53,20 @@ public class Livro {
     @Column(nullable = false)
     private Integer quantidadeDisponivel;
 
+    /**
+     * Contador acumulado de empréstimos do livro. Só é alterado pela
+     * atualização atômica do repositório, nunca pelo merge da entidade.
+     */
+    @Column(nullable = false, updatable = false)
+    private Long totalEmprestimos = 0L;
+
+    /**
+     * Versão para controle de concorrência otimista: uma alteração baseada
+     * em dados desatualizados é rejeitada em vez de sobrescrever outra.
+     */
+    @Version
+    private Long versao;
+
     @OneToMany(mappedBy = "livro", cascade = CascadeType.ALL)
     private List<Emprestimo> emprestimos = new ArrayList<>();
 
@@ -144,6 +163,22 @@ public class Livro {
         this.quantidadeDisponivel = quantidadeDisponivel;
     }
 
+    public Long getTotalEmprestimos() {
+        return totalEmprestimos;
+    }
+
+    public void setTotalEmprestimos(Long totalEmprestimos) {
+        this.totalEmprestimos = totalEmprestimos;
+    }
+
+    public Long getVersao() {
+        return versao;
+    }
+
+    public void setVersao(Long versao) {
+        this.versao = versao;
+    }
+
     public List<Emprestimo> getEmprestimos() {
         return emprestimos;
     }
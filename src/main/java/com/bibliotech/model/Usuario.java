@@ -2,6 +2,7 @@ package com.bibliotech.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -16,11 +17,34 @@ import java.util.List;
  * @since 2025
  */
 @Entity
-@Table(name = "usuarios")
+@Table(name = "usuarios", uniqueConstraints = {
+    @UniqueConstraint(name = Usuario.UK_EMAIL, columnNames = "email"),
+    @UniqueConstraint(name = Usuario.UK_CPF, columnNames = "cpf")
+})
 public class Usuario {
 
+    /** Nome do índice único de email. */
+    public static final String UK_EMAIL = "uk_usuarios_email";
+
+    /** Nome do índice único de CPF. */
+    public static final String UK_CPF = "uk_usuarios_cpf";
+
+    /** Sequência dos identificadores. */
+    public static final String SEQUENCIA = "usuarios_seq";
+
+    /**
+     * Identificadores reservados por valor da sequência (otimizador pooled-lo:
+     * o valor v reserva de v a v + IDS_POR_RESERVA - 1).
+     */
+    public static final int IDS_POR_RESERVA = 50;
+
+    /**
+     * Identificador obtido de sequência em blocos: ao contrário de IDENTITY,
+     * permite ao Hibernate agrupar os INSERTs em lote.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = SEQUENCIA)
+    @SequenceGenerator(name = SEQUENCIA, sequenceName = SEQUENCIA, allocationSize = IDS_POR_RESERVA)
     private Long id;
 
     @NotBlank(message = "Nome é obrigatório")
@@ -29,11 +53,11 @@ public class Usuario {
 
     @NotBlank(message = "Email é obrigatório")
     @Email(message = "Email inválido")
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
 
     @NotBlank(message = "CPF é obrigatório")
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String cpf;
 
     @NotBlank(message = "Senha é obrigatória")
@@ -48,6 +72,13 @@ public class Usuario {
     @Column(nullable = false)
     private Boolean ativo = true;
 
+    /**
+     * Momento da exclusão (null se não excluído). O usuário excluído é
+     * anonimizado e seu histórico é removido depois, pelo expurgo.
+     */
+    @Column
+    private LocalDateTime excluidoEm;
+
     @OneToMany(mappedBy = "usuario", cascade = CascadeType.ALL)
     private List<Emprestimo> emprestimos = new ArrayList<>();
 
@@ -105,6 +136,9 @@ public class Usuario {
     public Boolean getAtivo() { return ativo; }
     public void setAtivo(Boolean ativo) { this.ativo = ativo; }
 
+    public LocalDateTime getExcluidoEm() { return excluidoEm; }
+    public void setExcluidoEm(LocalDateTime excluidoEm) { this.excluidoEm = excluidoEm; }
+
     public List<Emprestimo> getEmprestimos() { return emprestimos; }
     public void setEmprestimos(List<Emprestimo> e) { this.emprestimos = e; }
 
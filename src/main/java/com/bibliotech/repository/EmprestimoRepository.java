@@ -3,9 +3,15 @@ package com.bibliotech.repository;
 import com.bibliotech.model.Emprestimo;
 import com.bibliotech.model.Usuario;
 import com.bibliotech.model.Livro;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -19,9 +25,162 @@ public interface EmprestimoRepository extends JpaRepository<Emprestimo, Long> {
 
     List<Emprestimo> findByLivro(Livro livro);
 
+    boolean existsByUsuarioIdAndAtivoTrue(Long usuarioId);
+
     @Query("SELECT e FROM Emprestimo e WHERE e.ativo = true AND e.dataDevolucaoPrevista < CURRENT_DATE")
     List<Emprestimo> findEmprestimosAtrasados();
 
-    @Query("SELECT e.livro, COUNT(e) as total FROM Emprestimo e GROUP BY e.livro ORDER BY total DESC")
-    List<Object[]> findLivrosMaisEmprestados();
+    // Consultas paginadas por keyset (dataEmprestimo, id), em ordem decrescente.
+    // Usuário e livro vêm no mesmo SELECT via JOIN FETCH, evitando N+1 na listagem.
+
+    @Query("SELECT e FROM Emprestimo e JOIN FETCH e.usuario JOIN FETCH e.livro "
+         + "WHERE e.dataEmprestimo < :data OR (e.dataEmprestimo = :data AND e.id < :id) "
+         + "ORDER BY e.dataEmprestimo DESC, e.id DESC")
+    List<Emprestimo> findPaginaApos(@Param("data") LocalDate data, @Param("id") Long id, Limit limite);
+
+    @Query("SELECT e FROM Emprestimo e JOIN FETCH e.usuario JOIN FETCH e.livro "
+         + "WHERE e.ativo = true "
+         + "AND (e.dataEmprestimo < :data OR (e.dataEmprestimo = :data AND e.id < :id)) "
+         + "ORDER BY e.dataEmprestimo DESC, e.id DESC")
+    List<Emprestimo> findPaginaAtivosApos(@Param("data") LocalDate data, @Param("id") Long id, Limit limite);
+
+    @Query("SELECT e FROM Emprestimo e JOIN FETCH e.usuario JOIN FETCH e.livro "
+         + "WHERE e.ativo = true AND e.dataDevolucaoPrevista < CURRENT_DATE "
+         + "AND (e.dataEmprestimo < :data OR (e.dataEmprestimo = :data AND e.id < :id)) "
+         + "ORDER BY e.dataEmprestimo DESC, e.id DESC")
+    List<Emprestimo> findPaginaAtrasadosApos(@Param("data") LocalDate data, @Param("id") Long id, Limit limite);
+
+    @Query("SELECT e FROM Emprestimo e JOIN FETCH e.livro "
+         + "WHERE e.usuario.id = :usuarioId "
+         + "AND (e.dataEmprestimo < :data OR (e.dataEmprestimo = :data AND e.id < :id)) "
+         + "ORDER BY e.dataEmprestimo DESC, e.id DESC")
+    List<Emprestimo> findPaginaPorUsuarioApos(@Param("usuarioId") Long usuarioId,
+                                              @Param("data") LocalDate data,
+                                              @Param("id") Long id, Limit limite);
+
+    @Query("SELECT new com.bibliotech.repository.ResumoHistorico("
+         + "COUNT(e), "
+         + "SUM(CASE WHEN e.ativo = true THEN 1L ELSE 0L END), "
+         + "SUM(CASE WHEN e.ativo = true AND e.dataDevolucaoPrevista < CURRENT_DATE THEN 1L ELSE 0L END), "
+         + "SUM(CASE WHEN e.ativo = false THEN e.multa ELSE 0.0 END)) "
+         + "FROM Emprestimo e WHERE e.usuario.id = :usuarioId")
+    ResumoHistorico resumirPorUsuario(@Param("usuarioId") Long usuarioId);
+
+    // Totais do dashboard em um único comando: cada subconsulta é um COUNT
+    // resolvido pelo banco, sem trazer linhas para a aplicação.
+
+    @Query("SELECT new com.bibliotech.repository.EstatisticasGerais("
+         + "(SELECT COUNT(l) FROM Livro l), "
+         + "(SELECT COUNT(u) FROM Usuario u WHERE u.ativo = true), "
+         + "(SELECT COUNT(e) FROM Emprestimo e WHERE e.ativo = true), "
+         + "(SELECT COUNT(l) FROM Livro l WHERE l.quantidadeDisponivel > 0), "
+         + "(SELECT COUNT(e) FROM Emprestimo e WHERE e.ativo = true "
+         + "AND e.dataDevolucaoPrevista < CURRENT_DATE))")
+    EstatisticasGerais obterEstatisticasGerais();
+
+    @Query("SELECT e.livro.id, e.dataEmprestimo, COUNT(e) FROM Emprestimo e "
+         + "WHERE e.dataEmprestimo >= :inicio GROUP BY e.livro.id, e.dataEmprestimo")
+    List<Object[]> contarPorLivroEDiaDesde(@Param("inicio") LocalDate inicio);
+
+    // Popularidade enquanto os contadores em memória ainda não foram carregados.
+
+    @Query("SELECT e.livro.id, COUNT(e) FROM Emprestimo e "
+         + "WHERE e.dataEmprestimo >= :inicio GROUP BY e.livro.id ORDER BY COUNT(e) DESC, e.livro.id")
+    List<Object[]> contarPorLivroDesde(@Param("inicio") LocalDate inicio, Limit quantidade);
+
+    @Query("SELECT e.id FROM Emprestimo e WHERE e.id IN :ids")
+    List<Long> findIdsExistentes(@Param("ids") List<Long> ids);
+
+    // Reconstrução única das tendências diárias (TendenciasService), sem carregar linhas.
+
+    @Query("SELECT e.dataEmprestimo, COUNT(e) FROM Emprestimo e "
+         + "WHERE e.dataEmprestimo < :ate GROUP BY e.dataEmprestimo")
+    List<Object[]> contarRetiradasPorDia(@Param("ate") LocalDate ate);
+
+    @Query("SELECT e.dataDevolucaoReal, COUNT(e), SUM(e.multa) FROM Emprestimo e "
+         + "WHERE e.dataDevolucaoReal < :ate GROUP BY e.dataDevolucaoReal")
+    List<Object[]> contarDevolucoesPorDia(@Param("ate") LocalDate ate);
+
+    @Query("SELECT e.dataDevolucaoPrevista, e.dataDevolucaoReal, COUNT(e) FROM Emprestimo e "
+         + "WHERE e.dataEmprestimo < :ate GROUP BY e.dataDevolucaoPrevista, e.dataDevolucaoReal")
+    List<Object[]> contarPorVencimentoEDevolucao(@Param("ate") LocalDate ate);
+
+    // Relatório de circulação (RelatorioCirculacaoService): faixa de ids do período,
+    // depois blocos de ids lidos como projeções, sem entidades gerenciadas.
+
+    @Query("SELECT MIN(e.id), MAX(e.id) FROM Emprestimo e WHERE e.dataEmprestimo BETWEEN :de AND :ate")
+    List<Object[]> findFaixaDeIds(@Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    @Query("SELECT new com.bibliotech.repository.LinhaCirculacao("
+         + "e.dataEmprestimo, e.dataDevolucaoReal, e.multa, u.tipo, l.editora, l.ano) "
+         + "FROM Emprestimo e JOIN e.usuario u JOIN e.livro l "
+         + "WHERE e.id BETWEEN :primeiro AND :ultimo AND e.dataEmprestimo BETWEEN :de AND :ate")
+    List<LinhaCirculacao> findLinhasCirculacao(@Param("primeiro") Long primeiro, @Param("ultimo") Long ultimo,
+                                               @Param("de") LocalDate de, @Param("ate") LocalDate ate);
+
+    // Cópia colunar para análises (AnaliseEmprestimosService), lida em ordem de id.
+
+    @Query("SELECT e.id, u.id, e.livro.id, u.tipo, e.dataEmprestimo, e.dataDevolucaoPrevista, "
+         + "e.dataDevolucaoReal, e.multa, e.ativo FROM Emprestimo e JOIN e.usuario u "
+         + "WHERE e.id > :cursor ORDER BY e.id")
+    List<Object[]> findColunasAnaliseApos(@Param("cursor") Long cursor, Limit quantidade);
+
+    // Lembretes: empréstimos ativos vencidos sem aviso de atraso, ou que vencem
+    // entre hoje e o limite sem lembrete de vencimento.
+
+    @Query("SELECT DISTINCT e.usuario.id FROM Emprestimo e "
+         + "WHERE e.ativo = true AND e.usuario.id > :cursor "
+         + "AND ((e.dataDevolucaoPrevista < :hoje AND e.avisoAtrasoEnviadoEm IS NULL) "
+         + "OR (e.dataDevolucaoPrevista >= :hoje AND e.dataDevolucaoPrevista <= :limite "
+         + "AND e.lembreteEnviadoEm IS NULL)) "
+         + "ORDER BY e.usuario.id")
+    List<Long> findUsuariosComLembretePendente(@Param("cursor") Long cursor,
+                                               @Param("hoje") LocalDate hoje,
+                                               @Param("limite") LocalDate limite,
+                                               Limit quantidade);
+
+    @Query("SELECT e FROM Emprestimo e JOIN FETCH e.usuario JOIN FETCH e.livro "
+         + "WHERE e.usuario.id IN :usuarios AND e.ativo = true "
+         + "AND ((e.dataDevolucaoPrevista < :hoje AND e.avisoAtrasoEnviadoEm IS NULL) "
+         + "OR (e.dataDevolucaoPrevista >= :hoje AND e.dataDevolucaoPrevista <= :limite "
+         + "AND e.lembreteEnviadoEm IS NULL)) "
+         + "ORDER BY e.usuario.id, e.dataDevolucaoPrevista")
+    List<Emprestimo> findLembretesPendentes(@Param("usuarios") List<Long> usuarios,
+                                            @Param("hoje") LocalDate hoje,
+                                            @Param("limite") LocalDate limite);
+
+    // Expurgo do histórico de usuários excluídos, em lotes limitados.
+
+    @Query("SELECT e.id FROM Emprestimo e WHERE e.usuario.excluidoEm < :limite "
+         + "AND e.ativo = false ORDER BY e.id")
+    List<Long> findIdsDeUsuariosExcluidos(@Param("limite") LocalDateTime limite, Limit quantidade);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Emprestimo e WHERE e.id IN :ids")
+    int removerPorIds(@Param("ids") List<Long> ids);
+
+    // Reserva para envio: só marca os ainda não avisados e devolve os ids
+    // efetivamente marcados por este comando (tabela delta do H2), para que
+    // execuções simultâneas não enviem o mesmo aviso.
+
+    @Transactional
+    @Query(value = "SELECT id FROM FINAL TABLE (UPDATE emprestimos SET lembrete_enviado_em = :data "
+                 + "WHERE id IN :ids AND lembrete_enviado_em IS NULL)", nativeQuery = true)
+    List<Long> marcarLembreteEnviado(@Param("ids") List<Long> ids, @Param("data") LocalDate data);
+
+    @Transactional
+    @Query(value = "SELECT id FROM FINAL TABLE (UPDATE emprestimos SET aviso_atraso_enviado_em = :data "
+                 + "WHERE id IN :ids AND aviso_atraso_enviado_em IS NULL)", nativeQuery = true)
+    List<Long> marcarAvisoAtrasoEnviado(@Param("ids") List<Long> ids, @Param("data") LocalDate data);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Emprestimo e SET e.lembreteEnviadoEm = NULL WHERE e.id IN :ids")
+    int desmarcarLembrete(@Param("ids") List<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Emprestimo e SET e.avisoAtrasoEnviadoEm = NULL WHERE e.id IN :ids")
+    int desmarcarAvisoAtraso(@Param("ids") List<Long> ids);
 }
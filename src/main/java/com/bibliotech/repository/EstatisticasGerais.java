@@ -0,0 +1,44 @@
+package com.bibliotech.repository;
+
+/**
+ * Totais exibidos no dashboard.
+ *
+ * <p>Calculados por uma única consulta agregada, sem carregar as linhas de
+ * livros, usuários ou empréstimos.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public class EstatisticasGerais {
+
+    private final long totalLivros;
+    private final long totalUsuarios;
+    private final long emprestimosAtivos;
+    private final long livrosDisponiveis;
+    private final long emprestimosAtrasados;
+
+    public EstatisticasGerais(Long totalLivros, Long totalUsuarios, Long emprestimosAtivos,
+                              Long livrosDisponiveis, Long emprestimosAtrasados) {
+        this.totalLivros = totalLivros != null ? totalLivros : 0L;
+        this.totalUsuarios = totalUsuarios != null ? totalUsuarios : 0L;
+        this.emprestimosAtivos = emprestimosAtivos != null ? emprestimosAtivos : 0L;
+        this.livrosDisponiveis = livrosDisponiveis != null ? livrosDisponiveis : 0L;
+        this.emprestimosAtrasados = emprestimosAtrasados != null ? emprestimosAtrasados : 0L;
+    }
+
+    /** @return quantidade de livros cadastrados */
+    public long getTotalLivros() { return totalLivros; }
+
+    /** @return quantidade de usuários ativos */
+    public long getTotalUsuarios() { return totalUsuarios; }
+
+    /** @return quantidade de empréstimos em aberto */
+    public long getEmprestimosAtivos() { return emprestimosAtivos; }
+
+    /** @return quantidade de livros com exemplares disponíveis */
+    public long getLivrosDisponiveis() { return livrosDisponiveis; }
+
+    /** @return quantidade de empréstimos em aberto com devolução vencida */
+    public long getEmprestimosAtrasados() { return emprestimosAtrasados; }
+}
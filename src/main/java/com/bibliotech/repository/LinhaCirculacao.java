@@ -0,0 +1,44 @@
+package com.bibliotech.repository;
+
+import com.bibliotech.model.Usuario;
+import java.time.LocalDate;
+
+/**
+ * Projeção de um empréstimo com apenas as colunas usadas no relatório de
+ * circulação, lida em blocos sem carregar as entidades.
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public class LinhaCirculacao {
+
+    private final LocalDate dataEmprestimo;
+    private final LocalDate dataDevolucaoReal;
+    private final double multa;
+    private final Usuario.TipoUsuario tipoUsuario;
+    private final String editora;
+    private final Integer ano;
+
+    public LinhaCirculacao(LocalDate dataEmprestimo, LocalDate dataDevolucaoReal, Double multa,
+                           Usuario.TipoUsuario tipoUsuario, String editora, Integer ano) {
+        this.dataEmprestimo = dataEmprestimo;
+        this.dataDevolucaoReal = dataDevolucaoReal;
+        this.multa = multa != null ? multa : 0.0;
+        this.tipoUsuario = tipoUsuario;
+        this.editora = editora;
+        this.ano = ano;
+    }
+
+    public LocalDate getDataEmprestimo() { return dataEmprestimo; }
+
+    public LocalDate getDataDevolucaoReal() { return dataDevolucaoReal; }
+
+    public double getMulta() { return multa; }
+
+    public Usuario.TipoUsuario getTipoUsuario() { return tipoUsuario; }
+
+    public String getEditora() { return editora; }
+
+    public Integer getAno() { return ano; }
+}
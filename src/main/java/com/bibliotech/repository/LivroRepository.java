@@ -1,8 +1,13 @@
 package com.bibliotech.repository;
 
 import com.bibliotech.model.Livro;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,4 +21,33 @@ public interface LivroRepository extends JpaRepository<Livro, Long> {
     List<Livro> findByAutorContainingIgnoreCase(String autor);
 
     List<Livro> findByQuantidadeDisponivelGreaterThan(Integer quantidade);
+
+    @Query("SELECT l.quantidadeDisponivel FROM Livro l WHERE l.id = :id")
+    Integer findQuantidadeDisponivelById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Livro l SET l.totalEmprestimos = l.totalEmprestimos + 1 WHERE l.id = :id")
+    int incrementarTotalEmprestimos(@Param("id") Long id);
+
+    @Query("SELECT l.id, l.totalEmprestimos FROM Livro l WHERE l.totalEmprestimos > 0")
+    List<Object[]> findContadoresEmprestimo();
+
+    // Índice de busca (IndiceBuscaService): só as colunas indexadas, sem entidades gerenciadas.
+
+    @Query("SELECT new com.bibliotech.repository.ResumoBuscaLivro("
+         + "l.id, l.titulo, l.autor, l.isbn, l.versao, l.quantidadeDisponivel) FROM Livro l")
+    List<ResumoBuscaLivro> findResumosBusca();
+
+    // Busca pelo banco enquanto o índice ainda não foi carregado.
+
+    @Query("SELECT new com.bibliotech.repository.ResumoBuscaLivro("
+         + "l.id, l.titulo, l.autor, l.isbn, l.versao, l.quantidadeDisponivel) FROM Livro l "
+         + "WHERE l.quantidadeDisponivel > 0 AND LOWER(l.titulo) LIKE :padrao ORDER BY l.titulo")
+    List<ResumoBuscaLivro> buscarResumosDisponiveisPorTitulo(@Param("padrao") String padrao, Limit quantidade);
+
+    @Query("SELECT new com.bibliotech.repository.ResumoBuscaLivro("
+         + "l.id, l.titulo, l.autor, l.isbn, l.versao, l.quantidadeDisponivel) FROM Livro l "
+         + "WHERE l.quantidadeDisponivel > 0 AND REPLACE(l.isbn, '-', '') LIKE :padrao ORDER BY l.titulo")
+    List<ResumoBuscaLivro> buscarResumosDisponiveisPorIsbn(@Param("padrao") String padrao, Limit quantidade);
 }
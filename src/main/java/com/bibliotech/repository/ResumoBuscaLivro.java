@@ -0,0 +1,41 @@
+package com.bibliotech.repository;
+
+/**
+ * Projeção de um livro com apenas as colunas usadas pelo índice de busca
+ * do formulário de empréstimo, lida sem carregar as entidades.
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public class ResumoBuscaLivro {
+
+    private final Long id;
+    private final String titulo;
+    private final String autor;
+    private final String isbn;
+    private final Long versao;
+    private final Integer quantidadeDisponivel;
+
+    public ResumoBuscaLivro(Long id, String titulo, String autor, String isbn,
+                            Long versao, Integer quantidadeDisponivel) {
+        this.id = id;
+        this.titulo = titulo;
+        this.autor = autor;
+        this.isbn = isbn;
+        this.versao = versao;
+        this.quantidadeDisponivel = quantidadeDisponivel;
+    }
+
+    public Long getId() { return id; }
+
+    public String getTitulo() { return titulo; }
+
+    public String getAutor() { return autor; }
+
+    public String getIsbn() { return isbn; }
+
+    public Long getVersao() { return versao; }
+
+    public Integer getQuantidadeDisponivel() { return quantidadeDisponivel; }
+}
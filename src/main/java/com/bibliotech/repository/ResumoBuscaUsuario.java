@@ -0,0 +1,38 @@
+package com.bibliotech.repository;
+
+import com.bibliotech.model.Usuario;
+
+/**
+ * Projeção de um usuário ativo com apenas as colunas usadas pelo índice de
+ * busca do formulário de empréstimo, lida sem carregar as entidades.
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public class ResumoBuscaUsuario {
+
+    private final Long id;
+    private final String nome;
+    private final String email;
+    private final String cpf;
+    private final Usuario.TipoUsuario tipo;
+
+    public ResumoBuscaUsuario(Long id, String nome, String email, String cpf, Usuario.TipoUsuario tipo) {
+        this.id = id;
+        this.nome = nome;
+        this.email = email;
+        this.cpf = cpf;
+        this.tipo = tipo;
+    }
+
+    public Long getId() { return id; }
+
+    public String getNome() { return nome; }
+
+    public String getEmail() { return email; }
+
+    public String getCpf() { return cpf; }
+
+    public Usuario.TipoUsuario getTipo() { return tipo; }
+}
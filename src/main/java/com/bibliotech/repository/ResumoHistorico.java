@@ -0,0 +1,35 @@
+package com.bibliotech.repository;
+
+/**
+ * Resumo do histórico de empréstimos de um usuário.
+ *
+ * <p>Calculado por uma única consulta agregada e mantido em cache até a
+ * próxima retirada ou devolução do usuário.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public class ResumoHistorico {
+
+    private final long totalEmprestimos;
+    private final long emprestimosAtivos;
+    private final long emprestimosAtrasados;
+    private final double multasPagas;
+
+    public ResumoHistorico(Long totalEmprestimos, Long emprestimosAtivos,
+                           Long emprestimosAtrasados, Double multasPagas) {
+        this.totalEmprestimos = totalEmprestimos != null ? totalEmprestimos : 0L;
+        this.emprestimosAtivos = emprestimosAtivos != null ? emprestimosAtivos : 0L;
+        this.emprestimosAtrasados = emprestimosAtrasados != null ? emprestimosAtrasados : 0L;
+        this.multasPagas = multasPagas != null ? multasPagas : 0.0;
+    }
+
+    public long getTotalEmprestimos() { return totalEmprestimos; }
+
+    public long getEmprestimosAtivos() { return emprestimosAtivos; }
+
+    public long getEmprestimosAtrasados() { return emprestimosAtrasados; }
+
+    public double getMultasPagas() { return multasPagas; }
+}
@@ -1,8 +1,16 @@
 package com.bibliotech.repository;
 
 import com.bibliotech.model.Usuario;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.LockModeType;
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.List;
 
@@ -16,4 +24,64 @@ public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     Optional<Usuario> findByEmailAndSenha(String email, String senha);
 
     List<Usuario> findByAtivoTrue();
+
+    List<Usuario> findByExcluidoEmIsNull();
+
+    @Query("SELECT u.ativo FROM Usuario u WHERE u.id = :id")
+    Boolean findAtivoById(@Param("id") Long id);
+
+    // Bloqueia a linha do usuário até o fim da transação: empréstimo e
+    // exclusão passam por aqui, então um sempre vê o que o outro gravou.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT u FROM Usuario u WHERE u.id = :id")
+    Optional<Usuario> findComBloqueioById(@Param("id") Long id);
+
+    @Query("SELECT u.senha FROM Usuario u WHERE u.id = :id")
+    String findSenhaById(@Param("id") Long id);
+
+    @Query("SELECT u.excluidoEm FROM Usuario u WHERE u.id = :id")
+    LocalDateTime findExcluidoEmById(@Param("id") Long id);
+
+    @Query("SELECT u.email, u.cpf FROM Usuario u")
+    List<Object[]> findEmailsECpfs();
+
+    @Query("SELECT new com.bibliotech.repository.ResumoBuscaUsuario("
+         + "u.id, u.nome, u.email, u.cpf, u.tipo) FROM Usuario u WHERE u.ativo = true")
+    List<ResumoBuscaUsuario> findResumosBuscaAtivos();
+
+    // Busca pelo banco enquanto o índice ainda não foi carregado.
+
+    @Query("SELECT new com.bibliotech.repository.ResumoBuscaUsuario("
+         + "u.id, u.nome, u.email, u.cpf, u.tipo) FROM Usuario u WHERE u.ativo = true "
+         + "AND (LOWER(u.nome) LIKE :padrao OR LOWER(u.email) LIKE :padrao) ORDER BY u.nome")
+    List<ResumoBuscaUsuario> buscarResumosAtivosPorNomeOuEmail(@Param("padrao") String padrao, Limit quantidade);
+
+    @Query("SELECT new com.bibliotech.repository.ResumoBuscaUsuario("
+         + "u.id, u.nome, u.email, u.cpf, u.tipo) FROM Usuario u WHERE u.ativo = true "
+         + "AND REPLACE(REPLACE(u.cpf, '.', ''), '-', '') LIKE :padrao ORDER BY u.nome")
+    List<ResumoBuscaUsuario> buscarResumosAtivosPorCpf(@Param("padrao") String padrao, Limit quantidade);
+
+    // Exclusão lógica: desativa e apaga os dados pessoais em um único UPDATE,
+    // sem carregar o histórico. Email e CPF recebem valores únicos derivados do id.
+    // Usuários com empréstimo ativo não são alterados.
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Usuario u SET u.ativo = false, u.nome = :nome, "
+         + "u.email = CONCAT('excluido-', CAST(u.id AS String), '@anonimo.invalid'), "
+         + "u.cpf = CONCAT('#', CAST(u.id AS String)), "
+         + "u.senha = :senha, u.excluidoEm = :agora "
+         + "WHERE u.id = :id AND u.excluidoEm IS NULL "
+         + "AND NOT EXISTS (SELECT e FROM Emprestimo e WHERE e.usuario = u AND e.ativo = true)")
+    int anonimizar(@Param("id") Long id, @Param("nome") String nome,
+                   @Param("senha") String senha, @Param("agora") LocalDateTime agora);
+
+    @Query("SELECT u.id FROM Usuario u WHERE u.excluidoEm < :limite "
+         + "AND NOT EXISTS (SELECT e.id FROM Emprestimo e WHERE e.usuario = u) ORDER BY u.id")
+    List<Long> findExcluidosSemHistorico(@Param("limite") LocalDateTime limite, Limit quantidade);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Usuario u WHERE u.id IN :ids")
+    int removerExcluidos(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,225 @@
+package com.bibliotech.service;
+
+import com.bibliotech.event.EmprestimoDevolvidoEvent;
+import com.bibliotech.event.EmprestimoRealizadoEvent;
+import com.bibliotech.model.Emprestimo;
+import com.bibliotech.model.Usuario;
+import com.bibliotech.repository.EmprestimoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Cópia colunar e somente leitura dos empréstimos para análises ad hoc,
+ * consultada sem tocar as tabelas usadas pela circulação.
+ *
+ * <p>Opcional ({@code bibliotech.analise.habilitada}). Quando habilitada,
+ * é montada na subida da aplicação, em lotes por id, e mantida pelos
+ * eventos de empréstimo e devolução. Uma reconstrução diária
+ * ({@code bibliotech.analise.reconstrucao-cron}) incorpora o que não passa
+ * pelos eventos, como importações e expurgos. Eventos recebidos durante
+ * a reconstrução são reaplicados na cópia nova antes da troca.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+public class AnaliseEmprestimosService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnaliseEmprestimosService.class);
+
+    @Autowired
+    private EmprestimoRepository emprestimoRepository;
+
+    @Value("${bibliotech.analise.habilitada:false}")
+    private boolean habilitada = false;
+
+    @Value("${bibliotech.analise.lote:50000}")
+    private int lote = 50_000;
+
+    private final ReentrantReadWriteLock trava = new ReentrantReadWriteLock();
+
+    private ColunasEmprestimos colunas;
+
+    private boolean reconstruindo;
+
+    private final List<Consumer<ColunasEmprestimos>> alteracoesDuranteReconstrucao = new ArrayList<>();
+
+    /**
+     * Monta a cópia na subida da aplicação, se habilitada.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        if (habilitada) {
+            reconstruir();
+        }
+    }
+
+    /**
+     * Reconstrução diária agendada.
+     */
+    @Scheduled(cron = "${bibliotech.analise.reconstrucao-cron:0 15 4 * * *}")
+    public void reconstruirAgendado() {
+        if (habilitada) {
+            reconstruir();
+        }
+    }
+
+    /**
+     * Relê todos os empréstimos em lotes e substitui a cópia atual. As
+     * consultas continuam atendidas pela cópia anterior até a troca.
+     */
+    public void reconstruir() {
+        trava.writeLock().lock();
+        try {
+            if (reconstruindo) {
+                return;
+            }
+            reconstruindo = true;
+        } finally {
+            trava.writeLock().unlock();
+        }
+
+        long inicio = System.currentTimeMillis();
+        ColunasEmprestimos nova;
+        try {
+            nova = ler();
+        } catch (RuntimeException e) {
+            trava.writeLock().lock();
+            try {
+                reconstruindo = false;
+                alteracoesDuranteReconstrucao.clear();
+            } finally {
+                trava.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        trava.writeLock().lock();
+        try {
+            alteracoesDuranteReconstrucao.forEach(alteracao -> alteracao.accept(nova));
+            alteracoesDuranteReconstrucao.clear();
+            colunas = nova;
+            reconstruindo = false;
+        } finally {
+            trava.writeLock().unlock();
+        }
+        log.info("Cópia colunar de empréstimos: {} linhas, {} KB, {} ms",
+            nova.tamanho(), nova.tamanhoEmBytes() / 1024, System.currentTimeMillis() - inicio);
+    }
+
+    private ColunasEmprestimos ler() {
+        ColunasEmprestimos nova = new ColunasEmprestimos(Math.min(lote, 1024));
+        long cursor = 0;
+        while (true) {
+            List<Object[]> linhas = emprestimoRepository.findColunasAnaliseApos(cursor, Limit.of(lote));
+            for (Object[] linha : linhas) {
+                nova.adicionar((Long) linha[0], (Long) linha[1], (Long) linha[2],
+                    (Usuario.TipoUsuario) linha[3], (LocalDate) linha[4], (LocalDate) linha[5],
+                    (LocalDate) linha[6], linha[7] != null ? (Double) linha[7] : 0.0,
+                    Boolean.TRUE.equals(linha[8]));
+            }
+            if (linhas.size() < lote) {
+                return nova;
+            }
+            cursor = nova.ultimoId();
+        }
+    }
+
+    /**
+     * Inclui o novo empréstimo na cópia.
+     *
+     * @param evento evento publicado pelo EmprestimoService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoRealizarEmprestimo(EmprestimoRealizadoEvent evento) {
+        Emprestimo emprestimo = evento.getEmprestimo();
+        if (emprestimo.getId() == null) {
+            return;
+        }
+        Usuario usuario = emprestimo.getUsuario();
+        aplicar(destino -> destino.adicionar(emprestimo.getId(), usuario.getId(),
+            emprestimo.getLivro().getId(), usuario.getTipo(), emprestimo.getDataEmprestimo(),
+            emprestimo.getDataDevolucaoPrevista(), emprestimo.getDataDevolucaoReal(),
+            multa(emprestimo), Boolean.TRUE.equals(emprestimo.getAtivo())));
+    }
+
+    /**
+     * Marca o empréstimo como devolvido na cópia.
+     *
+     * @param evento evento publicado pelo EmprestimoService
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoDevolverEmprestimo(EmprestimoDevolvidoEvent evento) {
+        Emprestimo emprestimo = evento.getEmprestimo();
+        if (emprestimo.getId() == null) {
+            return;
+        }
+        aplicar(destino -> destino.registrarDevolucao(emprestimo.getId(),
+            emprestimo.getDataDevolucaoReal(), multa(emprestimo)));
+    }
+
+    /**
+     * Aplica a alteração à cópia atual e, durante uma reconstrução, guarda-a
+     * para reaplicar na cópia nova (inclusão repetida é ignorada).
+     */
+    private void aplicar(Consumer<ColunasEmprestimos> alteracao) {
+        trava.writeLock().lock();
+        try {
+            if (reconstruindo) {
+                alteracoesDuranteReconstrucao.add(alteracao);
+            }
+            if (colunas != null) {
+                alteracao.accept(colunas);
+            }
+        } finally {
+            trava.writeLock().unlock();
+        }
+    }
+
+    private static double multa(Emprestimo emprestimo) {
+        return emprestimo.getMulta() != null ? emprestimo.getMulta() : 0.0;
+    }
+
+    /**
+     * Executa uma consulta sobre a cópia colunar.
+     *
+     * @param consulta filtros e agrupamento
+     * @return grupos com os totais
+     * @throws IllegalStateException se a cópia estiver desabilitada ou ainda não montada
+     */
+    public List<GrupoAnalise> consultar(ConsultaAnalise consulta) {
+        trava.readLock().lock();
+        try {
+            if (colunas == null) {
+                throw new IllegalStateException("Análise de empréstimos indisponível");
+            }
+            return colunas.consultar(consulta, LocalDate.now());
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+
+    /** @return quantidade de empréstimos na cópia, ou -1 se não montada */
+    public int getTamanho() {
+        trava.readLock().lock();
+        try {
+            return colunas != null ? colunas.tamanho() : -1;
+        } finally {
+            trava.readLock().unlock();
+        }
+    }
+}
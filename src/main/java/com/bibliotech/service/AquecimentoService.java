@@ -0,0 +1,110 @@
+package com.bibliotech.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga das estruturas em memória montadas a partir do banco, fora do
+ * caminho da inicialização.
+ *
+ * <p>Filtros de unicidade, índice de busca, popularidade e tendências
+ * leem tabelas inteiras (ou um ano de empréstimos). Em vez de atrasar a
+ * subida, as cargas rodam em segundo plano, uma após a outra em uma única
+ * thread, para não ocupar mais de uma conexão do pool. Enquanto a carga
+ * de um serviço não termina, ele responde pelo banco (busca e
+ * popularidade), trata todo valor como possível duplicata (unicidade) ou
+ * deixa a série diária vazia (tendências). A duração de cada carga é
+ * registrada no log.</p>
+ *
+ * <p>Com {@code bibliotech.aquecimento.em-segundo-plano=false}, as cargas
+ * rodam na própria thread do evento de aplicação pronta, como antes.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+public class AquecimentoService {
+
+    private static final Logger log = LoggerFactory.getLogger(AquecimentoService.class);
+
+    @Autowired
+    private UnicidadeUsuarioService unicidadeUsuarioService;
+
+    @Autowired
+    private IndiceBuscaService indiceBuscaService;
+
+    @Autowired
+    private PopularidadeService popularidadeService;
+
+    @Autowired
+    private TendenciasService tendenciasService;
+
+    @Value("${bibliotech.aquecimento.em-segundo-plano:true}")
+    private boolean emSegundoPlano = true;
+
+    /**
+     * Dispara as cargas quando a aplicação fica pronta.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (emSegundoPlano) {
+            aquecer();
+        } else {
+            executar();
+        }
+    }
+
+    /**
+     * Executa as cargas em uma thread própria.
+     *
+     * @return concluído quando todas as cargas terminarem
+     */
+    public CompletableFuture<Void> aquecer() {
+        CompletableFuture<Void> conclusao = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                executar();
+            } finally {
+                conclusao.complete(null);
+            }
+        }, "bibliotech-aquecimento");
+        thread.setDaemon(true);
+        thread.start();
+        return conclusao;
+    }
+
+    private void executar() {
+        long inicio = System.nanoTime();
+        carregar("Filtros de unicidade", unicidadeUsuarioService::carregar);
+        carregar("Índice de busca", indiceBuscaService::carregar);
+        carregar("Popularidade", popularidadeService::carregar);
+        carregar("Tendências", tendenciasService::carregar);
+        log.info("Aquecimento concluído em {} ms", decorrido(inicio));
+    }
+
+    /**
+     * Uma carga que falha é registrada e não impede as seguintes; o
+     * serviço continua respondendo como antes da carga.
+     */
+    private void carregar(String nome, Runnable carga) {
+        long inicio = System.nanoTime();
+        try {
+            carga.run();
+            log.info("{}: carregado em {} ms", nome, decorrido(inicio));
+        } catch (RuntimeException e) {
+            log.error("{}: falha na carga após {} ms", nome, decorrido(inicio), e);
+        }
+    }
+
+    private static long decorrido(long inicio) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+    }
+}
@@ -0,0 +1,143 @@
+package com.bibliotech.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Cópias de segurança online do banco H2 em arquivo (perfil producao).
+ *
+ * <p>Usa o comando {@code BACKUP TO} do H2, que gera um zip consistente
+ * sem bloquear as tabelas: a aplicação continua atendendo durante a
+ * cópia. O arquivo é gravado com nome temporário e renomeado ao final,
+ * de modo que um zip com o nome definitivo está sempre completo. Apenas
+ * as {@code bibliotech.backup.manter} cópias mais recentes são mantidas.</p>
+ *
+ * <p>Para restaurar, pare a aplicação e extraia o zip no diretório de
+ * dados ({@code bibliotech.dados.diretorio}).</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+public class BackupService {
+
+    private static final Logger log = LoggerFactory.getLogger(BackupService.class);
+
+    private static final String PREFIXO = "bibliotech-";
+
+    private static final String EXTENSAO = ".zip";
+
+    private static final DateTimeFormatter CARIMBO = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${bibliotech.backup.habilitado:false}")
+    private boolean habilitado = false;
+
+    @Value("${bibliotech.backup.diretorio:data/backups}")
+    private String diretorio = "data/backups";
+
+    @Value("${bibliotech.backup.manter:7}")
+    private int manter = 7;
+
+    /**
+     * Execução agendada diária.
+     */
+    @Scheduled(cron = "${bibliotech.backup.cron:0 0 2 * * *}")
+    public void executarAgendado() {
+        if (habilitado) {
+            try {
+                executar();
+            } catch (RuntimeException e) {
+                log.error("Falha na cópia de segurança do banco", e);
+            }
+        }
+    }
+
+    /**
+     * Gera uma cópia de segurança agora e remove as excedentes.
+     *
+     * @return o arquivo zip gerado
+     * @throws RuntimeException se o banco não for H2 em arquivo ou a cópia falhar
+     */
+    public synchronized Path executar() {
+        String url = jdbcTemplate.execute((ConnectionCallback<String>) conexao -> conexao.getMetaData().getURL());
+        if (url == null || !url.startsWith("jdbc:h2:") || url.startsWith("jdbc:h2:mem:")) {
+            throw new RuntimeException("Cópia de segurança disponível apenas para banco H2 em arquivo");
+        }
+
+        Path pasta = Paths.get(diretorio).toAbsolutePath();
+        Path destino = pasta.resolve(PREFIXO + LocalDateTime.now().format(CARIMBO) + EXTENSAO);
+        Path temporario = pasta.resolve(destino.getFileName() + ".parcial");
+        long inicio = System.currentTimeMillis();
+        try {
+            Files.createDirectories(pasta);
+            jdbcTemplate.execute("BACKUP TO '" + temporario.toString().replace("'", "''") + "'");
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao gravar cópia de segurança", e);
+        } finally {
+            try {
+                Files.deleteIfExists(temporario);
+            } catch (IOException e) {
+                log.warn("Não foi possível remover {}", temporario);
+            }
+        }
+
+        log.info("Cópia de segurança {} gerada em {} ms", destino.getFileName(), System.currentTimeMillis() - inicio);
+        removerExcedentes();
+        return destino;
+    }
+
+    /**
+     * Lista as cópias existentes, da mais recente para a mais antiga.
+     *
+     * @return caminhos dos arquivos zip
+     */
+    public List<Path> listar() {
+        Path pasta = Paths.get(diretorio).toAbsolutePath();
+        if (!Files.isDirectory(pasta)) {
+            return List.of();
+        }
+        try (Stream<Path> arquivos = Files.list(pasta)) {
+            return arquivos
+                .filter(arquivo -> {
+                    String nome = arquivo.getFileName().toString();
+                    return nome.startsWith(PREFIXO) && nome.endsWith(EXTENSAO);
+                })
+                .sorted(Comparator.comparing(Path::getFileName).reversed())
+                .toList();
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao listar cópias de segurança", e);
+        }
+    }
+
+    private void removerExcedentes() {
+        List<Path> copias = listar();
+        for (Path antiga : copias.subList(Math.min(manter, copias.size()), copias.size())) {
+            try {
+                Files.delete(antiga);
+            } catch (IOException e) {
+                log.warn("Não foi possível remover a cópia antiga {}", antiga);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.bibliotech.service;
+
+import com.bibliotech.model.Usuario;
+
+/**
+ * Uma linha do resultado de {@link CuboCirculacaoService#consultar}: os
+ * totais de uma combinação de período, tipo de usuário e editora.
+ *
+ * <p>Dimensões fora do agrupamento pedido vêm nulas (totalizadas).</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public class CelulaCubo {
+
+    private final String periodo;
+    private final Usuario.TipoUsuario tipoUsuario;
+    private final String editora;
+    private long emprestimos;
+    private long devolvidos;
+    private double multas;
+
+    CelulaCubo(String periodo, Usuario.TipoUsuario tipoUsuario, String editora) {
+        this.periodo = periodo;
+        this.tipoUsuario = tipoUsuario;
+        this.editora = editora;
+    }
+
+    void somar(long emprestimos, long devolvidos, double multas) {
+        this.emprestimos += emprestimos;
+        this.devolvidos += devolvidos;
+        this.multas += multas;
+    }
+
+    /** @return ano (AAAA), mês (AAAA-MM) ou null, conforme o agrupamento */
+    public String getPeriodo() { return periodo; }
+
+    public Usuario.TipoUsuario getTipoUsuario() { return tipoUsuario; }
+
+    public String getEditora() { return editora; }
+
+    public long getEmprestimos() { return emprestimos; }
+
+    public long getDevolvidos() { return devolvidos; }
+
+    public double getMultas() { return multas; }
+}
@@ -0,0 +1,128 @@
+package com.bibliotech.service;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Coluna de números inteiros compactada para séries temporais.
+ *
+ * <p>Cada valor é gravado como a diferença para o anterior, em zigzag
+ * (diferenças negativas pequenas viram números positivos pequenos) e em
+ * varint (7 bits por byte). Instantes consecutivos e contadores que
+ * variam pouco ocupam tipicamente um byte por ponto. A coluna só aceita
+ * inclusões no fim; a leitura decodifica tudo de uma vez.</p>
+ *
+ * <p>Não é thread-safe; o acesso é sincronizado por quem a utiliza.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public class ColunaCompactada {
+
+    private byte[] bytes = new byte[64];
+    private int tamanhoBytes;
+    private int quantidade;
+    private long ultimo;
+
+    /**
+     * Inclui um valor no fim da coluna.
+     *
+     * @param valor o valor a incluir
+     */
+    public void adicionar(long valor) {
+        long delta = valor - ultimo;
+        long zigzag = (delta << 1) ^ (delta >> 63);
+        garantirEspaco(10);
+        while ((zigzag & ~0x7FL) != 0) {
+            bytes[tamanhoBytes++] = (byte) ((zigzag & 0x7F) | 0x80);
+            zigzag >>>= 7;
+        }
+        bytes[tamanhoBytes++] = (byte) zigzag;
+        ultimo = valor;
+        quantidade++;
+    }
+
+    /**
+     * @return todos os valores, na ordem de inclusão
+     */
+    public long[] valores() {
+        long[] valores = new long[quantidade];
+        long atual = 0;
+        int posicao = 0;
+        for (int i = 0; i < quantidade; i++) {
+            long zigzag = 0;
+            int deslocamento = 0;
+            byte b;
+            do {
+                b = bytes[posicao++];
+                zigzag |= (long) (b & 0x7F) << deslocamento;
+                deslocamento += 7;
+            } while (b < 0);
+            atual += (zigzag >>> 1) ^ -(zigzag & 1);
+            valores[i] = atual;
+        }
+        return valores;
+    }
+
+    /**
+     * @return o último valor incluído (0 se vazia)
+     */
+    public long ultimo() {
+        return ultimo;
+    }
+
+    /**
+     * @return quantidade de valores
+     */
+    public int tamanho() {
+        return quantidade;
+    }
+
+    /**
+     * @return bytes ocupados pelos valores codificados
+     */
+    public int tamanhoEmBytes() {
+        return tamanhoBytes;
+    }
+
+    /**
+     * Grava a coluna (quantidade, bytes codificados).
+     *
+     * @param saida o destino
+     * @throws IOException se a gravação falhar
+     */
+    public void gravar(DataOutput saida) throws IOException {
+        saida.writeInt(quantidade);
+        saida.writeInt(tamanhoBytes);
+        saida.write(bytes, 0, tamanhoBytes);
+    }
+
+    /**
+     * Lê uma coluna gravada por {@link #gravar}.
+     *
+     * @param entrada a origem
+     * @return a coluna lida
+     * @throws IOException se a leitura falhar
+     */
+    public static ColunaCompactada ler(DataInput entrada) throws IOException {
+        ColunaCompactada coluna = new ColunaCompactada();
+        int quantidade = entrada.readInt();
+        int tamanhoBytes = entrada.readInt();
+        coluna.bytes = new byte[Math.max(64, tamanhoBytes)];
+        entrada.readFully(coluna.bytes, 0, tamanhoBytes);
+        coluna.tamanhoBytes = tamanhoBytes;
+        coluna.quantidade = quantidade;
+        long[] valores = coluna.valores();
+        coluna.ultimo = quantidade > 0 ? valores[quantidade - 1] : 0;
+        return coluna;
+    }
+
+    private void garantirEspaco(int adicional) {
+        if (tamanhoBytes + adicional > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, tamanhoBytes + adicional));
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.bibliotech.service;
+
+import com.bibliotech.model.Usuario;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cópia colunar dos empréstimos para análises em memória.
+ *
+ * <p>Cada atributo fica em um vetor primitivo próprio, na ordem dos ids:
+ * usuário e livro como {@code long}, datas como dia epoch ({@code int}),
+ * multa como {@code double} e a situação em bits de um {@code byte}. O tipo
+ * de usuário é codificado por dicionário (um {@code byte} com o índice em
+ * {@link Usuario.TipoUsuario#values()}). Uma consulta percorre só os vetores
+ * que usa, em laços sem alocação por linha.</p>
+ *
+ * <p>Não é thread-safe: o {@link AnaliseEmprestimosService} serializa
+ * escritas e leituras.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public class ColunasEmprestimos {
+
+    /** Dia epoch gravado quando a data é nula. */
+    static final int SEM_DATA = Integer.MIN_VALUE;
+
+    /** Código gravado quando o tipo de usuário é nulo. */
+    static final byte SEM_TIPO = -1;
+
+    private static final Usuario.TipoUsuario[] DICIONARIO_TIPOS = Usuario.TipoUsuario.values();
+
+    private static final byte ATIVO = 1;
+
+    private long[] ids;
+    private long[] usuarioIds;
+    private long[] livroIds;
+    private byte[] tipos;
+    private int[] retiradas;
+    private int[] meses;
+    private int[] previstas;
+    private int[] devolucoes;
+    private double[] multas;
+    private byte[] situacoes;
+    private int tamanho;
+
+    public ColunasEmprestimos(int capacidade) {
+        int inicial = Math.max(16, capacidade);
+        ids = new long[inicial];
+        usuarioIds = new long[inicial];
+        livroIds = new long[inicial];
+        tipos = new byte[inicial];
+        retiradas = new int[inicial];
+        meses = new int[inicial];
+        previstas = new int[inicial];
+        devolucoes = new int[inicial];
+        multas = new double[inicial];
+        situacoes = new byte[inicial];
+    }
+
+    /**
+     * Inclui um empréstimo. Ids maiores que o último são anexados ao fim;
+     * um id menor (transação confirmada fora de ordem) é inserido na sua
+     * posição, deslocando apenas a cauda.
+     *
+     * @return false se o id já estava presente
+     */
+    boolean adicionar(long id, long usuarioId, long livroId, Usuario.TipoUsuario tipo,
+                      LocalDate retirada, LocalDate prevista, LocalDate devolucao,
+                      double multa, boolean ativo) {
+        int posicao = tamanho;
+        if (tamanho > 0 && id <= ids[tamanho - 1]) {
+            int busca = Arrays.binarySearch(ids, 0, tamanho, id);
+            if (busca >= 0) {
+                return false;
+            }
+            posicao = -busca - 1;
+        }
+        if (tamanho == ids.length) {
+            crescer();
+        }
+        if (posicao < tamanho) {
+            deslocar(posicao);
+        }
+
+        ids[posicao] = id;
+        usuarioIds[posicao] = usuarioId;
+        livroIds[posicao] = livroId;
+        tipos[posicao] = tipo != null ? (byte) tipo.ordinal() : SEM_TIPO;
+        retiradas[posicao] = diaEpoch(retirada);
+        meses[posicao] = retirada != null ? retirada.getYear() * 12 + retirada.getMonthValue() - 1 : SEM_DATA;
+        previstas[posicao] = diaEpoch(prevista);
+        devolucoes[posicao] = diaEpoch(devolucao);
+        multas[posicao] = multa;
+        situacoes[posicao] = ativo ? ATIVO : 0;
+        tamanho++;
+        return true;
+    }
+
+    /**
+     * Registra a devolução de um empréstimo já presente.
+     *
+     * @return false se o id não estiver na cópia
+     */
+    boolean registrarDevolucao(long id, LocalDate devolucao, double multa) {
+        int posicao = Arrays.binarySearch(ids, 0, tamanho, id);
+        if (posicao < 0) {
+            return false;
+        }
+        devolucoes[posicao] = diaEpoch(devolucao);
+        multas[posicao] = multa;
+        situacoes[posicao] = 0;
+        return true;
+    }
+
+    /** @return maior id presente, ou 0 se vazia */
+    public long ultimoId() {
+        return tamanho == 0 ? 0 : ids[tamanho - 1];
+    }
+
+    /** @return quantidade de empréstimos */
+    public int tamanho() {
+        return tamanho;
+    }
+
+    /** @return bytes ocupados pelos vetores, incluindo a folga de crescimento */
+    public long tamanhoEmBytes() {
+        // 4 vetores de long/double, 4 de int e 2 de byte por posição
+        return (long) ids.length * (4 * 8 + 4 * 4 + 2);
+    }
+
+    /**
+     * Executa uma consulta sobre as colunas.
+     *
+     * @param consulta filtros e agrupamento
+     * @param hoje data de referência para atrasos
+     * @return grupos ordenados por mês (agrupamento por mês) ou por
+     *         quantidade de empréstimos, decrescente
+     */
+    public List<GrupoAnalise> consultar(ConsultaAnalise consulta, LocalDate hoje) {
+        int de = consulta.getRetiradaDe() != null ? diaEpoch(consulta.getRetiradaDe()) : Integer.MIN_VALUE;
+        int ate = consulta.getRetiradaAte() != null ? diaEpoch(consulta.getRetiradaAte()) : Integer.MAX_VALUE;
+        boolean filtrarTipo = consulta.getTipoUsuario() != null;
+        byte tipo = filtrarTipo ? (byte) consulta.getTipoUsuario().ordinal() : SEM_TIPO;
+        boolean filtrarUsuario = consulta.getUsuarioId() != null;
+        long usuario = filtrarUsuario ? consulta.getUsuarioId() : 0;
+        boolean filtrarLivro = consulta.getLivroId() != null;
+        long livro = filtrarLivro ? consulta.getLivroId() : 0;
+        ConsultaAnalise.Situacao situacao = consulta.getSituacao();
+        ConsultaAnalise.Agrupamento agrupamento = consulta.getAgrupamento();
+        int diaHoje = diaEpoch(hoje);
+
+        Map<Long, GrupoAnalise> grupos = new HashMap<>();
+        GrupoAnalise ultimo = null;
+        long ultimaChave = Long.MIN_VALUE;
+
+        for (int i = 0; i < tamanho; i++) {
+            int retirada = retiradas[i];
+            if (retirada < de || retirada > ate) {
+                continue;
+            }
+            if ((filtrarTipo && tipos[i] != tipo)
+                    || (filtrarUsuario && usuarioIds[i] != usuario)
+                    || (filtrarLivro && livroIds[i] != livro)) {
+                continue;
+            }
+            boolean ativo = (situacoes[i] & ATIVO) != 0;
+            boolean atrasado = ativo && previstas[i] < diaHoje;
+            if ((situacao == ConsultaAnalise.Situacao.ATIVOS && !ativo)
+                    || (situacao == ConsultaAnalise.Situacao.DEVOLVIDOS && ativo)
+                    || (situacao == ConsultaAnalise.Situacao.ATRASADOS && !atrasado)) {
+                continue;
+            }
+
+            long chave = switch (agrupamento) {
+                case NENHUM -> 0;
+                case MES -> meses[i];
+                case TIPO_USUARIO -> tipos[i];
+                case USUARIO -> usuarioIds[i];
+                case LIVRO -> livroIds[i];
+            };
+            // Linhas vizinhas costumam cair no mesmo grupo (ids seguem a data)
+            GrupoAnalise grupo = chave == ultimaChave ? ultimo : grupos.get(chave);
+            if (grupo == null) {
+                grupo = new GrupoAnalise(rotulo(agrupamento, chave));
+                grupos.put(chave, grupo);
+            }
+            ultimo = grupo;
+            ultimaChave = chave;
+
+            int devolucao = devolucoes[i];
+            grupo.registrar(atrasado, devolucao != SEM_DATA, devolucao != SEM_DATA ? devolucao - retirada : 0, multas[i]);
+        }
+
+        List<GrupoAnalise> resultado = new ArrayList<>(grupos.values());
+        if (agrupamento == ConsultaAnalise.Agrupamento.MES) {
+            resultado.sort(Comparator.comparing(GrupoAnalise::getChave));
+        } else {
+            resultado.sort(Comparator.comparingLong(GrupoAnalise::getEmprestimos).reversed()
+                .thenComparing(GrupoAnalise::getChave));
+        }
+        if (consulta.getLimite() > 0 && resultado.size() > consulta.getLimite()) {
+            return new ArrayList<>(resultado.subList(0, consulta.getLimite()));
+        }
+        return resultado;
+    }
+
+    private static String rotulo(ConsultaAnalise.Agrupamento agrupamento, long chave) {
+        return switch (agrupamento) {
+            case NENHUM -> "TOTAL";
+            case MES -> chave == SEM_DATA ? "-" : YearMonth.of((int) (chave / 12), (int) (chave % 12) + 1).toString();
+            case TIPO_USUARIO -> chave == SEM_TIPO ? "-" : DICIONARIO_TIPOS[(int) chave].name();
+            case USUARIO, LIVRO -> Long.toString(chave);
+        };
+    }
+
+    private static int diaEpoch(LocalDate data) {
+        return data != null ? (int) data.toEpochDay() : SEM_DATA;
+    }
+
+    private void crescer() {
+        int capacidade = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacidade);
+        usuarioIds = Arrays.copyOf(usuarioIds, capacidade);
+        livroIds = Arrays.copyOf(livroIds, capacidade);
+        tipos = Arrays.copyOf(tipos, capacidade);
+        retiradas = Arrays.copyOf(retiradas, capacidade);
+        meses = Arrays.copyOf(meses, capacidade);
+        previstas = Arrays.copyOf(previstas, capacidade);
+        devolucoes = Arrays.copyOf(devolucoes, capacidade);
+        multas = Arrays.copyOf(multas, capacidade);
+        situacoes = Arrays.copyOf(situacoes, capacidade);
+    }
+
+    private void deslocar(int posicao) {
+        int cauda = tamanho - posicao;
+        System.arraycopy(ids, posicao, ids, posicao + 1, cauda);
+        System.arraycopy(usuarioIds, posicao, usuarioIds, posicao + 1, cauda);
+        System.arraycopy(livroIds, posicao, livroIds, posicao + 1, cauda);
+        System.arraycopy(tipos, posicao, tipos, posicao + 1, cauda);
+        System.arraycopy(retiradas, posicao, retiradas, posicao + 1, cauda);
+        System.arraycopy(meses, posicao, meses, posicao + 1, cauda);
+        System.arraycopy(previstas, posicao, previstas, posicao + 1, cauda);
+        System.arraycopy(devolucoes, posicao, devolucoes, posicao + 1, cauda);
+        System.arraycopy(multas, posicao, multas, posicao + 1, cauda);
+        System.arraycopy(situacoes, posicao, situacoes, posicao + 1, cauda);
+    }
+}
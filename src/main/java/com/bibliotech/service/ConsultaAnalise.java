@@ -0,0 +1,94 @@
+package com.bibliotech.service;
+
+import com.bibliotech.model.Usuario;
+import java.time.LocalDate;
+
+/**
+ * Filtros e agrupamento de uma consulta à cópia colunar de empréstimos.
+ *
+ * <p>Filtros não informados não restringem o resultado. Exemplo:
+ * {@code new ConsultaAnalise().retiradosEntre(de, ate).doTipo(ALUNO).agruparPor(Agrupamento.MES)}.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public class ConsultaAnalise {
+
+    /**
+     * Situação do empréstimo na data de referência.
+     */
+    public enum Situacao {
+        TODOS, ATIVOS, DEVOLVIDOS, ATRASADOS
+    }
+
+    /**
+     * Dimensão de agrupamento do resultado.
+     */
+    public enum Agrupamento {
+        NENHUM, MES, TIPO_USUARIO, USUARIO, LIVRO
+    }
+
+    private LocalDate retiradaDe;
+    private LocalDate retiradaAte;
+    private Usuario.TipoUsuario tipoUsuario;
+    private Long usuarioId;
+    private Long livroId;
+    private Situacao situacao = Situacao.TODOS;
+    private Agrupamento agrupamento = Agrupamento.NENHUM;
+    private int limite;
+
+    /** Empréstimos retirados entre as datas, inclusive; null deixa o lado aberto. */
+    public ConsultaAnalise retiradosEntre(LocalDate de, LocalDate ate) {
+        this.retiradaDe = de;
+        this.retiradaAte = ate;
+        return this;
+    }
+
+    public ConsultaAnalise doTipo(Usuario.TipoUsuario tipoUsuario) {
+        this.tipoUsuario = tipoUsuario;
+        return this;
+    }
+
+    public ConsultaAnalise doUsuario(Long usuarioId) {
+        this.usuarioId = usuarioId;
+        return this;
+    }
+
+    public ConsultaAnalise doLivro(Long livroId) {
+        this.livroId = livroId;
+        return this;
+    }
+
+    public ConsultaAnalise naSituacao(Situacao situacao) {
+        this.situacao = situacao != null ? situacao : Situacao.TODOS;
+        return this;
+    }
+
+    public ConsultaAnalise agruparPor(Agrupamento agrupamento) {
+        this.agrupamento = agrupamento != null ? agrupamento : Agrupamento.NENHUM;
+        return this;
+    }
+
+    /** Quantidade máxima de grupos retornados; 0 para todos. */
+    public ConsultaAnalise limitar(int limite) {
+        this.limite = Math.max(0, limite);
+        return this;
+    }
+
+    public LocalDate getRetiradaDe() { return retiradaDe; }
+
+    public LocalDate getRetiradaAte() { return retiradaAte; }
+
+    public Usuario.TipoUsuario getTipoUsuario() { return tipoUsuario; }
+
+    public Long getUsuarioId() { return usuarioId; }
+
+    public Long getLivroId() { return livroId; }
+
+    public Situacao getSituacao() { return situacao; }
+
+    public Agrupamento getAgrupamento() { return agrupamento; }
+
+    public int getLimite() { return limite; }
+}
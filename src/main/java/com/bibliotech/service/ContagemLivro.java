@@ -0,0 +1,33 @@
+package com.bibliotech.service;
+
+import java.util.Comparator;
+
+/**
+ * Par (livro, quantidade de empréstimos) usado pelos rankings de popularidade.
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public class ContagemLivro {
+
+    /**
+     * Ordem crescente de popularidade: o primeiro elemento é o mais fraco.
+     * Em caso de empate, o livro de menor id é considerado mais popular.
+     */
+    public static final Comparator<ContagemLivro> ORDEM_POPULARIDADE = Comparator
+        .comparingLong(ContagemLivro::getTotal)
+        .thenComparing(ContagemLivro::getLivroId, Comparator.reverseOrder());
+
+    private final Long livroId;
+    private final long total;
+
+    public ContagemLivro(Long livroId, long total) {
+        this.livroId = livroId;
+        this.total = total;
+    }
+
+    public Long getLivroId() { return livroId; }
+
+    public long getTotal() { return total; }
+}
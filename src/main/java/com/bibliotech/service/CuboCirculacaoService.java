@@ -0,0 +1,276 @@
+package com.bibliotech.service;
+
+import com.bibliotech.event.EmprestimoDevolvidoEvent;
+import com.bibliotech.event.EmprestimoRealizadoEvent;
+import com.bibliotech.model.Emprestimo;
+import com.bibliotech.model.Usuario;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cubo de circulação pré-agregado por mês × tipo de usuário × editora.
+ *
+ * <p>Cada célula guarda empréstimos, devoluções e multas pagas dos
+ * empréstimos retirados naquele mês, por usuários daquele tipo, de livros
+ * daquela editora. As células ficam na tabela {@code circulacao_mensal},
+ * preenchida uma única vez pela migração V4 e atualizada dentro da
+ * transação de cada retirada e devolução do {@link EmprestimoService}
+ * (antes do commit, para que a linha da célula fique bloqueada só até
+ * ele) e de cada lote do {@link ExpurgoUsuariosService}. A tabela é a
+ * mesma para todas as instâncias, e nada precisa ser montado na
+ * inicialização.</p>
+ *
+ * <p>Mudanças que não passam por essas operações, como a troca de editora
+ * de um livro ou de tipo de um usuário, são incorporadas pela reagregação
+ * diária ({@code bibliotech.cubo.reconstrucao-cron}), que recalcula só os
+ * últimos {@code bibliotech.cubo.meses-reagregados} meses com o índice de
+ * datas de retirada. Meses mais antigos mantêm a editora e o tipo da época
+ * da retirada; {@link #reagregar(YearMonth)} recalcula qualquer período
+ * sob demanda.</p>
+ *
+ * <p>As consultas somam apenas as células (alguns milhares), em qualquer
+ * nível: ano, mês, tipo de usuário, editora ou suas combinações, o que
+ * permite navegar do total anual até uma editora em um mês.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+public class CuboCirculacaoService {
+
+    /**
+     * Dimensões disponíveis para agrupamento. ANO e MES são níveis da
+     * mesma hierarquia de tempo; se ambos forem pedidos, vale MES.
+     */
+    public enum Dimensao {
+        ANO, MES, TIPO_USUARIO, EDITORA
+    }
+
+    private static final Comparator<CelulaCubo> ORDEM = Comparator
+        .comparing(CelulaCubo::getPeriodo, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+        .thenComparing(CelulaCubo::getTipoUsuario, Comparator.nullsFirst(Comparator.<Usuario.TipoUsuario>naturalOrder()))
+        .thenComparing(CelulaCubo::getEditora, Comparator.nullsFirst(Comparator.<String>naturalOrder()));
+
+    // Mesma normalização de editora de editora(String), feita no banco
+    private static final String EDITORA_SQL =
+        "COALESCE(NULLIF(TRIM(l.editora), ''), '" + RelatorioCirculacao.SEM_EDITORA + "')";
+
+    private static final String SQL_SOMAR =
+        "UPDATE circulacao_mensal SET emprestimos = emprestimos + :emprestimos, "
+        + "devolvidos = devolvidos + :devolvidos, multas = multas + :multas "
+        + "WHERE ano = :ano AND mes = :mes AND tipo_usuario = :tipo AND editora = :editora";
+
+    private static final String SQL_INSERIR =
+        "INSERT INTO circulacao_mensal (ano, mes, tipo_usuario, editora, emprestimos, devolvidos, multas) "
+        + "VALUES (:ano, :mes, :tipo, :editora, :emprestimos, :devolvidos, :multas)";
+
+    private static final String SQL_CELULAS =
+        "SELECT ano, mes, tipo_usuario, editora, emprestimos, devolvidos, multas FROM circulacao_mensal "
+        + "WHERE ano * 100 + mes BETWEEN :de AND :ate";
+
+    private static final String SQL_AGREGAR =
+        "SELECT YEAR(e.data_emprestimo) AS ano, MONTH(e.data_emprestimo) AS mes, u.tipo AS tipo_usuario, "
+        + EDITORA_SQL + " AS editora, COUNT(*) AS emprestimos, "
+        + "SUM(CASE WHEN e.ativo THEN 0 ELSE 1 END) AS devolvidos, "
+        + "SUM(CASE WHEN e.ativo THEN 0.0 ELSE COALESCE(e.multa, 0.0) END) AS multas "
+        + "FROM emprestimos e JOIN usuarios u ON u.id = e.usuario_id JOIN livros l ON l.id = e.livro_id ";
+
+    private static final String SQL_AGRUPAR =
+        " GROUP BY YEAR(e.data_emprestimo), MONTH(e.data_emprestimo), u.tipo, " + EDITORA_SQL;
+
+    private static final String SQL_REMOVER_DESDE =
+        "DELETE FROM circulacao_mensal WHERE ano > :ano OR (ano = :ano AND mes >= :mes)";
+
+    private static final String SQL_REAGREGAR_DESDE =
+        "INSERT INTO circulacao_mensal (ano, mes, tipo_usuario, editora, emprestimos, devolvidos, multas) "
+        + SQL_AGREGAR + "WHERE e.data_emprestimo >= :inicio" + SQL_AGRUPAR;
+
+    private static final String SQL_AGREGAR_IDS = SQL_AGREGAR + "WHERE e.id IN (:ids)" + SQL_AGRUPAR;
+
+    private static final String SQL_TAMANHO = "SELECT COUNT(*) FROM circulacao_mensal";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Value("${bibliotech.cubo.meses-reagregados:3}")
+    private int mesesReagregados = 3;
+
+    /**
+     * Recalcula os meses recentes a partir dos empréstimos, incorporando
+     * trocas de editora ou de tipo de usuário.
+     */
+    @Scheduled(cron = "${bibliotech.cubo.reconstrucao-cron:0 20 4 * * *}")
+    @Transactional
+    public void reagregarRecentes() {
+        reagregarDesde(YearMonth.now().minusMonths(Math.max(mesesReagregados - 1, 0)));
+    }
+
+    /**
+     * Recalcula as células a partir do mês informado, lendo só os
+     * empréstimos retirados desde então.
+     *
+     * @param desde primeiro mês recalculado
+     */
+    @Transactional
+    public void reagregar(YearMonth desde) {
+        reagregarDesde(desde);
+    }
+
+    private void reagregarDesde(YearMonth desde) {
+        jdbcTemplate.update(SQL_REMOVER_DESDE, new MapSqlParameterSource()
+            .addValue("ano", desde.getYear())
+            .addValue("mes", desde.getMonthValue()));
+        jdbcTemplate.update(SQL_REAGREGAR_DESDE, new MapSqlParameterSource("inicio", desde.atDay(1)));
+    }
+
+    /**
+     * Desconta das células os empréstimos que serão removidos. Deve rodar
+     * na mesma transação da remoção.
+     *
+     * @param ids os empréstimos a remover
+     */
+    public void descontar(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        for (Map<String, Object> linha : jdbcTemplate.queryForList(SQL_AGREGAR_IDS,
+                new MapSqlParameterSource("ids", ids))) {
+            somar(((Number) linha.get("ano")).intValue(), ((Number) linha.get("mes")).intValue(),
+                (String) linha.get("tipo_usuario"), (String) linha.get("editora"),
+                -((Number) linha.get("emprestimos")).longValue(),
+                -((Number) linha.get("devolvidos")).longValue(),
+                -((Number) linha.get("multas")).doubleValue());
+        }
+    }
+
+    /**
+     * Soma o novo empréstimo à célula do mês da retirada, na transação da
+     * retirada.
+     *
+     * @param evento evento publicado pelo EmprestimoService
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void aoRealizarEmprestimo(EmprestimoRealizadoEvent evento) {
+        registrar(evento.getEmprestimo(), 1, 0, 0.0);
+    }
+
+    /**
+     * Soma a devolução e a multa à célula do mês da retirada, na transação
+     * da devolução.
+     *
+     * @param evento evento publicado pelo EmprestimoService
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void aoDevolverEmprestimo(EmprestimoDevolvidoEvent evento) {
+        Emprestimo emprestimo = evento.getEmprestimo();
+        registrar(emprestimo, 0, 1, emprestimo.getMulta() != null ? emprestimo.getMulta() : 0.0);
+    }
+
+    private void registrar(Emprestimo emprestimo, long emprestimos, long devolvidos, double multas) {
+        LocalDate retirada = emprestimo.getDataEmprestimo();
+        if (retirada == null || emprestimo.getUsuario() == null || emprestimo.getLivro() == null) {
+            return;
+        }
+        somar(retirada.getYear(), retirada.getMonthValue(), emprestimo.getUsuario().getTipo().name(),
+            editora(emprestimo.getLivro().getEditora()), emprestimos, devolvidos, multas);
+    }
+
+    /**
+     * Soma os valores à célula, criando-a se preciso. Se outra transação
+     * criar a mesma célula ao mesmo tempo, a inserção falha por chave
+     * duplicada e a soma é refeita sobre a linha criada por ela.
+     */
+    private void somar(int ano, int mes, String tipo, String editora,
+                       long emprestimos, long devolvidos, double multas) {
+        MapSqlParameterSource parametros = new MapSqlParameterSource()
+            .addValue("ano", ano)
+            .addValue("mes", mes)
+            .addValue("tipo", tipo)
+            .addValue("editora", editora)
+            .addValue("emprestimos", emprestimos)
+            .addValue("devolvidos", devolvidos)
+            .addValue("multas", multas);
+        if (jdbcTemplate.update(SQL_SOMAR, parametros) > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(SQL_INSERIR, parametros);
+        } catch (DuplicateKeyException e) {
+            jdbcTemplate.update(SQL_SOMAR, parametros);
+        }
+    }
+
+    /**
+     * Consulta o cubo agregando nas dimensões pedidas.
+     *
+     * @param de primeiro mês (inclusive), ou null
+     * @param ate último mês (inclusive), ou null
+     * @param tipo filtra um tipo de usuário, ou null para todos
+     * @param editora filtra uma editora, ou null para todas
+     * @param dimensoes dimensões de agrupamento; vazio retorna só o total
+     * @return uma linha por combinação das dimensões pedidas, ordenada
+     */
+    public List<CelulaCubo> consultar(YearMonth de, YearMonth ate, Usuario.TipoUsuario tipo,
+                                      String editora, Set<Dimensao> dimensoes) {
+        boolean porMes = dimensoes.contains(Dimensao.MES);
+        boolean porAno = !porMes && dimensoes.contains(Dimensao.ANO);
+        boolean porTipo = dimensoes.contains(Dimensao.TIPO_USUARIO);
+        boolean porEditora = dimensoes.contains(Dimensao.EDITORA);
+        String editoraFiltro = editora != null ? editora(editora) : null;
+
+        MapSqlParameterSource parametros = new MapSqlParameterSource()
+            .addValue("de", de != null ? de.getYear() * 100 + de.getMonthValue() : 0)
+            .addValue("ate", ate != null ? ate.getYear() * 100 + ate.getMonthValue() : Integer.MAX_VALUE);
+
+        Map<List<Object>, CelulaCubo> resultado = new HashMap<>();
+        jdbcTemplate.query(SQL_CELULAS, parametros, linha -> {
+            Usuario.TipoUsuario tipoCelula = Usuario.TipoUsuario.valueOf(linha.getString("tipo_usuario"));
+            String editoraCelula = linha.getString("editora");
+            if ((tipo != null && tipoCelula != tipo)
+                    || (editoraFiltro != null && !editoraCelula.equals(editoraFiltro))) {
+                return;
+            }
+            YearMonth mes = YearMonth.of(linha.getInt("ano"), linha.getInt("mes"));
+            String periodo = porMes ? mes.toString()
+                : porAno ? Integer.toString(mes.getYear()) : null;
+            Usuario.TipoUsuario tipoGrupo = porTipo ? tipoCelula : null;
+            String editoraGrupo = porEditora ? editoraCelula : null;
+
+            resultado.computeIfAbsent(Arrays.asList(periodo, tipoGrupo, editoraGrupo),
+                    k -> new CelulaCubo(periodo, tipoGrupo, editoraGrupo))
+                .somar(linha.getLong("emprestimos"), linha.getLong("devolvidos"), linha.getDouble("multas"));
+        });
+
+        List<CelulaCubo> linhas = new ArrayList<>(resultado.values());
+        linhas.sort(ORDEM);
+        return linhas;
+    }
+
+    /** @return quantidade de células preenchidas */
+    public int getTamanho() {
+        Integer tamanho = jdbcTemplate.getJdbcTemplate().queryForObject(SQL_TAMANHO, Integer.class);
+        return tamanho != null ? tamanho : 0;
+    }
+
+    private static String editora(String editora) {
+        return editora == null || editora.isBlank() ? RelatorioCirculacao.SEM_EDITORA : editora.trim();
+    }
+}
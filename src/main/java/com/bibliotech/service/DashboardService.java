@@ -1,14 +1,19 @@
 package com.bibliotech.service;
 
 import com.bibliotech.model.Emprestimo;
+import com.bibliotech.model.Livro;
 import com.bibliotech.repository.EmprestimoRepository;
+import com.bibliotech.repository.EstatisticasGerais;
 import com.bibliotech.repository.LivroRepository;
-import com.bibliotech.repository.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Serviço responsável por fornecer dados estatísticos para o dashboard.
@@ -17,6 +22,10 @@ import java.util.Map;
  * apresentar uma visão geral das operações da biblioteca, incluindo
  * totais de livros, usuários, empréstimos e outras métricas relevantes.</p>
  * 
+ * <p>Estatísticas, ranking e atrasados passam pelo cache com validade
+ * (ver {@code CacheConfig}): quando uma entrada vence, uma única thread
+ * recalcula enquanto as demais recebem o valor anterior.</p>
+ * 
  * @author BiblioTech Team
  * @version 1.0
  * @since 2025
@@ -24,14 +33,26 @@ import java.util.Map;
 @Service
 public class DashboardService {
 
+    static final String CACHE_ESTATISTICAS = "estatisticasDashboard";
+
+    static final String CACHE_MAIS_EMPRESTADOS = "livrosMaisEmprestados";
+
+    static final String CACHE_ATRASADOS = "emprestimosAtrasados";
+
     @Autowired
     private LivroRepository livroRepository;
 
     @Autowired
-    private UsuarioRepository usuarioRepository;
+    private EmprestimoRepository emprestimoRepository;
+
+    @Autowired
+    private RankingService rankingService;
 
     @Autowired
-    private EmprestimoRepository emprestimoRepository;
+    private PopularidadeService popularidadeService;
+
+    @Autowired
+    private MetricasService metricasService;
 
     /**
      * Obtém as estatísticas gerais do sistema para exibição no dashboard.
@@ -45,27 +66,21 @@ public class DashboardService {
      *   <li><strong>emprestimosAtrasados:</strong> quantidade de empréstimos vencidos</li>
      * </ul>
      * 
+     * <p>Os totais vêm dos contadores em memória do {@link MetricasService},
+     * sem consultar o banco.</p>
+     * 
      * @return mapa contendo as estatísticas do sistema
      */
+    @Cacheable(cacheNames = CACHE_ESTATISTICAS, sync = true)
     public Map<String, Object> obterEstatisticas() {
-        Map<String, Object> estatisticas = new HashMap<>();
-
-        long totalLivros = livroRepository.count();
-        estatisticas.put("totalLivros", totalLivros);
-
-        long totalUsuarios = usuarioRepository.findByAtivoTrue().size();
-        estatisticas.put("totalUsuarios", totalUsuarios);
-
-        long emprestimosAtivos = emprestimoRepository.count();
-        estatisticas.put("emprestimosAtivos", emprestimosAtivos);
+        EstatisticasGerais totais = metricasService.obterTotais();
 
-        long livrosDisponiveis = 
-            livroRepository.findByQuantidadeDisponivelGreaterThan(0).size();
-        estatisticas.put("livrosDisponiveis", livrosDisponiveis);
-
-        long emprestimosAtrasados = 
-            emprestimoRepository.findEmprestimosAtrasados().size();
-        estatisticas.put("emprestimosAtrasados", emprestimosAtrasados);
+        Map<String, Object> estatisticas = new HashMap<>();
+        estatisticas.put("totalLivros", totais.getTotalLivros());
+        estatisticas.put("totalUsuarios", totais.getTotalUsuarios());
+        estatisticas.put("emprestimosAtivos", totais.getEmprestimosAtivos());
+        estatisticas.put("livrosDisponiveis", totais.getLivrosDisponiveis());
+        estatisticas.put("emprestimosAtrasados", totais.getEmprestimosAtrasados());
 
         return estatisticas;
     }
@@ -74,12 +89,66 @@ public class DashboardService {
      * Obtém a lista dos livros mais emprestados do sistema.
      * 
      * <p>Retorna uma lista ordenada decrescente por quantidade de empréstimos,
-     * útil para análise de popularidade dos livros.</p>
+     * útil para análise de popularidade dos livros. Os dados vêm do ranking
+     * mantido incrementalmente pelo {@link RankingService}, sem agregar a
+     * tabela de empréstimos.</p>
      * 
      * @return lista de arrays onde cada array contém [Livro, quantidade]
      */
+    @Cacheable(cacheNames = CACHE_MAIS_EMPRESTADOS, sync = true)
     public List<Object[]> obterLivrosMaisEmprestados() {
-        return emprestimoRepository.findLivrosMaisEmprestados();
+        return obterLivrosMaisEmprestados(rankingService.getCapacidade());
+    }
+
+    /**
+     * Obtém os N livros mais emprestados do sistema.
+     * 
+     * <p>Não passa pelo cache; o ranking completo em cache é o de
+     * {@link #obterLivrosMaisEmprestados()}.</p>
+     * 
+     * @param limite quantidade máxima de livros retornados
+     * @return lista de arrays onde cada array contém [Livro, quantidade]
+     */
+    public List<Object[]> obterLivrosMaisEmprestados(int limite) {
+        return carregarLivros(rankingService.obterTopo(limite));
+    }
+
+    /**
+     * Obtém os N livros mais emprestados nos últimos dias (prateleira "em alta").
+     * 
+     * <p>Respondido a partir dos contadores diários em memória do
+     * {@link PopularidadeService}.</p>
+     * 
+     * @param dias tamanho da janela: 7, 30 ou 365 dias
+     * @param limite quantidade máxima de livros retornados
+     * @return lista de arrays onde cada array contém [Livro, quantidade]
+     * @throws IllegalArgumentException se a janela não for suportada
+     */
+    public List<Object[]> obterLivrosEmAlta(int dias, int limite) {
+        PopularidadeService.Janela janela = PopularidadeService.Janela.deDias(dias);
+        return carregarLivros(popularidadeService.obterTopo(janela, limite));
+    }
+
+    /**
+     * Converte contagens de ranking em pares [Livro, quantidade], na mesma
+     * ordem, com uma única consulta por id. Livros excluídos são ignorados.
+     */
+    private List<Object[]> carregarLivros(List<ContagemLivro> contagens) {
+        List<Long> ids = contagens.stream()
+            .map(ContagemLivro::getLivroId)
+            .collect(Collectors.toList());
+
+        Map<Long, Livro> livros = livroRepository.findAllById(ids).stream()
+            .collect(Collectors.toMap(Livro::getId, Function.identity()));
+
+        List<Object[]> resultado = new ArrayList<>(contagens.size());
+        for (ContagemLivro contagem : contagens) {
+            Livro livro = livros.get(contagem.getLivroId());
+            if (livro != null) {
+                resultado.add(new Object[] { livro, contagem.getTotal() });
+            }
+        }
+        return resultado;
     }
 
     /**
@@ -89,6 +158,7 @@ public class DashboardService {
      * 
      * @return lista de empréstimos com devolução em atraso
      */
+    @Cacheable(cacheNames = CACHE_ATRASADOS, sync = true)
     public List<Emprestimo> obterEmprestimosAtrasados() {
         return emprestimoRepository.findEmprestimosAtrasados();
     }
@@ -1,11 +1,20 @@
 package com.bibliotech.service;
 
+import com.bibliotech.event.EmprestimoDevolvidoEvent;
+import com.bibliotech.event.EmprestimoRealizadoEvent;
 import com.bibliotech.model.Emprestimo;
 import com.bibliotech.model.Livro;
 import com.bibliotech.model.Usuario;
 import com.bibliotech.repository.EmprestimoRepository;
+import com.bibliotech.repository.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
@@ -25,6 +34,24 @@ import java.util.Optional;
  *   <li>Apenas livros disponíveis podem ser emprestados</li>
  * </ul>
  * 
+ * <p><strong>Concorrência:</strong> retiradas e devoluções rodam em uma
+ * transação e dependem do controle otimista de versão de {@link Livro} e
+ * {@link Emprestimo}. A verificação de versão está sempre ativa (as colunas
+ * {@code @Version} não são configuráveis). O que é opcional é a repetição:
+ * em caso de conflito, a operação inteira é repetida em nova transação,
+ * com espera exponencial aleatorizada, até
+ * {@code bibliotech.emprestimo.tentativas} vezes. Com {@code tentativas=1}
+ * não há repetição e o conflito chega ao chamador como
+ * {@link ConcurrencyFailureException}.</p>
+ * 
+ * <p>Além disso, cada retirada bloqueia a linha do usuário
+ * ({@code PESSIMISTIC_WRITE}, via {@code findComBloqueioById}), de modo
+ * que retiradas do mesmo usuário são serializadas. O bloqueio é o que
+ * permite a {@link UsuarioService#excluir(Long)}, que bloqueia a mesma
+ * linha, ver empréstimos gravados por retiradas concorrentes e recusar a
+ * exclusão em vez de deixá-los apontando para um usuário anonimizado.
+ * Retiradas de usuários diferentes não disputam esse bloqueio.</p>
+ * 
  * @author BiblioTech Team
  * @version 1.0
  * @since 2025
@@ -38,28 +65,75 @@ public class EmprestimoService {
     @Autowired
     private LivroService livroService;
 
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Tamanho máximo de página aceito na listagem paginada.
+     */
+    public static final int TAMANHO_MAXIMO_PAGINA = 100;
+
+    /**
+     * Cursor inicial: posicionado depois de qualquer empréstimo possível.
+     */
+    private static final LocalDate CURSOR_DATA_INICIAL = LocalDate.of(9999, 12, 31);
+
     /**
      * Realiza um novo empréstimo de livro para um usuário.
      * 
      * <p>Cria um registro de empréstimo com a data atual como data de
      * empréstimo e calcula automaticamente a data de devolução prevista.
-     * Após criar o empréstimo, decrementa a quantidade disponível do livro.</p>
+     * Após criar o empréstimo, decrementa a quantidade disponível do livro
+     * e publica um {@link EmprestimoRealizadoEvent}.</p>
+     * 
+     * <p>O livro é relido dentro da transação, pois a instância recebida
+     * pode estar desatualizada em relação a outras retiradas simultâneas.
+     * O usuário também é relido, com a linha bloqueada até o fim da
+     * transação, para recusar quem foi excluído e para que uma exclusão
+     * concorrente enxergue o novo empréstimo.</p>
      * 
      * @param usuario o usuário que está realizando o empréstimo
      * @param livro o livro a ser emprestado
      * @return o empréstimo criado e salvo no banco de dados
-     * @throws RuntimeException se o livro não estiver disponível
+     * @throws RuntimeException se o usuário não for encontrado ou tiver sido
+     *         excluído, ou se o livro não for encontrado ou não estiver disponível
      */
+    @Retryable(retryFor = ConcurrencyFailureException.class,
+               maxAttemptsExpression = "${bibliotech.emprestimo.tentativas:5}",
+               backoff = @Backoff(delayExpression = "${bibliotech.emprestimo.espera-ms:10}",
+                                  maxDelayExpression = "${bibliotech.emprestimo.espera-maxima-ms:200}",
+                                  multiplier = 2, random = true))
+    @Transactional
     public Emprestimo realizarEmprestimo(Usuario usuario, Livro livro) {
+        Usuario leitor = usuarioRepository.findComBloqueioById(usuario.getId())
+            .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
+
+        if (leitor.getExcluidoEm() != null) {
+            throw new RuntimeException("Usuário excluído não pode realizar empréstimos");
+        }
+
+        Livro atual = livroService.buscarPorId(livro.getId())
+            .orElseThrow(() -> new RuntimeException("Livro não encontrado"));
+
+        if (!atual.isDisponivel()) {
+            throw new RuntimeException("Livro indisponível para empréstimo");
+        }
+
         LocalDate dataEmprestimo = LocalDate.now();
         LocalDate dataDevolucao = calcularDataDevolucao(dataEmprestimo);
 
         Emprestimo emprestimo = new Emprestimo(
-            usuario, livro, dataEmprestimo, dataDevolucao);
+            leitor, atual, dataEmprestimo, dataDevolucao);
         emprestimo = emprestimoRepository.save(emprestimo);
 
-        livroService.decrementarDisponibilidade(livro);
+        livroService.decrementarDisponibilidade(atual);
 
+        // Grava já a nova versão do livro, copiada pelo evento
+        emprestimoRepository.flush();
+        eventPublisher.publishEvent(new EmprestimoRealizadoEvent(emprestimo));
         return emprestimo;
     }
 
@@ -112,14 +186,21 @@ public class EmprestimoService {
      * Registra a devolução de um livro emprestado.
      * 
      * <p>Define a data de devolução real como a data atual, calcula
-     * a multa (se houver), marca o empréstimo como inativo e incrementa
-     * a quantidade disponível do livro.</p>
+     * a multa (se houver), marca o empréstimo como inativo, incrementa
+     * a quantidade disponível do livro e publica um
+     * {@link EmprestimoDevolvidoEvent}.</p>
      * 
      * @param emprestimoId o identificador do empréstimo
      * @return o empréstimo atualizado com os dados da devolução
      * @throws RuntimeException se o empréstimo não for encontrado ou
      *         se já tiver sido devolvido anteriormente
      */
+    @Retryable(retryFor = ConcurrencyFailureException.class,
+               maxAttemptsExpression = "${bibliotech.emprestimo.tentativas:5}",
+               backoff = @Backoff(delayExpression = "${bibliotech.emprestimo.espera-ms:10}",
+                                  maxDelayExpression = "${bibliotech.emprestimo.espera-maxima-ms:200}",
+                                  multiplier = 2, random = true))
+    @Transactional
     public Emprestimo registrarDevolucao(Long emprestimoId) {
         Emprestimo emprestimo = emprestimoRepository.findById(emprestimoId)
             .orElseThrow(() -> new RuntimeException("Empréstimo não encontrado"));
@@ -136,7 +217,10 @@ public class EmprestimoService {
 
         livroService.incrementarDisponibilidade(emprestimo.getLivro());
 
-        return emprestimoRepository.save(emprestimo);
+        emprestimo = emprestimoRepository.save(emprestimo);
+        emprestimoRepository.flush();
+        eventPublisher.publishEvent(new EmprestimoDevolvidoEvent(emprestimo));
+        return emprestimo;
     }
 
     /**
@@ -148,6 +232,75 @@ public class EmprestimoService {
         return emprestimoRepository.findAll();
     }
 
+    /**
+     * Retorna uma página de empréstimos usando paginação keyset.
+     *
+     * <p>Os empréstimos são ordenados do mais recente para o mais antigo
+     * por (dataEmprestimo, id). Usuário e livro são carregados na mesma
+     * consulta, de modo que a renderização da listagem não dispara
+     * consultas adicionais por linha.</p>
+     *
+     * @param filtro "ativos", "atrasados" ou null para todos
+     * @param cursorData data do último item da página anterior (null na primeira página)
+     * @param cursorId id do último item da página anterior (null na primeira página)
+     * @param tamanho quantidade de itens por página (limitada a {@value #TAMANHO_MAXIMO_PAGINA})
+     * @return a página de empréstimos e a indicação de existência de próxima página
+     */
+    public PaginaEmprestimos listarPagina(String filtro, LocalDate cursorData,
+                                          Long cursorId, int tamanho) {
+        int limite = limitarTamanho(tamanho);
+        LocalDate data = cursorData != null ? cursorData : CURSOR_DATA_INICIAL;
+        Long id = cursorId != null ? cursorId : Long.MAX_VALUE;
+
+        // Busca um item a mais para saber se existe próxima página
+        Limit consulta = Limit.of(limite + 1);
+        List<Emprestimo> itens;
+
+        if ("ativos".equals(filtro)) {
+            itens = emprestimoRepository.findPaginaAtivosApos(data, id, consulta);
+        } else if ("atrasados".equals(filtro)) {
+            itens = emprestimoRepository.findPaginaAtrasadosApos(data, id, consulta);
+        } else {
+            itens = emprestimoRepository.findPaginaApos(data, id, consulta);
+        }
+
+        return montarPagina(itens, limite);
+    }
+
+    /**
+     * Retorna uma página do histórico de empréstimos de um usuário,
+     * do mais recente para o mais antigo.
+     *
+     * @param usuarioId o identificador do usuário
+     * @param cursorData data do último item da página anterior (null na primeira página)
+     * @param cursorId id do último item da página anterior (null na primeira página)
+     * @param tamanho quantidade de itens por página (limitada a {@value #TAMANHO_MAXIMO_PAGINA})
+     * @return a página do histórico
+     */
+    public PaginaEmprestimos listarPaginaPorUsuario(Long usuarioId, LocalDate cursorData,
+                                                    Long cursorId, int tamanho) {
+        int limite = limitarTamanho(tamanho);
+        LocalDate data = cursorData != null ? cursorData : CURSOR_DATA_INICIAL;
+        Long id = cursorId != null ? cursorId : Long.MAX_VALUE;
+
+        List<Emprestimo> itens = emprestimoRepository.findPaginaPorUsuarioApos(
+            usuarioId, data, id, Limit.of(limite + 1));
+
+        return montarPagina(itens, limite);
+    }
+
+    private int limitarTamanho(int tamanho) {
+        return Math.max(1, Math.min(tamanho, TAMANHO_MAXIMO_PAGINA));
+    }
+
+    private PaginaEmprestimos montarPagina(List<Emprestimo> itens, int limite) {
+        boolean temProxima = itens.size() > limite;
+        if (temProxima) {
+            itens = itens.subList(0, limite);
+        }
+        return new PaginaEmprestimos(itens, temProxima);
+    }
+
     /**
      * Retorna apenas os empréstimos ativos (não devolvidos).
      * 
@@ -207,4 +360,12 @@ public class EmprestimoService {
 		this.livroService = livroService2;
 		
 	}
+
+	public void setUsuarioRepository(UsuarioRepository usuarioRepository) {
+		this.usuarioRepository = usuarioRepository;
+	}
+
+	public void setEventPublisher(ApplicationEventPublisher eventPublisher) {
+		this.eventPublisher = eventPublisher;
+	}
 }
@@ -0,0 +1,100 @@
+package com.bibliotech.service;
+
+import com.bibliotech.repository.EmprestimoRepository;
+import com.bibliotech.repository.UsuarioRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Expurgo em segundo plano do histórico de usuários excluídos.
+ *
+ * <p>A exclusão de um usuário apenas o anonimiza (ver
+ * {@link UsuarioService#excluir}). Passado o prazo de retenção, este
+ * serviço remove os empréstimos desses usuários em lotes de
+ * {@code bibliotech.expurgo.lote} ids, cada lote em sua própria transação
+ * curta, junto com o desconto dos empréstimos removidos no cubo de
+ * circulação, e por fim remove os próprios usuários. Nenhuma transação longa
+ * fica segurando bloqueios, e uma execução interrompida é retomada pela
+ * seguinte.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+public class ExpurgoUsuariosService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpurgoUsuariosService.class);
+
+    @Autowired
+    private EmprestimoRepository emprestimoRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private CuboCirculacaoService cuboCirculacaoService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${bibliotech.expurgo.habilitado:true}")
+    private boolean habilitado = true;
+
+    @Value("${bibliotech.expurgo.retencao-dias:30}")
+    private int retencaoDias = 30;
+
+    @Value("${bibliotech.expurgo.lote:500}")
+    private int tamanhoLote = 500;
+
+    /**
+     * Execução agendada diária.
+     */
+    @Scheduled(cron = "${bibliotech.expurgo.cron:0 30 3 * * *}")
+    public void executarAgendado() {
+        if (habilitado) {
+            ResultadoExpurgo resultado = executar(LocalDateTime.now().minusDays(retencaoDias));
+            if (resultado.getLotes() > 0) {
+                log.info("Expurgo: {} empréstimos e {} usuários removidos em {} lotes",
+                    resultado.getEmprestimos(), resultado.getUsuarios(), resultado.getLotes());
+            }
+        }
+    }
+
+    /**
+     * Remove o histórico e o cadastro dos usuários excluídos antes do limite.
+     *
+     * @param limite usuários excluídos antes deste momento são expurgados
+     * @return os totais da execução
+     */
+    public ResultadoExpurgo executar(LocalDateTime limite) {
+        ResultadoExpurgo resultado = new ResultadoExpurgo();
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+
+        List<Long> ids;
+        while (!(ids = emprestimoRepository.findIdsDeUsuariosExcluidos(
+                limite, Limit.of(tamanhoLote))).isEmpty()) {
+            List<Long> lote = ids;
+            resultado.registrarEmprestimos(transacao.execute(status -> {
+                cuboCirculacaoService.descontar(lote);
+                return emprestimoRepository.removerPorIds(lote);
+            }));
+        }
+
+        while (!(ids = usuarioRepository.findExcluidosSemHistorico(
+                limite, Limit.of(tamanhoLote))).isEmpty()) {
+            resultado.registrarUsuarios(usuarioRepository.removerExcluidos(ids));
+        }
+
+        return resultado;
+    }
+}
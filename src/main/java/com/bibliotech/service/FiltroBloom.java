@@ -0,0 +1,118 @@
+package com.bibliotech.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom para textos, seguro para uso concorrente.
+ *
+ * <p>Responde "talvez exista" ou "certamente não existe": nunca há falso
+ * negativo para um valor adicionado, e a taxa de falsos positivos fica
+ * próxima da informada enquanto o número de valores não passar da
+ * capacidade. Os bits são gravados com operações atômicas, então
+ * consultas e inclusões podem ocorrer em paralelo sem bloqueio.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public class FiltroBloom {
+
+    private final AtomicLongArray bits;
+    private final long totalBits;
+    private final int funcoesHash;
+
+    /**
+     * Cria um filtro dimensionado para a capacidade e a taxa de falsos
+     * positivos desejadas.
+     *
+     * @param capacidade número esperado de valores
+     * @param taxaFalsosPositivos taxa desejada, entre 0 e 1 (ex.: 0.01)
+     */
+    public FiltroBloom(int capacidade, double taxaFalsosPositivos) {
+        if (capacidade <= 0 || taxaFalsosPositivos <= 0 || taxaFalsosPositivos >= 1) {
+            throw new IllegalArgumentException("Parâmetros inválidos para o filtro de Bloom");
+        }
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-capacidade * Math.log(taxaFalsosPositivos) / (ln2 * ln2));
+        int palavras = (int) Math.max(1, (m + 63) / 64);
+        this.bits = new AtomicLongArray(palavras);
+        this.totalBits = palavras * 64L;
+        this.funcoesHash = Math.max(1, (int) Math.round((double) totalBits / capacidade * ln2));
+    }
+
+    /**
+     * Adiciona um valor ao filtro.
+     *
+     * @param valor o valor a adicionar; nulo é ignorado
+     */
+    public void adicionar(String valor) {
+        if (valor == null) {
+            return;
+        }
+        long hash = hash64(valor);
+        long h1 = hash & 0xFFFFFFFFL;
+        long h2 = hash >>> 32;
+        for (int i = 0; i < funcoesHash; i++) {
+            long posicao = Math.floorMod(h1 + i * h2, totalBits);
+            long mascara = 1L << posicao;
+            int palavra = (int) (posicao >>> 6);
+            if ((bits.get(palavra) & mascara) == 0) {
+                bits.getAndAccumulate(palavra, mascara, (atual, m) -> atual | m);
+            }
+        }
+    }
+
+    /**
+     * Indica se o valor pode ter sido adicionado.
+     *
+     * @param valor o valor a consultar
+     * @return false se o valor certamente não foi adicionado
+     */
+    public boolean podeConter(String valor) {
+        if (valor == null) {
+            return false;
+        }
+        long hash = hash64(valor);
+        long h1 = hash & 0xFFFFFFFFL;
+        long h2 = hash >>> 32;
+        for (int i = 0; i < funcoesHash; i++) {
+            long posicao = Math.floorMod(h1 + i * h2, totalBits);
+            if ((bits.get((int) (posicao >>> 6)) & (1L << posicao)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return quantidade de bits do filtro
+     */
+    public long getTotalBits() {
+        return totalBits;
+    }
+
+    /**
+     * @return quantidade de funções de hash usadas por valor
+     */
+    public int getFuncoesHash() {
+        return funcoesHash;
+    }
+
+    /**
+     * FNV-1a de 64 bits sobre os caracteres, seguido da mistura final do
+     * MurmurHash3 para espalhar bem os bits usados por h1 e h2.
+     */
+    private static long hash64(String valor) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < valor.length(); i++) {
+            h ^= valor.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,50 @@
+package com.bibliotech.service;
+
+/**
+ * Totais de um grupo no resultado de uma {@link ConsultaAnalise}.
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public class GrupoAnalise {
+
+    private final String chave;
+    private long emprestimos;
+    private long devolvidos;
+    private long atrasados;
+    private long diasEmprestado;
+    private double multas;
+
+    GrupoAnalise(String chave) {
+        this.chave = chave;
+    }
+
+    void registrar(boolean atrasado, boolean devolvido, long dias, double multa) {
+        emprestimos++;
+        if (atrasado) {
+            atrasados++;
+        }
+        if (devolvido) {
+            devolvidos++;
+            diasEmprestado += dias;
+        }
+        multas += multa;
+    }
+
+    /** @return mês (AAAA-MM), tipo de usuário, id ou "TOTAL", conforme o agrupamento */
+    public String getChave() { return chave; }
+
+    public long getEmprestimos() { return emprestimos; }
+
+    public long getDevolvidos() { return devolvidos; }
+
+    public long getAtrasados() { return atrasados; }
+
+    public double getMultas() { return multas; }
+
+    /** @return duração média, em dias, dos empréstimos devolvidos (0 se nenhum) */
+    public double getDuracaoMedia() {
+        return devolvidos == 0 ? 0.0 : (double) diasEmprestado / devolvidos;
+    }
+}
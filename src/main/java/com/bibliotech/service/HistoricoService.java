@@ -0,0 +1,64 @@
+package com.bibliotech.service;
+
+import com.bibliotech.event.EmprestimoEvent;
+import com.bibliotech.repository.EmprestimoRepository;
+import com.bibliotech.repository.ResumoHistorico;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Serviço responsável pelo resumo do histórico de empréstimos por usuário.
+ *
+ * <p>O resumo (total de empréstimos, ativos, atrasados e multas pagas) é
+ * calculado por uma única consulta agregada e mantido em cache por usuário.
+ * A entrada é invalidada a cada retirada ou devolução do próprio usuário,
+ * e todo o cache é descartado na virada do dia, quando empréstimos ativos
+ * podem passar a contar como atrasados.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+public class HistoricoService {
+
+    static final String CACHE_RESUMO = "resumoHistorico";
+
+    @Autowired
+    private EmprestimoRepository emprestimoRepository;
+
+    /**
+     * Obtém o resumo do histórico de um usuário.
+     *
+     * @param usuarioId o identificador do usuário
+     * @return o resumo do histórico (zerado se o usuário não tiver empréstimos)
+     */
+    @Cacheable(cacheNames = CACHE_RESUMO, key = "#usuarioId")
+    public ResumoHistorico obterResumo(Long usuarioId) {
+        return emprestimoRepository.resumirPorUsuario(usuarioId);
+    }
+
+    /**
+     * Invalida o resumo do usuário envolvido em uma retirada ou devolução,
+     * após a confirmação da transação.
+     *
+     * @param evento o evento de empréstimo
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @CacheEvict(cacheNames = CACHE_RESUMO, key = "#evento.usuarioId")
+    public void aoMovimentarEmprestimo(EmprestimoEvent evento) {
+    }
+
+    /**
+     * Descarta todos os resumos à meia-noite, pois a contagem de atrasos
+     * depende da data corrente.
+     */
+    @Scheduled(cron = "0 0 0 * * *")
+    @CacheEvict(cacheNames = CACHE_RESUMO, allEntries = true)
+    public void virarDia() {
+    }
+}
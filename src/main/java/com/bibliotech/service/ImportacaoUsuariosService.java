@@ -0,0 +1,432 @@
+package com.bibliotech.service;
+
+import com.bibliotech.model.Usuario;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Importação em massa de usuários a partir de um arquivo CSV.
+ *
+ * <p>O arquivo é lido em uma única passada, em lotes de
+ * {@code bibliotech.importacao.lote} linhas. Cada linha é validada com as
+ * mesmas regras do cadastro: os CPFs do lote passam de uma vez pelo
+ * {@link ValidadorCpf} (dígitos verificadores, com ou sem máscara) e o
+ * email pelas anotações da entidade. Duplicatas dentro do arquivo são
+ * descartadas com conjuntos em memória, e os usuários já cadastrados de
+ * cada lote são encontrados com uma única consulta. As gravações usam
+ * JDBC em lote, e cada lote é confirmado em sua própria transação.</p>
+ *
+ * <p>O cabeçalho é obrigatório e deve conter as colunas {@code nome},
+ * {@code email} e {@code cpf}; a coluna {@code tipo} é opcional (padrão
+ * ALUNO). O separador pode ser vírgula ou ponto e vírgula. Usuários
+ * importados são criados com a senha bloqueada, até que um funcionário
+ * defina uma senha no cadastro.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+public class ImportacaoUsuariosService {
+
+    /**
+     * Modos de importação.
+     */
+    public enum Modo {
+        /** Insere apenas usuários novos; os já cadastrados são mantidos. */
+        INSERIR,
+        /**
+         * Insere os novos, atualiza e reativa os existentes (pelo CPF) e
+         * desativa os usuários dos tipos presentes no arquivo que não
+         * constam nele.
+         */
+        SINCRONIZAR
+    }
+
+    /**
+     * UNION em vez de OR para que cada lado use o seu índice único.
+     */
+    private static final String SQL_EXISTENTES =
+        "SELECT id, email, cpf FROM usuarios WHERE cpf IN (:cpfs) "
+        + "UNION SELECT id, email, cpf FROM usuarios WHERE email IN (:emails)";
+
+    private static final String SQL_INSERIR =
+        "INSERT INTO usuarios (id, nome, email, cpf, senha, tipo, ativo) "
+        + "VALUES (:id, :nome, :email, :cpf, :senha, :tipo, TRUE)";
+
+    /**
+     * Cada valor reserva {@link Usuario#IDS_POR_RESERVA} ids, como faz o
+     * Hibernate (pooled-lo), de modo que as duas origens nunca colidem.
+     */
+    private static final String SQL_RESERVAR_IDS =
+        "SELECT NEXT VALUE FOR " + Usuario.SEQUENCIA;
+
+    private static final String SQL_ATUALIZAR =
+        "UPDATE usuarios SET nome = :nome, email = :email, tipo = :tipo, ativo = TRUE WHERE id = :id";
+
+    private static final String SQL_ATIVOS_POR_TIPO =
+        "SELECT id, cpf FROM usuarios WHERE ativo = TRUE AND tipo IN (:tipos)";
+
+    private static final String SQL_DESATIVAR =
+        "UPDATE usuarios SET ativo = FALSE WHERE id IN (:ids)";
+
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UnicidadeUsuarioService unicidadeUsuarioService;
+
+    @Autowired
+    private IndiceBuscaService indiceBuscaService;
+
+    @Autowired
+    private MetricasService metricasService;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${bibliotech.importacao.lote:1000}")
+    private int tamanhoLote = 1000;
+
+    /**
+     * Importa os usuários do arquivo CSV.
+     *
+     * @param arquivo o conteúdo do CSV, em UTF-8
+     * @param modo o modo de importação
+     * @return os totais e as primeiras mensagens de erro
+     * @throws RuntimeException se o arquivo não puder ser lido ou o
+     *         cabeçalho estiver incompleto
+     */
+    public ResultadoImportacao importar(InputStream arquivo, Modo modo) {
+        ResultadoImportacao resultado = new ResultadoImportacao();
+        TransactionTemplate transacao = new TransactionTemplate(transactionManager);
+        Set<Long> cpfsVistos = new HashSet<>();
+        Set<String> emailsVistos = new HashSet<>();
+        Set<Usuario.TipoUsuario> tiposVistos = EnumSet.noneOf(Usuario.TipoUsuario.class);
+
+        try (BufferedReader leitor = new BufferedReader(
+                new InputStreamReader(arquivo, StandardCharsets.UTF_8))) {
+            String cabecalho = leitor.readLine();
+            if (cabecalho == null) {
+                throw new RuntimeException("Arquivo vazio");
+            }
+            cabecalho = cabecalho.replace("\uFEFF", "");
+            char separador = cabecalho.indexOf(';') >= 0 ? ';' : ',';
+            Map<String, Integer> colunas = lerCabecalho(cabecalho, separador);
+
+            List<LinhaLida> lote = new ArrayList<>(tamanhoLote);
+            long[] cpfs = new long[tamanhoLote];
+            String texto;
+            int numero = 1;
+            while ((texto = leitor.readLine()) != null) {
+                numero++;
+                if (texto.isBlank()) {
+                    continue;
+                }
+                resultado.contarLinha();
+
+                lote.add(new LinhaLida(numero, separar(texto, separador)));
+                if (lote.size() == tamanhoLote) {
+                    List<LinhaImportacao> validas = validarLote(lote, colunas, cpfs,
+                        cpfsVistos, emailsVistos, tiposVistos, resultado);
+                    processarLote(validas, modo, transacao, resultado);
+                    lote.clear();
+                }
+            }
+            if (!lote.isEmpty()) {
+                List<LinhaImportacao> validas = validarLote(lote, colunas, cpfs,
+                    cpfsVistos, emailsVistos, tiposVistos, resultado);
+                processarLote(validas, modo, transacao, resultado);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao ler o arquivo de importação", e);
+        }
+
+        if (modo == Modo.SINCRONIZAR && !tiposVistos.isEmpty()) {
+            transacao.executeWithoutResult(status -> desativarAusentes(tiposVistos, cpfsVistos, resultado));
+        }
+        if (resultado.getInseridos() + resultado.getAtualizados() + resultado.getDesativados() > 0) {
+            indiceBuscaService.carregarUsuarios();
+            metricasService.reconciliar();
+        }
+
+        return resultado;
+    }
+
+    private Map<String, Integer> lerCabecalho(String cabecalho, char separador) {
+        Map<String, Integer> colunas = new HashMap<>();
+        List<String> nomes = separar(cabecalho, separador);
+        for (int i = 0; i < nomes.size(); i++) {
+            colunas.put(nomes.get(i).trim().toLowerCase(), i);
+        }
+        for (String obrigatoria : List.of("nome", "email", "cpf")) {
+            if (!colunas.containsKey(obrigatoria)) {
+                throw new RuntimeException("Coluna obrigatória ausente no cabeçalho: " + obrigatoria);
+            }
+        }
+        return colunas;
+    }
+
+    /**
+     * Valida as linhas lidas, com os CPFs do lote normalizados de uma vez,
+     * e descarta as repetidas no arquivo. Apenas as linhas aceitas entram
+     * nos conjuntos de CPFs, emails e tipos vistos.
+     */
+    private List<LinhaImportacao> validarLote(List<LinhaLida> lote, Map<String, Integer> colunas,
+                                              long[] cpfs, Set<Long> cpfsVistos, Set<String> emailsVistos,
+                                              Set<Usuario.TipoUsuario> tiposVistos,
+                                              ResultadoImportacao resultado) {
+        Integer colunaCpf = colunas.get("cpf");
+        List<String> textosCpf = new ArrayList<>(lote.size());
+        for (LinhaLida lida : lote) {
+            textosCpf.add(campo(lida.campos, colunaCpf));
+        }
+        ValidadorCpf.normalizarLote(textosCpf, cpfs);
+
+        List<LinhaImportacao> validas = new ArrayList<>(lote.size());
+        for (int i = 0; i < lote.size(); i++) {
+            LinhaLida lida = lote.get(i);
+            LinhaImportacao linha = validar(lida.numero, lida.campos, colunas, cpfs[i], resultado);
+            if (linha == null) {
+                continue;
+            }
+            // Só linhas aceitas contam como vistas: no modo SINCRONIZAR, um CPF
+            // visto mantém o usuário ativo
+            if (cpfsVistos.contains(cpfs[i])) {
+                resultado.rejeitar(lida.numero, "CPF repetido no arquivo");
+                continue;
+            }
+            if (emailsVistos.contains(linha.email)) {
+                resultado.rejeitar(lida.numero, "Email repetido no arquivo");
+                continue;
+            }
+            cpfsVistos.add(cpfs[i]);
+            emailsVistos.add(linha.email);
+            tiposVistos.add(linha.tipo);
+            validas.add(linha);
+        }
+        return validas;
+    }
+
+    private LinhaImportacao validar(int numero, List<String> campos, Map<String, Integer> colunas,
+                                    long numeroCpf, ResultadoImportacao resultado) {
+        String nome = campo(campos, colunas.get("nome"));
+        String email = campo(campos, colunas.get("email"));
+        String tipoTexto = campo(campos, colunas.get("tipo"));
+
+        if (nome.isEmpty()) {
+            resultado.rejeitar(numero, "Nome é obrigatório");
+            return null;
+        }
+        if (numeroCpf == ValidadorCpf.INVALIDO) {
+            resultado.rejeitar(numero, "CPF inválido");
+            return null;
+        }
+        String cpf = ValidadorCpf.formatar(numeroCpf);
+        if (!validator.validateValue(Usuario.class, "email", email).isEmpty()) {
+            resultado.rejeitar(numero, "Email inválido");
+            return null;
+        }
+
+        Usuario.TipoUsuario tipo = Usuario.TipoUsuario.ALUNO;
+        if (!tipoTexto.isEmpty()) {
+            try {
+                tipo = Usuario.TipoUsuario.valueOf(tipoTexto.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                resultado.rejeitar(numero, "Tipo de usuário inválido");
+                return null;
+            }
+        }
+
+        return new LinhaImportacao(numero, nome, email, cpf, tipo);
+    }
+
+    private void processarLote(List<LinhaImportacao> lote, Modo modo, TransactionTemplate transacao,
+                               ResultadoImportacao resultado) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        List<LinhaImportacao> gravados = transacao.execute(status -> {
+            Map<String, Long> idPorCpf = new HashMap<>();
+            Map<String, Long> idPorEmail = new HashMap<>();
+            buscarExistentes(lote, idPorCpf, idPorEmail);
+
+            List<MapSqlParameterSource> insercoes = new ArrayList<>();
+            List<MapSqlParameterSource> atualizacoes = new ArrayList<>();
+            List<LinhaImportacao> alterados = new ArrayList<>();
+
+            for (LinhaImportacao linha : lote) {
+                Long idCpf = idPorCpf.get(linha.cpf);
+                Long idEmail = idPorEmail.get(linha.email);
+
+                if (idCpf == null && idEmail == null) {
+                    insercoes.add(parametros(linha).addValue("senha", SenhaService.SENHA_BLOQUEADA));
+                    alterados.add(linha);
+                } else if (idEmail != null && !idEmail.equals(idCpf)) {
+                    resultado.rejeitar(linha.numero, "Email já cadastrado para outro CPF");
+                } else if (modo == Modo.SINCRONIZAR) {
+                    atualizacoes.add(parametros(linha).addValue("id", idCpf));
+                    alterados.add(linha);
+                } else {
+                    resultado.contarIgnorado();
+                }
+            }
+
+            if (!insercoes.isEmpty()) {
+                atribuirIds(insercoes);
+                jdbcTemplate.batchUpdate(SQL_INSERIR, insercoes.toArray(new MapSqlParameterSource[0]));
+            }
+            if (!atualizacoes.isEmpty()) {
+                jdbcTemplate.batchUpdate(SQL_ATUALIZAR, atualizacoes.toArray(new MapSqlParameterSource[0]));
+            }
+            resultado.contarInseridos(insercoes.size());
+            resultado.contarAtualizados(atualizacoes.size());
+            return alterados;
+        });
+
+        for (LinhaImportacao linha : gravados) {
+            unicidadeUsuarioService.registrar(linha.email, linha.cpf);
+        }
+    }
+
+    /**
+     * Atribui ids às inserções com uma consulta à sequência a cada
+     * {@link Usuario#IDS_POR_RESERVA} linhas.
+     */
+    private void atribuirIds(List<MapSqlParameterSource> insercoes) {
+        long proximo = 0;
+        long limite = 0;
+        for (MapSqlParameterSource insercao : insercoes) {
+            if (proximo == limite) {
+                proximo = jdbcTemplate.getJdbcTemplate().queryForObject(SQL_RESERVAR_IDS, Long.class);
+                limite = proximo + Usuario.IDS_POR_RESERVA;
+            }
+            insercao.addValue("id", proximo++);
+        }
+    }
+
+    private void buscarExistentes(List<LinhaImportacao> lote, Map<String, Long> idPorCpf,
+                                  Map<String, Long> idPorEmail) {
+        List<String> cpfs = new ArrayList<>(lote.size());
+        List<String> emails = new ArrayList<>(lote.size());
+        for (LinhaImportacao linha : lote) {
+            cpfs.add(linha.cpf);
+            emails.add(linha.email);
+        }
+
+        MapSqlParameterSource parametros = new MapSqlParameterSource()
+            .addValue("cpfs", cpfs)
+            .addValue("emails", emails);
+        jdbcTemplate.query(SQL_EXISTENTES, parametros, linha -> {
+            long id = linha.getLong("id");
+            idPorCpf.put(linha.getString("cpf"), id);
+            idPorEmail.put(linha.getString("email"), id);
+        });
+    }
+
+    private void desativarAusentes(Set<Usuario.TipoUsuario> tipos, Set<Long> cpfsVistos,
+                                   ResultadoImportacao resultado) {
+        List<String> nomesTipos = tipos.stream().map(Enum::name).toList();
+        List<Long> ausentes = new ArrayList<>();
+        jdbcTemplate.query(SQL_ATIVOS_POR_TIPO, new MapSqlParameterSource("tipos", nomesTipos), linha -> {
+            if (!cpfsVistos.contains(ValidadorCpf.normalizar(linha.getString("cpf")))) {
+                ausentes.add(linha.getLong("id"));
+            }
+        });
+
+        for (int inicio = 0; inicio < ausentes.size(); inicio += tamanhoLote) {
+            List<Long> ids = ausentes.subList(inicio, Math.min(ausentes.size(), inicio + tamanhoLote));
+            resultado.contarDesativados(jdbcTemplate.update(SQL_DESATIVAR, new MapSqlParameterSource("ids", ids)));
+        }
+    }
+
+    private MapSqlParameterSource parametros(LinhaImportacao linha) {
+        return new MapSqlParameterSource()
+            .addValue("nome", linha.nome)
+            .addValue("email", linha.email)
+            .addValue("cpf", linha.cpf)
+            .addValue("tipo", linha.tipo.name());
+    }
+
+    private String campo(List<String> campos, Integer indice) {
+        if (indice == null || indice >= campos.size()) {
+            return "";
+        }
+        return campos.get(indice).trim();
+    }
+
+    /**
+     * Separa uma linha CSV, respeitando campos entre aspas duplas.
+     */
+    private List<String> separar(String linha, char separador) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (c == '"') {
+                if (entreAspas && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else {
+                    entreAspas = !entreAspas;
+                }
+            } else if (c == separador && !entreAspas) {
+                campos.add(atual.toString());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        campos.add(atual.toString());
+        return campos;
+    }
+
+    private static final class LinhaLida {
+        private final int numero;
+        private final List<String> campos;
+
+        private LinhaLida(int numero, List<String> campos) {
+            this.numero = numero;
+            this.campos = campos;
+        }
+    }
+
+    private static final class LinhaImportacao {
+        private final int numero;
+        private final String nome;
+        private final String email;
+        private final String cpf;
+        private final Usuario.TipoUsuario tipo;
+
+        private LinhaImportacao(int numero, String nome, String email, String cpf,
+                                Usuario.TipoUsuario tipo) {
+            this.numero = numero;
+            this.nome = nome;
+            this.email = email;
+            this.cpf = cpf;
+            this.tipo = tipo;
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.bibliotech.service;
+
+import com.bibliotech.event.EmprestimoEvent;
+import com.bibliotech.event.UsuarioExcluidoEvent;
+import com.bibliotech.model.Livro;
+import com.bibliotech.model.Usuario;
+import com.bibliotech.repository.LivroRepository;
+import com.bibliotech.repository.ResumoBuscaLivro;
+import com.bibliotech.repository.ResumoBuscaUsuario;
+import com.bibliotech.repository.UsuarioRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índices em memória para a busca incremental de usuários ativos e livros
+ * disponíveis no formulário de empréstimo.
+ *
+ * <p>Usuários são encontrados pelo nome completo, por qualquer palavra do
+ * nome, pelo email ou pelos dígitos do CPF; livros pelo título, por
+ * qualquer palavra do título ou pelo ISBN. Cada tecla digitada vira uma
+ * busca por prefixo no índice, sem consulta ao banco.</p>
+ *
+ * <p>Os índices são carregados em segundo plano logo após a inicialização
+ * (ver {@link AquecimentoService}) e mantidos pelos serviços de usuários e
+ * livros a cada cadastro, alteração ou exclusão. Até a primeira carga
+ * terminar, as buscas vão ao banco, com resultados aproximados: nome,
+ * email ou título contendo o termo, ou CPF e ISBN começando pelos
+ * dígitos digitados. A disponibilidade dos livros é atualizada após cada empréstimo
+ * ou devolução confirmados, com os valores copiados no evento; eventos com
+ * versão do livro anterior à já indexada são descartados, pois os
+ * listeners de transações simultâneas rodam em qualquer ordem.</p>
+ *
+ * <p>Recargas completas acontecem só sob demanda: na subida, após uma
+ * importação de usuários e, com várias instâncias, na recarga agendada
+ * opcional ({@code bibliotech.busca.recarga-cron}, desligada por padrão),
+ * que incorpora as alterações feitas nas outras instâncias; até lá, um
+ * livro esgotado em outra instância ainda pode ser oferecido e a retirada
+ * é recusada. As recargas leem apenas as colunas indexadas, como
+ * projeções, sem carregar entidades.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+public class IndiceBuscaService {
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private LivroRepository livroRepository;
+
+    private volatile IndicePrefixos<ItemBusca> usuarios = new IndicePrefixos<>();
+    private final IndicePrefixos<ItemBusca> livros = new IndicePrefixos<>();
+
+    /**
+     * Versão de cada livro já aplicada ao índice (protegida pelo monitor do serviço).
+     */
+    private final Map<Long, Long> versoesLivros = new HashMap<>();
+
+    /**
+     * Serializa as recargas do índice de usuários.
+     */
+    private final Object recargaUsuarios = new Object();
+
+    /**
+     * Usuários alterados (null para removidos) durante a recarga em
+     * andamento, reaplicados ao índice novo antes da troca; null fora de
+     * uma recarga. Protegido pelo monitor do serviço.
+     */
+    private Map<Long, ResumoBuscaUsuario> alteracoesDuranteRecarga;
+
+    private volatile boolean usuariosCarregados;
+    private volatile boolean livrosCarregados;
+
+    /**
+     * Carrega os usuários ativos e os livros disponíveis. Com várias
+     * instâncias, pode ser repetida pela recarga agendada para incorporar
+     * alterações feitas nas outras.
+     */
+    @Scheduled(cron = "${bibliotech.busca.recarga-cron:-}")
+    public void carregar() {
+        carregarUsuarios();
+        carregarLivros(livroRepository.findResumosBusca());
+    }
+
+    /**
+     * Aplica o estado lido do banco, sem desfazer alterações mais novas
+     * recebidas por eventos durante a leitura; livros que não existem mais
+     * saem do índice.
+     */
+    private synchronized void carregarLivros(List<ResumoBuscaLivro> todos) {
+        Set<Long> existentes = new HashSet<>();
+        for (ResumoBuscaLivro livro : todos) {
+            existentes.add(livro.getId());
+            aplicarLivro(livro);
+        }
+        for (Long id : new ArrayList<>(versoesLivros.keySet())) {
+            if (!existentes.contains(id)) {
+                removerLivro(id);
+            }
+        }
+        livrosCarregados = true;
+    }
+
+    /**
+     * Recarrega o índice de usuários, após alterações em massa.
+     *
+     * <p>O índice novo é montado à parte e trocado de uma vez, de modo que
+     * as buscas nunca o veem vazio ou pela metade. Alterações recebidas
+     * durante a leitura são reaplicadas ao índice novo antes da troca, para
+     * que a leitura não traga de volta usuários excluídos ou desativados
+     * enquanto ela acontecia.</p>
+     */
+    public void carregarUsuarios() {
+        synchronized (recargaUsuarios) {
+            synchronized (this) {
+                alteracoesDuranteRecarga = new HashMap<>();
+            }
+            IndicePrefixos<ItemBusca> novo = new IndicePrefixos<>();
+            try {
+                for (ResumoBuscaUsuario usuario : usuarioRepository.findResumosBuscaAtivos()) {
+                    indexarUsuario(novo, usuario);
+                }
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    alteracoesDuranteRecarga = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                for (Map.Entry<Long, ResumoBuscaUsuario> alteracao : alteracoesDuranteRecarga.entrySet()) {
+                    if (alteracao.getValue() == null) {
+                        novo.remover(alteracao.getKey());
+                    } else {
+                        indexarUsuario(novo, alteracao.getValue());
+                    }
+                }
+                alteracoesDuranteRecarga = null;
+                usuarios = novo;
+                usuariosCarregados = true;
+            }
+        }
+    }
+
+    /**
+     * Inclui, atualiza ou remove o usuário do índice conforme esteja ativo.
+     * Usuários ainda sem id são ignorados.
+     *
+     * @param usuario o usuário gravado
+     */
+    public synchronized void atualizarUsuario(Usuario usuario) {
+        if (usuario.getId() == null) {
+            return;
+        }
+        if (!Boolean.TRUE.equals(usuario.getAtivo())) {
+            removerUsuario(usuario.getId());
+            return;
+        }
+        ResumoBuscaUsuario resumo = new ResumoBuscaUsuario(usuario.getId(), usuario.getNome(),
+            usuario.getEmail(), usuario.getCpf(), usuario.getTipo());
+        if (alteracoesDuranteRecarga != null) {
+            alteracoesDuranteRecarga.put(resumo.getId(), resumo);
+        }
+        indexarUsuario(usuarios, resumo);
+    }
+
+    private static void indexarUsuario(IndicePrefixos<ItemBusca> indice, ResumoBuscaUsuario usuario) {
+        List<String> chaves = new ArrayList<>();
+        adicionarTextoEPalavras(chaves, usuario.getNome());
+        chaves.add(usuario.getEmail());
+        chaves.add(apenasDigitos(usuario.getCpf()));
+        indice.colocar(usuario.getId(), item(usuario), chaves);
+    }
+
+    private static ItemBusca item(ResumoBuscaUsuario usuario) {
+        return new ItemBusca(usuario.getId(), usuario.getNome() + " (" + usuario.getTipo() + ")");
+    }
+
+    /**
+     * @param id o identificador do usuário excluído
+     */
+    public synchronized void removerUsuario(Long id) {
+        if (alteracoesDuranteRecarga != null) {
+            alteracoesDuranteRecarga.put(id, null);
+        }
+        usuarios.remover(id);
+    }
+
+    /**
+     * Retira do índice o usuário excluído, após o commit da exclusão.
+     *
+     * @param evento o evento de usuário excluído
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoExcluirUsuario(UsuarioExcluidoEvent evento) {
+        removerUsuario(evento.getUsuarioId());
+    }
+
+    /**
+     * Inclui, atualiza ou remove o livro do índice conforme tenha
+     * exemplares disponíveis.
+     *
+     * @param livro o livro gravado
+     */
+    public synchronized void atualizarLivro(Livro livro) {
+        if (livro.getId() == null) {
+            return;
+        }
+        versoesLivros.put(livro.getId(), livro.getVersao());
+        indexarLivro(resumir(livro, livro.getVersao(), livro.getQuantidadeDisponivel()));
+    }
+
+    /**
+     * Indexa o livro, a menos que o índice já reflita uma versão mais nova dele.
+     */
+    private synchronized void aplicarLivro(ResumoBuscaLivro livro) {
+        Long versao = livro.getVersao();
+        Long indexada = versoesLivros.get(livro.getId());
+        if (versao != null && indexada != null && versao < indexada) {
+            return;
+        }
+        versoesLivros.put(livro.getId(), versao);
+        indexarLivro(livro);
+    }
+
+    private static ResumoBuscaLivro resumir(Livro livro, Long versao, Integer disponivel) {
+        return new ResumoBuscaLivro(livro.getId(), livro.getTitulo(), livro.getAutor(),
+            livro.getIsbn(), versao, disponivel);
+    }
+
+    private void indexarLivro(ResumoBuscaLivro livro) {
+        Integer disponivel = livro.getQuantidadeDisponivel();
+        if (disponivel == null || disponivel <= 0) {
+            livros.remover(livro.getId());
+            return;
+        }
+        List<String> chaves = new ArrayList<>();
+        adicionarTextoEPalavras(chaves, livro.getTitulo());
+        chaves.add(apenasDigitos(livro.getIsbn()));
+        livros.colocar(livro.getId(), item(livro), chaves);
+    }
+
+    private static ItemBusca item(ResumoBuscaLivro livro) {
+        return new ItemBusca(livro.getId(), livro.getTitulo() + " - " + livro.getAutor()
+            + " (Disponível: " + livro.getQuantidadeDisponivel() + ")");
+    }
+
+    /**
+     * @param id o identificador do livro excluído
+     */
+    public synchronized void removerLivro(Long id) {
+        versoesLivros.remove(id);
+        livros.remover(id);
+    }
+
+    /**
+     * Atualiza a disponibilidade do livro após empréstimo ou devolução, com
+     * os valores gravados pela transação e copiados no evento. Um evento
+     * mais antigo que a versão já indexada é ignorado.
+     *
+     * @param evento o evento de empréstimo realizado ou devolvido
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoAlterarEmprestimo(EmprestimoEvent evento) {
+        aplicarLivro(resumir(evento.getEmprestimo().getLivro(), evento.getVersaoLivro(),
+            evento.getQuantidadeDisponivel()));
+    }
+
+    /**
+     * @param termo o texto digitado; vazio devolve os primeiros usuários
+     * @param limite quantidade máxima de resultados
+     * @return os usuários ativos encontrados
+     */
+    public List<ItemBusca> buscarUsuarios(String termo, int limite) {
+        String preparado = prepararTermo(termo);
+        if (!usuariosCarregados) {
+            List<ResumoBuscaUsuario> encontrados = ehNumerico(termo)
+                ? usuarioRepository.buscarResumosAtivosPorCpf(preparado + "%", Limit.of(limite))
+                : usuarioRepository.buscarResumosAtivosPorNomeOuEmail(padraoContem(preparado), Limit.of(limite));
+            return encontrados.stream().map(IndiceBuscaService::item).toList();
+        }
+        return usuarios.buscar(preparado, limite);
+    }
+
+    /**
+     * @param termo o texto digitado; vazio devolve os primeiros livros
+     * @param limite quantidade máxima de resultados
+     * @return os livros disponíveis encontrados
+     */
+    public List<ItemBusca> buscarLivros(String termo, int limite) {
+        String preparado = prepararTermo(termo);
+        if (!livrosCarregados) {
+            List<ResumoBuscaLivro> encontrados = ehNumerico(termo)
+                ? livroRepository.buscarResumosDisponiveisPorIsbn(preparado + "%", Limit.of(limite))
+                : livroRepository.buscarResumosDisponiveisPorTitulo(padraoContem(preparado), Limit.of(limite));
+            return encontrados.stream().map(IndiceBuscaService::item).toList();
+        }
+        return livros.buscar(preparado, limite);
+    }
+
+    private static void adicionarTextoEPalavras(List<String> chaves, String texto) {
+        if (texto == null) {
+            return;
+        }
+        chaves.add(texto);
+        String[] palavras = IndicePrefixos.normalizar(texto).split(" ");
+        for (int i = 1; i < palavras.length; i++) {
+            chaves.add(palavras[i]);
+        }
+    }
+
+    /**
+     * CPF e ISBN são indexados só pelos dígitos; um termo digitado apenas
+     * com números e pontuação é tratado da mesma forma.
+     */
+    private static String prepararTermo(String termo) {
+        if (ehNumerico(termo)) {
+            return apenasDigitos(termo);
+        }
+        return termo;
+    }
+
+    private static boolean ehNumerico(String termo) {
+        return termo != null && !termo.isBlank() && termo.matches("[\\d.\\-\\s]+");
+    }
+
+    /**
+     * Padrão LIKE da busca pelo banco: o termo em minúsculas em qualquer
+     * posição, sem os curingas que ele contenha.
+     */
+    private static String padraoContem(String termo) {
+        String texto = termo == null ? "" : termo.trim().toLowerCase();
+        return "%" + texto.replace("%", "").replace("_", "") + "%";
+    }
+
+    private static String apenasDigitos(String texto) {
+        return texto == null ? "" : texto.replaceAll("\\D", "");
+    }
+}
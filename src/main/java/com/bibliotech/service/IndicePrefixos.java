@@ -0,0 +1,122 @@
+package com.bibliotech.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice ordenado em memória para busca por prefixo.
+ *
+ * <p>Cada item é registrado sob uma ou mais chaves (ex.: nome, cada
+ * palavra do nome, email). As chaves ficam em um mapa ordenado, então a
+ * busca por prefixo percorre apenas o trecho que começa com o prefixo e
+ * para assim que reúne o limite de itens distintos. Buscas não bloqueiam;
+ * inclusões e remoções são serializadas.</p>
+ *
+ * @param <T> o tipo do item devolvido pela busca
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public class IndicePrefixos<T> {
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    /**
+     * Chave normalizada + separador + id, para permitir chaves repetidas
+     * entre itens diferentes.
+     */
+    private final ConcurrentSkipListMap<String, Long> entradas = new ConcurrentSkipListMap<>();
+    private final Map<Long, List<String>> chavesPorId = new ConcurrentHashMap<>();
+    private final Map<Long, T> itens = new ConcurrentHashMap<>();
+
+    /**
+     * Inclui ou substitui um item.
+     *
+     * @param id o identificador do item
+     * @param item o item devolvido nas buscas
+     * @param chaves os textos pelos quais o item pode ser encontrado
+     */
+    public synchronized void colocar(long id, T item, Collection<String> chaves) {
+        remover(id);
+        List<String> registradas = new ArrayList<>(chaves.size());
+        for (String chave : chaves) {
+            String normalizada = normalizar(chave);
+            if (!normalizada.isEmpty()) {
+                String entrada = normalizada + '\u0000' + id;
+                entradas.put(entrada, id);
+                registradas.add(entrada);
+            }
+        }
+        chavesPorId.put(id, registradas);
+        itens.put(id, item);
+    }
+
+    /**
+     * Remove um item, se presente.
+     *
+     * @param id o identificador do item
+     */
+    public synchronized void remover(long id) {
+        List<String> chaves = chavesPorId.remove(id);
+        if (chaves != null) {
+            for (String chave : chaves) {
+                entradas.remove(chave);
+            }
+        }
+        itens.remove(id);
+    }
+
+    /**
+     * Busca os itens com alguma chave iniciada pelo prefixo, na ordem das chaves.
+     *
+     * @param prefixo o texto digitado; vazio devolve os primeiros itens do índice
+     * @param limite quantidade máxima de itens
+     * @return os itens encontrados, sem repetição
+     */
+    public List<T> buscar(String prefixo, int limite) {
+        String normalizado = normalizar(prefixo);
+        Map<Long, T> encontrados = new LinkedHashMap<>();
+        for (Long id : entradas.subMap(normalizado, normalizado + '\uffff').values()) {
+            if (encontrados.size() >= limite) {
+                break;
+            }
+            T item = itens.get(id);
+            if (item != null) {
+                encontrados.putIfAbsent(id, item);
+            }
+        }
+        return new ArrayList<>(encontrados.values());
+    }
+
+    /**
+     * @return quantidade de itens indexados
+     */
+    public int tamanho() {
+        return itens.size();
+    }
+
+    /**
+     * Normaliza um texto para indexação e busca: minúsculas, sem acentos
+     * e com espaços simples.
+     *
+     * @param texto o texto original
+     * @return o texto normalizado (vazio se nulo)
+     */
+    public static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String semAcentos = MARCAS_DIACRITICAS
+            .matcher(Normalizer.normalize(texto, Normalizer.Form.NFD))
+            .replaceAll("");
+        return ESPACOS.matcher(semAcentos.trim().toLowerCase()).replaceAll(" ");
+    }
+}
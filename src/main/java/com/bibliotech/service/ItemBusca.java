@@ -0,0 +1,24 @@
+package com.bibliotech.service;
+
+/**
+ * Item devolvido pelas buscas incrementais do formulário de empréstimo.
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public class ItemBusca {
+
+    private final Long id;
+    private final String rotulo;
+
+    public ItemBusca(Long id, String rotulo) {
+        this.id = id;
+        this.rotulo = rotulo;
+    }
+
+    public Long getId() { return id; }
+
+    /** @return o texto exibido na opção da lista */
+    public String getRotulo() { return rotulo; }
+}
@@ -0,0 +1,302 @@
+package com.bibliotech.service;
+
+import com.bibliotech.model.Emprestimo;
+import com.bibliotech.model.Usuario;
+import com.bibliotech.repository.EmprestimoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serviço de envio de lembretes de devolução por e-mail.
+ *
+ * <p>Seleciona, em lotes de usuários, os empréstimos ativos que vencem nos
+ * próximos dias ou que já estão atrasados e ainda não foram avisados, e
+ * envia um único e-mail-resumo por usuário. Os envios são concorrentes,
+ * limitados a {@code bibliotech.lembretes.envios-simultaneos} em andamento.</p>
+ *
+ * <p>Para nunca enviar duplicatas, os empréstimos de cada lote são reservados
+ * <em>antes</em> do envio, em uma única atualização que só marca os ainda
+ * não avisados. Cada execução envia apenas o que ela própria reservou, de
+ * modo que duas instâncias rodando o agendamento ao mesmo tempo não mandam
+ * o mesmo resumo. Só os resumos cujo envio falhou comprovadamente (exceção
+ * do servidor de e-mail) têm a reserva desfeita e são tentados na próxima
+ * execução; envios sem confirmação (tempo esgotado, cancelamento) mantêm a
+ * marcação, pois o e-mail pode ter sido entregue, e são registrados no log.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+public class LembreteService {
+
+    private static final Logger log = LoggerFactory.getLogger(LembreteService.class);
+
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    @Autowired
+    private EmprestimoRepository emprestimoRepository;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Value("${bibliotech.lembretes.habilitado:false}")
+    private boolean habilitado;
+
+    @Value("${bibliotech.lembretes.dias-antecedencia:2}")
+    private int diasAntecedencia = 2;
+
+    @Value("${bibliotech.lembretes.usuarios-por-lote:500}")
+    private int usuariosPorLote = 500;
+
+    @Value("${bibliotech.lembretes.envios-simultaneos:50}")
+    private int enviosSimultaneos = 50;
+
+    @Value("${bibliotech.lembretes.remetente:biblioteca@bibliotech.com}")
+    private String remetente = "biblioteca@bibliotech.com";
+
+    @Value("${bibliotech.lembretes.espera-envio-ms:60000}")
+    private long esperaEnvioMs = 60000;
+
+    private enum SituacaoEnvio { ENVIADO, FALHOU, INCERTO }
+
+    /**
+     * Execução agendada diária (desativada por padrão).
+     */
+    @Scheduled(cron = "${bibliotech.lembretes.cron:0 0 8 * * *}")
+    public void executarAgendado() {
+        if (habilitado) {
+            ResultadoLembretes resultado = executar(LocalDate.now());
+            log.info("Lembretes: {} usuários, {} enviados, {} falhas, {} sem confirmação",
+                resultado.getUsuarios(), resultado.getEnviados(), resultado.getFalhas(),
+                resultado.getSemConfirmacao());
+        }
+    }
+
+    /**
+     * Envia os lembretes pendentes na data informada.
+     *
+     * @param hoje a data de referência para vencimentos e atrasos
+     * @return os totais da execução
+     */
+    public ResultadoLembretes executar(LocalDate hoje) {
+        LocalDate limite = hoje.plusDays(diasAntecedencia);
+        ResultadoLembretes resultado = new ResultadoLembretes();
+        ExecutorService executor = criarExecutor();
+        Semaphore emAndamento = new Semaphore(enviosSimultaneos);
+
+        try {
+            long cursor = 0L;
+            while (true) {
+                List<Long> usuarios = emprestimoRepository.findUsuariosComLembretePendente(
+                    cursor, hoje, limite, Limit.of(usuariosPorLote));
+                if (usuarios.isEmpty()) {
+                    break;
+                }
+                cursor = usuarios.get(usuarios.size() - 1);
+
+                List<Emprestimo> pendentes =
+                    emprestimoRepository.findLembretesPendentes(usuarios, hoje, limite);
+                processarLote(pendentes, hoje, executor, emAndamento, resultado);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        return resultado;
+    }
+
+    private void processarLote(List<Emprestimo> pendentes, LocalDate hoje, ExecutorService executor,
+                               Semaphore emAndamento, ResultadoLembretes resultado) {
+        // Reserva o lote antes de enviar: uma nova execução não o selecionará de
+        // novo, e o que outra execução já reservou fica de fora deste envio
+        Set<Long> reservados = marcar(pendentes, hoje);
+
+        Map<Long, List<Emprestimo>> porUsuario = new LinkedHashMap<>();
+        for (Emprestimo emprestimo : pendentes) {
+            if (reservados.contains(emprestimo.getId())) {
+                porUsuario.computeIfAbsent(emprestimo.getUsuario().getId(), id -> new ArrayList<>())
+                    .add(emprestimo);
+            }
+        }
+        if (reservados.size() < pendentes.size()) {
+            log.info("{} empréstimos do lote já reservados por outra execução",
+                pendentes.size() - reservados.size());
+        }
+
+        List<Future<Boolean>> envios = new ArrayList<>(porUsuario.size());
+        for (List<Emprestimo> resumo : porUsuario.values()) {
+            try {
+                emAndamento.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Envio de lembretes interrompido", e);
+            }
+            envios.add(executor.submit(() -> {
+                try {
+                    mailSender.send(montarMensagem(resumo, hoje));
+                    return true;
+                } catch (RuntimeException e) {
+                    log.warn("Falha ao enviar lembrete para {}: {}",
+                        resumo.get(0).getUsuario().getEmail(), e.getMessage());
+                    return false;
+                } finally {
+                    emAndamento.release();
+                }
+            }));
+        }
+
+        List<Emprestimo> naoEnviados = new ArrayList<>();
+        int enviados = 0;
+        int semConfirmacao = 0;
+        int i = 0;
+        for (List<Emprestimo> resumo : porUsuario.values()) {
+            switch (aguardar(envios.get(i++), resumo)) {
+                case ENVIADO -> enviados++;
+                case FALHOU -> naoEnviados.addAll(resumo);
+                case INCERTO -> semConfirmacao++;
+            }
+        }
+        desmarcar(naoEnviados, hoje);
+
+        resultado.registrarLote(porUsuario.size(), reservados.size(),
+            enviados, porUsuario.size() - enviados - semConfirmacao, semConfirmacao);
+    }
+
+    /**
+     * Marca como avisados os empréstimos ainda não avisados.
+     *
+     * @return os ids marcados por esta chamada
+     */
+    private Set<Long> marcar(List<Emprestimo> emprestimos, LocalDate hoje) {
+        List<Long> vencendo = new ArrayList<>();
+        List<Long> atrasados = new ArrayList<>();
+        separarPorTipo(emprestimos, hoje, vencendo, atrasados);
+
+        Set<Long> reservados = new HashSet<>();
+        if (!vencendo.isEmpty()) {
+            reservados.addAll(emprestimoRepository.marcarLembreteEnviado(vencendo, hoje));
+        }
+        if (!atrasados.isEmpty()) {
+            reservados.addAll(emprestimoRepository.marcarAvisoAtrasoEnviado(atrasados, hoje));
+        }
+        return reservados;
+    }
+
+    private void desmarcar(List<Emprestimo> emprestimos, LocalDate hoje) {
+        List<Long> vencendo = new ArrayList<>();
+        List<Long> atrasados = new ArrayList<>();
+        separarPorTipo(emprestimos, hoje, vencendo, atrasados);
+
+        if (!vencendo.isEmpty()) {
+            emprestimoRepository.desmarcarLembrete(vencendo);
+        }
+        if (!atrasados.isEmpty()) {
+            emprestimoRepository.desmarcarAvisoAtraso(atrasados);
+        }
+    }
+
+    private void separarPorTipo(List<Emprestimo> emprestimos, LocalDate hoje,
+                                List<Long> vencendo, List<Long> atrasados) {
+        for (Emprestimo emprestimo : emprestimos) {
+            if (emprestimo.getDataDevolucaoPrevista().isBefore(hoje)) {
+                atrasados.add(emprestimo.getId());
+            } else {
+                vencendo.add(emprestimo.getId());
+            }
+        }
+    }
+
+    private SimpleMailMessage montarMensagem(List<Emprestimo> resumo, LocalDate hoje) {
+        Usuario usuario = resumo.get(0).getUsuario();
+        StringBuilder texto = new StringBuilder()
+            .append("Olá, ").append(usuario.getNome()).append("!\n\n");
+
+        boolean temAtraso = false;
+        for (Emprestimo emprestimo : resumo) {
+            boolean atrasado = emprestimo.getDataDevolucaoPrevista().isBefore(hoje);
+            temAtraso |= atrasado;
+            texto.append(atrasado ? "- ATRASADO: " : "- Vence em breve: ")
+                .append(emprestimo.getLivro().getTitulo())
+                .append(" (devolução prevista em ")
+                .append(emprestimo.getDataDevolucaoPrevista().format(FORMATO_DATA))
+                .append(")\n");
+        }
+        texto.append("\nPor favor, devolva os livros na biblioteca dentro do prazo.\n")
+            .append("Empréstimos atrasados estão sujeitos a multa por dia de atraso.\n\n")
+            .append("Equipe BiblioTech");
+
+        SimpleMailMessage mensagem = new SimpleMailMessage();
+        mensagem.setFrom(remetente);
+        mensagem.setTo(usuario.getEmail());
+        mensagem.setSubject(temAtraso
+            ? "BiblioTech: você possui empréstimos atrasados"
+            : "BiblioTech: lembrete de devolução");
+        mensagem.setText(texto.toString());
+        return mensagem;
+    }
+
+    /**
+     * Aguarda o envio de um resumo. Só é {@code FALHOU} quando o envio lançou
+     * exceção; sem resposta no prazo (ou com a espera interrompida) o
+     * resultado é desconhecido e o e-mail pode ter sido entregue.
+     */
+    private SituacaoEnvio aguardar(Future<Boolean> envio, List<Emprestimo> resumo) {
+        try {
+            return envio.get(esperaEnvioMs, TimeUnit.MILLISECONDS) ? SituacaoEnvio.ENVIADO : SituacaoEnvio.FALHOU;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            registrarSemConfirmacao(envio, resumo, "espera interrompida");
+        } catch (TimeoutException e) {
+            registrarSemConfirmacao(envio, resumo, "tempo esgotado");
+        } catch (CancellationException e) {
+            registrarSemConfirmacao(envio, resumo, "envio cancelado");
+        } catch (ExecutionException e) {
+            registrarSemConfirmacao(envio, resumo, String.valueOf(e.getCause()));
+        }
+        return SituacaoEnvio.INCERTO;
+    }
+
+    private void registrarSemConfirmacao(Future<Boolean> envio, List<Emprestimo> resumo, String motivo) {
+        envio.cancel(true);
+        log.warn("Lembrete para {} sem confirmação de envio ({}); mantido como enviado",
+            resumo.get(0).getUsuario().getEmail(), motivo);
+    }
+
+    /**
+     * Pool fixo do tamanho do limite de envios simultâneos; o semáforo
+     * limita os envios em andamento.
+     */
+    private ExecutorService criarExecutor() {
+        AtomicInteger contador = new AtomicInteger();
+        return Executors.newFixedThreadPool(enviosSimultaneos, tarefa -> {
+            Thread thread = new Thread(tarefa, "lembrete-envio-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
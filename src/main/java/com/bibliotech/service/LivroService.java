@@ -4,6 +4,7 @@ import com.bibliotech.model.Livro;
 import com.bibliotech.repository.LivroRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +25,18 @@ public class LivroService {
     @Autowired
     private LivroRepository livroRepository;
 
+    @Autowired
+    private IndiceBuscaService indiceBuscaService;
+
+    @Autowired
+    private MetricasService metricasService;
+
+    @Autowired
+    private RankingService rankingService;
+
+    @Autowired
+    private PopularidadeService popularidadeService;
+
     /**
      * Salva um novo livro ou atualiza um existente no sistema.
      * 
@@ -40,7 +53,17 @@ public class LivroService {
             livro.setQuantidadeDisponivel(livro.getQuantidadeExemplares());
         }
 
-        return livroRepository.save(livro);
+        boolean novo = livro.getId() == null;
+        boolean estavaDisponivel = !novo && disponivel(livroRepository.findQuantidadeDisponivelById(livro.getId()));
+
+        Livro salvo = livroRepository.save(livro);
+        indiceBuscaService.atualizarLivro(salvo);
+        if (novo) {
+            metricasService.ajustar(MetricasService.Contador.TOTAL_LIVROS, 1);
+        }
+        metricasService.ajustar(MetricasService.Contador.LIVROS_DISPONIVEIS,
+            (disponivel(livro.getQuantidadeDisponivel()) ? 1 : 0) - (estavaDisponivel ? 1 : 0));
+        return salvo;
     }
 
     /**
@@ -127,6 +150,17 @@ public class LivroService {
         }
 
         livroRepository.delete(livro);
+        indiceBuscaService.removerLivro(id);
+        rankingService.remover(id);
+        popularidadeService.remover(id);
+        metricasService.ajustar(MetricasService.Contador.TOTAL_LIVROS, -1);
+        if (disponivel(livro.getQuantidadeDisponivel())) {
+            metricasService.ajustar(MetricasService.Contador.LIVROS_DISPONIVEIS, -1);
+        }
+    }
+
+    private static boolean disponivel(Integer quantidade) {
+        return quantidade != null && quantidade > 0;
     }
 
     /**
@@ -135,6 +169,7 @@ public class LivroService {
      * 
      * @param livro o livro a ter disponibilidade incrementada
      */
+    @Transactional
     public void incrementarDisponibilidade(Livro livro) {
         livro.setQuantidadeDisponivel(livro.getQuantidadeDisponivel() + 1);
         livroRepository.save(livro);
@@ -146,6 +181,7 @@ public class LivroService {
      * 
      * @param livro o livro a ter disponibilidade decrementada
      */
+    @Transactional
     public void decrementarDisponibilidade(Livro livro) {
         if (livro.getQuantidadeDisponivel() > 0) {
             livro.setQuantidadeDisponivel(livro.getQuantidadeDisponivel() - 1);
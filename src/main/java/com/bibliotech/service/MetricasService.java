@@ -0,0 +1,161 @@
+package com.bibliotech.service;
+
+import com.bibliotech.event.EmprestimoDevolvidoEvent;
+import com.bibliotech.event.EmprestimoRealizadoEvent;
+import com.bibliotech.event.UsuarioExcluidoEvent;
+import com.bibliotech.model.Emprestimo;
+import com.bibliotech.repository.EmprestimoRepository;
+import com.bibliotech.repository.EstatisticasGerais;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contadores em memória com os totais do dashboard.
+ *
+ * <p>Cada total é um {@link AtomicLong} ajustado a cada alteração: os
+ * serviços de livros e usuários informam as variações após gravar, e
+ * retiradas e devoluções são contabilizadas pelos eventos de empréstimo
+ * após a confirmação da transação. Ler os totais não consulta o banco.</p>
+ *
+ * <p>Os atrasos mudam com a virada do dia, sem nenhum evento, e alterações
+ * em massa (importação, concorrência entre uma variação e a leitura do
+ * banco) podem deixar pequenas diferenças. Por isso os contadores são
+ * reconciliados periodicamente com a consulta agregada
+ * {@link EmprestimoRepository#obterEstatisticasGerais()}, logo após a
+ * meia-noite e a cada {@code bibliotech.metricas.reconciliacao-ms}.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+public class MetricasService {
+
+    /**
+     * Totais mantidos pelo serviço.
+     */
+    public enum Contador {
+        TOTAL_LIVROS,
+        USUARIOS_ATIVOS,
+        EMPRESTIMOS_ATIVOS,
+        LIVROS_DISPONIVEIS,
+        EMPRESTIMOS_ATRASADOS
+    }
+
+    @Autowired
+    private EmprestimoRepository emprestimoRepository;
+
+    private final AtomicLong[] contadores = new AtomicLong[Contador.values().length];
+
+    private volatile boolean carregado;
+
+    public MetricasService() {
+        for (int i = 0; i < contadores.length; i++) {
+            contadores[i] = new AtomicLong();
+        }
+    }
+
+    /**
+     * Substitui os contadores pelos totais calculados no banco.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${bibliotech.metricas.virada-cron:5 0 0 * * *}")
+    @Scheduled(fixedDelayString = "${bibliotech.metricas.reconciliacao-ms:300000}",
+               initialDelayString = "${bibliotech.metricas.reconciliacao-ms:300000}")
+    public void reconciliar() {
+        EstatisticasGerais totais = emprestimoRepository.obterEstatisticasGerais();
+        contador(Contador.TOTAL_LIVROS).set(totais.getTotalLivros());
+        contador(Contador.USUARIOS_ATIVOS).set(totais.getTotalUsuarios());
+        contador(Contador.EMPRESTIMOS_ATIVOS).set(totais.getEmprestimosAtivos());
+        contador(Contador.LIVROS_DISPONIVEIS).set(totais.getLivrosDisponiveis());
+        contador(Contador.EMPRESTIMOS_ATRASADOS).set(totais.getEmprestimosAtrasados());
+        carregado = true;
+    }
+
+    /**
+     * Aplica uma variação a um contador.
+     *
+     * @param contador o total a ajustar
+     * @param delta a variação (positiva ou negativa)
+     */
+    public void ajustar(Contador contador, long delta) {
+        if (delta != 0) {
+            contador(contador).addAndGet(delta);
+        }
+    }
+
+    /**
+     * Contabiliza uma retirada: mais um empréstimo ativo e, se foi o último
+     * exemplar, um título a menos disponível.
+     *
+     * @param evento o evento de empréstimo realizado
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoRealizarEmprestimo(EmprestimoRealizadoEvent evento) {
+        ajustar(Contador.EMPRESTIMOS_ATIVOS, 1);
+        Integer disponivel = evento.getEmprestimo().getLivro().getQuantidadeDisponivel();
+        if (disponivel != null && disponivel == 0) {
+            ajustar(Contador.LIVROS_DISPONIVEIS, -1);
+        }
+    }
+
+    /**
+     * Contabiliza uma devolução: um empréstimo ativo a menos (e um atraso a
+     * menos, se vencido) e, se era o único exemplar emprestado, um título a
+     * mais disponível.
+     *
+     * @param evento o evento de empréstimo devolvido
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoDevolverEmprestimo(EmprestimoDevolvidoEvent evento) {
+        Emprestimo emprestimo = evento.getEmprestimo();
+        ajustar(Contador.EMPRESTIMOS_ATIVOS, -1);
+        if (emprestimo.getDataDevolucaoPrevista().isBefore(LocalDate.now())) {
+            ajustar(Contador.EMPRESTIMOS_ATRASADOS, -1);
+        }
+        Integer disponivel = emprestimo.getLivro().getQuantidadeDisponivel();
+        if (disponivel != null && disponivel == 1) {
+            ajustar(Contador.LIVROS_DISPONIVEIS, 1);
+        }
+    }
+
+    /**
+     * Contabiliza a exclusão de um usuário que estava ativo.
+     *
+     * @param evento o evento de usuário excluído
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoExcluirUsuario(UsuarioExcluidoEvent evento) {
+        if (evento.isEstavaAtivo()) {
+            ajustar(Contador.USUARIOS_ATIVOS, -1);
+        }
+    }
+
+    /**
+     * Lê os contadores atuais, sem consultar o banco (exceto na primeira
+     * leitura, se a carga inicial ainda não ocorreu).
+     *
+     * @return os totais do dashboard
+     */
+    public EstatisticasGerais obterTotais() {
+        if (!carregado) {
+            reconciliar();
+        }
+        return new EstatisticasGerais(
+            contador(Contador.TOTAL_LIVROS).get(),
+            contador(Contador.USUARIOS_ATIVOS).get(),
+            contador(Contador.EMPRESTIMOS_ATIVOS).get(),
+            contador(Contador.LIVROS_DISPONIVEIS).get(),
+            contador(Contador.EMPRESTIMOS_ATRASADOS).get());
+    }
+
+    private AtomicLong contador(Contador contador) {
+        return contadores[contador.ordinal()];
+    }
+}
@@ -0,0 +1,47 @@
+package com.bibliotech.service;
+
+import com.bibliotech.model.Emprestimo;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Página de empréstimos obtida por paginação keyset.
+ *
+ * <p>Em vez de um número de página, a próxima página é identificada pelo
+ * par (dataEmprestimo, id) do último item exibido, o que mantém o custo
+ * da consulta constante independentemente da profundidade da navegação.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public class PaginaEmprestimos {
+
+    private final List<Emprestimo> itens;
+    private final boolean temProxima;
+
+    public PaginaEmprestimos(List<Emprestimo> itens, boolean temProxima) {
+        this.itens = itens;
+        this.temProxima = temProxima;
+    }
+
+    public List<Emprestimo> getItens() { return itens; }
+
+    public boolean isTemProxima() { return temProxima; }
+
+    /**
+     * @return data do último item, usada como cursor da próxima página
+     *         (null se não houver próxima página)
+     */
+    public LocalDate getProximaData() {
+        return temProxima ? itens.get(itens.size() - 1).getDataEmprestimo() : null;
+    }
+
+    /**
+     * @return id do último item, usado como cursor da próxima página
+     *         (null se não houver próxima página)
+     */
+    public Long getProximoId() {
+        return temProxima ? itens.get(itens.size() - 1).getId() : null;
+    }
+}
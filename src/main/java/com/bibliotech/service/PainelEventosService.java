@@ -0,0 +1,360 @@
+package com.bibliotech.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Difusão das estatísticas do dashboard por Server-Sent Events.
+ *
+ * <p>Um único agendamento lê as estatísticas a cada
+ * {@code bibliotech.painel.intervalo-ms} e, se algo mudou, distribui
+ * apenas os totais alterados a todos os dashboards conectados. Ao se
+ * conectar, cada dashboard recebe primeiro todos os totais.</p>
+ *
+ * <p>Cada conexão tem um envio pendente próprio, onde as alterações ainda
+ * não enviadas são mescladas: um cliente lento recebe apenas os valores
+ * mais recentes quando voltar a aceitar dados, sem acumular fila. Os
+ * envios rodam em um pool pequeno, nunca na thread do agendamento. Cada
+ * escrita na conexão é feita em uma thread própria e aguardada por até
+ * {@code bibliotech.painel.limite-envio-ms}; passado esse limite, a
+ * conexão deixa de receber envios e o pool segue para as demais, de modo
+ * que um cliente que parou de ler prende apenas a sua escrita, nunca os
+ * envios dos outros; o emissor é encerrado pela escrita quando ela
+ * terminar. O pool de escritas é limitado ao dobro dos envios
+ * simultâneos: se escritas presas o esgotarem, nenhuma thread nova é
+ * aberta; as conexões saudáveis mantêm o conteúdo pendente (mesclado) e
+ * são atendidas em um próximo ciclo, assim que alguma escrita presa
+ * terminar.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+public class PainelEventosService {
+
+    private static final Logger log = LoggerFactory.getLogger(PainelEventosService.class);
+
+    /** Nome do evento SSE com os totais alterados. */
+    public static final String EVENTO = "estatisticas";
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Value("${bibliotech.painel.timeout-ms:1800000}")
+    private long timeoutMs = 1_800_000;
+
+    @Value("${bibliotech.painel.heartbeat-ms:15000}")
+    private long heartbeatMs = 15_000;
+
+    @Value("${bibliotech.painel.limite-envio-ms:10000}")
+    private long limiteEnvioMs = 10_000;
+
+    @Value("${bibliotech.painel.envios-simultaneos:4}")
+    private int enviosSimultaneos = 4;
+
+    private final Set<Assinante> assinantes = ConcurrentHashMap.newKeySet();
+
+    private Map<String, Object> ultimas = Map.of();
+    private long ultimaDifusao = System.currentTimeMillis();
+
+    private ExecutorService executor;
+
+    private ExecutorService escritas;
+
+    /**
+     * Resultado de uma escrita na conexão.
+     */
+    private enum Escrita { CONCLUIDA, ADIADA, ENCERRADA }
+
+    /**
+     * Uma conexão de dashboard e o que ainda falta enviar a ela.
+     */
+    private static final class Assinante {
+        final SseEmitter emitter;
+        final AtomicBoolean agendado = new AtomicBoolean();
+        private Map<String, Object> pendente = new LinkedHashMap<>();
+        private boolean heartbeatPendente;
+
+        Assinante(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        synchronized void mesclar(Map<String, Object> alteracoes, boolean heartbeat) {
+            pendente.putAll(alteracoes);
+            heartbeatPendente |= heartbeat;
+        }
+
+        synchronized boolean temPendente() {
+            return !pendente.isEmpty() || heartbeatPendente;
+        }
+
+        /**
+         * Devolve um conteúdo retirado e não enviado. Valores mesclados
+         * depois da retirada são mais novos e prevalecem.
+         */
+        synchronized void devolver(Map<String, Object> conteudo) {
+            Map<String, Object> devolvido = new LinkedHashMap<>(conteudo);
+            devolvido.putAll(pendente);
+            pendente = devolvido;
+            heartbeatPendente |= conteudo.isEmpty();
+        }
+
+        /** Retira o conteúdo pendente; devolve null se não houver nada. */
+        synchronized Map<String, Object> retirar() {
+            if (pendente.isEmpty() && !heartbeatPendente) {
+                return null;
+            }
+            Map<String, Object> retirado = pendente;
+            pendente = new LinkedHashMap<>();
+            heartbeatPendente = false;
+            return retirado;
+        }
+    }
+
+    /**
+     * Cria o pool de envio e o de escritas nas conexões. O pool de
+     * escritas não tem fila e aceita até o dobro dos envios simultâneos;
+     * além disso a escrita é recusada e adiada para o próximo ciclo.
+     */
+    @PostConstruct
+    public void iniciar() {
+        AtomicInteger contador = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(enviosSimultaneos, tarefa -> {
+            Thread thread = new Thread(tarefa, "painel-sse-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger contadorEscritas = new AtomicInteger();
+        escritas = new ThreadPoolExecutor(0, enviosSimultaneos * 2, 60, TimeUnit.SECONDS,
+            new SynchronousQueue<>(), tarefa -> {
+                Thread thread = new Thread(tarefa, "painel-sse-escrita-" + contadorEscritas.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Encerra as conexões abertas e o pool de envio.
+     */
+    @PreDestroy
+    public void encerrar() {
+        for (Assinante assinante : assinantes) {
+            assinante.emitter.complete();
+        }
+        assinantes.clear();
+        executor.shutdownNow();
+        escritas.shutdownNow();
+    }
+
+    /**
+     * Abre uma nova conexão de dashboard.
+     *
+     * @return o emissor SSE da conexão
+     */
+    public SseEmitter assinar() {
+        return registrar(new SseEmitter(timeoutMs));
+    }
+
+    SseEmitter registrar(SseEmitter emitter) {
+        Assinante assinante = new Assinante(emitter);
+        emitter.onCompletion(() -> assinantes.remove(assinante));
+        emitter.onTimeout(() -> descartar(assinante, "tempo esgotado"));
+        emitter.onError(erro -> assinantes.remove(assinante));
+
+        // A conexão parte dos mesmos totais que a próxima difusão comparará
+        synchronized (this) {
+            if (ultimas.isEmpty()) {
+                ultimas = dashboardService.obterEstatisticas();
+            }
+            assinante.mesclar(ultimas, false);
+            assinantes.add(assinante);
+        }
+        agendar(assinante);
+        return emitter;
+    }
+
+    /**
+     * Lê as estatísticas e difunde os totais alterados. Sem alterações,
+     * envia apenas um comentário periódico para manter as conexões vivas.
+     */
+    @Scheduled(fixedDelayString = "${bibliotech.painel.intervalo-ms:250}")
+    public synchronized void difundir() {
+        if (assinantes.isEmpty()) {
+            return;
+        }
+        Map<String, Object> atuais = dashboardService.obterEstatisticas();
+        Map<String, Object> alteracoes = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entrada : atuais.entrySet()) {
+            if (!Objects.equals(ultimas.get(entrada.getKey()), entrada.getValue())) {
+                alteracoes.put(entrada.getKey(), entrada.getValue());
+            }
+        }
+        ultimas = atuais;
+
+        long agora = System.currentTimeMillis();
+        boolean heartbeat = agora - ultimaDifusao >= heartbeatMs;
+        if (alteracoes.isEmpty() && !heartbeat) {
+            // Conexões com envio adiado por falta de thread de escrita
+            for (Assinante assinante : assinantes) {
+                if (assinante.temPendente()) {
+                    agendar(assinante);
+                }
+            }
+            return;
+        }
+        ultimaDifusao = agora;
+
+        for (Assinante assinante : assinantes) {
+            assinante.mesclar(alteracoes, alteracoes.isEmpty());
+            agendar(assinante);
+        }
+    }
+
+    /**
+     * @return quantidade de dashboards conectados
+     */
+    public int getConexoes() {
+        return assinantes.size();
+    }
+
+    private void agendar(Assinante assinante) {
+        if (assinante.agendado.compareAndSet(false, true)) {
+            try {
+                executor.execute(() -> enviar(assinante));
+            } catch (RejectedExecutionException e) {
+                assinante.agendado.set(false);
+            }
+        }
+    }
+
+    private void enviar(Assinante assinante) {
+        while (true) {
+            Map<String, Object> conteudo = assinante.retirar();
+            if (conteudo == null) {
+                assinante.agendado.set(false);
+                // Algo pode ter chegado entre retirar() e a liberação
+                if (!assinante.temPendente() || !assinante.agendado.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+            SseEmitter.SseEventBuilder evento = conteudo.isEmpty()
+                ? SseEmitter.event().comment("heartbeat")
+                : SseEmitter.event().name(EVENTO).data(conteudo, MediaType.APPLICATION_JSON);
+            Escrita escrita = escrever(assinante, evento);
+            if (escrita == Escrita.ADIADA) {
+                // Sem thread de escrita livre: o conteúdo volta a ficar pendente
+                // e o próximo ciclo de difusão tenta de novo
+                assinante.devolver(conteudo);
+                assinante.agendado.set(false);
+                return;
+            }
+            if (escrita == Escrita.ENCERRADA) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Escreve o evento na conexão, aguardando no máximo o limite de envio.
+     *
+     * <p>O {@code send} e o {@code complete} do emissor disputam o mesmo
+     * monitor; por isso, se a escrita não terminar a tempo, a conexão é
+     * apenas retirada dos assinantes e quem encerra o emissor é a própria
+     * tarefa de escrita, quando o {@code send} retornar ou falhar. A thread
+     * do pool de envio nunca espera pela escrita presa.</p>
+     *
+     * <p>Se todas as threads de escrita estiverem ocupadas (por escritas
+     * presas de outros clientes), a escrita é apenas adiada: a conexão
+     * continua aberta.</p>
+     *
+     * @return o resultado da escrita
+     */
+    private Escrita escrever(Assinante assinante, SseEmitter.SseEventBuilder evento) {
+        // Quem terminar por último entre a escrita e o abandono encerra o emissor
+        AtomicBoolean outroLadoTerminou = new AtomicBoolean();
+        Future<?> escrita;
+        try {
+            escrita = escritas.submit(() -> {
+                try {
+                    assinante.emitter.send(evento);
+                } finally {
+                    if (!outroLadoTerminou.compareAndSet(false, true)) {
+                        encerrarEmissor(assinante);
+                    }
+                }
+                return null;
+            });
+        } catch (RejectedExecutionException e) {
+            return Escrita.ADIADA;
+        }
+        try {
+            escrita.get(limiteEnvioMs, TimeUnit.MILLISECONDS);
+            return Escrita.CONCLUIDA;
+        } catch (TimeoutException e) {
+            abandonar(assinante, escrita, outroLadoTerminou, "envio excedeu " + limiteEnvioMs + " ms");
+        } catch (ExecutionException e) {
+            descartar(assinante, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abandonar(assinante, escrita, outroLadoTerminou, "envio interrompido");
+        }
+        return Escrita.ENCERRADA;
+    }
+
+    /**
+     * Retira a conexão cuja escrita ainda está em andamento. O emissor só
+     * é encerrado aqui se a escrita já tiver terminado, quando o monitor
+     * do emissor está livre.
+     */
+    private void abandonar(Assinante assinante, Future<?> escrita, AtomicBoolean outroLadoTerminou,
+                           String motivo) {
+        escrita.cancel(true);
+        if (assinantes.remove(assinante)) {
+            log.debug("Conexão do dashboard encerrada: {}", motivo);
+        }
+        if (!outroLadoTerminou.compareAndSet(false, true)) {
+            encerrarEmissor(assinante);
+        }
+    }
+
+    private void descartar(Assinante assinante, String motivo) {
+        if (assinantes.remove(assinante)) {
+            log.debug("Conexão do dashboard encerrada: {}", motivo);
+            encerrarEmissor(assinante);
+        }
+    }
+
+    private void encerrarEmissor(Assinante assinante) {
+        try {
+            assinante.emitter.complete();
+        } catch (Exception e) {
+            // conexão já encerrada pelo cliente
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.bibliotech.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Um ponto das séries de tendência do dashboard.
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public class PontoTendencia {
+
+    private final LocalDateTime inicio;
+    private final long emprestimos;
+    private final long devolucoes;
+    private final long atrasados;
+    private final double multas;
+
+    public PontoTendencia(LocalDateTime inicio, long emprestimos, long devolucoes,
+                          long atrasados, double multas) {
+        this.inicio = inicio;
+        this.emprestimos = emprestimos;
+        this.devolucoes = devolucoes;
+        this.atrasados = atrasados;
+        this.multas = multas;
+    }
+
+    /** @return início do período (hora, dia ou mês) */
+    public LocalDateTime getInicio() { return inicio; }
+
+    /** @return empréstimos realizados no período */
+    public long getEmprestimos() { return emprestimos; }
+
+    /** @return devoluções registradas no período */
+    public long getDevolucoes() { return devolucoes; }
+
+    /** @return empréstimos atrasados ao fim do período */
+    public long getAtrasados() { return atrasados; }
+
+    /** @return multas (R$) das devoluções do período */
+    public double getMultas() { return multas; }
+}
@@ -0,0 +1,300 @@
+package com.bibliotech.service;
+
+import com.bibliotech.event.EmprestimoRealizadoEvent;
+import com.bibliotech.model.Emprestimo;
+import com.bibliotech.repository.EmprestimoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Serviço que mantém a popularidade recente dos livros ("em alta").
+ *
+ * <p>Para cada livro emprestado no último ano é mantido um buffer circular
+ * de 365 contadores diários e as somas correntes de cada janela
+ * ({@link Janela}). Na virada do dia o buffer avança: o dia que sai de
+ * cada janela é subtraído da soma correspondente e o balde do novo dia é
+ * zerado. Assim, o top N de qualquer janela é respondido em memória, sem
+ * consultas por intervalo de datas na tabela de empréstimos.</p>
+ *
+ * <p>O estado é reconstruído uma única vez, em segundo plano logo após a
+ * inicialização (ver {@link AquecimentoService}), a partir das contagens
+ * diárias do último ano. Até lá, o top N é calculado por uma consulta
+ * agregada limitada. Retiradas confirmadas durante a leitura são
+ * guardadas e, ao final, só são reaplicadas as que a leitura não viu: ela
+ * roda em uma transação {@code REPEATABLE READ}, e a existência dos
+ * empréstimos guardados é conferida no mesmo instantâneo.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+public class PopularidadeService {
+
+    /**
+     * Janelas de popularidade suportadas.
+     */
+    public enum Janela {
+        SEMANA(7),
+        MES(30),
+        ANO(365);
+
+        private final int dias;
+
+        Janela(int dias) {
+            this.dias = dias;
+        }
+
+        public int getDias() {
+            return dias;
+        }
+
+        /**
+         * Obtém a janela correspondente a uma quantidade de dias.
+         *
+         * @param dias 7, 30 ou 365
+         * @return a janela correspondente
+         * @throws IllegalArgumentException se não houver janela com essa duração
+         */
+        public static Janela deDias(int dias) {
+            for (Janela janela : values()) {
+                if (janela.dias == dias) {
+                    return janela;
+                }
+            }
+            throw new IllegalArgumentException("Janela inválida: " + dias + " dias");
+        }
+    }
+
+    private static final int DIAS = 365;
+
+    /**
+     * Contadores diários e somas por janela de um livro.
+     */
+    private static class Contadores {
+        final int[] dias = new int[DIAS];
+        final long[] somas = new long[Janela.values().length];
+    }
+
+    @Autowired
+    private EmprestimoRepository emprestimoRepository;
+
+    private final Map<Long, Contadores> porLivro = new HashMap<>();
+    private long diaAtual = LocalDate.now().toEpochDay();
+
+    private volatile boolean carregado;
+
+    /**
+     * Retiradas confirmadas durante a carga em andamento; null fora de uma
+     * carga. Protegido pelo monitor do serviço.
+     */
+    private List<Emprestimo> retiradasDuranteCarga;
+
+    /**
+     * Livros excluídos durante a carga em andamento. Protegido pelo monitor
+     * do serviço.
+     */
+    private final Set<Long> removidosDuranteCarga = new HashSet<>();
+
+    /**
+     * Reconstrói os contadores a partir dos empréstimos do último ano.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public void carregar() {
+        synchronized (this) {
+            if (retiradasDuranteCarga != null) {
+                return;
+            }
+            retiradasDuranteCarga = new ArrayList<>();
+            removidosDuranteCarga.clear();
+        }
+        try {
+            LocalDate hoje = LocalDate.now();
+            List<Object[]> linhas = emprestimoRepository
+                .contarPorLivroEDiaDesde(hoje.minusDays(DIAS - 1));
+
+            synchronized (this) {
+                Set<Long> vistas = new HashSet<>();
+                List<Long> ids = new ArrayList<>();
+                for (Emprestimo emprestimo : retiradasDuranteCarga) {
+                    if (emprestimo.getId() != null) {
+                        ids.add(emprestimo.getId());
+                    }
+                }
+                if (!ids.isEmpty()) {
+                    vistas.addAll(emprestimoRepository.findIdsExistentes(ids));
+                }
+
+                porLivro.clear();
+                diaAtual = hoje.toEpochDay();
+                for (Object[] linha : linhas) {
+                    registrar((Long) linha[0], (LocalDate) linha[1], (Long) linha[2], hoje);
+                }
+                for (Emprestimo emprestimo : retiradasDuranteCarga) {
+                    if (!vistas.contains(emprestimo.getId())) {
+                        registrar(emprestimo.getLivro().getId(), emprestimo.getDataEmprestimo(), 1, LocalDate.now());
+                    }
+                }
+                for (Long livroId : removidosDuranteCarga) {
+                    porLivro.remove(livroId);
+                }
+                carregado = true;
+            }
+        } finally {
+            synchronized (this) {
+                retiradasDuranteCarga = null;
+                removidosDuranteCarga.clear();
+            }
+        }
+    }
+
+    /**
+     * Contabiliza um novo empréstimo na popularidade do livro, após a
+     * confirmação da transação.
+     *
+     * @param evento o evento de empréstimo realizado
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void aoRealizarEmprestimo(EmprestimoRealizadoEvent evento) {
+        if (retiradasDuranteCarga != null) {
+            retiradasDuranteCarga.add(evento.getEmprestimo());
+        }
+        registrar(evento.getLivroId(), evento.getEmprestimo().getDataEmprestimo(),
+            1, LocalDate.now());
+    }
+
+    /**
+     * Descarta os contadores de um livro excluído, retirando-o de todas
+     * as janelas.
+     *
+     * @param livroId o identificador do livro excluído
+     */
+    public synchronized void remover(Long livroId) {
+        if (retiradasDuranteCarga != null) {
+            removidosDuranteCarga.add(livroId);
+        }
+        porLivro.remove(livroId);
+    }
+
+    /**
+     * Avança o buffer circular à meia-noite.
+     */
+    @Scheduled(cron = "0 0 0 * * *")
+    public void virarDia() {
+        synchronized (this) {
+            avancarPara(LocalDate.now().toEpochDay());
+        }
+    }
+
+    /**
+     * Retorna os N livros mais emprestados dentro da janela informada.
+     *
+     * @param janela a janela de tempo considerada
+     * @param n quantidade de livros desejada
+     * @return lista com até N contagens, da maior para a menor
+     */
+    public List<ContagemLivro> obterTopo(Janela janela, int n) {
+        if (!carregado) {
+            // Ainda carregando: uma consulta limitada responde no lugar dos contadores
+            List<ContagemLivro> resultado = new ArrayList<>();
+            if (n > 0) {
+                for (Object[] linha : emprestimoRepository.contarPorLivroDesde(
+                        LocalDate.now().minusDays(janela.dias - 1), Limit.of(n))) {
+                    resultado.add(new ContagemLivro((Long) linha[0], (Long) linha[1]));
+                }
+            }
+            return resultado;
+        }
+        return obterTopo(janela, n, LocalDate.now());
+    }
+
+    synchronized void registrar(Long livroId, LocalDate data, long quantidade, LocalDate hoje) {
+        avancarPara(hoje.toEpochDay());
+
+        long dia = data.toEpochDay();
+        long idade = diaAtual - dia;
+        if (idade < 0 || idade >= DIAS) {
+            return;
+        }
+
+        Contadores contadores = porLivro.computeIfAbsent(livroId, id -> new Contadores());
+        contadores.dias[slot(dia)] += (int) quantidade;
+        for (Janela janela : Janela.values()) {
+            if (idade < janela.dias) {
+                contadores.somas[janela.ordinal()] += quantidade;
+            }
+        }
+    }
+
+    synchronized List<ContagemLivro> obterTopo(Janela janela, int n, LocalDate hoje) {
+        avancarPara(hoje.toEpochDay());
+        if (n <= 0) {
+            return new ArrayList<>();
+        }
+
+        // Min-heap limitado a N: custo O(L log N) para L livros ativos
+        PriorityQueue<ContagemLivro> heap = new PriorityQueue<>(n + 1, ContagemLivro.ORDEM_POPULARIDADE);
+        for (Map.Entry<Long, Contadores> entrada : porLivro.entrySet()) {
+            long total = entrada.getValue().somas[janela.ordinal()];
+            if (total == 0) {
+                continue;
+            }
+            ContagemLivro contagem = new ContagemLivro(entrada.getKey(), total);
+            if (heap.size() < n) {
+                heap.add(contagem);
+            } else if (ContagemLivro.ORDEM_POPULARIDADE.compare(contagem, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(contagem);
+            }
+        }
+
+        List<ContagemLivro> resultado = new ArrayList<>(heap);
+        resultado.sort(ContagemLivro.ORDEM_POPULARIDADE.reversed());
+        return resultado;
+    }
+
+    private void avancarPara(long hoje) {
+        if (hoje <= diaAtual) {
+            return;
+        }
+        if (hoje - diaAtual >= DIAS) {
+            porLivro.clear();
+            diaAtual = hoje;
+            return;
+        }
+
+        for (long dia = diaAtual + 1; dia <= hoje; dia++) {
+            int novo = slot(dia);
+            Iterator<Contadores> it = porLivro.values().iterator();
+            while (it.hasNext()) {
+                Contadores contadores = it.next();
+                for (Janela janela : Janela.values()) {
+                    contadores.somas[janela.ordinal()] -= contadores.dias[slot(dia - janela.dias)];
+                }
+                contadores.dias[novo] = 0;
+                if (contadores.somas[Janela.ANO.ordinal()] == 0) {
+                    it.remove();
+                }
+            }
+        }
+        diaAtual = hoje;
+    }
+
+    private static int slot(long dia) {
+        return (int) Math.floorMod(dia, (long) DIAS);
+    }
+}
@@ -0,0 +1,167 @@
+package com.bibliotech.service;
+
+import com.bibliotech.event.EmprestimoRealizadoEvent;
+import com.bibliotech.repository.LivroRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Serviço que mantém o ranking dos livros mais emprestados.
+ *
+ * <p>Cada empréstimo incrementa o contador persistente do livro
+ * ({@code livros.totalEmprestimos}) e atualiza em memória um conjunto
+ * ordenado limitado aos K livros mais emprestados. Como os contadores só
+ * crescem, um livro fora do topo só pode entrar nele pelo próprio
+ * incremento, então o ranking é exato sem reagregar o histórico de
+ * empréstimos. Consultar o top N custa O(K). A exclusão de um livro
+ * libera sua posição, preenchida pelo melhor livro de fora do topo.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+public class RankingService {
+
+    @Autowired
+    private LivroRepository livroRepository;
+
+    @Value("${bibliotech.ranking.capacidade:50}")
+    private int capacidade = 50;
+
+    private final Map<Long, Long> contadores = new HashMap<>();
+    private final Map<Long, ContagemLivro> entradasNoTopo = new HashMap<>();
+    private final TreeSet<ContagemLivro> topo = new TreeSet<>(ContagemLivro.ORDEM_POPULARIDADE);
+
+    /**
+     * Carrega os contadores persistidos assim que a aplicação fica pronta.
+     * Lê apenas a tabela de livros, nunca o histórico de empréstimos.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        List<Object[]> linhas = livroRepository.findContadoresEmprestimo();
+        synchronized (this) {
+            contadores.clear();
+            entradasNoTopo.clear();
+            topo.clear();
+            for (Object[] linha : linhas) {
+                atualizar((Long) linha[0], (Long) linha[1]);
+            }
+        }
+    }
+
+    /**
+     * Incrementa o contador persistente na mesma transação do empréstimo,
+     * de modo que ambos são confirmados ou desfeitos juntos.
+     *
+     * @param evento o evento de empréstimo realizado
+     */
+    @EventListener
+    public void aoRealizarEmprestimo(EmprestimoRealizadoEvent evento) {
+        livroRepository.incrementarTotalEmprestimos(evento.getLivroId());
+    }
+
+    /**
+     * Atualiza o ranking em memória somente após a confirmação do
+     * empréstimo, para que tentativas desfeitas não sejam contadas.
+     *
+     * @param evento o evento de empréstimo realizado
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoConfirmarEmprestimo(EmprestimoRealizadoEvent evento) {
+        registrarEmprestimo(evento.getLivroId());
+    }
+
+    /**
+     * Incrementa o contador em memória de um livro e reposiciona o ranking.
+     *
+     * @param livroId o identificador do livro emprestado
+     */
+    public synchronized void registrarEmprestimo(Long livroId) {
+        atualizar(livroId, contadores.getOrDefault(livroId, 0L) + 1);
+    }
+
+    /**
+     * Retira um livro excluído do ranking. Se ele estava no topo, a vaga
+     * é ocupada pelo livro mais emprestado entre os que estavam fora,
+     * preservando o topo exato.
+     *
+     * @param livroId o identificador do livro excluído
+     */
+    public synchronized void remover(Long livroId) {
+        contadores.remove(livroId);
+        ContagemLivro anterior = entradasNoTopo.remove(livroId);
+        if (anterior == null) {
+            return;
+        }
+        topo.remove(anterior);
+
+        // Varre os contadores: exclusões são raras e o mapa fica em memória
+        ContagemLivro melhor = null;
+        for (Map.Entry<Long, Long> entrada : contadores.entrySet()) {
+            if (entradasNoTopo.containsKey(entrada.getKey())) {
+                continue;
+            }
+            ContagemLivro candidata = new ContagemLivro(entrada.getKey(), entrada.getValue());
+            if (melhor == null || ContagemLivro.ORDEM_POPULARIDADE.compare(candidata, melhor) > 0) {
+                melhor = candidata;
+            }
+        }
+        if (melhor != null) {
+            topo.add(melhor);
+            entradasNoTopo.put(melhor.getLivroId(), melhor);
+        }
+    }
+
+    /**
+     * Retorna os N livros mais emprestados, do mais para o menos popular.
+     *
+     * @param n quantidade de livros desejada (limitada à capacidade do ranking)
+     * @return lista com até N contagens
+     */
+    public synchronized List<ContagemLivro> obterTopo(int n) {
+        List<ContagemLivro> resultado = new ArrayList<>(Math.min(n, topo.size()));
+        Iterator<ContagemLivro> it = topo.descendingIterator();
+        while (it.hasNext() && resultado.size() < n) {
+            resultado.add(it.next());
+        }
+        return resultado;
+    }
+
+    /**
+     * @return quantidade máxima de livros mantidos no ranking
+     */
+    public int getCapacidade() {
+        return capacidade;
+    }
+
+    private void atualizar(Long livroId, long total) {
+        contadores.put(livroId, total);
+        ContagemLivro nova = new ContagemLivro(livroId, total);
+
+        ContagemLivro anterior = entradasNoTopo.remove(livroId);
+        if (anterior != null) {
+            topo.remove(anterior);
+        } else if (topo.size() >= capacidade && ContagemLivro.ORDEM_POPULARIDADE.compare(nova, topo.first()) <= 0) {
+            return;
+        }
+
+        topo.add(nova);
+        entradasNoTopo.put(livroId, nova);
+
+        if (topo.size() > capacidade) {
+            ContagemLivro removida = topo.pollFirst();
+            entradasNoTopo.remove(removida.getLivroId());
+        }
+    }
+}
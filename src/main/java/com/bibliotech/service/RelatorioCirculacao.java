@@ -0,0 +1,167 @@
+package com.bibliotech.service;
+
+import com.bibliotech.model.Usuario;
+import com.bibliotech.repository.LinhaCirculacao;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Relatório mensal de circulação: empréstimos por tipo de usuário, por
+ * editora e por década de publicação, com duração média e multas.
+ *
+ * <p>Os acumuladores são combináveis: cada bloco de empréstimos é somado
+ * em um relatório parcial e os parciais são unidos com
+ * {@link #combinar(RelatorioCirculacao)}, em qualquer ordem. O mês de
+ * referência é o da retirada; duração e multa contam apenas empréstimos
+ * já devolvidos.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public class RelatorioCirculacao {
+
+    static final String SEM_EDITORA = "Sem editora";
+
+    static final String SEM_ANO = "Sem ano";
+
+    private final LocalDate inicio;
+    private final LocalDate fim;
+    private final SortedMap<YearMonth, Mes> meses = new TreeMap<>();
+    private long linhas;
+    private int blocos;
+
+    public RelatorioCirculacao(LocalDate inicio, LocalDate fim) {
+        this.inicio = inicio;
+        this.fim = fim;
+    }
+
+    void registrar(LinhaCirculacao linha) {
+        meses.computeIfAbsent(YearMonth.from(linha.getDataEmprestimo()), m -> new Mes())
+            .registrar(linha);
+        linhas++;
+    }
+
+    void registrarBloco() {
+        blocos++;
+    }
+
+    /**
+     * Soma outro relatório parcial a este.
+     *
+     * @param outro relatório do mesmo período
+     * @return este relatório
+     */
+    RelatorioCirculacao combinar(RelatorioCirculacao outro) {
+        outro.meses.forEach((mes, parcial) -> meses.merge(mes, parcial, Mes::combinar));
+        linhas += outro.linhas;
+        blocos += outro.blocos;
+        return this;
+    }
+
+    public LocalDate getInicio() { return inicio; }
+
+    public LocalDate getFim() { return fim; }
+
+    /** @return meses com empréstimos, em ordem cronológica */
+    public SortedMap<YearMonth, Mes> getMeses() { return Collections.unmodifiableSortedMap(meses); }
+
+    /** @return quantidade de empréstimos lidos */
+    public long getLinhas() { return linhas; }
+
+    /** @return quantidade de blocos de ids consultados */
+    public int getBlocos() { return blocos; }
+
+    /**
+     * Totais de um mês, no geral e por dimensão.
+     */
+    public static class Mes {
+
+        private final Agregado total = new Agregado();
+        private final Map<Usuario.TipoUsuario, Agregado> porTipoUsuario = new EnumMap<>(Usuario.TipoUsuario.class);
+        private final SortedMap<String, Agregado> porEditora = new TreeMap<>();
+        private final SortedMap<String, Agregado> porDecada = new TreeMap<>();
+
+        void registrar(LinhaCirculacao linha) {
+            total.registrar(linha);
+            if (linha.getTipoUsuario() != null) {
+                porTipoUsuario.computeIfAbsent(linha.getTipoUsuario(), t -> new Agregado()).registrar(linha);
+            }
+            porEditora.computeIfAbsent(editora(linha.getEditora()), e -> new Agregado()).registrar(linha);
+            porDecada.computeIfAbsent(decada(linha.getAno()), d -> new Agregado()).registrar(linha);
+        }
+
+        Mes combinar(Mes outro) {
+            total.combinar(outro.total);
+            outro.porTipoUsuario.forEach((chave, valor) -> porTipoUsuario.merge(chave, valor, Agregado::combinar));
+            outro.porEditora.forEach((chave, valor) -> porEditora.merge(chave, valor, Agregado::combinar));
+            outro.porDecada.forEach((chave, valor) -> porDecada.merge(chave, valor, Agregado::combinar));
+            return this;
+        }
+
+        public Agregado getTotal() { return total; }
+
+        public Map<Usuario.TipoUsuario, Agregado> getPorTipoUsuario() { return Collections.unmodifiableMap(porTipoUsuario); }
+
+        public SortedMap<String, Agregado> getPorEditora() { return Collections.unmodifiableSortedMap(porEditora); }
+
+        public SortedMap<String, Agregado> getPorDecada() { return Collections.unmodifiableSortedMap(porDecada); }
+
+        private static String editora(String editora) {
+            return editora == null || editora.isBlank() ? SEM_EDITORA : editora.trim();
+        }
+
+        private static String decada(Integer ano) {
+            if (ano == null) {
+                return SEM_ANO;
+            }
+            int inicio = Math.floorDiv(ano, 10) * 10;
+            return inicio + "-" + (inicio + 9);
+        }
+    }
+
+    /**
+     * Contadores de um grupo: empréstimos, devoluções, dias emprestados e multas.
+     */
+    public static class Agregado {
+
+        private long emprestimos;
+        private long devolvidos;
+        private long diasEmprestado;
+        private double multas;
+
+        void registrar(LinhaCirculacao linha) {
+            emprestimos++;
+            if (linha.getDataDevolucaoReal() != null) {
+                devolvidos++;
+                diasEmprestado += ChronoUnit.DAYS.between(linha.getDataEmprestimo(), linha.getDataDevolucaoReal());
+                multas += linha.getMulta();
+            }
+        }
+
+        Agregado combinar(Agregado outro) {
+            emprestimos += outro.emprestimos;
+            devolvidos += outro.devolvidos;
+            diasEmprestado += outro.diasEmprestado;
+            multas += outro.multas;
+            return this;
+        }
+
+        public long getEmprestimos() { return emprestimos; }
+
+        public long getDevolvidos() { return devolvidos; }
+
+        public double getMultas() { return multas; }
+
+        /** @return duração média, em dias, dos empréstimos devolvidos (0 se nenhum) */
+        public double getDuracaoMedia() {
+            return devolvidos == 0 ? 0.0 : (double) diasEmprestado / devolvidos;
+        }
+    }
+}
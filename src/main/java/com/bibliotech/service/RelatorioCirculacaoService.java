@@ -0,0 +1,211 @@
+package com.bibliotech.service;
+
+import com.bibliotech.model.Usuario;
+import com.bibliotech.repository.EmprestimoRepository;
+import com.bibliotech.repository.LinhaCirculacao;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Gera o relatório mensal de circulação a partir dos empréstimos de um
+ * período, sem carregar a tabela inteira na memória.
+ *
+ * <p>A faixa de ids do período é dividida recursivamente em um pool
+ * fork-join até blocos de {@code bibliotech.relatorios.bloco} ids. Cada
+ * bloco é lido como {@link LinhaCirculacao} (uma consulta, sem entidades
+ * gerenciadas), somado em um {@link RelatorioCirculacao} parcial e
+ * descartado; os parciais são combinados na volta da recursão. Em memória
+ * ficam no máximo um bloco por thread do pool, além dos totais.</p>
+ *
+ * <p>Cada thread ocupa uma conexão durante a leitura, então o paralelismo
+ * deve ficar abaixo do tamanho do pool de conexões. Com
+ * {@code bibliotech.relatorios.paralelismo} em 0 são usados tantos
+ * processadores quantos houver, deixando ao menos duas conexões do pool
+ * ({@code spring.datasource.hikari.maximum-pool-size}) para as
+ * requisições.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+public class RelatorioCirculacaoService {
+
+    private static final Logger log = LoggerFactory.getLogger(RelatorioCirculacaoService.class);
+
+    private static final String CABECALHO_CSV =
+        "mes;dimensao;grupo;emprestimos;devolvidos;duracao_media_dias;multas";
+
+    @Autowired
+    private EmprestimoRepository emprestimoRepository;
+
+    @Value("${bibliotech.relatorios.bloco:20000}")
+    private int bloco = 20_000;
+
+    @Value("${bibliotech.relatorios.paralelismo:0}")
+    private int paralelismo = 0;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int conexoes = 10;
+
+    private ForkJoinPool pool;
+
+    /**
+     * Cria o pool fork-join do relatório.
+     */
+    @PostConstruct
+    public void iniciar() {
+        int threads = paralelismo > 0
+            ? paralelismo
+            : Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), conexoes - 2));
+        pool = new ForkJoinPool(threads, fabrica -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(fabrica);
+            thread.setName("relatorio-circulacao-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Encerra o pool fork-join.
+     */
+    @PreDestroy
+    public void encerrar() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Gera o relatório dos empréstimos retirados entre as duas datas.
+     *
+     * @param de primeira data de retirada (inclusive)
+     * @param ate última data de retirada (inclusive)
+     * @return relatório com os totais de cada mês
+     * @throws IllegalArgumentException se o intervalo for inválido
+     */
+    public RelatorioCirculacao gerar(LocalDate de, LocalDate ate) {
+        if (de == null || ate == null || de.isAfter(ate)) {
+            throw new IllegalArgumentException("Intervalo inválido");
+        }
+
+        List<Object[]> faixa = emprestimoRepository.findFaixaDeIds(de, ate);
+        if (faixa.isEmpty() || faixa.get(0)[0] == null) {
+            return new RelatorioCirculacao(de, ate);
+        }
+        long primeiro = ((Number) faixa.get(0)[0]).longValue();
+        long ultimo = ((Number) faixa.get(0)[1]).longValue();
+
+        long inicio = System.currentTimeMillis();
+        RelatorioCirculacao relatorio = pool.invoke(new TarefaBloco(de, ate, primeiro, ultimo));
+        log.info("Relatório de circulação {} a {}: {} empréstimos em {} blocos, {} ms",
+            de, ate, relatorio.getLinhas(), relatorio.getBlocos(), System.currentTimeMillis() - inicio);
+        return relatorio;
+    }
+
+    /**
+     * Escreve o relatório em CSV (separador ponto e vírgula, decimais com
+     * ponto), uma linha por mês e grupo: o total do mês, cada tipo de
+     * usuário, cada editora e cada década de publicação.
+     *
+     * @param relatorio o relatório gerado
+     * @param saida destino do texto; não é fechado
+     * @throws IOException se a escrita falhar
+     */
+    public void escreverCsv(RelatorioCirculacao relatorio, Writer saida) throws IOException {
+        saida.write(CABECALHO_CSV);
+        saida.write('\n');
+        for (Map.Entry<YearMonth, RelatorioCirculacao.Mes> entrada : relatorio.getMeses().entrySet()) {
+            String mes = entrada.getKey().toString();
+            RelatorioCirculacao.Mes totais = entrada.getValue();
+            escreverLinha(saida, mes, "TOTAL", "", totais.getTotal());
+            for (Map.Entry<Usuario.TipoUsuario, RelatorioCirculacao.Agregado> grupo : totais.getPorTipoUsuario().entrySet()) {
+                escreverLinha(saida, mes, "TIPO_USUARIO", grupo.getKey().name(), grupo.getValue());
+            }
+            for (Map.Entry<String, RelatorioCirculacao.Agregado> grupo : totais.getPorEditora().entrySet()) {
+                escreverLinha(saida, mes, "EDITORA", grupo.getKey(), grupo.getValue());
+            }
+            for (Map.Entry<String, RelatorioCirculacao.Agregado> grupo : totais.getPorDecada().entrySet()) {
+                escreverLinha(saida, mes, "DECADA", grupo.getKey(), grupo.getValue());
+            }
+        }
+        saida.flush();
+    }
+
+    private void escreverLinha(Writer saida, String mes, String dimensao, String grupo,
+                               RelatorioCirculacao.Agregado agregado) throws IOException {
+        saida.write(mes);
+        saida.write(';');
+        saida.write(dimensao);
+        saida.write(';');
+        saida.write(campoCsv(grupo));
+        saida.write(';');
+        saida.write(Long.toString(agregado.getEmprestimos()));
+        saida.write(';');
+        saida.write(Long.toString(agregado.getDevolvidos()));
+        saida.write(';');
+        saida.write(String.format(Locale.ROOT, "%.2f", agregado.getDuracaoMedia()));
+        saida.write(';');
+        saida.write(String.format(Locale.ROOT, "%.2f", agregado.getMultas()));
+        saida.write('\n');
+    }
+
+    private static String campoCsv(String valor) {
+        if (valor.indexOf(';') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0) {
+            return valor;
+        }
+        return '"' + valor.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Soma uma faixa de ids: divide ao meio enquanto for maior que um bloco.
+     */
+    private class TarefaBloco extends RecursiveTask<RelatorioCirculacao> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final LocalDate de;
+        private final LocalDate ate;
+        private final long primeiro;
+        private final long ultimo;
+
+        TarefaBloco(LocalDate de, LocalDate ate, long primeiro, long ultimo) {
+            this.de = de;
+            this.ate = ate;
+            this.primeiro = primeiro;
+            this.ultimo = ultimo;
+        }
+
+        @Override
+        protected RelatorioCirculacao compute() {
+            if (ultimo - primeiro < bloco) {
+                RelatorioCirculacao parcial = new RelatorioCirculacao(de, ate);
+                for (LinhaCirculacao linha : emprestimoRepository.findLinhasCirculacao(primeiro, ultimo, de, ate)) {
+                    parcial.registrar(linha);
+                }
+                parcial.registrarBloco();
+                return parcial;
+            }
+
+            long meio = primeiro + (ultimo - primeiro) / 2;
+            TarefaBloco esquerda = new TarefaBloco(de, ate, primeiro, meio);
+            TarefaBloco direita = new TarefaBloco(de, ate, meio + 1, ultimo);
+            esquerda.fork();
+            RelatorioCirculacao resultado = direita.compute();
+            return resultado.combinar(esquerda.join());
+        }
+    }
+}
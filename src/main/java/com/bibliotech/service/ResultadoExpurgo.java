@@ -0,0 +1,34 @@
+package com.bibliotech.service;
+
+/**
+ * Totais de uma execução do expurgo de usuários excluídos.
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public class ResultadoExpurgo {
+
+    private int emprestimos;
+    private int usuarios;
+    private int lotes;
+
+    void registrarEmprestimos(int quantidade) {
+        emprestimos += quantidade;
+        lotes++;
+    }
+
+    void registrarUsuarios(int quantidade) {
+        usuarios += quantidade;
+        lotes++;
+    }
+
+    /** @return quantidade de empréstimos removidos do histórico */
+    public int getEmprestimos() { return emprestimos; }
+
+    /** @return quantidade de usuários removidos definitivamente */
+    public int getUsuarios() { return usuarios; }
+
+    /** @return quantidade de lotes (transações) executados */
+    public int getLotes() { return lotes; }
+}
@@ -0,0 +1,64 @@
+package com.bibliotech.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Totais e erros de uma importação de usuários a partir de CSV.
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public class ResultadoImportacao {
+
+    /** Quantidade máxima de mensagens de erro guardadas. */
+    static final int MAXIMO_ERROS = 100;
+
+    private int linhas;
+    private int inseridos;
+    private int atualizados;
+    private int ignorados;
+    private int rejeitados;
+    private int desativados;
+    private final List<String> erros = new ArrayList<>();
+
+    void contarLinha() { linhas++; }
+
+    void contarInseridos(int quantidade) { inseridos += quantidade; }
+
+    void contarAtualizados(int quantidade) { atualizados += quantidade; }
+
+    void contarIgnorado() { ignorados++; }
+
+    void contarDesativados(int quantidade) { desativados += quantidade; }
+
+    void rejeitar(int linha, String motivo) {
+        rejeitados++;
+        if (erros.size() < MAXIMO_ERROS) {
+            erros.add("Linha " + linha + ": " + motivo);
+        }
+    }
+
+    /** @return quantidade de linhas de dados lidas (sem o cabeçalho) */
+    public int getLinhas() { return linhas; }
+
+    /** @return quantidade de usuários novos inseridos */
+    public int getInseridos() { return inseridos; }
+
+    /** @return quantidade de usuários existentes atualizados (modo sincronizar) */
+    public int getAtualizados() { return atualizados; }
+
+    /** @return quantidade de linhas de usuários já cadastrados, mantidos sem alteração */
+    public int getIgnorados() { return ignorados; }
+
+    /** @return quantidade de linhas inválidas, duplicadas no arquivo ou em conflito */
+    public int getRejeitados() { return rejeitados; }
+
+    /** @return quantidade de usuários desativados por não constarem no arquivo */
+    public int getDesativados() { return desativados; }
+
+    /** @return as primeiras mensagens de erro, com o número da linha */
+    public List<String> getErros() { return Collections.unmodifiableList(erros); }
+}
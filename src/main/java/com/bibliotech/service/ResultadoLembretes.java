@@ -0,0 +1,41 @@
+package com.bibliotech.service;
+
+/**
+ * Totais de uma execução do envio de lembretes de devolução. Usuários e
+ * empréstimos contam apenas o que esta execução reservou.
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public class ResultadoLembretes {
+
+    private int usuarios;
+    private int emprestimos;
+    private int enviados;
+    private int falhas;
+    private int semConfirmacao;
+
+    void registrarLote(int usuarios, int emprestimos, int enviados, int falhas, int semConfirmacao) {
+        this.usuarios += usuarios;
+        this.emprestimos += emprestimos;
+        this.enviados += enviados;
+        this.falhas += falhas;
+        this.semConfirmacao += semConfirmacao;
+    }
+
+    /** @return quantidade de usuários com lembretes pendentes processados */
+    public int getUsuarios() { return usuarios; }
+
+    /** @return quantidade de empréstimos incluídos nos resumos */
+    public int getEmprestimos() { return emprestimos; }
+
+    /** @return quantidade de e-mails (um por usuário) enviados com sucesso */
+    public int getEnviados() { return enviados; }
+
+    /** @return quantidade de e-mails que falharam e serão tentados na próxima execução */
+    public int getFalhas() { return falhas; }
+
+    /** @return quantidade de e-mails sem confirmação no prazo, mantidos como enviados */
+    public int getSemConfirmacao() { return semConfirmacao; }
+}
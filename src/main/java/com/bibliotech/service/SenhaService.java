@@ -0,0 +1,195 @@
+package com.bibliotech.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Serviço de codificação e verificação de senhas com BCrypt.
+ *
+ * <p>A verificação é deliberadamente cara (custo configurável em
+ * {@code bibliotech.senha.custo}) e por isso roda em um pool próprio,
+ * com número fixo de threads e uma fila curta, por padrão de duas
+ * verificações por thread. Cada login na fila prende uma thread do Tomcat
+ * enquanto aguarda, então a fila e a espera máxima
+ * ({@code bibliotech.senha.espera-maxima-ms}) são pequenas: em um pico,
+ * poucas threads de requisição ficam presas por pouco tempo e os logins
+ * excedentes são recusados de imediato, sem esgotar as threads que
+ * atendem o resto do sistema.</p>
+ *
+ * <p>Senhas gravadas antes da adoção do BCrypt (texto puro) continuam
+ * aceitas e são recodificadas no primeiro login bem-sucedido.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+public class SenhaService {
+
+    /**
+     * Formato de um hash BCrypt: $2a$, $2b$ ou $2y$, custo e 53 caracteres.
+     */
+    private static final Pattern HASH_BCRYPT =
+        Pattern.compile("\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}");
+
+    /**
+     * Valor gravado como senha de contas que ainda não têm senha definida
+     * (ex.: usuários importados). Nunca confere com nenhuma senha.
+     */
+    public static final String SENHA_BLOQUEADA = "!bloqueada";
+
+    private static final Pattern CUSTO_HASH = Pattern.compile("\\$2[aby]?\\$(\\d\\d)\\$.*");
+
+    @Value("${bibliotech.senha.custo:10}")
+    private int custo = 10;
+
+    @Value("${bibliotech.senha.verificacoes-simultaneas:0}")
+    private int verificacoesSimultaneas = 0;
+
+    @Value("${bibliotech.senha.fila:0}")
+    private int fila = 0;
+
+    @Value("${bibliotech.senha.espera-maxima-ms:1000}")
+    private long esperaMaximaMs = 1000;
+
+    private BCryptPasswordEncoder encoder;
+
+    private ThreadPoolExecutor executor;
+
+    /**
+     * Hash de uma senha qualquer, verificado quando o email não existe
+     * para que a resposta leve o mesmo tempo de uma senha errada.
+     */
+    private String hashFicticio;
+
+    /**
+     * Cria o codificador e o pool de verificação.
+     */
+    @PostConstruct
+    public void iniciar() {
+        encoder = new BCryptPasswordEncoder(custo);
+        hashFicticio = encoder.encode("senha-ficticia");
+
+        int threads = verificacoesSimultaneas > 0
+            ? verificacoesSimultaneas
+            : Runtime.getRuntime().availableProcessors();
+        int capacidadeFila = fila > 0 ? fila : threads * 2;
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory fabrica = tarefa -> {
+            Thread thread = new Thread(tarefa, "verificacao-senha-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(capacidadeFila), fabrica, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Encerra o pool de verificação.
+     */
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Codifica uma senha em texto puro.
+     *
+     * @param senha a senha informada pelo usuário
+     * @return o hash BCrypt, com sal embutido
+     */
+    public String codificar(String senha) {
+        return encoder.encode(senha);
+    }
+
+    /**
+     * Indica se o valor já é um hash BCrypt (e não uma senha em texto puro).
+     *
+     * @param valor o valor gravado ou recebido do formulário
+     * @return true se for um hash BCrypt
+     */
+    public boolean estaCodificada(String valor) {
+        return valor != null && HASH_BCRYPT.matcher(valor).matches();
+    }
+
+    /**
+     * Indica se a senha gravada deve ser recodificada: texto puro ou
+     * hash gerado com custo diferente do configurado.
+     *
+     * @param armazenada a senha gravada no banco
+     * @return true se precisa ser recodificada
+     */
+    public boolean precisaRecodificar(String armazenada) {
+        if (!estaCodificada(armazenada)) {
+            return true;
+        }
+        var custoHash = CUSTO_HASH.matcher(armazenada);
+        return custoHash.matches() && Integer.parseInt(custoHash.group(1)) != custo;
+    }
+
+    /**
+     * Verifica uma senha no pool de verificação, aguardando o resultado.
+     *
+     * <p>Se {@code armazenada} for nula (email inexistente), compara contra
+     * um hash fictício e retorna false, mantendo o mesmo custo de tempo.</p>
+     *
+     * @param senha a senha informada no login
+     * @param armazenada a senha gravada no banco, ou null
+     * @return true se a senha confere
+     * @throws RuntimeException se o pool estiver saturado ou a verificação
+     *         exceder o tempo máximo de espera
+     */
+    public boolean verificar(String senha, String armazenada) {
+        Future<Boolean> resultado;
+        try {
+            resultado = executor.submit(() -> comparar(senha, armazenada));
+        } catch (RejectedExecutionException e) {
+            throw new RuntimeException("Muitos acessos simultâneos. Tente novamente em instantes");
+        }
+
+        try {
+            return resultado.get(esperaMaximaMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            resultado.cancel(true);
+            throw new RuntimeException("Verificação de senha interrompida", e);
+        } catch (TimeoutException e) {
+            resultado.cancel(true);
+            throw new RuntimeException("Muitos acessos simultâneos. Tente novamente em instantes");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Erro ao verificar senha", e.getCause());
+        }
+    }
+
+    private boolean comparar(String senha, String armazenada) {
+        if (senha == null) {
+            return false;
+        }
+        if (armazenada == null || SENHA_BLOQUEADA.equals(armazenada)) {
+            encoder.matches(senha, hashFicticio);
+            return false;
+        }
+        if (estaCodificada(armazenada)) {
+            return encoder.matches(senha, armazenada);
+        }
+        // Senha legada em texto puro
+        return MessageDigest.isEqual(
+            senha.getBytes(StandardCharsets.UTF_8),
+            armazenada.getBytes(StandardCharsets.UTF_8));
+    }
+}
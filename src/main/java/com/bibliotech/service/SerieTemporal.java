@@ -0,0 +1,170 @@
+package com.bibliotech.service;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Série temporal com um instante e um número fixo de métricas por ponto,
+ * armazenada em {@link ColunaCompactada colunas compactadas}.
+ *
+ * <p>Os instantes são números inteiros crescentes (ex.: horas ou dias
+ * desde a época) e as métricas, contadores inteiros. Não é thread-safe;
+ * o acesso é sincronizado por quem a utiliza.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public class SerieTemporal {
+
+    private final ColunaCompactada instantes;
+    private final ColunaCompactada[] metricas;
+
+    /**
+     * @param quantidadeMetricas quantidade de métricas por ponto
+     */
+    public SerieTemporal(int quantidadeMetricas) {
+        this(new ColunaCompactada(), novasColunas(quantidadeMetricas));
+    }
+
+    private SerieTemporal(ColunaCompactada instantes, ColunaCompactada[] metricas) {
+        this.instantes = instantes;
+        this.metricas = metricas;
+    }
+
+    /**
+     * Inclui um ponto no fim da série.
+     *
+     * @param instante o instante do ponto, maior que o último incluído
+     * @param valores um valor por métrica
+     * @throws IllegalArgumentException se o instante não for crescente ou
+     *         a quantidade de valores não corresponder às métricas
+     */
+    public void adicionar(long instante, long... valores) {
+        if (valores.length != metricas.length) {
+            throw new IllegalArgumentException("Esperadas " + metricas.length + " métricas");
+        }
+        if (instantes.tamanho() > 0 && instante <= ultimoInstante()) {
+            throw new IllegalArgumentException("Instante fora de ordem: " + instante);
+        }
+        instantes.adicionar(instante);
+        for (int i = 0; i < valores.length; i++) {
+            metricas[i].adicionar(valores[i]);
+        }
+    }
+
+    /**
+     * @return o último instante incluído, ou {@link Long#MIN_VALUE} se vazia
+     */
+    public long ultimoInstante() {
+        return instantes.tamanho() == 0 ? Long.MIN_VALUE : instantes.ultimo();
+    }
+
+    /**
+     * Lê os pontos de um intervalo.
+     *
+     * @param de instante inicial (inclusive)
+     * @param ate instante final (exclusive)
+     * @return um vetor por ponto: o instante seguido das métricas
+     */
+    public List<long[]> entre(long de, long ate) {
+        long[] tempos = instantes.valores();
+        long[][] colunas = new long[metricas.length][];
+        for (int i = 0; i < metricas.length; i++) {
+            colunas[i] = metricas[i].valores();
+        }
+
+        List<long[]> pontos = new ArrayList<>();
+        for (int p = 0; p < tempos.length; p++) {
+            if (tempos[p] >= de && tempos[p] < ate) {
+                long[] ponto = new long[metricas.length + 1];
+                ponto[0] = tempos[p];
+                for (int i = 0; i < metricas.length; i++) {
+                    ponto[i + 1] = colunas[i][p];
+                }
+                pontos.add(ponto);
+            }
+        }
+        return pontos;
+    }
+
+    /**
+     * Cria uma nova série apenas com os pontos a partir de um instante.
+     *
+     * @param instante o primeiro instante mantido
+     * @return a série recompactada
+     */
+    public SerieTemporal manterDesde(long instante) {
+        SerieTemporal nova = new SerieTemporal(metricas.length);
+        for (long[] ponto : entre(instante, Long.MAX_VALUE)) {
+            long[] valores = new long[metricas.length];
+            System.arraycopy(ponto, 1, valores, 0, valores.length);
+            nova.adicionar(ponto[0], valores);
+        }
+        return nova;
+    }
+
+    /**
+     * @return quantidade de pontos
+     */
+    public int tamanho() {
+        return instantes.tamanho();
+    }
+
+    /**
+     * @return bytes ocupados por todas as colunas
+     */
+    public int tamanhoEmBytes() {
+        int total = instantes.tamanhoEmBytes();
+        for (ColunaCompactada coluna : metricas) {
+            total += coluna.tamanhoEmBytes();
+        }
+        return total;
+    }
+
+    /**
+     * Grava a série (quantidade de métricas e colunas).
+     *
+     * @param saida o destino
+     * @throws IOException se a gravação falhar
+     */
+    public void gravar(DataOutput saida) throws IOException {
+        saida.writeInt(metricas.length);
+        instantes.gravar(saida);
+        for (ColunaCompactada coluna : metricas) {
+            coluna.gravar(saida);
+        }
+    }
+
+    /**
+     * Lê uma série gravada por {@link #gravar}.
+     *
+     * @param entrada a origem
+     * @return a série lida
+     * @throws IOException se a leitura falhar ou as colunas não tiverem o
+     *         mesmo tamanho
+     */
+    public static SerieTemporal ler(DataInput entrada) throws IOException {
+        int quantidadeMetricas = entrada.readInt();
+        ColunaCompactada instantes = ColunaCompactada.ler(entrada);
+        ColunaCompactada[] metricas = new ColunaCompactada[quantidadeMetricas];
+        for (int i = 0; i < quantidadeMetricas; i++) {
+            metricas[i] = ColunaCompactada.ler(entrada);
+            if (metricas[i].tamanho() != instantes.tamanho()) {
+                throw new IOException("Série corrompida: colunas com tamanhos diferentes");
+            }
+        }
+        return new SerieTemporal(instantes, metricas);
+    }
+
+    private static ColunaCompactada[] novasColunas(int quantidade) {
+        ColunaCompactada[] colunas = new ColunaCompactada[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            colunas[i] = new ColunaCompactada();
+        }
+        return colunas;
+    }
+}
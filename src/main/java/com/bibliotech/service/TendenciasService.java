@@ -0,0 +1,401 @@
+package com.bibliotech.service;
+
+import com.bibliotech.event.EmprestimoDevolvidoEvent;
+import com.bibliotech.event.EmprestimoRealizadoEvent;
+import com.bibliotech.repository.EmprestimoRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Séries históricas do dashboard para gráficos de tendência.
+ *
+ * <p>A cada hora é gravado um ponto com os empréstimos e devoluções da
+ * hora, a soma das multas e a quantidade de atrasados ao fim da hora. Os
+ * empréstimos e devoluções são contados pelos eventos de empréstimo, sem
+ * consultar a tabela. Ao fim de cada dia, as horas do dia são consolidadas
+ * em um ponto diário; pontos horários mais antigos que
+ * {@code bibliotech.tendencias.retencao-horas-dias} são descartados e só
+ * a série diária é mantida. Meses são somados a partir dos dias na
+ * consulta.</p>
+ *
+ * <p>As séries ficam em memória em {@link SerieTemporal colunas
+ * compactadas} (alguns bytes por ponto) e são gravadas no arquivo
+ * {@code bibliotech.tendencias.arquivo} a cada hora e no encerramento.
+ * Sem arquivo, a série diária é reconstruída uma única vez a partir do
+ * histórico de empréstimos. Com a propriedade vazia (o padrão, já que o
+ * banco em memória é recriado a cada subida), nada é gravado e a série
+ * é reconstruída em toda subida; só o perfil {@code producao}, com banco
+ * persistente, define o arquivo.</p>
+ *
+ * <p>A carga roda em segundo plano logo após a inicialização (ver
+ * {@link AquecimentoService}). A reconstrução consulta o banco fora do
+ * monitor do serviço: eventos e consultas seguem atendidos, com a série
+ * diária vazia até a troca.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+public class TendenciasService {
+
+    /**
+     * Resoluções das séries consultadas.
+     */
+    public enum Resolucao { HORA, DIA, MES }
+
+    private static final Logger log = LoggerFactory.getLogger(TendenciasService.class);
+
+    private static final int FORMATO = 0x42545331;
+
+    private static final int EMPRESTIMOS = 0;
+    private static final int DEVOLUCOES = 1;
+    private static final int ATRASADOS = 2;
+    private static final int MULTAS_CENTAVOS = 3;
+    private static final int METRICAS = 4;
+
+    @Autowired
+    private EmprestimoRepository emprestimoRepository;
+
+    @Autowired
+    private MetricasService metricasService;
+
+    @Value("${bibliotech.tendencias.arquivo:}")
+    private String arquivo = "";
+
+    @Value("${bibliotech.tendencias.retencao-horas-dias:90}")
+    private int retencaoHorasDias = 90;
+
+    /** Pontos horários; instante = horas desde a época, no horário local. */
+    private SerieTemporal horas = new SerieTemporal(METRICAS);
+
+    /** Pontos diários; instante = dias desde a época. */
+    private SerieTemporal dias = new SerieTemporal(METRICAS);
+
+    /** Hora em andamento e seus contadores, ainda não gravados em {@link #horas}. */
+    private long horaCorrente = horaDe(LocalDateTime.now());
+    private final long[] corrente = new long[METRICAS];
+
+    /**
+     * Carrega as séries do arquivo ou, na primeira execução, reconstrói a
+     * série diária a partir do histórico.
+     */
+    public void carregar() {
+        synchronized (this) {
+            horaCorrente = horaDe(LocalDateTime.now());
+            Path caminho = caminho();
+            if (caminho != null && Files.exists(caminho)) {
+                try {
+                    ler(caminho);
+                    consolidar();
+                    gravar();
+                    return;
+                } catch (IOException e) {
+                    log.warn("Arquivo de tendências ilegível ({}); reconstruindo a partir do histórico",
+                        e.getMessage());
+                }
+            }
+        }
+
+        SerieTemporal reconstruida = reconstruirDias(LocalDate.now());
+        synchronized (this) {
+            // Dias já consolidados durante a reconstrução são refeitos a
+            // partir das horas, depois do último dia reconstruído
+            dias = reconstruida;
+            consolidar();
+            gravar();
+        }
+    }
+
+    /**
+     * Fecha a hora anterior e grava as séries.
+     */
+    @Scheduled(cron = "${bibliotech.tendencias.cron:0 0 * * * *}")
+    public synchronized void fecharHora() {
+        avancar(horaDe(LocalDateTime.now()));
+        gravar();
+    }
+
+    /**
+     * Grava as séries e os contadores da hora em andamento.
+     */
+    @PreDestroy
+    public synchronized void encerrar() {
+        gravar();
+    }
+
+    /**
+     * @param evento o evento de empréstimo realizado
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void aoRealizarEmprestimo(EmprestimoRealizadoEvent evento) {
+        avancar(horaDe(LocalDateTime.now()));
+        corrente[EMPRESTIMOS]++;
+    }
+
+    /**
+     * @param evento o evento de empréstimo devolvido
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void aoDevolverEmprestimo(EmprestimoDevolvidoEvent evento) {
+        avancar(horaDe(LocalDateTime.now()));
+        corrente[DEVOLUCOES]++;
+        Double multa = evento.getEmprestimo().getMulta();
+        if (multa != null) {
+            corrente[MULTAS_CENTAVOS] += Math.round(multa * 100);
+        }
+    }
+
+    /**
+     * Consulta uma série de tendência.
+     *
+     * @param resolucao hora, dia ou mês
+     * @param de data inicial (inclusive)
+     * @param ate data final (inclusive)
+     * @return os pontos do intervalo, em ordem cronológica; períodos sem
+     *         registro não aparecem
+     */
+    public synchronized List<PontoTendencia> consultar(Resolucao resolucao, LocalDate de, LocalDate ate) {
+        if (resolucao == Resolucao.HORA) {
+            List<PontoTendencia> pontos = converter(
+                horas.entre(de.toEpochDay() * 24, (ate.toEpochDay() + 1) * 24), resolucao);
+            long limite = (ate.toEpochDay() + 1) * 24;
+            if (horaCorrente < limite && horaCorrente >= de.toEpochDay() * 24) {
+                pontos.add(ponto(horaCorrente, corrente[EMPRESTIMOS], corrente[DEVOLUCOES],
+                    metricasService.obterTotais().getEmprestimosAtrasados(),
+                    corrente[MULTAS_CENTAVOS], resolucao));
+            }
+            return pontos;
+        }
+
+        List<long[]> diarios = dias.entre(de.toEpochDay(), ate.toEpochDay() + 1);
+        if (resolucao == Resolucao.DIA) {
+            return converter(diarios, resolucao);
+        }
+        TreeMap<Long, long[]> meses = new TreeMap<>();
+        for (long[] dia : diarios) {
+            LocalDate data = LocalDate.ofEpochDay(dia[0]);
+            somar(meses, data.withDayOfMonth(1).toEpochDay(), dia);
+        }
+        return converter(new ArrayList<>(meses.values()), resolucao);
+    }
+
+    /**
+     * @return bytes ocupados pelas séries em memória
+     */
+    public synchronized int tamanhoEmBytes() {
+        return horas.tamanhoEmBytes() + dias.tamanhoEmBytes();
+    }
+
+    /**
+     * Fecha a hora corrente se o relógio já passou dela e consolida os dias
+     * encerrados.
+     */
+    private void avancar(long agora) {
+        if (agora <= horaCorrente) {
+            return;
+        }
+        if (horaCorrente > horas.ultimoInstante()) {
+            corrente[ATRASADOS] = metricasService.obterTotais().getEmprestimosAtrasados();
+            horas.adicionar(horaCorrente, corrente);
+        }
+        Arrays.fill(corrente, 0);
+        horaCorrente = agora;
+        consolidar();
+    }
+
+    /**
+     * Soma as horas de cada dia encerrado em um ponto diário (atrasados: o
+     * valor da última hora) e descarta as horas fora da retenção.
+     */
+    private void consolidar() {
+        long hoje = Math.floorDiv(horaCorrente, 24);
+        long desde = dias.tamanho() == 0 ? Long.MIN_VALUE : (dias.ultimoInstante() + 1) * 24;
+        TreeMap<Long, long[]> encerrados = new TreeMap<>();
+        for (long[] hora : horas.entre(desde, hoje * 24)) {
+            somar(encerrados, Math.floorDiv(hora[0], 24), hora);
+        }
+        for (long[] dia : encerrados.values()) {
+            dias.adicionar(dia[0], valores(dia));
+        }
+
+        long limite = (hoje - retencaoHorasDias) * 24;
+        if (!horas.entre(Long.MIN_VALUE, limite).isEmpty()) {
+            horas = horas.manterDesde(limite);
+        }
+    }
+
+    /**
+     * Reconstrói a série diária até ontem com três consultas agregadas ao
+     * histórico de empréstimos. Os atrasados de cada dia são obtidos dos
+     * intervalos (vencimento, devolução) de cada grupo de empréstimos.
+     */
+    SerieTemporal reconstruirDias(LocalDate hoje) {
+        TreeMap<Long, long[]> porDia = new TreeMap<>();
+        for (Object[] linha : emprestimoRepository.contarRetiradasPorDia(hoje)) {
+            long[] dia = porDia.computeIfAbsent(((LocalDate) linha[0]).toEpochDay(), d -> novoDia(d));
+            dia[1 + EMPRESTIMOS] += (Long) linha[1];
+        }
+        for (Object[] linha : emprestimoRepository.contarDevolucoesPorDia(hoje)) {
+            long[] dia = porDia.computeIfAbsent(((LocalDate) linha[0]).toEpochDay(), d -> novoDia(d));
+            dia[1 + DEVOLUCOES] += (Long) linha[1];
+            dia[1 + MULTAS_CENTAVOS] += linha[2] != null ? Math.round((Double) linha[2] * 100) : 0;
+        }
+
+        SerieTemporal serie = new SerieTemporal(METRICAS);
+        if (porDia.isEmpty()) {
+            return serie;
+        }
+        long primeiro = porDia.firstKey();
+        long ultimo = hoje.toEpochDay() - 1;
+        if (ultimo < primeiro) {
+            return serie;
+        }
+
+        // Atrasado ao fim do dia d: vencimento < d e devolução ausente ou > d
+        long[] variacao = new long[(int) (ultimo - primeiro + 2)];
+        for (Object[] linha : emprestimoRepository.contarPorVencimentoEDevolucao(hoje)) {
+            long inicio = Math.max(((LocalDate) linha[0]).toEpochDay() + 1, primeiro);
+            long fim = linha[1] != null ? ((LocalDate) linha[1]).toEpochDay() - 1 : ultimo;
+            fim = Math.min(fim, ultimo);
+            if (inicio <= fim) {
+                variacao[(int) (inicio - primeiro)] += (Long) linha[2];
+                variacao[(int) (fim - primeiro + 1)] -= (Long) linha[2];
+            }
+        }
+
+        long atrasados = 0;
+        for (long d = primeiro; d <= ultimo; d++) {
+            atrasados += variacao[(int) (d - primeiro)];
+            long[] dia = porDia.getOrDefault(d, novoDia(d));
+            dia[1 + ATRASADOS] = atrasados;
+            serie.adicionar(d, valores(dia));
+        }
+        return serie;
+    }
+
+    private void ler(Path caminho) throws IOException {
+        try (DataInputStream entrada = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(caminho)))) {
+            if (entrada.readInt() != FORMATO) {
+                throw new IOException("formato desconhecido");
+            }
+            SerieTemporal lidasHoras = SerieTemporal.ler(entrada);
+            SerieTemporal lidosDias = SerieTemporal.ler(entrada);
+            long horaGravada = entrada.readLong();
+            long[] gravados = new long[METRICAS];
+            for (int i = 0; i < METRICAS; i++) {
+                gravados[i] = entrada.readLong();
+            }
+
+            horas = lidasHoras;
+            dias = lidosDias;
+            if (horaGravada == horaCorrente) {
+                System.arraycopy(gravados, 0, corrente, 0, METRICAS);
+            } else if (horaGravada > horas.ultimoInstante() && horaGravada < horaCorrente) {
+                gravados[ATRASADOS] = metricasService.obterTotais().getEmprestimosAtrasados();
+                horas.adicionar(horaGravada, gravados);
+            }
+        }
+    }
+
+    /**
+     * Grava em um arquivo temporário e o move sobre o anterior, para que
+     * uma falha no meio da gravação não corrompa as séries.
+     */
+    private void gravar() {
+        Path caminho = caminho();
+        if (caminho == null) {
+            return;
+        }
+        try {
+            Path pasta = caminho.toAbsolutePath().getParent();
+            Files.createDirectories(pasta);
+            Path temporario = Files.createTempFile(pasta, "tendencias", ".tmp");
+            try (DataOutputStream saida = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporario)))) {
+                saida.writeInt(FORMATO);
+                horas.gravar(saida);
+                dias.gravar(saida);
+                saida.writeLong(horaCorrente);
+                for (long valor : corrente) {
+                    saida.writeLong(valor);
+                }
+            }
+            Files.move(temporario, caminho, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Não foi possível gravar as tendências em {}: {}", caminho, e.getMessage());
+        }
+    }
+
+    private Path caminho() {
+        return arquivo == null || arquivo.isBlank() ? null : Path.of(arquivo);
+    }
+
+    private static void somar(TreeMap<Long, long[]> destino, long instante, long[] ponto) {
+        long[] soma = destino.computeIfAbsent(instante, TendenciasService::novoDia);
+        soma[1 + EMPRESTIMOS] += ponto[1 + EMPRESTIMOS];
+        soma[1 + DEVOLUCOES] += ponto[1 + DEVOLUCOES];
+        soma[1 + MULTAS_CENTAVOS] += ponto[1 + MULTAS_CENTAVOS];
+        soma[1 + ATRASADOS] = ponto[1 + ATRASADOS];
+    }
+
+    private static long[] novoDia(long instante) {
+        long[] ponto = new long[METRICAS + 1];
+        ponto[0] = instante;
+        return ponto;
+    }
+
+    private static long[] valores(long[] ponto) {
+        long[] valores = new long[METRICAS];
+        System.arraycopy(ponto, 1, valores, 0, METRICAS);
+        return valores;
+    }
+
+    private static List<PontoTendencia> converter(List<long[]> pontos, Resolucao resolucao) {
+        List<PontoTendencia> convertidos = new ArrayList<>(pontos.size() + 1);
+        for (long[] p : pontos) {
+            convertidos.add(ponto(p[0], p[1 + EMPRESTIMOS], p[1 + DEVOLUCOES],
+                p[1 + ATRASADOS], p[1 + MULTAS_CENTAVOS], resolucao));
+        }
+        return convertidos;
+    }
+
+    private static PontoTendencia ponto(long instante, long emprestimos, long devolucoes,
+                                        long atrasados, long multasCentavos, Resolucao resolucao) {
+        LocalDateTime inicio = resolucao == Resolucao.HORA
+            ? LocalDateTime.ofEpochSecond(instante * 3600, 0, ZoneOffset.UTC)
+            : LocalDate.ofEpochDay(instante).atStartOfDay();
+        return new PontoTendencia(inicio, emprestimos, devolucoes, atrasados, multasCentavos / 100.0);
+    }
+
+    /**
+     * Horas desde a época no horário local (sem ajuste de fuso), para que
+     * cada dia tenha sempre 24 horas na série.
+     */
+    private static long horaDe(LocalDateTime momento) {
+        return Math.floorDiv(momento.toEpochSecond(ZoneOffset.UTC), 3600);
+    }
+}
@@ -0,0 +1,166 @@
+package com.bibliotech.service;
+
+import com.bibliotech.repository.UsuarioRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pré-verificação em memória da unicidade de email e CPF dos usuários.
+ *
+ * <p>Mantém um filtro de Bloom para emails e outro para CPFs, carregados
+ * em segundo plano logo após a inicialização (ver
+ * {@link AquecimentoService}) e atualizados a cada cadastro. Se o
+ * filtro responde que o valor não existe, o cadastro dispensa a consulta
+ * ao banco; apenas possíveis duplicatas são conferidas no banco. Os
+ * índices únicos da tabela {@code usuarios} continuam sendo a garantia
+ * final.</p>
+ *
+ * <p>Até a carga terminar, todo valor é tratado como possível duplicata.
+ * Cadastros feitos durante uma carga são guardados e aplicados aos
+ * filtros novos antes da troca.</p>
+ *
+ * <p>Os filtros são dimensionados com folga sobre os usuários existentes.
+ * Quando os cadastros posteriores passam dessa capacidade (importações
+ * em massa, por exemplo), a taxa de falsos positivos começa a subir; a
+ * verificação periódica ({@code bibliotech.usuarios.filtro.verificacao-ms})
+ * então recarrega os filtros com o novo tamanho.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+@Service
+public class UnicidadeUsuarioService {
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Value("${bibliotech.usuarios.filtro.capacidade:100000}")
+    private int capacidade = 100_000;
+
+    @Value("${bibliotech.usuarios.filtro.falsos-positivos:0.01}")
+    private double taxaFalsosPositivos = 0.01;
+
+    private volatile Filtros filtros;
+
+    /**
+     * Serializa as cargas.
+     */
+    private final Object carga = new Object();
+
+    /**
+     * Emails e CPFs registrados durante a carga em andamento; null fora de
+     * uma carga. Protegido pelo monitor do serviço.
+     */
+    private List<String[]> registrosDuranteCarga;
+
+    /**
+     * Filtros de emails e CPFs, com a capacidade para a qual foram
+     * dimensionados e quantos valores já receberam.
+     */
+    private static final class Filtros {
+        final FiltroBloom emails;
+        final FiltroBloom cpfs;
+        final int capacidade;
+        final AtomicInteger inseridos;
+
+        Filtros(int capacidade, double taxaFalsosPositivos, int inseridos) {
+            this.emails = new FiltroBloom(capacidade, taxaFalsosPositivos);
+            this.cpfs = new FiltroBloom(capacidade, taxaFalsosPositivos);
+            this.capacidade = capacidade;
+            this.inseridos = new AtomicInteger(inseridos);
+        }
+
+        void adicionar(String email, String cpf) {
+            emails.adicionar(email);
+            cpfs.adicionar(cpf);
+        }
+    }
+
+    /**
+     * Carrega os emails e CPFs cadastrados. A capacidade é ao menos o
+     * dobro dos usuários existentes, deixando folga para novos cadastros.
+     */
+    public void carregar() {
+        synchronized (carga) {
+            synchronized (this) {
+                registrosDuranteCarga = new ArrayList<>();
+            }
+            Filtros novos;
+            try {
+                List<Object[]> linhas = usuarioRepository.findEmailsECpfs();
+                int tamanho = (int) Math.min(Integer.MAX_VALUE, Math.max(capacidade, 2L * linhas.size()));
+                novos = new Filtros(tamanho, taxaFalsosPositivos, linhas.size());
+                for (Object[] linha : linhas) {
+                    novos.adicionar((String) linha[0], (String) linha[1]);
+                }
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    registrosDuranteCarga = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                for (String[] registro : registrosDuranteCarga) {
+                    novos.adicionar(registro[0], registro[1]);
+                    novos.inseridos.incrementAndGet();
+                }
+                registrosDuranteCarga = null;
+                filtros = novos;
+            }
+        }
+    }
+
+    /**
+     * Recarrega os filtros se os cadastros feitos desde a última carga
+     * passaram da capacidade.
+     */
+    @Scheduled(fixedDelayString = "${bibliotech.usuarios.filtro.verificacao-ms:60000}",
+               initialDelayString = "${bibliotech.usuarios.filtro.verificacao-ms:60000}")
+    public void recarregarSeSaturado() {
+        Filtros atuais = filtros;
+        if (atuais != null && atuais.inseridos.get() > atuais.capacidade) {
+            carregar();
+        }
+    }
+
+    /**
+     * @param email o email a verificar
+     * @return false se o email certamente não está cadastrado
+     */
+    public boolean podeExistirEmail(String email) {
+        Filtros atuais = filtros;
+        return atuais == null || atuais.emails.podeConter(email);
+    }
+
+    /**
+     * @param cpf o CPF a verificar
+     * @return false se o CPF certamente não está cadastrado
+     */
+    public boolean podeExistirCpf(String cpf) {
+        Filtros atuais = filtros;
+        return atuais == null || atuais.cpfs.podeConter(cpf);
+    }
+
+    /**
+     * Registra o email e o CPF de um usuário gravado.
+     *
+     * @param email o email do usuário
+     * @param cpf o CPF do usuário
+     */
+    public synchronized void registrar(String email, String cpf) {
+        if (registrosDuranteCarga != null) {
+            registrosDuranteCarga.add(new String[] { email, cpf });
+        }
+        Filtros atuais = filtros;
+        if (atuais != null) {
+            atuais.adicionar(email, cpf);
+            atuais.inseridos.incrementAndGet();
+        }
+    }
+}
@@ -1,12 +1,17 @@
 package com.bibliotech.service;
 
+import com.bibliotech.event.UsuarioExcluidoEvent;
 import com.bibliotech.model.Usuario;
+import com.bibliotech.repository.EmprestimoRepository;
 import com.bibliotech.repository.UsuarioRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
-import java.util.regex.Pattern;
 
 /**
  * Serviço responsável pela lógica de negócio relacionada aos usuários.
@@ -22,74 +27,142 @@ import java.util.regex.Pattern;
 @Service
 public class UsuarioService {
 
+    /**
+     * Nome gravado no lugar do nome real de usuários excluídos.
+     */
+    public static final String NOME_EXCLUIDO = "Usuário excluído";
+
     @Autowired
     private UsuarioRepository usuarioRepository;
 
-    /**
-     * Padrão regex para validação de CPF no formato ###.###.###-##
-     */
-    private static final Pattern CPF_PATTERN = 
-        Pattern.compile("\\d{3}\\.\\d{3}\\.\\d{3}-\\d{2}");
+    @Autowired
+    private SenhaService senhaService;
+
+    @Autowired
+    private UnicidadeUsuarioService unicidadeUsuarioService;
+
+    @Autowired
+    private IndiceBuscaService indiceBuscaService;
+
+    @Autowired
+    private EmprestimoRepository emprestimoRepository;
+
+    @Autowired
+    private MetricasService metricasService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     /**
      * Salva um novo usuário ou atualiza um existente.
      * 
      * <p>Realiza validações de CPF, email e verifica se não há
-     * duplicidade de email ou CPF no banco de dados antes de salvar.</p>
+     * duplicidade de email ou CPF antes de salvar. O banco só é consultado
+     * quando o filtro em memória indica possível duplicata; os índices
+     * únicos da tabela garantem a unicidade em cadastros simultâneos.
+     * A senha informada é sempre gravada como hash BCrypt; na edição,
+     * senha em branco mantém a senha já cadastrada. Usuários excluídos
+     * (anonimizados) não podem ser editados: gravar o formulário apagaria
+     * a data de exclusão e tiraria o usuário do expurgo.</p>
      * 
      * @param usuario o usuário a ser salvo
      * @return o usuário salvo com ID atribuído
-     * @throws RuntimeException se o CPF for inválido, ou se o email
-     *         ou CPF já estiverem cadastrados
+     * @throws RuntimeException se o CPF for inválido, se a senha de um novo
+     *         usuário estiver em branco, se o email ou CPF já estiverem
+     *         cadastrados, ou se o usuário editado já tiver sido excluído
      */
     public Usuario salvar(Usuario usuario) {
+        if (usuario.getId() != null && usuarioRepository.findExcluidoEmById(usuario.getId()) != null) {
+            throw new RuntimeException("Usuário não encontrado");
+        }
+
         if (!validarCPF(usuario.getCpf())) {
             throw new RuntimeException("CPF inválido");
         }
 
         if (usuario.getId() == null) {
-            Optional<Usuario> existente = 
-                usuarioRepository.findByEmail(usuario.getEmail());
-            if (existente.isPresent()) {
+            if (unicidadeUsuarioService.podeExistirEmail(usuario.getEmail())
+                    && usuarioRepository.findByEmail(usuario.getEmail()).isPresent()) {
                 throw new RuntimeException("Email já cadastrado");
             }
 
-            existente = usuarioRepository.findByCpf(usuario.getCpf());
-            if (existente.isPresent()) {
+            if (unicidadeUsuarioService.podeExistirCpf(usuario.getCpf())
+                    && usuarioRepository.findByCpf(usuario.getCpf()).isPresent()) {
                 throw new RuntimeException("CPF já cadastrado");
             }
         }
 
-        return usuarioRepository.save(usuario);
+        if (usuario.getSenha() != null && !usuario.getSenha().isBlank()) {
+            usuario.setSenha(senhaService.codificar(usuario.getSenha()));
+        } else if (usuario.getId() != null) {
+            usuario.setSenha(usuarioRepository.findSenhaById(usuario.getId()));
+        } else {
+            throw new RuntimeException("Senha é obrigatória");
+        }
+
+        boolean estavaAtivo = usuario.getId() != null
+            && Boolean.TRUE.equals(usuarioRepository.findAtivoById(usuario.getId()));
+
+        Usuario salvo;
+        try {
+            salvo = usuarioRepository.save(usuario);
+        } catch (DataIntegrityViolationException e) {
+            throw traduzirViolacaoDeUnicidade(e);
+        }
+        unicidadeUsuarioService.registrar(salvo.getEmail(), salvo.getCpf());
+        indiceBuscaService.atualizarUsuario(salvo);
+        metricasService.ajustar(MetricasService.Contador.USUARIOS_ATIVOS,
+            (Boolean.TRUE.equals(salvo.getAtivo()) ? 1 : 0) - (estavaAtivo ? 1 : 0));
+        return salvo;
+    }
+
+    private RuntimeException traduzirViolacaoDeUnicidade(DataIntegrityViolationException e) {
+        String mensagem = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase();
+        if (mensagem.contains(Usuario.UK_EMAIL)) {
+            return new RuntimeException("Email já cadastrado");
+        }
+        if (mensagem.contains(Usuario.UK_CPF)) {
+            return new RuntimeException("CPF já cadastrado");
+        }
+        return e;
     }
 
     /**
      * Autentica um usuário no sistema verificando email e senha.
      * 
      * <p>Busca o usuário pelo email e verifica se a senha fornecida
-     * corresponde à senha cadastrada.</p>
+     * corresponde à senha cadastrada. A verificação roda no pool limitado
+     * do {@link SenhaService}. Senhas em texto puro ou com custo
+     * desatualizado são recodificadas após um login bem-sucedido.</p>
      * 
      * @param email o email do usuário
      * @param senha a senha do usuário
      * @return Optional contendo o usuário se autenticado, vazio caso contrário
+     * @throws RuntimeException se houver logins simultâneos demais
      */
     public Optional<Usuario> autenticar(String email, String senha) {
         Optional<Usuario> usuario = usuarioRepository.findByEmail(email);
+        String armazenada = usuario.map(Usuario::getSenha).orElse(null);
+
+        if (!senhaService.verificar(senha, armazenada)) {
+            return Optional.empty();
+        }
 
-        if (senha != null && senha.equals(usuario.get().getSenha())) {
-            return usuario;
+        if (senhaService.precisaRecodificar(armazenada)) {
+            usuario.get().setSenha(senhaService.codificar(senha));
+            usuarioRepository.save(usuario.get());
         }
 
-        return Optional.empty();
+        return usuario;
     }
 
     /**
-     * Retorna todos os usuários cadastrados no sistema.
+     * Retorna todos os usuários cadastrados no sistema, exceto os excluídos.
      * 
-     * @return lista com todos os usuários
+     * @return lista com todos os usuários não excluídos
      */
     public List<Usuario> listarTodos() {
-        return usuarioRepository.findAll();
+        return usuarioRepository.findByExcluidoEmIsNull();
     }
 
     /**
@@ -111,6 +184,17 @@ public class UsuarioService {
         return usuarioRepository.findById(id);
     }
 
+    /**
+     * Busca um usuário para edição, ignorando os excluídos.
+     * 
+     * @param id o identificador do usuário
+     * @return Optional contendo o usuário se encontrado e não excluído
+     */
+    public Optional<Usuario> buscarParaEdicao(Long id) {
+        return usuarioRepository.findById(id)
+            .filter(usuario -> usuario.getExcluidoEm() == null);
+    }
+
     /**
      * Busca um usuário pelo seu endereço de email.
      * 
@@ -124,29 +208,52 @@ public class UsuarioService {
     /**
      * Exclui um usuário do sistema.
      * 
+     * <p>A exclusão é lógica: em uma única atualização o usuário é
+     * desativado, seu nome, email, CPF e senha são substituídos por valores
+     * anônimos e o momento da exclusão é registrado. O histórico de
+     * empréstimos não é carregado nem removido aqui; o
+     * {@link ExpurgoUsuariosService} o remove depois, em lotes. Email e CPF
+     * ficam livres para um novo cadastro.</p>
+     * 
+     * <p>A verificação de empréstimos ativos faz parte da própria
+     * atualização, com a linha do usuário bloqueada, para que um empréstimo
+     * concorrente não escape dela. O índice de busca e o contador de
+     * usuários ativos são atualizados por um {@link UsuarioExcluidoEvent},
+     * apenas depois do commit.</p>
+     * 
      * @param id o identificador do usuário a ser excluído
-     * @throws RuntimeException se o usuário não for encontrado
+     * @throws RuntimeException se o usuário não for encontrado ou
+     *         se houver empréstimos ativos
      */
+    @Transactional
     public void excluir(Long id) {
-        Usuario usuario = usuarioRepository.findById(id)
+        // O bloqueio faz a atualização abaixo enxergar empréstimos gravados
+        // por transações concorrentes (ver EmprestimoService.realizarEmprestimo)
+        Usuario usuario = usuarioRepository.findComBloqueioById(id)
             .orElseThrow(() -> new RuntimeException("Usuário não encontrado"));
 
-        usuarioRepository.delete(usuario);
+        int alterados = usuarioRepository.anonimizar(
+            id, NOME_EXCLUIDO, SenhaService.SENHA_BLOQUEADA, LocalDateTime.now());
+        if (alterados == 0) {
+            if (emprestimoRepository.existsByUsuarioIdAndAtivoTrue(id)) {
+                throw new RuntimeException(
+                    "Não é possível excluir usuário com empréstimos ativos");
+            }
+            throw new RuntimeException("Usuário não encontrado");
+        }
+        // Índice de busca e contadores são ajustados só após o commit
+        eventPublisher.publishEvent(new UsuarioExcluidoEvent(id, Boolean.TRUE.equals(usuario.getAtivo())));
     }
 
     /**
-     * Valida se um CPF está no formato correto (###.###.###-##).
-     * 
-     * <p>Esta validação verifica apenas o formato, não a validade
-     * matemática do CPF.</p>
+     * Valida se um CPF está no formato correto (###.###.###-##) e se
+     * os dígitos verificadores conferem.
      * 
      * @param cpf o CPF a ser validado
-     * @return true se o formato for válido, false caso contrário
+     * @return true se o CPF for válido, false caso contrário
+     * @see ValidadorCpf
      */
     public boolean validarCPF(String cpf) {
-        if (cpf == null || cpf.trim().isEmpty()) {
-            return false;
-        }
-        return CPF_PATTERN.matcher(cpf).matches();
+        return cpf != null && cpf.length() == 14 && ValidadorCpf.validar(cpf);
     }
 }
@@ -0,0 +1,53 @@
+package com.bibliotech.service;
+
+import com.bibliotech.model.Usuario;
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Dados do usuário autenticado guardados na sessão HTTP.
+ *
+ * <p>Imutável e pequeno: contém apenas identificador, nome e tipo, sem
+ * senha nem coleções da entidade. Por ser serializável, a sessão pode
+ * ser gravada em um repositório compartilhado entre instâncias.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public final class UsuarioSessao implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Nome do atributo da sessão que guarda o usuário autenticado.
+     */
+    public static final String ATRIBUTO = "usuarioLogado";
+
+    private final long id;
+    private final String nome;
+    private final Usuario.TipoUsuario tipo;
+
+    public UsuarioSessao(long id, String nome, Usuario.TipoUsuario tipo) {
+        this.id = id;
+        this.nome = nome;
+        this.tipo = tipo;
+    }
+
+    /**
+     * Cria os dados de sessão a partir da entidade autenticada.
+     *
+     * @param usuario o usuário autenticado
+     * @return os dados de sessão do usuário
+     */
+    public static UsuarioSessao de(Usuario usuario) {
+        return new UsuarioSessao(usuario.getId(), usuario.getNome(), usuario.getTipo());
+    }
+
+    public long getId() { return id; }
+
+    public String getNome() { return nome; }
+
+    public Usuario.TipoUsuario getTipo() { return tipo; }
+}
@@ -0,0 +1,142 @@
+package com.bibliotech.service;
+
+import java.util.List;
+
+/**
+ * Validação e normalização de CPF sem alocação de objetos intermediários.
+ *
+ * <p>Aceita o formato {@code ###.###.###-##} ou apenas os 11 dígitos,
+ * lendo caractere a caractere, e confere os dois dígitos verificadores.
+ * CPFs com todos os dígitos iguais, que passam pelo cálculo dos
+ * verificadores, são recusados na mesma leitura.
+ * O CPF válido é normalizado para um {@code long} com os 11 dígitos,
+ * forma compacta para comparação, conjuntos e índices.</p>
+ *
+ * @author BiblioTech Team
+ * @version 1.0
+ * @since 2025
+ */
+public final class ValidadorCpf {
+
+    /**
+     * Valor retornado por {@link #normalizar} quando o CPF é inválido.
+     */
+    public static final long INVALIDO = -1L;
+
+    private ValidadorCpf() {
+    }
+
+    /**
+     * Converte o CPF para o número de 11 dígitos, conferindo formato,
+     * dígitos verificadores e recusando sequências de um só dígito.
+     *
+     * @param cpf o CPF com máscara ou apenas dígitos
+     * @return o CPF como número, ou {@link #INVALIDO}
+     */
+    public static long normalizar(CharSequence cpf) {
+        if (cpf == null) {
+            return INVALIDO;
+        }
+        int tamanho = cpf.length();
+        boolean comMascara = tamanho == 14;
+        if (!comMascara && tamanho != 11) {
+            return INVALIDO;
+        }
+        if (comMascara && (cpf.charAt(3) != '.' || cpf.charAt(7) != '.' || cpf.charAt(11) != '-')) {
+            return INVALIDO;
+        }
+
+        long numero = 0;
+        int soma1 = 0;
+        int soma2 = 0;
+        int posicao = 0;
+        int primeiro = -1;
+        boolean variou = false;
+        for (int i = 0; i < tamanho; i++) {
+            if (comMascara && (i == 3 || i == 7 || i == 11)) {
+                continue;
+            }
+            int digito = cpf.charAt(i) - '0';
+            if (digito < 0 || digito > 9) {
+                return INVALIDO;
+            }
+            numero = numero * 10 + digito;
+            if (primeiro < 0) {
+                primeiro = digito;
+            } else if (digito != primeiro) {
+                variou = true;
+            }
+
+            if (posicao < 9) {
+                soma1 += digito * (10 - posicao);
+                soma2 += digito * (11 - posicao);
+            } else if (posicao == 9) {
+                if (digito != digitoVerificador(soma1)) {
+                    return INVALIDO;
+                }
+                soma2 += digito * 2;
+            } else if (digito != digitoVerificador(soma2)) {
+                return INVALIDO;
+            }
+            posicao++;
+        }
+        return variou ? numero : INVALIDO;
+    }
+
+    /**
+     * Indica se o CPF tem formato e dígitos verificadores válidos.
+     *
+     * @param cpf o CPF com máscara ou apenas dígitos
+     * @return true se o CPF for válido
+     */
+    public static boolean validar(CharSequence cpf) {
+        return normalizar(cpf) != INVALIDO;
+    }
+
+    /**
+     * Normaliza um lote de CPFs de uma vez, para uso em importações.
+     *
+     * @param cpfs os CPFs a validar
+     * @param destino vetor com pelo menos {@code cpfs.size()} posições; recebe
+     *        o número de cada CPF ou {@link #INVALIDO}, na mesma ordem
+     * @return quantidade de CPFs válidos no lote
+     */
+    public static int normalizarLote(List<? extends CharSequence> cpfs, long[] destino) {
+        if (destino.length < cpfs.size()) {
+            throw new IllegalArgumentException("Vetor de destino menor que o lote");
+        }
+        int validos = 0;
+        for (int i = 0; i < cpfs.size(); i++) {
+            destino[i] = normalizar(cpfs.get(i));
+            if (destino[i] != INVALIDO) {
+                validos++;
+            }
+        }
+        return validos;
+    }
+
+    /**
+     * Formata o número de um CPF como {@code ###.###.###-##}.
+     *
+     * @param cpf o CPF normalizado
+     * @return o CPF com máscara
+     */
+    public static String formatar(long cpf) {
+        if (cpf < 0 || cpf > 99_999_999_999L) {
+            throw new IllegalArgumentException("CPF fora do intervalo: " + cpf);
+        }
+        char[] texto = "000.000.000-00".toCharArray();
+        for (int i = texto.length - 1; i >= 0 && cpf > 0; i--) {
+            if (texto[i] == '0') {
+                texto[i] = (char) ('0' + cpf % 10);
+                cpf /= 10;
+            }
+        }
+        return new String(texto);
+    }
+
+    private static int digitoVerificador(int soma) {
+        int resto = soma * 10 % 11;
+        return resto == 10 ? 0 : resto;
+    }
+}
@@ -0,0 +1,78 @@
+-- Esquema inicial. IF NOT EXISTS para adotar bancos em arquivo criados antes
+-- das migrações (perfil producao), mantendo os dados.
+
+-- Ids em blocos de 50 (pooled-lo no Hibernate e na importação de usuários)
+CREATE SEQUENCE IF NOT EXISTS usuarios_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS livros_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS emprestimos_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS usuarios (
+    ativo boolean NOT NULL,
+    excluido_em timestamp(6),
+    id bigint NOT NULL,
+    cpf varchar(255) NOT NULL,
+    email varchar(255) NOT NULL,
+    nome varchar(255) NOT NULL,
+    senha varchar(255) NOT NULL,
+    tipo varchar(255) NOT NULL CHECK (tipo IN ('ALUNO', 'PROFESSOR', 'FUNCIONARIO')),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_usuarios_email UNIQUE (email),
+    CONSTRAINT uk_usuarios_cpf UNIQUE (cpf)
+);
+
+CREATE TABLE IF NOT EXISTS livros (
+    ano integer,
+    quantidade_disponivel integer NOT NULL,
+    quantidade_exemplares integer NOT NULL,
+    id bigint NOT NULL,
+    total_emprestimos bigint NOT NULL,
+    versao bigint,
+    autor varchar(255) NOT NULL,
+    editora varchar(255),
+    isbn varchar(255) NOT NULL,
+    titulo varchar(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS emprestimos (
+    ativo boolean NOT NULL,
+    aviso_atraso_enviado_em date,
+    data_devolucao_prevista date NOT NULL,
+    data_devolucao_real date,
+    data_emprestimo date NOT NULL,
+    lembrete_enviado_em date,
+    multa float(53),
+    id bigint NOT NULL,
+    livro_id bigint NOT NULL,
+    usuario_id bigint NOT NULL,
+    versao bigint,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_emprestimos_livro FOREIGN KEY (livro_id) REFERENCES livros (id),
+    CONSTRAINT fk_emprestimos_usuario FOREIGN KEY (usuario_id) REFERENCES usuarios (id)
+);
+
+-- Sessões HTTP (Spring Session JDBC), mesmo formato do script do spring-session-jdbc
+
+CREATE TABLE IF NOT EXISTS SPRING_SESSION (
+    PRIMARY_ID CHAR(36) NOT NULL,
+    SESSION_ID CHAR(36) NOT NULL,
+    CREATION_TIME BIGINT NOT NULL,
+    LAST_ACCESS_TIME BIGINT NOT NULL,
+    MAX_INACTIVE_INTERVAL INT NOT NULL,
+    EXPIRY_TIME BIGINT NOT NULL,
+    PRINCIPAL_NAME VARCHAR(100),
+    CONSTRAINT SPRING_SESSION_PK PRIMARY KEY (PRIMARY_ID)
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS SPRING_SESSION_IX1 ON SPRING_SESSION (SESSION_ID);
+CREATE INDEX IF NOT EXISTS SPRING_SESSION_IX2 ON SPRING_SESSION (EXPIRY_TIME);
+CREATE INDEX IF NOT EXISTS SPRING_SESSION_IX3 ON SPRING_SESSION (PRINCIPAL_NAME);
+
+CREATE TABLE IF NOT EXISTS SPRING_SESSION_ATTRIBUTES (
+    SESSION_PRIMARY_ID CHAR(36) NOT NULL,
+    ATTRIBUTE_NAME VARCHAR(200) NOT NULL,
+    ATTRIBUTE_BYTES LONGVARBINARY NOT NULL,
+    CONSTRAINT SPRING_SESSION_ATTRIBUTES_PK PRIMARY KEY (SESSION_PRIMARY_ID, ATTRIBUTE_NAME),
+    CONSTRAINT SPRING_SESSION_ATTRIBUTES_FK FOREIGN KEY (SESSION_PRIMARY_ID)
+        REFERENCES SPRING_SESSION (PRIMARY_ID) ON DELETE CASCADE
+);
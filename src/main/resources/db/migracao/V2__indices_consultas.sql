@@ -0,0 +1,31 @@
+-- Índices das consultas frequentes dos repositórios. O uso de cada um é
+-- verificado pelo plano de execução em MigracaoEsquemaTest.
+
+-- LivroRepository.findByIsbn
+CREATE INDEX IF NOT EXISTS ix_livros_isbn ON livros (isbn);
+
+-- Livros disponíveis: findByQuantidadeDisponivelGreaterThan e a contagem do
+-- dashboard, resolvida só com o índice
+CREATE INDEX IF NOT EXISTS ix_livros_disponivel ON livros (quantidade_disponivel);
+
+-- Empréstimos ativos e atrasados: listagens, lembretes e as contagens do
+-- dashboard, resolvidas só com o índice
+CREATE INDEX IF NOT EXISTS ix_emprestimos_ativo_vencimento ON emprestimos (ativo, data_devolucao_prevista);
+
+-- Períodos de retirada: popularidade por livro e dia, faixa de ids do
+-- relatório de circulação e tendências, resolvidas só com o índice
+CREATE INDEX IF NOT EXISTS ix_emprestimos_data_livro ON emprestimos (data_emprestimo, livro_id);
+
+-- Empréstimos de um usuário (histórico, pendências) e de um livro. As
+-- chaves estrangeiras são recriadas depois destes índices para que o H2 os
+-- use nelas, no lugar dos índices automáticos criados na V1.
+ALTER TABLE emprestimos DROP CONSTRAINT IF EXISTS fk_emprestimos_usuario;
+ALTER TABLE emprestimos DROP CONSTRAINT IF EXISTS fk_emprestimos_livro;
+
+CREATE INDEX IF NOT EXISTS ix_emprestimos_usuario ON emprestimos (usuario_id);
+CREATE INDEX IF NOT EXISTS ix_emprestimos_livro ON emprestimos (livro_id);
+
+ALTER TABLE emprestimos ADD CONSTRAINT IF NOT EXISTS fk_emprestimos_usuario
+    FOREIGN KEY (usuario_id) REFERENCES usuarios (id);
+ALTER TABLE emprestimos ADD CONSTRAINT IF NOT EXISTS fk_emprestimos_livro
+    FOREIGN KEY (livro_id) REFERENCES livros (id);
@@ -0,0 +1,17 @@
+-- Bancos em arquivo criados antes das migrações (perfil producao) têm ids
+-- IDENTITY e nenhuma sequência: a V1 criou as sequências a partir de 1,
+-- abaixo dos ids já gravados. Cada sequência passa a começar depois do
+-- maior id da tabela, sem nunca voltar atrás. As colunas IDENTITY
+-- (GENERATED BY DEFAULT) continuam aceitando os ids das sequências.
+
+ALTER SEQUENCE usuarios_seq RESTART WITH (SELECT GREATEST(COALESCE(MAX(id), 0) + 1,
+    (SELECT base_value FROM information_schema.sequences
+     WHERE sequence_schema = 'PUBLIC' AND sequence_name = 'USUARIOS_SEQ')) FROM usuarios);
+
+ALTER SEQUENCE livros_seq RESTART WITH (SELECT GREATEST(COALESCE(MAX(id), 0) + 1,
+    (SELECT base_value FROM information_schema.sequences
+     WHERE sequence_schema = 'PUBLIC' AND sequence_name = 'LIVROS_SEQ')) FROM livros);
+
+ALTER SEQUENCE emprestimos_seq RESTART WITH (SELECT GREATEST(COALESCE(MAX(id), 0) + 1,
+    (SELECT base_value FROM information_schema.sequences
+     WHERE sequence_schema = 'PUBLIC' AND sequence_name = 'EMPRESTIMOS_SEQ')) FROM emprestimos);
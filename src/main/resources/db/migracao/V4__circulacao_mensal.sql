@@ -0,0 +1,28 @@
+-- Cubo de circulação (CuboCirculacaoService): totais por mês de retirada,
+-- tipo de usuário e editora, atualizados na mesma transação de cada
+-- retirada, devolução e expurgo. A carga inicial agrega os empréstimos já
+-- gravados uma única vez; depois disso o cubo nunca mais percorre a
+-- tabela inteira.
+
+CREATE TABLE IF NOT EXISTS circulacao_mensal (
+    ano integer NOT NULL,
+    mes integer NOT NULL,
+    tipo_usuario varchar(255) NOT NULL,
+    editora varchar(255) NOT NULL,
+    emprestimos bigint NOT NULL,
+    devolvidos bigint NOT NULL,
+    multas float(53) NOT NULL,
+    PRIMARY KEY (ano, mes, tipo_usuario, editora)
+);
+
+INSERT INTO circulacao_mensal (ano, mes, tipo_usuario, editora, emprestimos, devolvidos, multas)
+SELECT YEAR(e.data_emprestimo), MONTH(e.data_emprestimo), u.tipo,
+       COALESCE(NULLIF(TRIM(l.editora), ''), 'Sem editora'),
+       COUNT(*),
+       SUM(CASE WHEN e.ativo THEN 0 ELSE 1 END),
+       SUM(CASE WHEN e.ativo THEN 0.0 ELSE COALESCE(e.multa, 0.0) END)
+FROM emprestimos e
+JOIN usuarios u ON u.id = e.usuario_id
+JOIN livros l ON l.id = e.livro_id
+GROUP BY YEAR(e.data_emprestimo), MONTH(e.data_emprestimo), u.tipo,
+         COALESCE(NULLIF(TRIM(l.editora), ''), 'Sem editora');
@@ -0,0 +1,133 @@
+package com.bibliotech.benchmark;
+
+import com.bibliotech.BiblioTechApplication;
+import com.bibliotech.model.Emprestimo;
+import com.bibliotech.model.Livro;
+import com.bibliotech.model.Usuario;
+import com.bibliotech.repository.UsuarioRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.h2.tools.Server;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vazão de inserção pelo JPA: livros e empréstimos intercalados, em
+ * transações de {@value #POR_TRANSACAO} linhas.
+ *
+ * <p>O banco é acessado por TCP (servidor H2 local), como em produção
+ * com um servidor de banco: o custo medido inclui as idas e voltas pela
+ * rede, que é o que os lotes JDBC economizam.</p>
+ *
+ * <p>{@code POR_LINHA} desliga os lotes JDBC e a ordenação dos INSERTs,
+ * reproduzindo o que os ids IDENTITY impunham (uma ida ao banco por
+ * linha); {@code EM_LOTE} usa a configuração da aplicação (sequências em
+ * blocos, lotes de 50 e INSERTs ordenados por entidade).</p>
+ *
+ * <p>Executado apenas com {@code mvn test -Pbenchmark}. O volume (padrão
+ * 1.000.000 de linhas) pode ser ajustado com {@code -Dbenchmark.linhas=N}.</p>
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class InsercaoEmLoteBenchmarkTest {
+
+    private static final int POR_TRANSACAO = 10_000;
+
+    private static final String PREFIXO_ISBN = "BENCH-";
+
+    @Param({"POR_LINHA", "EM_LOTE"})
+    public String modo;
+
+    @Param({"1000000"})
+    public int linhas;
+
+    private Server servidor;
+    private ConfigurableApplicationContext contexto;
+    private EntityManagerFactory fabrica;
+    private JdbcTemplate jdbcTemplate;
+    private Long leitorId;
+
+    @Setup(Level.Trial)
+    public void iniciar() throws SQLException {
+        boolean emLote = "EM_LOTE".equals(modo);
+        servidor = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        contexto = new SpringApplicationBuilder(BiblioTechApplication.class)
+            .web(WebApplicationType.NONE)
+            .run("--spring.datasource.url=jdbc:h2:tcp://localhost:" + servidor.getPort()
+                     + "/mem:insercao_" + modo + ";DB_CLOSE_DELAY=-1",
+                 "--spring.jpa.show-sql=false",
+                 "--bibliotech.tendencias.arquivo=",
+                 "--logging.level.org.hibernate.SQL=WARN",
+                 "--logging.level.com.bibliotech=WARN",
+                 "--spring.jpa.properties.hibernate.jdbc.batch_size=" + (emLote ? 50 : 1),
+                 "--spring.jpa.properties.hibernate.order_inserts=" + emLote);
+        fabrica = contexto.getBean(EntityManagerFactory.class);
+        jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        leitorId = contexto.getBean(UsuarioRepository.class)
+            .findByEmail("joao@email.com").orElseThrow().getId();
+    }
+
+    @TearDown(Level.Iteration)
+    public void limpar() {
+        jdbcTemplate.update("DELETE FROM emprestimos WHERE livro_id IN "
+            + "(SELECT id FROM livros WHERE isbn LIKE '" + PREFIXO_ISBN + "%')");
+        jdbcTemplate.update("DELETE FROM livros WHERE isbn LIKE '" + PREFIXO_ISBN + "%'");
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+        servidor.stop();
+    }
+
+    @Benchmark
+    public int inserir() {
+        LocalDate hoje = LocalDate.now();
+        EntityManager em = fabrica.createEntityManager();
+        try {
+            for (int inicio = 0; inicio < linhas; inicio += POR_TRANSACAO) {
+                int fim = Math.min(linhas, inicio + POR_TRANSACAO);
+                em.getTransaction().begin();
+                Usuario leitor = em.getReference(Usuario.class, leitorId);
+                for (int i = inicio; i < fim; i += 2) {
+                    Livro livro = new Livro("Livro " + i, "Autor", PREFIXO_ISBN + i, "Editora", 2000, 1);
+                    em.persist(livro);
+                    em.persist(new Emprestimo(leitor, livro, hoje, hoje.plusDays(14)));
+                }
+                em.getTransaction().commit();
+                em.clear();
+            }
+        } finally {
+            em.close();
+        }
+        return linhas;
+    }
+
+    @Test
+    void executar() throws Exception {
+        ChainedOptionsBuilder opcoes = new OptionsBuilder()
+            .include(InsercaoEmLoteBenchmarkTest.class.getSimpleName());
+        String linhasInformadas = System.getProperty("benchmark.linhas");
+        if (linhasInformadas != null) {
+            opcoes.param("linhas", linhasInformadas);
+        }
+        new Runner(opcoes.build()).run();
+    }
+}
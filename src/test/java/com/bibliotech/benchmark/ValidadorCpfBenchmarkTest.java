@@ -0,0 +1,106 @@
+package com.bibliotech.benchmark;
+
+import com.bibliotech.service.ValidadorCpf;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compara o {@link ValidadorCpf} (dígitos verificadores, sem alocação)
+ * com a validação anterior por expressão regular (apenas formato).
+ *
+ * <p>Executado apenas com {@code mvn test -Pbenchmark}.</p>
+ */
+@Tag("benchmark")
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidadorCpfBenchmarkTest {
+
+    /** Validação anterior de UsuarioService.validarCPF. */
+    private static final Pattern CPF_PATTERN =
+        Pattern.compile("\\d{3}\\.\\d{3}\\.\\d{3}-\\d{2}");
+
+    private static final int LOTE = 1024;
+
+    private List<String> cpfs;
+    private long[] destino;
+
+    @Setup
+    public void preparar() {
+        cpfs = new ArrayList<>(LOTE);
+        for (int i = 0; i < LOTE; i++) {
+            long numero = 100_000_000L + i * 7919L;
+            String digitos = String.format("%011d", numero * 100 + (i % 3 == 0 ? 0 : verificadores(numero)));
+            cpfs.add(i % 2 == 0 ? digitos : ValidadorCpf.formatar(Long.parseLong(digitos)));
+        }
+        destino = new long[LOTE];
+    }
+
+    @Benchmark
+    public int regexAnterior() {
+        int validos = 0;
+        for (String cpf : cpfs) {
+            if (cpf != null && !cpf.trim().isEmpty() && CPF_PATTERN.matcher(cpf).matches()) {
+                validos++;
+            }
+        }
+        return validos;
+    }
+
+    @Benchmark
+    public int validadorCpf() {
+        int validos = 0;
+        for (String cpf : cpfs) {
+            if (ValidadorCpf.validar(cpf)) {
+                validos++;
+            }
+        }
+        return validos;
+    }
+
+    @Benchmark
+    public int validadorCpfLote() {
+        return ValidadorCpf.normalizarLote(cpfs, destino);
+    }
+
+    @Test
+    void executar() throws Exception {
+        Options opcoes = new OptionsBuilder()
+            .include(ValidadorCpfBenchmarkTest.class.getSimpleName())
+            .addProfiler("gc")
+            .build();
+        new Runner(opcoes).run();
+    }
+
+    private static long verificadores(long base) {
+        int[] d = new int[11];
+        for (int i = 8; i >= 0; i--) {
+            d[i] = (int) (base % 10);
+            base /= 10;
+        }
+        d[9] = digito(d, 9);
+        d[10] = digito(d, 10);
+        return d[9] * 10L + d[10];
+    }
+
+    private static int digito(int[] d, int quantidade) {
+        int soma = 0;
+        for (int i = 0; i < quantidade; i++) {
+            soma += d[i] * (quantidade + 1 - i);
+        }
+        int resto = soma * 10 % 11;
+        return resto == 10 ? 0 : resto;
+    }
+}
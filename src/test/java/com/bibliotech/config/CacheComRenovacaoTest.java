@@ -0,0 +1,212 @@
+package com.bibliotech.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheComRenovacaoTest {
+
+    private static final long SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong relogio = new AtomicLong();
+
+    private final List<Runnable> pendentes = new ArrayList<>();
+
+    private final AtomicInteger cargas = new AtomicInteger();
+
+    private CacheComRenovacao cache;
+
+    @BeforeEach
+    void configurar() {
+        // TTL de 10s, renovação antecipada aos 8s, valor vencido servido até 15s
+        cache = new CacheComRenovacao("teste", Duration.ofSeconds(10), 0.8,
+            Duration.ofSeconds(5), pendentes::add, relogio::get);
+    }
+
+    private Callable<Integer> carregador() {
+        return cargas::incrementAndGet;
+    }
+
+    private void executarPendentes() {
+        List<Runnable> tarefas = new ArrayList<>(pendentes);
+        pendentes.clear();
+        tarefas.forEach(Runnable::run);
+    }
+
+    @Test
+    @DisplayName("Entrada dentro da validade é servida sem recarga")
+    void testEntradaValidaServidaDoCache() {
+        assertEquals(1, cache.get("k", carregador()));
+        relogio.set(7 * SEGUNDO);
+
+        assertEquals(1, cache.get("k", carregador()));
+        assertEquals(1, cargas.get());
+        assertTrue(pendentes.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Perto do vencimento dispara uma única renovação em segundo plano")
+    void testRenovacaoAntecipada() {
+        cache.get("k", carregador());
+        relogio.set(9 * SEGUNDO);
+
+        assertEquals(1, cache.get("k", carregador()));
+        assertEquals(1, cache.get("k", carregador()));
+        assertEquals(1, pendentes.size(), "Apenas uma renovação deve ser agendada");
+
+        executarPendentes();
+        assertEquals(2, cache.get("k", carregador()));
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    @DisplayName("Entrada vencida continua servida enquanto uma thread recarrega")
+    void testValorVencidoServidoDuranteRecarga() {
+        cache.get("k", carregador());
+        relogio.set(12 * SEGUNDO);
+
+        for (int i = 0; i < 40; i++) {
+            assertEquals(1, cache.get("k", carregador()));
+        }
+        assertEquals(1, pendentes.size());
+        assertEquals(1, cargas.get());
+
+        executarPendentes();
+        assertEquals(2, cache.get("k", carregador()));
+    }
+
+    @Test
+    @DisplayName("Entrada vencida além do limite é recarregada na hora")
+    void testEntradaMuitoAntigaRecarregadaNaHora() {
+        cache.get("k", carregador());
+        relogio.set(16 * SEGUNDO);
+
+        assertEquals(2, cache.get("k", carregador()));
+        assertTrue(pendentes.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Falha na renovação mantém o valor anterior e permite nova tentativa")
+    void testFalhaNaRenovacao() {
+        cache.get("k", carregador());
+        relogio.set(9 * SEGUNDO);
+
+        cache.get("k", () -> { throw new IllegalStateException("banco indisponível"); });
+        executarPendentes();
+
+        assertEquals(1, cache.get("k", carregador()));
+        assertEquals(1, pendentes.size(), "Nova renovação deve ser agendada após a falha");
+    }
+
+    @Test
+    @DisplayName("Leitura sem carregador trata entrada vencida como ausente")
+    void testLeituraSemCarregador() {
+        cache.put("k", "valor");
+        assertEquals("valor", cache.get("k").get());
+
+        relogio.set(10 * SEGUNDO);
+        assertNull(cache.get("k"));
+    }
+
+    @Test
+    @DisplayName("Valores nulos e remoção de entradas")
+    void testNuloERemocao() {
+        assertNull(cache.get("nulo", () -> null));
+        assertNull(cache.get("nulo", carregador()));
+        assertEquals(0, cargas.get());
+
+        cache.evict("nulo");
+        assertEquals(1, cache.get("nulo", carregador()));
+    }
+
+    @Test
+    @DisplayName("Carga iniciada antes de uma remoção não fica guardada")
+    void testCargaAnteriorARemocaoNaoGuardada() {
+        Callable<Integer> lidaAntesDaRemocao = () -> {
+            // O evict pós-commit chega enquanto a carga ainda lê o banco
+            cache.evict("k");
+            return cargas.incrementAndGet();
+        };
+        assertEquals(1, cache.get("k", lidaAntesDaRemocao));
+        assertEquals(2, cache.get("k", carregador()));
+
+        Callable<Integer> lidaAntesDaLimpeza = () -> {
+            cache.clear();
+            return cargas.incrementAndGet();
+        };
+        assertEquals(3, cache.get("outra", lidaAntesDaLimpeza));
+        assertEquals(4, cache.get("outra", carregador()));
+    }
+
+    @Test
+    @DisplayName("Remoções não deixam estado por chave para trás")
+    void testRemocaoNaoAcumulaEstado() {
+        for (int usuario = 0; usuario < 1000; usuario++) {
+            cache.get(usuario, carregador());
+            cache.evict(usuario);
+        }
+
+        assertTrue(((Map<?, ?>) cache.getNativeCache()).isEmpty());
+        assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(cache, "cargas")).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Chamadas simultâneas em cache vazio executam uma única carga")
+    void testCargaUnicaSobConcorrencia() throws Exception {
+        Cache real = new CacheComRenovacao("concorrente", Duration.ofMinutes(1), 0.8,
+            Duration.ofMinutes(1), Runnable::run);
+        CountDownLatch largada = new CountDownLatch(1);
+        CountDownLatch liberarCarga = new CountDownLatch(1);
+        AtomicInteger execucoes = new AtomicInteger();
+        Callable<String> cargaLenta = () -> {
+            execucoes.incrementAndGet();
+            liberarCarga.await(5, TimeUnit.SECONDS);
+            return "agregado";
+        };
+
+        ExecutorService terminais = Executors.newFixedThreadPool(40);
+        try {
+            List<Future<String>> respostas = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                respostas.add(terminais.submit(() -> {
+                    largada.await();
+                    return real.get("estatisticas", cargaLenta);
+                }));
+            }
+            largada.countDown();
+            Thread.sleep(200);
+            liberarCarga.countDown();
+
+            for (Future<String> resposta : respostas) {
+                assertEquals("agregado", resposta.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            terminais.shutdownNow();
+        }
+        assertEquals(1, execucoes.get());
+    }
+
+    @Test
+    @DisplayName("Falha na carga é propagada a todos que aguardavam")
+    void testFalhaNaCargaPropagada() {
+        assertThrows(Cache.ValueRetrievalException.class,
+            () -> cache.get("k", () -> { throw new IllegalStateException("erro"); }));
+        assertEquals(1, cache.get("k", carregador()));
+    }
+}
@@ -0,0 +1,130 @@
+package com.bibliotech.config;
+
+import com.bibliotech.model.Livro;
+import com.bibliotech.repository.EmprestimoRepository;
+import com.bibliotech.repository.LivroRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:migracao;DB_CLOSE_DELAY=-1",
+    "spring.jpa.show-sql=false",
+    "bibliotech.tendencias.arquivo=",
+    "logging.level.org.hibernate.SQL=WARN",
+    "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.bibliotech.config.MigracaoEsquemaTest$ConsultasExecutadas"
+})
+class MigracaoEsquemaTest {
+
+    @Autowired
+    private MigracaoEsquema migracaoEsquema;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LivroRepository livroRepository;
+
+    @Autowired
+    private EmprestimoRepository emprestimoRepository;
+
+    @Test
+    void migracoesSaoAplicadasUmaVezERegistradas() {
+        List<Integer> versoes = jdbcTemplate.queryForList(
+                "SELECT versao FROM " + MigracaoEsquema.TABELA_HISTORICO + " ORDER BY versao", Integer.class);
+
+        assertEquals(List.of(1, 2, 3, 4), versoes);
+        assertEquals(0, migracaoEsquema.migrar());
+    }
+
+    @Test
+    void scriptAlteradoDepoisDeAplicadoImpedeAMigracao() {
+        String atualizar = "UPDATE " + MigracaoEsquema.TABELA_HISTORICO + " SET checksum = ? WHERE versao = 2";
+        Long original = jdbcTemplate.queryForObject(
+                "SELECT checksum FROM " + MigracaoEsquema.TABELA_HISTORICO + " WHERE versao = 2", Long.class);
+        jdbcTemplate.update(atualizar, original + 1);
+        try {
+            IllegalStateException erro = assertThrows(IllegalStateException.class, () -> migracaoEsquema.migrar());
+            assertTrue(erro.getMessage().contains("V2"));
+        } finally {
+            jdbcTemplate.update(atualizar, original);
+        }
+    }
+
+    @Test
+    void sequenciasPassamDosIdsJaGravados() {
+        // Como em um banco adotado: ids gravados acima do valor das sequências
+        jdbcTemplate.update("INSERT INTO livros (id, titulo, autor, isbn, editora, ano, quantidade_exemplares, "
+                + "quantidade_disponivel, total_emprestimos, versao) "
+                + "VALUES (5000, 'Adotado', 'Autor', 'ADOTADO-1', 'Editora', 2000, 1, 1, 0, 0)");
+        jdbcTemplate.update("DELETE FROM " + MigracaoEsquema.TABELA_HISTORICO + " WHERE versao = 3");
+        try {
+            assertEquals(1, migracaoEsquema.migrar());
+            assertTrue(jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR livros_seq", Long.class) > 5000);
+        } finally {
+            jdbcTemplate.update("DELETE FROM livros WHERE id = 5000");
+        }
+    }
+
+    @Test
+    void consultasFrequentesUsamOsIndices() {
+        Livro livro = livroRepository.findAll().get(0);
+
+        assertUsaIndice("IX_LIVROS_ISBN", () -> livroRepository.findByIsbn("978-0132350884"));
+        assertUsaIndice("IX_LIVROS_DISPONIVEL", () -> livroRepository.findByQuantidadeDisponivelGreaterThan(0));
+        assertUsaIndice("IX_EMPRESTIMOS_ATIVO_VENCIMENTO", () -> emprestimoRepository.findEmprestimosAtrasados());
+        assertUsaIndice("IX_EMPRESTIMOS_ATIVO_VENCIMENTO", () -> emprestimoRepository.findByAtivoTrue());
+        // Totais do dashboard: um só comando, com as contagens resolvidas pelos índices
+        assertUsaIndice("IX_LIVROS_DISPONIVEL", () -> emprestimoRepository.obterEstatisticasGerais());
+        assertUsaIndice("IX_EMPRESTIMOS_ATIVO_VENCIMENTO", () -> emprestimoRepository.obterEstatisticasGerais());
+        assertUsaIndice("IX_EMPRESTIMOS_DATA_LIVRO", () -> emprestimoRepository.contarPorLivroEDiaDesde(
+                LocalDate.now().minusDays(30)));
+        assertUsaIndice("IX_EMPRESTIMOS_DATA_LIVRO", () -> emprestimoRepository.findFaixaDeIds(
+                LocalDate.now().minusYears(1), LocalDate.now()));
+        assertUsaIndice("IX_EMPRESTIMOS_USUARIO", () -> emprestimoRepository.existsByUsuarioIdAndAtivoTrue(1L));
+        assertUsaIndice("IX_EMPRESTIMOS_USUARIO", () -> emprestimoRepository.findPaginaPorUsuarioApos(
+                1L, LocalDate.now().plusDays(1), Long.MAX_VALUE, Limit.of(20)));
+        assertUsaIndice("IX_EMPRESTIMOS_LIVRO", () -> emprestimoRepository.findByLivro(livro));
+    }
+
+    /**
+     * Executa a consulta do repositório, captura o SQL gerado pelo
+     * Hibernate e confere o plano de execução do H2.
+     */
+    private void assertUsaIndice(String indice, Runnable consulta) {
+        ConsultasExecutadas.SQL.clear();
+        consulta.run();
+        assertFalse(ConsultasExecutadas.SQL.isEmpty(), "Nenhuma consulta executada");
+
+        // A primeira é a do repositório; as seguintes carregam associações
+        String sql = ConsultasExecutadas.SQL.get(0);
+        String plano = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        assertTrue(plano.contains("PUBLIC." + indice + ":"), () -> "Índice " + indice + " não usado:\n" + plano);
+    }
+
+    /**
+     * Registra o SQL das consultas executadas pelo Hibernate.
+     */
+    public static class ConsultasExecutadas implements StatementInspector {
+
+        static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.regionMatches(true, 0, "select", 0, 6)) {
+                SQL.add(sql);
+            }
+            return sql;
+        }
+    }
+}
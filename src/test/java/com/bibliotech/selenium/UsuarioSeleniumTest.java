@@ -76,7 +76,7 @@ public class UsuarioSeleniumTest {
             driver.get("http://localhost:8080/usuarios/novo");
             driver.findElement(By.id("nome")).sendKeys("Ana Souza");
             driver.findElement(By.id("email")).sendKeys("ana@email.com");
-            driver.findElement(By.id("cpf")).sendKeys("444.444.444-44");
+            driver.findElement(By.id("cpf")).sendKeys("456.123.789-55");
             driver.findElement(By.id("senha")).sendKeys("senha123");
             driver.findElement(By.id("tipo")).sendKeys("ALUNO");
             driver.findElement(By.cssSelector("button[type='submit']")).click();
@@ -120,7 +120,7 @@ public class UsuarioSeleniumTest {
             driver.get("http://localhost:8080/usuarios/novo");
             driver.findElement(By.id("nome")).sendKeys("Usuário Duplicado");
             driver.findElement(By.id("email")).sendKeys("admin@bibliotech.com"); // já existe
-            driver.findElement(By.id("cpf")).sendKeys("555.555.555-55");
+            driver.findElement(By.id("cpf")).sendKeys("583.920.461-70");
             driver.findElement(By.id("senha")).sendKeys("senha123");
             driver.findElement(By.id("tipo")).sendKeys("ALUNO");
             driver.findElement(By.cssSelector("button[type='submit']")).click();
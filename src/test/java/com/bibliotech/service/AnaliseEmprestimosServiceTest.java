@@ -0,0 +1,146 @@
+package com.bibliotech.service;
+
+import com.bibliotech.event.EmprestimoDevolvidoEvent;
+import com.bibliotech.event.EmprestimoRealizadoEvent;
+import com.bibliotech.model.Emprestimo;
+import com.bibliotech.model.Livro;
+import com.bibliotech.model.Usuario;
+import com.bibliotech.repository.EmprestimoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class AnaliseEmprestimosServiceTest {
+
+    private static final LocalDate HOJE = LocalDate.now();
+
+    private AnaliseEmprestimosService analise;
+    private EmprestimoRepository emprestimoRepository;
+    private final List<Object[]> linhas = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        emprestimoRepository = mock(EmprestimoRepository.class);
+        // Devolve as linhas com id maior que o cursor, no máximo 'limite'
+        when(emprestimoRepository.findColunasAnaliseApos(anyLong(), any(Limit.class))).thenAnswer(chamada -> {
+            long cursor = chamada.getArgument(0);
+            int limite = ((Limit) chamada.getArgument(1)).max();
+            return linhas.stream().filter(l -> (Long) l[0] > cursor).limit(limite).toList();
+        });
+        analise = new AnaliseEmprestimosService();
+        ReflectionTestUtils.setField(analise, "emprestimoRepository", emprestimoRepository);
+        ReflectionTestUtils.setField(analise, "lote", 2);
+
+        // id, usuario, livro, tipo, retirada, prevista, devolução, multa, ativo
+        linhas.add(new Object[] { 1L, 10L, 100L, Usuario.TipoUsuario.ALUNO,
+                LocalDate.of(2025, 1, 5), LocalDate.of(2025, 1, 19), LocalDate.of(2025, 1, 15), 0.0, false });
+        linhas.add(new Object[] { 2L, 11L, 100L, Usuario.TipoUsuario.PROFESSOR,
+                LocalDate.of(2025, 1, 20), LocalDate.of(2025, 2, 3), LocalDate.of(2025, 2, 9), 12.0, false });
+        linhas.add(new Object[] { 3L, 10L, 101L, Usuario.TipoUsuario.ALUNO,
+                LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 15), null, null, true });
+        linhas.add(new Object[] { 5L, 12L, 101L, Usuario.TipoUsuario.ALUNO,
+                HOJE, HOJE.plusDays(14), null, 0.0, true });
+    }
+
+    @Test
+    void consultaSemCopiaMontadaFalha() {
+        assertThrows(IllegalStateException.class, () -> analise.consultar(new ConsultaAnalise()));
+        assertEquals(-1, analise.getTamanho());
+    }
+
+    @Test
+    void reconstruirLeEmLotesEAgrupaPorMes() {
+        analise.reconstruir();
+
+        assertEquals(4, analise.getTamanho());
+        verify(emprestimoRepository, times(3)).findColunasAnaliseApos(anyLong(), any(Limit.class));
+
+        List<GrupoAnalise> meses = analise.consultar(new ConsultaAnalise()
+                .retiradosEntre(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31))
+                .agruparPor(ConsultaAnalise.Agrupamento.MES));
+
+        assertEquals(2, meses.size());
+        GrupoAnalise janeiro = meses.get(0);
+        assertEquals("2025-01", janeiro.getChave());
+        assertEquals(2, janeiro.getEmprestimos());
+        assertEquals(2, janeiro.getDevolvidos());
+        assertEquals(15.0, janeiro.getDuracaoMedia(), 0.001);
+        assertEquals(12.0, janeiro.getMultas(), 0.001);
+        assertEquals("2025-02", meses.get(1).getChave());
+        assertEquals(1, meses.get(1).getAtrasados());
+    }
+
+    @Test
+    void filtrosPorTipoSituacaoEAgrupamentoPorLivro() {
+        analise.reconstruir();
+
+        List<GrupoAnalise> alunos = analise.consultar(new ConsultaAnalise()
+                .doTipo(Usuario.TipoUsuario.ALUNO)
+                .agruparPor(ConsultaAnalise.Agrupamento.LIVRO));
+        assertEquals("101", alunos.get(0).getChave());
+        assertEquals(2, alunos.get(0).getEmprestimos());
+        assertEquals(1, alunos.get(1).getEmprestimos());
+
+        List<GrupoAnalise> atrasados = analise.consultar(new ConsultaAnalise()
+                .naSituacao(ConsultaAnalise.Situacao.ATRASADOS));
+        assertEquals(1, atrasados.size());
+        assertEquals(1, atrasados.get(0).getEmprestimos());
+
+        List<GrupoAnalise> porTipo = analise.consultar(new ConsultaAnalise()
+                .agruparPor(ConsultaAnalise.Agrupamento.TIPO_USUARIO)
+                .limitar(1));
+        assertEquals(1, porTipo.size());
+        assertEquals("ALUNO", porTipo.get(0).getChave());
+        assertEquals(3, porTipo.get(0).getEmprestimos());
+    }
+
+    @Test
+    void eventosAtualizamACopiaSemConsultarOBanco() {
+        analise.reconstruir();
+        clearInvocations(emprestimoRepository);
+
+        // Id 4 confirmado depois do 5: entra na posição correta
+        Emprestimo novo = emprestimo(4L, Usuario.TipoUsuario.PROFESSOR, HOJE.minusDays(20), HOJE.minusDays(6));
+        analise.aoRealizarEmprestimo(new EmprestimoRealizadoEvent(novo));
+        analise.aoRealizarEmprestimo(new EmprestimoRealizadoEvent(novo));
+        assertEquals(5, analise.getTamanho());
+
+        assertEquals(2, analise.consultar(new ConsultaAnalise()
+                .naSituacao(ConsultaAnalise.Situacao.ATRASADOS)).get(0).getEmprestimos());
+
+        novo.setDataDevolucaoReal(HOJE);
+        novo.setMulta(12.0);
+        novo.setAtivo(false);
+        analise.aoDevolverEmprestimo(new EmprestimoDevolvidoEvent(novo));
+
+        List<GrupoAnalise> professores = analise.consultar(new ConsultaAnalise()
+                .doTipo(Usuario.TipoUsuario.PROFESSOR));
+        assertEquals(2, professores.get(0).getEmprestimos());
+        assertEquals(2, professores.get(0).getDevolvidos());
+        assertEquals(24.0, professores.get(0).getMultas(), 0.001);
+        assertEquals(1, analise.consultar(new ConsultaAnalise()
+                .naSituacao(ConsultaAnalise.Situacao.ATRASADOS)).get(0).getEmprestimos());
+
+        verifyNoInteractions(emprestimoRepository);
+    }
+
+    private Emprestimo emprestimo(Long id, Usuario.TipoUsuario tipo, LocalDate retirada, LocalDate prevista) {
+        Usuario usuario = new Usuario("Leitor", "leitor@teste.com", "123.456.789-09", "senha", tipo);
+        usuario.setId(20L);
+        Livro livro = new Livro("Livro", "Autor", "978-0-00-000000-0", "Editora", 2020, 1);
+        livro.setId(102L);
+        Emprestimo emprestimo = new Emprestimo(usuario, livro, retirada, prevista);
+        emprestimo.setId(id);
+        return emprestimo;
+    }
+}
@@ -0,0 +1,68 @@
+package com.bibliotech.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BackupServiceTest {
+
+    @TempDir
+    Path pasta;
+
+    private BackupService backupService;
+
+    @BeforeEach
+    void setUp() {
+        backupService = new BackupService();
+        ReflectionTestUtils.setField(backupService, "diretorio", pasta.resolve("backups").toString());
+        ReflectionTestUtils.setField(backupService, "manter", 2);
+    }
+
+    @Test
+    void geraZipCompletoEMantemApenasAsMaisRecentes() throws Exception {
+        JdbcTemplate jdbc = jdbc("jdbc:h2:file:" + pasta.resolve("banco") + ";DB_CLOSE_ON_EXIT=FALSE");
+        jdbc.execute("CREATE TABLE livros (id bigint PRIMARY KEY, titulo varchar(255))");
+        jdbc.update("INSERT INTO livros VALUES (1, 'Dom Casmurro')");
+        ReflectionTestUtils.setField(backupService, "jdbcTemplate", jdbc);
+
+        Path pastaBackups = Files.createDirectories(pasta.resolve("backups"));
+        Files.createFile(pastaBackups.resolve("bibliotech-20000101-000000.zip"));
+        Files.createFile(pastaBackups.resolve("bibliotech-20000102-000000.zip"));
+        Files.createFile(pastaBackups.resolve("bibliotech-20000103-000000.zip"));
+
+        Path copia = backupService.executar();
+
+        try (ZipFile zip = new ZipFile(copia.toFile())) {
+            assertNotNull(zip.getEntry("banco.mv.db"));
+        }
+        assertEquals(List.of(copia, pastaBackups.resolve("bibliotech-20000103-000000.zip")),
+                backupService.listar());
+        try (var arquivos = Files.list(pastaBackups)) {
+            assertEquals(2, arquivos.count());
+        }
+        jdbc.execute("SHUTDOWN");
+    }
+
+    @Test
+    void recusaBancoEmMemoria() {
+        ReflectionTestUtils.setField(backupService, "jdbcTemplate", jdbc("jdbc:h2:mem:backup_teste"));
+
+        RuntimeException erro = assertThrows(RuntimeException.class, () -> backupService.executar());
+        assertTrue(erro.getMessage().contains("H2 em arquivo"));
+        assertTrue(backupService.listar().isEmpty());
+    }
+
+    private JdbcTemplate jdbc(String url) {
+        return new JdbcTemplate(new SingleConnectionDataSource(url, "sa", "", true));
+    }
+}
@@ -0,0 +1,156 @@
+package com.bibliotech.service;
+
+import com.bibliotech.model.Emprestimo;
+import com.bibliotech.model.Livro;
+import com.bibliotech.model.Usuario;
+import com.bibliotech.repository.EmprestimoRepository;
+import com.bibliotech.repository.LivroRepository;
+import com.bibliotech.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:cubo;DB_CLOSE_DELAY=-1",
+    "spring.jpa.show-sql=false",
+    "bibliotech.tendencias.arquivo=",
+    "logging.level.org.hibernate.SQL=WARN"
+})
+class CuboCirculacaoServiceTest {
+
+    private static final String INSERIR =
+        "INSERT INTO circulacao_mensal (ano, mes, tipo_usuario, editora, emprestimos, devolvidos, multas) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private CuboCirculacaoService cubo;
+
+    @Autowired
+    private EmprestimoService emprestimoService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private LivroRepository livroRepository;
+
+    @Autowired
+    private EmprestimoRepository emprestimoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        // Células de meses sem empréstimos nos dados de exemplo
+        jdbcTemplate.update("DELETE FROM circulacao_mensal WHERE ano IN (2024, 2025)");
+        jdbcTemplate.update(INSERIR, 2024, 12, "ALUNO", "Editora A", 4, 4, 6.0);
+        jdbcTemplate.update(INSERIR, 2025, 1, "ALUNO", "Editora A", 10, 8, 12.0);
+        jdbcTemplate.update(INSERIR, 2025, 1, "PROFESSOR", "Editora A", 3, 3, 0.0);
+        jdbcTemplate.update(INSERIR, 2025, 1, "ALUNO", RelatorioCirculacao.SEM_EDITORA, 2, 1, 2.0);
+        jdbcTemplate.update(INSERIR, 2025, 2, "PROFESSOR", "Editora B", 5, 0, 0.0);
+    }
+
+    @Test
+    void totalGeralSemDimensoes() {
+        List<CelulaCubo> total = cubo.consultar(YearMonth.of(2024, 1), YearMonth.of(2025, 12), null, null,
+                EnumSet.noneOf(CuboCirculacaoService.Dimensao.class));
+
+        assertEquals(1, total.size());
+        assertEquals(24, total.get(0).getEmprestimos());
+        assertEquals(16, total.get(0).getDevolvidos());
+        assertEquals(20.0, total.get(0).getMultas(), 0.001);
+        assertNull(total.get(0).getPeriodo());
+    }
+
+    @Test
+    void drillDownDoAnoAteEditoraDoMes() {
+        List<CelulaCubo> anos = cubo.consultar(YearMonth.of(2024, 1), YearMonth.of(2025, 12), null, null,
+                EnumSet.of(CuboCirculacaoService.Dimensao.ANO));
+        assertEquals(List.of("2024", "2025"), anos.stream().map(CelulaCubo::getPeriodo).toList());
+        assertEquals(20, anos.get(1).getEmprestimos());
+
+        List<CelulaCubo> meses = cubo.consultar(YearMonth.of(2025, 1), YearMonth.of(2025, 12), null, null,
+                EnumSet.of(CuboCirculacaoService.Dimensao.MES));
+        assertEquals(List.of("2025-01", "2025-02"), meses.stream().map(CelulaCubo::getPeriodo).toList());
+        assertEquals(15, meses.get(0).getEmprestimos());
+
+        List<CelulaCubo> janeiro = cubo.consultar(YearMonth.of(2025, 1), YearMonth.of(2025, 1),
+                Usuario.TipoUsuario.ALUNO, null,
+                EnumSet.of(CuboCirculacaoService.Dimensao.MES, CuboCirculacaoService.Dimensao.EDITORA));
+        assertEquals(2, janeiro.size());
+        assertEquals("Editora A", janeiro.get(0).getEditora());
+        assertEquals(10, janeiro.get(0).getEmprestimos());
+        assertEquals(RelatorioCirculacao.SEM_EDITORA, janeiro.get(1).getEditora());
+        assertNull(janeiro.get(0).getTipoUsuario());
+    }
+
+    @Test
+    void retiradaEDevolucaoAtualizamACelulaNaPropriaTransacao() {
+        Usuario usuario = usuarioRepository.save(new Usuario("Leitor Cubo", "leitor@cubo.com",
+                "700.700.711-07", "senha", Usuario.TipoUsuario.FUNCIONARIO));
+        Livro livro = livroRepository.save(new Livro("Livro Cubo", "Autor", "978-0-00-000011-1",
+                " Editora Cubo ", 2020, 2));
+        YearMonth mes = YearMonth.now();
+
+        Emprestimo emprestimo = emprestimoService.realizarEmprestimo(usuario, livro);
+        CelulaCubo celula = celula(mes, "Editora Cubo");
+        assertEquals(1, celula.getEmprestimos());
+        assertEquals(0, celula.getDevolvidos());
+
+        emprestimoService.registrarDevolucao(emprestimo.getId());
+        celula = celula(mes, "Editora Cubo");
+        assertEquals(1, celula.getEmprestimos());
+        assertEquals(1, celula.getDevolvidos());
+
+        // Uma retirada recusada não chega ao cubo
+        Livro esgotado = livroRepository.findById(livro.getId()).orElseThrow();
+        esgotado.setQuantidadeDisponivel(0);
+        livroRepository.save(esgotado);
+        assertThrows(RuntimeException.class, () -> emprestimoService.realizarEmprestimo(usuario, esgotado));
+        assertEquals(1, celula(mes, "Editora Cubo").getEmprestimos());
+    }
+
+    @Test
+    void reagregacaoRecalculaSoOsMesesPedidos() {
+        Usuario usuario = usuarioRepository.save(new Usuario("Leitor Reagregado", "reagregado@cubo.com",
+                "700.700.712-07", "senha", Usuario.TipoUsuario.PROFESSOR));
+        Livro livro = livroRepository.save(new Livro("Livro Reagregado", "Autor", "978-0-00-000012-1",
+                "Editora Antiga", 2020, 2));
+        emprestimoService.realizarEmprestimo(usuario, livro);
+
+        // Troca de editora não passa pelas retiradas
+        Livro atual = livroRepository.findById(livro.getId()).orElseThrow();
+        atual.setEditora("Editora Nova");
+        livroRepository.save(atual);
+        YearMonth mes = YearMonth.now();
+        assertEquals(1, celula(mes, "Editora Antiga").getEmprestimos());
+
+        cubo.reagregar(mes);
+
+        assertTrue(cubo.consultar(mes, mes, null, "Editora Antiga",
+                EnumSet.of(CuboCirculacaoService.Dimensao.MES)).isEmpty());
+        assertEquals(1, celula(mes, "Editora Nova").getEmprestimos());
+        // Meses anteriores ao pedido ficam como estavam
+        assertEquals(24, cubo.consultar(YearMonth.of(2024, 1), YearMonth.of(2025, 12), null, null,
+                EnumSet.noneOf(CuboCirculacaoService.Dimensao.class)).get(0).getEmprestimos());
+        assertEquals(emprestimoRepository.count(), cubo.consultar(mes.minusYears(1), mes, null, null,
+                EnumSet.noneOf(CuboCirculacaoService.Dimensao.class)).get(0).getEmprestimos());
+    }
+
+    private CelulaCubo celula(YearMonth mes, String editora) {
+        List<CelulaCubo> celula = cubo.consultar(mes, mes, null, editora,
+                EnumSet.of(CuboCirculacaoService.Dimensao.MES));
+        assertEquals(1, celula.size());
+        return celula.get(0);
+    }
+}
@@ -1,11 +1,9 @@
 package com.bibliotech.service;
 
-import com.bibliotech.model.Emprestimo;
 import com.bibliotech.model.Livro;
-import com.bibliotech.model.Usuario;
 import com.bibliotech.repository.EmprestimoRepository;
+import com.bibliotech.repository.EstatisticasGerais;
 import com.bibliotech.repository.LivroRepository;
-import com.bibliotech.repository.UsuarioRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -20,27 +18,21 @@ public class DashboardServiceTest {
     private DashboardService dashboardService;
 
     private LivroRepository livroRepository;
-    private UsuarioRepository usuarioRepository;
     private EmprestimoRepository emprestimoRepository;
+    private RankingService rankingService;
+    private MetricasService metricasService;
 
     @BeforeEach
     void setUp() throws Exception {
         // Cria mocks dos repositórios
         livroRepository = Mockito.mock(LivroRepository.class);
-        usuarioRepository = Mockito.mock(UsuarioRepository.class);
         emprestimoRepository = Mockito.mock(EmprestimoRepository.class);
+        rankingService = Mockito.mock(RankingService.class);
+        metricasService = Mockito.mock(MetricasService.class);
 
         // Define o comportamento esperado dos mocks
-        when(livroRepository.count()).thenReturn(3L);
-        when(livroRepository.findByQuantidadeDisponivelGreaterThan(0))
-                .thenReturn(Arrays.asList(new Livro(), new Livro())); // ✅ Lista do tipo correto
-
-        when(usuarioRepository.findByAtivoTrue())
-                .thenReturn(Arrays.asList(new Usuario(), new Usuario(), new Usuario(), new Usuario())); // ✅ Lista do tipo correto
-
-        when(emprestimoRepository.count()).thenReturn(5L);
-        when(emprestimoRepository.findEmprestimosAtrasados())
-                .thenReturn(Collections.singletonList(new Emprestimo())); // ✅ Tipo correto
+        when(metricasService.obterTotais())
+                .thenReturn(new EstatisticasGerais(3L, 4L, 5L, 2L, 1L));
 
         // Instancia o serviço e injeta os mocks por reflexão
         dashboardService = new DashboardService();
@@ -48,13 +40,17 @@ public class DashboardServiceTest {
         f1.setAccessible(true);
         f1.set(dashboardService, livroRepository);
 
-        var f2 = DashboardService.class.getDeclaredField("usuarioRepository");
-        f2.setAccessible(true);
-        f2.set(dashboardService, usuarioRepository);
-
         var f3 = DashboardService.class.getDeclaredField("emprestimoRepository");
         f3.setAccessible(true);
         f3.set(dashboardService, emprestimoRepository);
+
+        var f4 = DashboardService.class.getDeclaredField("rankingService");
+        f4.setAccessible(true);
+        f4.set(dashboardService, rankingService);
+
+        var f5 = DashboardService.class.getDeclaredField("metricasService");
+        f5.setAccessible(true);
+        f5.set(dashboardService, metricasService);
     }
 
     @Test
@@ -68,10 +64,18 @@ public class DashboardServiceTest {
         assertTrue(estatisticas.containsKey("emprestimosAtrasados"), "Falta emprestimosAtrasados");
 
         assertEquals(3L, estatisticas.get("totalLivros"));
-        assertEquals(4, ((List<?>) usuarioRepository.findByAtivoTrue()).size());
+        assertEquals(4L, estatisticas.get("totalUsuarios"));
         assertEquals(5L, estatisticas.get("emprestimosAtivos"));
-        assertEquals(2, ((List<?>) livroRepository.findByQuantidadeDisponivelGreaterThan(0)).size());
-        assertEquals(1, ((List<?>) emprestimoRepository.findEmprestimosAtrasados()).size());
+        assertEquals(2L, estatisticas.get("livrosDisponiveis"));
+        assertEquals(1L, estatisticas.get("emprestimosAtrasados"));
+    }
+
+    @Test
+    void estatisticasDevemVirDosContadoresSemConsultarOBanco() {
+        dashboardService.obterEstatisticas();
+
+        verify(metricasService).obterTotais();
+        verifyNoInteractions(emprestimoRepository, livroRepository);
     }
 
     @Test
@@ -81,4 +85,22 @@ public class DashboardServiceTest {
         // Teste propositalmente errado para verificar falha
         assertNotEquals(10L, estatisticas.get("totalLivros"), "Erro: total de livros incorreto");
     }
+
+    @Test
+    void livrosMaisEmprestadosDevemVirDoRankingNaMesmaOrdem() {
+        Livro a = new Livro();
+        a.setId(1L);
+        Livro b = new Livro();
+        b.setId(2L);
+        when(rankingService.obterTopo(2))
+                .thenReturn(Arrays.asList(new ContagemLivro(2L, 8L), new ContagemLivro(1L, 3L)));
+        when(livroRepository.findAllById(Arrays.asList(2L, 1L))).thenReturn(Arrays.asList(a, b));
+
+        List<Object[]> ranking = dashboardService.obterLivrosMaisEmprestados(2);
+
+        assertEquals(2, ranking.size());
+        assertSame(b, ranking.get(0)[0]);
+        assertEquals(8L, ranking.get(0)[1]);
+        assertSame(a, ranking.get(1)[0]);
+    }
 }
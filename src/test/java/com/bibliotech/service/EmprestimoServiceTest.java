@@ -5,10 +5,17 @@ import com.bibliotech.model.Livro;
 import com.bibliotech.model.Usuario;
 import com.bibliotech.model.Usuario.TipoUsuario;
 import com.bibliotech.repository.EmprestimoRepository;
+import com.bibliotech.repository.UsuarioRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -19,6 +26,7 @@ class EmprestimoServiceTest {
     private EmprestimoService emprestimoService;
     private EmprestimoRepository emprestimoRepository;
     private LivroService livroService;
+    private UsuarioRepository usuarioRepository;
 
     private Usuario usuario;
     private Livro livro;
@@ -27,10 +35,13 @@ class EmprestimoServiceTest {
     void setup() {
         emprestimoRepository = mock(EmprestimoRepository.class);
         livroService = mock(LivroService.class);
+        usuarioRepository = mock(UsuarioRepository.class);
 
         emprestimoService = new EmprestimoService();
         emprestimoService.setEmprestimoRepository(emprestimoRepository);
         emprestimoService.setLivroService(livroService);
+        emprestimoService.setUsuarioRepository(usuarioRepository);
+        emprestimoService.setEventPublisher(mock(ApplicationEventPublisher.class));
 
         usuario = new Usuario();
         usuario.setNome("Maria");
@@ -40,6 +51,10 @@ class EmprestimoServiceTest {
         livro = new Livro();
         livro.setTitulo("Java Avançado");
         livro.setQuantidadeDisponivel(3);
+
+        // O serviço relê o livro e o usuário dentro da transação
+        when(livroService.buscarPorId(any())).thenReturn(Optional.of(livro));
+        when(usuarioRepository.findComBloqueioById(any())).thenReturn(Optional.of(usuario));
     }
 
     
@@ -130,4 +145,54 @@ class EmprestimoServiceTest {
 
         assertEquals("Livro indisponível para empréstimo", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testRealizarEmprestimoParaUsuarioExcluidoLancaExcecao() {
+        // A instância recebida ainda não sabe da exclusão
+        Usuario excluido = new Usuario();
+        excluido.setExcluidoEm(LocalDateTime.now());
+        when(usuarioRepository.findComBloqueioById(any())).thenReturn(Optional.of(excluido));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () ->
+            emprestimoService.realizarEmprestimo(usuario, livro)
+        );
+
+        assertEquals("Usuário excluído não pode realizar empréstimos", exception.getMessage());
+        verify(emprestimoRepository, never()).save(any());
+        verify(livroService, never()).decrementarDisponibilidade(any());
+    }
+
+    @Test
+    void testListarPaginaIndicaProximaPaginaQuandoHaMaisItens() {
+        Emprestimo e1 = new Emprestimo(usuario, livro, LocalDate.now(), LocalDate.now().plusDays(14));
+        e1.setId(3L);
+        Emprestimo e2 = new Emprestimo(usuario, livro, LocalDate.now().minusDays(1), LocalDate.now().plusDays(13));
+        e2.setId(2L);
+        Emprestimo e3 = new Emprestimo(usuario, livro, LocalDate.now().minusDays(2), LocalDate.now().plusDays(12));
+        e3.setId(1L);
+
+        when(emprestimoRepository.findPaginaApos(any(LocalDate.class), anyLong(), eq(Limit.of(3))))
+                .thenReturn(Arrays.asList(e1, e2, e3));
+
+        PaginaEmprestimos pagina = emprestimoService.listarPagina(null, null, null, 2);
+
+        assertEquals(2, pagina.getItens().size());
+        assertTrue(pagina.isTemProxima());
+        assertEquals(e2.getDataEmprestimo(), pagina.getProximaData());
+        assertEquals(2L, pagina.getProximoId());
+    }
+
+    @Test
+    void testListarPaginaAtivosUsaCursorInformado() {
+        LocalDate cursor = LocalDate.now().minusDays(1);
+        when(emprestimoRepository.findPaginaAtivosApos(eq(cursor), eq(7L), any(Limit.class)))
+                .thenReturn(List.of());
+
+        PaginaEmprestimos pagina = emprestimoService.listarPagina("ativos", cursor, 7L, 20);
+
+        assertTrue(pagina.getItens().isEmpty());
+        assertFalse(pagina.isTemProxima());
+        assertNull(pagina.getProximoId());
+        verify(emprestimoRepository).findPaginaAtivosApos(cursor, 7L, Limit.of(21));
+    }
+}
@@ -0,0 +1,81 @@
+package com.bibliotech.service;
+
+import com.bibliotech.model.Emprestimo;
+import com.bibliotech.model.Livro;
+import com.bibliotech.model.Usuario;
+import com.bibliotech.repository.EmprestimoRepository;
+import com.bibliotech.repository.LivroRepository;
+import com.bibliotech.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:expurgo;DB_CLOSE_DELAY=-1",
+    "spring.jpa.show-sql=false",
+    "bibliotech.tendencias.arquivo=",
+    "logging.level.org.hibernate.SQL=WARN",
+    "bibliotech.expurgo.habilitado=false",
+    "bibliotech.expurgo.lote=2"
+})
+class ExpurgoUsuariosServiceTest {
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private ExpurgoUsuariosService expurgoService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private LivroRepository livroRepository;
+
+    @Autowired
+    private EmprestimoRepository emprestimoRepository;
+
+    @Test
+    void excluirAnonimizaEExpurgoRemoveHistoricoEmLotes() {
+        Usuario usuario = usuarioRepository.save(new Usuario("Fulano Expurgo", "fulano@expurgo.com",
+                "700.700.701-07", "senha", Usuario.TipoUsuario.ALUNO));
+        Livro livro = livroRepository.save(new Livro("Livro Expurgo", "Autor", "978-0-00-000001-1",
+                "Editora", 2020, 1));
+        for (int i = 0; i < 5; i++) {
+            Emprestimo emprestimo = new Emprestimo(usuario, livro,
+                    LocalDate.now().minusDays(30 + i), LocalDate.now().minusDays(16 + i));
+            emprestimo.setAtivo(false);
+            emprestimoRepository.save(emprestimo);
+        }
+
+        usuarioService.excluir(usuario.getId());
+
+        Usuario anonimo = usuarioRepository.findById(usuario.getId()).orElseThrow();
+        assertFalse(anonimo.getAtivo());
+        assertNotNull(anonimo.getExcluidoEm());
+        assertEquals(UsuarioService.NOME_EXCLUIDO, anonimo.getNome());
+        assertNotEquals("fulano@expurgo.com", anonimo.getEmail());
+        assertNotEquals("700.700.701-07", anonimo.getCpf());
+        assertTrue(usuarioRepository.findByEmail("fulano@expurgo.com").isEmpty());
+        assertEquals(5, emprestimoRepository.findByUsuario(anonimo).size());
+        assertTrue(usuarioService.listarTodos().stream().noneMatch(u -> u.getId().equals(usuario.getId())));
+
+        // Dentro do prazo de retenção nada é removido
+        ResultadoExpurgo cedo = expurgoService.executar(LocalDateTime.now().minusDays(1));
+        assertEquals(0, cedo.getEmprestimos());
+        assertTrue(usuarioRepository.existsById(usuario.getId()));
+
+        ResultadoExpurgo resultado = expurgoService.executar(LocalDateTime.now().plusMinutes(1));
+
+        assertEquals(5, resultado.getEmprestimos());
+        assertEquals(1, resultado.getUsuarios());
+        assertEquals(4, resultado.getLotes());
+        assertFalse(usuarioRepository.existsById(usuario.getId()));
+        assertTrue(livroRepository.existsById(livro.getId()));
+    }
+}
@@ -0,0 +1,47 @@
+package com.bibliotech.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FiltroBloomTest {
+
+    @Test
+    void valoresAdicionadosNuncaGeramFalsoNegativo() {
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar("usuario" + i + "@email.com");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filtro.podeConter("usuario" + i + "@email.com"));
+        }
+    }
+
+    @Test
+    void taxaDeFalsosPositivosDeveFicarProximaDaConfigurada() {
+        FiltroBloom filtro = new FiltroBloom(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filtro.adicionar(String.format("%03d.%03d.%03d-%02d", i / 1000, i % 1000, i % 997, i % 100));
+        }
+
+        int falsosPositivos = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filtro.podeConter("ausente" + i + "@email.com")) {
+                falsosPositivos++;
+            }
+        }
+
+        assertTrue(falsosPositivos < 2_000, "Falsos positivos: " + falsosPositivos);
+    }
+
+    @Test
+    void filtroVazioNaoContemNada() {
+        FiltroBloom filtro = new FiltroBloom(100, 0.01);
+
+        assertFalse(filtro.podeConter("qualquer@email.com"));
+        assertFalse(filtro.podeConter(null));
+        assertEquals(7, filtro.getFuncoesHash());
+    }
+}
@@ -0,0 +1,49 @@
+package com.bibliotech.service;
+
+import com.bibliotech.repository.EmprestimoRepository;
+import com.bibliotech.repository.ResumoHistorico;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class HistoricoServiceTest {
+
+    @InjectMocks
+    private HistoricoService historicoService;
+
+    @Mock
+    private EmprestimoRepository emprestimoRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void obterResumoDeveUsarConsultaAgregada() {
+        when(emprestimoRepository.resumirPorUsuario(1L))
+                .thenReturn(new ResumoHistorico(10L, 2L, 1L, 6.0));
+
+        ResumoHistorico resumo = historicoService.obterResumo(1L);
+
+        assertEquals(10L, resumo.getTotalEmprestimos());
+        assertEquals(2L, resumo.getEmprestimosAtivos());
+        assertEquals(1L, resumo.getEmprestimosAtrasados());
+        assertEquals(6.0, resumo.getMultasPagas());
+        verify(emprestimoRepository, never()).findByUsuario(any());
+    }
+
+    @Test
+    void resumoDeUsuarioSemEmprestimosDeveSerZerado() {
+        ResumoHistorico resumo = new ResumoHistorico(0L, null, null, null);
+
+        assertEquals(0L, resumo.getEmprestimosAtivos());
+        assertEquals(0L, resumo.getEmprestimosAtrasados());
+        assertEquals(0.0, resumo.getMultasPagas());
+    }
+}
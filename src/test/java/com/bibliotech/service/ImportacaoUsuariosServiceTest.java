@@ -0,0 +1,153 @@
+package com.bibliotech.service;
+
+import com.bibliotech.model.Usuario;
+import com.bibliotech.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:importacao;DB_CLOSE_DELAY=-1",
+    "spring.jpa.show-sql=false",
+    "bibliotech.tendencias.arquivo=",
+    "logging.level.org.hibernate.SQL=WARN",
+    "bibliotech.importacao.lote=2"
+})
+class ImportacaoUsuariosServiceTest {
+
+    @Autowired
+    private ImportacaoUsuariosService importacaoService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private SenhaService senhaService;
+
+    @Test
+    void importarDeveValidarDeduplicarEInserirEmLotes() {
+        String csv = """
+                nome;email;cpf;tipo
+                Ana Lima;ana@import.com;40040040127;ALUNO
+                Bruno Reis;bruno@import.com;400.400.402-08;professor
+                "Souza, Carla";carla@import.com;400.400.403-99;
+                Repetida;outra@import.com;400.400.403-99;ALUNO
+                Sem CPF;semcpf@import.com;123;ALUNO
+                Email Ruim;nao-e-email;400.400.404-70;ALUNO
+                Admin Duplicado;admin@bibliotech.com;400.400.405-50;ALUNO
+                """;
+
+        ResultadoImportacao resultado = importar(csv, ImportacaoUsuariosService.Modo.INSERIR);
+
+        assertEquals(7, resultado.getLinhas());
+        assertEquals(3, resultado.getInseridos());
+        assertEquals(4, resultado.getRejeitados());
+        assertEquals(4, resultado.getErros().size());
+
+        Usuario ana = usuarioRepository.findByCpf("400.400.401-27").orElseThrow();
+        assertEquals("Ana Lima", ana.getNome());
+        assertEquals(Usuario.TipoUsuario.ALUNO, ana.getTipo());
+        assertEquals(Usuario.TipoUsuario.PROFESSOR,
+                usuarioRepository.findByEmail("bruno@import.com").orElseThrow().getTipo());
+        assertEquals("Souza, Carla", usuarioRepository.findByCpf("400.400.403-99").orElseThrow().getNome());
+        assertFalse(senhaService.verificar(SenhaService.SENHA_BLOQUEADA, ana.getSenha()));
+
+        // Reimportar o mesmo arquivo não duplica ninguém
+        ResultadoImportacao repetida = importar(csv, ImportacaoUsuariosService.Modo.INSERIR);
+        assertEquals(0, repetida.getInseridos());
+        assertEquals(3, repetida.getIgnorados());
+    }
+
+    @Test
+    void sincronizarDeveAtualizarReativarEDesativarAusentes() {
+        importar("""
+                nome,email,cpf,tipo
+                Diego,diego@sync.com,500.500.501-33,ALUNO
+                Elisa,elisa@sync.com,500.500.502-14,ALUNO
+                """, ImportacaoUsuariosService.Modo.INSERIR);
+        Usuario elisa = usuarioRepository.findByCpf("500.500.502-14").orElseThrow();
+        elisa.setAtivo(false);
+        usuarioRepository.save(elisa);
+
+        ResultadoImportacao resultado = importar("""
+                nome,email,cpf,tipo
+                Elisa Prado,elisa.prado@sync.com,500.500.502-14,ALUNO
+                Fábio,fabio@sync.com,500.500.503-03,ALUNO
+                """, ImportacaoUsuariosService.Modo.SINCRONIZAR);
+
+        assertEquals(1, resultado.getInseridos());
+        assertEquals(1, resultado.getAtualizados());
+        assertTrue(resultado.getDesativados() >= 1);
+
+        elisa = usuarioRepository.findByCpf("500.500.502-14").orElseThrow();
+        assertTrue(elisa.getAtivo());
+        assertEquals("Elisa Prado", elisa.getNome());
+        assertEquals("elisa.prado@sync.com", elisa.getEmail());
+        assertFalse(usuarioRepository.findByCpf("500.500.501-33").orElseThrow().getAtivo());
+        assertTrue(usuarioRepository.findByEmail("fabio@sync.com").orElseThrow().getAtivo());
+        // Apenas os tipos presentes no arquivo são desativados
+        assertTrue(usuarioRepository.findByEmail("admin@bibliotech.com").orElseThrow().getAtivo());
+    }
+
+    @Test
+    void linhaRejeitadaNaoDeveManterUsuarioAtivoAoSincronizar() {
+        importar("""
+                nome,email,cpf,tipo
+                Gil,gil@sync.com,600.600.601-40,ALUNO
+                Helena,helena@sync.com,600.600.602-20,ALUNO
+                """, ImportacaoUsuariosService.Modo.INSERIR);
+
+        ResultadoImportacao resultado = importar("""
+                nome,email,cpf,tipo
+                Gil,gil@sync.com,600.600.601-40,ALUNO
+                Helena,gil@sync.com,600.600.602-20,ALUNO
+                """, ImportacaoUsuariosService.Modo.SINCRONIZAR);
+
+        assertEquals(1, resultado.getRejeitados());
+        assertTrue(usuarioRepository.findByCpf("600.600.601-40").orElseThrow().getAtivo());
+        assertFalse(usuarioRepository.findByCpf("600.600.602-20").orElseThrow().getAtivo());
+    }
+
+    @Test
+    void importacaoECadastroDevemCompartilharASequenciaDeIds() {
+        ResultadoImportacao resultado = importar("""
+                nome,email,cpf
+                Gil,gil@seq.com,600.600.601-40
+                Helena,helena@seq.com,600.600.602-20
+                Igor,igor@seq.com,600.600.603-01
+                """, ImportacaoUsuariosService.Modo.INSERIR);
+        assertEquals(3, resultado.getInseridos());
+
+        Usuario cadastrado = usuarioRepository.save(new Usuario("Júlia", "julia@seq.com",
+                "600.600.604-92", "senha", Usuario.TipoUsuario.ALUNO));
+
+        List<Long> ids = Stream.of("gil@seq.com", "helena@seq.com", "igor@seq.com")
+                .map(email -> usuarioRepository.findByEmail(email).orElseThrow().getId())
+                .toList();
+        assertEquals(4, new HashSet<>(List.of(ids.get(0), ids.get(1), ids.get(2), cadastrado.getId())).size());
+        // Lotes de 2 linhas: cada lote reserva o seu bloco de ids
+        assertEquals(ids.get(0) + 1, ids.get(1));
+        assertEquals(0, (ids.get(2) - 1) % Usuario.IDS_POR_RESERVA);
+    }
+
+    @Test
+    void cabecalhoSemColunaObrigatoriaDeveFalhar() {
+        RuntimeException ex = assertThrows(RuntimeException.class,
+                () -> importar("nome,email\nAna,ana@x.com\n", ImportacaoUsuariosService.Modo.INSERIR));
+
+        assertEquals("Coluna obrigatória ausente no cabeçalho: cpf", ex.getMessage());
+    }
+
+    private ResultadoImportacao importar(String csv, ImportacaoUsuariosService.Modo modo) {
+        return importacaoService.importar(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), modo);
+    }
+}
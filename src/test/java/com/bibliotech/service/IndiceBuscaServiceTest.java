@@ -0,0 +1,197 @@
+package com.bibliotech.service;
+
+import com.bibliotech.event.EmprestimoRealizadoEvent;
+import com.bibliotech.model.Emprestimo;
+import com.bibliotech.model.Livro;
+import com.bibliotech.model.Usuario;
+import com.bibliotech.repository.LivroRepository;
+import com.bibliotech.repository.ResumoBuscaLivro;
+import com.bibliotech.repository.ResumoBuscaUsuario;
+import com.bibliotech.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class IndiceBuscaServiceTest {
+
+    private IndiceBuscaService indice;
+    private LivroRepository livroRepository;
+    private UsuarioRepository usuarioRepository;
+
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceBuscaService();
+        livroRepository = mock(LivroRepository.class);
+        usuarioRepository = mock(UsuarioRepository.class);
+        ReflectionTestUtils.setField(indice, "livroRepository", livroRepository);
+        ReflectionTestUtils.setField(indice, "usuarioRepository", usuarioRepository);
+        indice.carregar();
+
+        indice.atualizarUsuario(usuario(1L, "João da Silva", "joao@email.com", "123.456.789-09"));
+        indice.atualizarUsuario(usuario(2L, "Maria Souza", "maria@email.com", "987.654.321-00"));
+        indice.atualizarUsuario(usuario(3L, "Silvana Costa", "silvana@email.com", "111.444.777-35"));
+        indice.atualizarLivro(livro(10L, "Dom Casmurro", "978-85-359-0277-5", 2));
+        indice.atualizarLivro(livro(11L, "O Cortiço", "978-85-08-13327-4", 1));
+    }
+
+    @Test
+    void buscaPorInicioDoNomeOuDeQualquerPalavraIgnorandoAcentos() {
+        assertEquals(List.of(1L), ids(indice.buscarUsuarios("JOAO", 10)));
+        assertEquals(List.of(1L, 3L), ids(indice.buscarUsuarios("silv", 10)));
+        assertEquals(List.of(2L), ids(indice.buscarUsuarios("souza", 10)));
+        assertEquals(List.of(11L), ids(indice.buscarLivros("cortico", 10)));
+        assertTrue(indice.buscarUsuarios("xyz", 10).isEmpty());
+    }
+
+    @Test
+    void buscaPorEmailCpfEIsbn() {
+        assertEquals(List.of(2L), ids(indice.buscarUsuarios("maria@", 10)));
+        assertEquals(List.of(1L), ids(indice.buscarUsuarios("123.456", 10)));
+        assertEquals(List.of(10L), ids(indice.buscarLivros("978-85-359", 10)));
+    }
+
+    @Test
+    void rotulosSeguemOFormatoDoFormulario() {
+        assertEquals("Maria Souza (ALUNO)", indice.buscarUsuarios("maria", 1).get(0).getRotulo());
+        assertEquals("Dom Casmurro - Autor (Disponível: 2)", indice.buscarLivros("dom", 1).get(0).getRotulo());
+    }
+
+    @Test
+    void termoVazioRespeitaOLimiteSemRepetirItens() {
+        assertEquals(2, indice.buscarUsuarios("", 2).size());
+        assertEquals(3, indice.buscarUsuarios("", 10).size());
+    }
+
+    @Test
+    void usuarioDesativadoOuRenomeadoSaiDasBuscasAntigas() {
+        indice.atualizarUsuario(usuario(1L, "João Pereira", "joao@email.com", "123.456.789-09"));
+        assertEquals(List.of(3L), ids(indice.buscarUsuarios("silv", 10)));
+
+        Usuario inativo = usuario(2L, "Maria Souza", "maria@email.com", "987.654.321-00");
+        inativo.setAtivo(false);
+        indice.atualizarUsuario(inativo);
+        assertTrue(indice.buscarUsuarios("maria", 10).isEmpty());
+    }
+
+    @Test
+    void livroSemExemplaresSaiDoIndiceAposEmprestimo() {
+        indice.aoAlterarEmprestimo(new EmprestimoRealizadoEvent(emprestimo(livro(11L, "O Cortiço", "978-85-08-13327-4", 0))));
+
+        assertTrue(indice.buscarLivros("cortico", 10).isEmpty());
+        assertEquals(List.of(10L), ids(indice.buscarLivros("", 10)));
+        verify(livroRepository, never()).findById(any());
+    }
+
+    @Test
+    void eventoDeVersaoAnteriorNaoDevolveLivroEsgotadoAoIndice() {
+        // Duas retiradas do último par de exemplares: versões 1 (resta 1) e 2 (resta 0)
+        Livro primeira = livro(10L, "Dom Casmurro", "978-85-359-0277-5", 1);
+        primeira.setVersao(1L);
+        Livro segunda = livro(10L, "Dom Casmurro", "978-85-359-0277-5", 0);
+        segunda.setVersao(2L);
+        EmprestimoRealizadoEvent eventoPrimeira = new EmprestimoRealizadoEvent(emprestimo(primeira));
+        EmprestimoRealizadoEvent eventoSegunda = new EmprestimoRealizadoEvent(emprestimo(segunda));
+
+        // Os listeners pós-commit rodam na ordem inversa
+        indice.aoAlterarEmprestimo(eventoSegunda);
+        indice.aoAlterarEmprestimo(eventoPrimeira);
+
+        assertTrue(indice.buscarLivros("dom", 10).isEmpty());
+    }
+
+    @Test
+    void antesDaPrimeiraCargaABuscaVaiAoBanco() {
+        IndiceBuscaService frio = new IndiceBuscaService();
+        ReflectionTestUtils.setField(frio, "livroRepository", livroRepository);
+        ReflectionTestUtils.setField(frio, "usuarioRepository", usuarioRepository);
+        when(usuarioRepository.buscarResumosAtivosPorNomeOuEmail(eq("%silv%"), any())).thenReturn(List.of(
+            new ResumoBuscaUsuario(3L, "Silvana Costa", "silvana@email.com", "111.444.777-35", Usuario.TipoUsuario.ALUNO)));
+        when(livroRepository.buscarResumosDisponiveisPorIsbn(eq("97885359%"), any())).thenReturn(List.of(
+            new ResumoBuscaLivro(10L, "Dom Casmurro", "Autor", "978-85-359-0277-5", 0L, 2)));
+
+        assertEquals("Silvana Costa (ALUNO)", frio.buscarUsuarios("Silv", 10).get(0).getRotulo());
+        assertEquals("Dom Casmurro - Autor (Disponível: 2)", frio.buscarLivros("978-85-359", 10).get(0).getRotulo());
+
+        // Depois da carga, o índice responde sem consultar o banco
+        when(livroRepository.findResumosBusca()).thenReturn(List.of(
+            new ResumoBuscaLivro(10L, "Dom Casmurro", "Autor", "978-85-359-0277-5", 0L, 2)));
+        frio.carregar();
+        assertEquals(List.of(10L), ids(frio.buscarLivros("dom", 10)));
+        verify(livroRepository, never()).buscarResumosDisponiveisPorTitulo(any(), any());
+    }
+
+    @Test
+    void recargaIncorporaAlteracoesDeOutrasInstanciasSemDesfazerEventosMaisNovos() {
+        Livro esgotado = livro(10L, "Dom Casmurro", "978-85-359-0277-5", 0);
+        esgotado.setVersao(5L);
+        indice.aoAlterarEmprestimo(new EmprestimoRealizadoEvent(emprestimo(esgotado)));
+
+        // Leitura anterior ao evento para o livro 10; o livro 11 foi excluído
+        // e o 12 cadastrado em outra instância
+        when(livroRepository.findResumosBusca()).thenReturn(List.of(
+            new ResumoBuscaLivro(10L, "Dom Casmurro", "Autor", "978-85-359-0277-5", 4L, 1),
+            new ResumoBuscaLivro(12L, "Iracema", "Autor", "978-85-7232-144-9", 0L, 3)));
+        indice.carregar();
+
+        assertEquals(List.of(12L), ids(indice.buscarLivros("", 10)));
+        verify(livroRepository, never()).findAll();
+    }
+
+    @Test
+    void recargaDeUsuariosNaoEsvaziaOIndiceNemDesfazExclusoesFeitasDuranteALeitura() {
+        List<ResumoBuscaUsuario> lidos = List.of(
+            new ResumoBuscaUsuario(1L, "João da Silva", "joao@email.com", "123.456.789-09", Usuario.TipoUsuario.ALUNO),
+            new ResumoBuscaUsuario(2L, "Maria Souza", "maria@email.com", "987.654.321-00", Usuario.TipoUsuario.ALUNO),
+            new ResumoBuscaUsuario(3L, "Silvana Costa", "silvana@email.com", "111.444.777-35", Usuario.TipoUsuario.ALUNO));
+        when(usuarioRepository.findResumosBuscaAtivos()).thenAnswer(i -> {
+            // Durante a leitura as buscas seguem no índice anterior, e a
+            // Maria é excluída depois de a consulta já tê-la lido
+            assertEquals(3, indice.buscarUsuarios("", 10).size());
+            indice.removerUsuario(2L);
+            return lidos;
+        });
+
+        indice.carregarUsuarios();
+
+        assertEquals(Set.of(1L, 3L), Set.copyOf(ids(indice.buscarUsuarios("", 10))));
+    }
+
+    private Emprestimo emprestimo(Livro livro) {
+        Emprestimo emprestimo = new Emprestimo();
+        emprestimo.setUsuario(usuario(1L, "João da Silva", "joao@email.com", "123.456.789-09"));
+        emprestimo.setLivro(livro);
+        return emprestimo;
+    }
+
+    private static List<Long> ids(List<ItemBusca> itens) {
+        return itens.stream().map(ItemBusca::getId).toList();
+    }
+
+    private static Usuario usuario(Long id, String nome, String email, String cpf) {
+        Usuario usuario = new Usuario();
+        usuario.setId(id);
+        usuario.setNome(nome);
+        usuario.setEmail(email);
+        usuario.setCpf(cpf);
+        usuario.setTipo(Usuario.TipoUsuario.ALUNO);
+        usuario.setAtivo(true);
+        return usuario;
+    }
+
+    private static Livro livro(Long id, String titulo, String isbn, int disponivel) {
+        Livro livro = new Livro();
+        livro.setId(id);
+        livro.setTitulo(titulo);
+        livro.setAutor("Autor");
+        livro.setIsbn(isbn);
+        livro.setQuantidadeExemplares(2);
+        livro.setQuantidadeDisponivel(disponivel);
+        return livro;
+    }
+}
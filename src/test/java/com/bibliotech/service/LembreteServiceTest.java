@@ -0,0 +1,216 @@
+package com.bibliotech.service;
+
+import com.bibliotech.model.Emprestimo;
+import com.bibliotech.model.Livro;
+import com.bibliotech.model.Usuario;
+import com.bibliotech.repository.EmprestimoRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LembreteServiceTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private static final LocalDate HOJE = LocalDate.of(2025, 6, 10);
+
+    @InjectMocks
+    private LembreteService lembreteService;
+
+    @Mock
+    private EmprestimoRepository emprestimoRepository;
+
+    @Mock
+    private JavaMailSender mailSenderMock;
+
+    private Usuario maria;
+    private Usuario joao;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+        mailSender.setDefaultEncoding("UTF-8");
+        ReflectionTestUtils.setField(lembreteService, "mailSender", mailSender);
+        ReflectionTestUtils.setField(lembreteService, "usuariosPorLote", 2);
+        ReflectionTestUtils.setField(lembreteService, "enviosSimultaneos", 4);
+
+        maria = usuario(1L, "Maria", "maria@email.com");
+        joao = usuario(2L, "João", "joao@email.com");
+
+        // Como no banco: marca apenas os ainda não marcados e devolve esses ids
+        Set<Long> lembretesMarcados = new HashSet<>();
+        Set<Long> avisosMarcados = new HashSet<>();
+        when(emprestimoRepository.marcarLembreteEnviado(anyList(), any()))
+                .thenAnswer(inv -> marcarNaoMarcados(inv.getArgument(0), lembretesMarcados));
+        when(emprestimoRepository.marcarAvisoAtrasoEnviado(anyList(), any()))
+                .thenAnswer(inv -> marcarNaoMarcados(inv.getArgument(0), avisosMarcados));
+    }
+
+    @Test
+    void deveEnviarUmResumoPorUsuarioEMarcarEmLote() throws Exception {
+        Emprestimo atrasado = emprestimo(10L, maria, "Dom Casmurro", HOJE.minusDays(3));
+        Emprestimo vencendo = emprestimo(11L, maria, "O Cortiço", HOJE.plusDays(1));
+        Emprestimo doJoao = emprestimo(12L, joao, "Iracema", HOJE.plusDays(2));
+
+        when(emprestimoRepository.findUsuariosComLembretePendente(eq(0L), eq(HOJE), eq(HOJE.plusDays(2)), any(Limit.class)))
+                .thenReturn(List.of(1L, 2L));
+        when(emprestimoRepository.findUsuariosComLembretePendente(eq(2L), any(), any(), any(Limit.class)))
+                .thenReturn(List.of());
+        when(emprestimoRepository.findLembretesPendentes(List.of(1L, 2L), HOJE, HOJE.plusDays(2)))
+                .thenReturn(List.of(atrasado, vencendo, doJoao));
+
+        ResultadoLembretes resultado = lembreteService.executar(HOJE);
+
+        assertEquals(2, resultado.getUsuarios());
+        assertEquals(3, resultado.getEmprestimos());
+        assertEquals(2, resultado.getEnviados());
+        assertEquals(0, resultado.getFalhas());
+
+        MimeMessage[] recebidas = greenMail.getReceivedMessages();
+        assertEquals(2, recebidas.length);
+        MimeMessage paraMaria = recebidas[0].getAllRecipients()[0].toString().equals("maria@email.com")
+                ? recebidas[0] : recebidas[1];
+        assertTrue(paraMaria.getSubject().contains("atrasados"));
+        String corpo = paraMaria.getContent().toString();
+        assertTrue(corpo.contains("Dom Casmurro"));
+        assertTrue(corpo.contains("O Cortiço"));
+
+        verify(emprestimoRepository).marcarLembreteEnviado(List.of(11L, 12L), HOJE);
+        verify(emprestimoRepository).marcarAvisoAtrasoEnviado(List.of(10L), HOJE);
+        verify(emprestimoRepository, never()).desmarcarLembrete(any());
+        verify(emprestimoRepository, never()).desmarcarAvisoAtraso(any());
+    }
+
+    @Test
+    void deveDesfazerMarcacaoQuandoEnvioFalhar() {
+        ReflectionTestUtils.setField(lembreteService, "mailSender", mailSenderMock);
+        doThrow(new MailSendException("SMTP indisponível"))
+                .when(mailSenderMock).send(argThat((SimpleMailMessage m) -> m.getTo()[0].equals("joao@email.com")));
+
+        Emprestimo daMaria = emprestimo(10L, maria, "Dom Casmurro", HOJE.plusDays(1));
+        Emprestimo doJoao = emprestimo(12L, joao, "Iracema", HOJE.minusDays(1));
+
+        when(emprestimoRepository.findUsuariosComLembretePendente(eq(0L), any(), any(), any(Limit.class)))
+                .thenReturn(List.of(1L, 2L));
+        when(emprestimoRepository.findLembretesPendentes(any(), any(), any()))
+                .thenReturn(List.of(daMaria, doJoao));
+
+        ResultadoLembretes resultado = lembreteService.executar(HOJE);
+
+        assertEquals(1, resultado.getEnviados());
+        assertEquals(1, resultado.getFalhas());
+        verify(emprestimoRepository).desmarcarAvisoAtraso(List.of(12L));
+        verify(emprestimoRepository, never()).desmarcarLembrete(any());
+    }
+
+    @Test
+    void execucaoSimultaneaNaoDeveReenviarOQueOutraReservou() {
+        ReflectionTestUtils.setField(lembreteService, "mailSender", mailSenderMock);
+        Emprestimo daMaria = emprestimo(10L, maria, "Dom Casmurro", HOJE.plusDays(1));
+        Emprestimo doJoao = emprestimo(12L, joao, "Iracema", HOJE.minusDays(1));
+
+        // As duas execuções leem os mesmos pendentes antes de qualquer marcação
+        when(emprestimoRepository.findUsuariosComLembretePendente(eq(0L), any(), any(), any(Limit.class)))
+                .thenReturn(List.of(1L, 2L));
+        when(emprestimoRepository.findLembretesPendentes(any(), any(), any()))
+                .thenReturn(List.of(daMaria, doJoao));
+
+        ResultadoLembretes primeira = lembreteService.executar(HOJE);
+        ResultadoLembretes segunda = lembreteService.executar(HOJE);
+
+        assertEquals(2, primeira.getEnviados());
+        assertEquals(0, segunda.getUsuarios());
+        assertEquals(0, segunda.getEmprestimos());
+        assertEquals(0, segunda.getEnviados());
+        verify(mailSenderMock, times(2)).send(any(SimpleMailMessage.class));
+    }
+
+    @Test
+    void envioSemRespostaNoPrazoDeveManterMarcacao() {
+        ReflectionTestUtils.setField(lembreteService, "mailSender", mailSenderMock);
+        ReflectionTestUtils.setField(lembreteService, "esperaEnvioMs", 200L);
+        CountDownLatch servidorTravado = new CountDownLatch(1);
+        doAnswer(inv -> {
+            servidorTravado.await();
+            return null;
+        }).when(mailSenderMock).send(argThat((SimpleMailMessage m) -> m.getTo()[0].equals("joao@email.com")));
+
+        Emprestimo daMaria = emprestimo(10L, maria, "Dom Casmurro", HOJE.plusDays(1));
+        Emprestimo doJoao = emprestimo(12L, joao, "Iracema", HOJE.minusDays(1));
+
+        when(emprestimoRepository.findUsuariosComLembretePendente(eq(0L), any(), any(), any(Limit.class)))
+                .thenReturn(List.of(1L, 2L));
+        when(emprestimoRepository.findLembretesPendentes(any(), any(), any()))
+                .thenReturn(List.of(daMaria, doJoao));
+
+        try {
+            ResultadoLembretes resultado = lembreteService.executar(HOJE);
+
+            assertEquals(1, resultado.getEnviados());
+            assertEquals(0, resultado.getFalhas());
+            assertEquals(1, resultado.getSemConfirmacao());
+            verify(emprestimoRepository, never()).desmarcarAvisoAtraso(any());
+            verify(emprestimoRepository, never()).desmarcarLembrete(any());
+        } finally {
+            servidorTravado.countDown();
+        }
+    }
+
+    @Test
+    void semPendenciasNaoDeveEnviarNada() {
+        when(emprestimoRepository.findUsuariosComLembretePendente(any(), any(), any(), any(Limit.class)))
+                .thenReturn(List.of());
+
+        ResultadoLembretes resultado = lembreteService.executar(HOJE);
+
+        assertEquals(0, resultado.getUsuarios());
+        assertEquals(0, greenMail.getReceivedMessages().length);
+        verify(emprestimoRepository, never()).findLembretesPendentes(any(), any(), any());
+    }
+
+    private static List<Long> marcarNaoMarcados(List<Long> ids, Set<Long> marcados) {
+        synchronized (marcados) {
+            return ids.stream().filter(marcados::add).toList();
+        }
+    }
+
+    private Usuario usuario(Long id, String nome, String email) {
+        Usuario usuario = new Usuario(nome, email, "123.456.789-0" + id, "senha", Usuario.TipoUsuario.ALUNO);
+        usuario.setId(id);
+        return usuario;
+    }
+
+    private Emprestimo emprestimo(Long id, Usuario usuario, String titulo, LocalDate devolucaoPrevista) {
+        Livro livro = new Livro();
+        livro.setTitulo(titulo);
+        Emprestimo emprestimo = new Emprestimo(usuario, livro, devolucaoPrevista.minusDays(14), devolucaoPrevista);
+        emprestimo.setId(id);
+        return emprestimo;
+    }
+}
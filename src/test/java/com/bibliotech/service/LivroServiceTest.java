@@ -23,6 +23,18 @@ class LivroServiceTest {
     @Mock
     private LivroRepository livroRepository;
 
+    @Mock
+    private IndiceBuscaService indiceBuscaService;
+
+    @Mock
+    private MetricasService metricasService;
+
+    @Mock
+    private RankingService rankingService;
+
+    @Mock
+    private PopularidadeService popularidadeService;
+
     private Livro livro;
 
     @BeforeEach
@@ -184,6 +196,8 @@ class LivroServiceTest {
         livroService.excluir(livro.getId());
 
         verify(livroRepository, times(1)).delete(livro);
+        verify(rankingService).remover(livro.getId());
+        verify(popularidadeService).remover(livro.getId());
     }
 
     //RF08 – Excluir livro
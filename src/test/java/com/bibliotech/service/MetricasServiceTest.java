@@ -0,0 +1,85 @@
+package com.bibliotech.service;
+
+import com.bibliotech.event.EmprestimoDevolvidoEvent;
+import com.bibliotech.event.EmprestimoRealizadoEvent;
+import com.bibliotech.model.Emprestimo;
+import com.bibliotech.model.Livro;
+import com.bibliotech.model.Usuario;
+import com.bibliotech.repository.EmprestimoRepository;
+import com.bibliotech.repository.EstatisticasGerais;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MetricasServiceTest {
+
+    private MetricasService metricas;
+    private EmprestimoRepository emprestimoRepository;
+
+    @BeforeEach
+    void setUp() {
+        emprestimoRepository = mock(EmprestimoRepository.class);
+        when(emprestimoRepository.obterEstatisticasGerais())
+                .thenReturn(new EstatisticasGerais(10L, 20L, 3L, 8L, 1L));
+        metricas = new MetricasService();
+        ReflectionTestUtils.setField(metricas, "emprestimoRepository", emprestimoRepository);
+    }
+
+    @Test
+    void primeiraLeituraCarregaDoBancoEAsSeguintesNaoConsultam() {
+        assertEquals(10L, metricas.obterTotais().getTotalLivros());
+        metricas.obterTotais();
+        metricas.obterTotais();
+
+        verify(emprestimoRepository, times(1)).obterEstatisticasGerais();
+    }
+
+    @Test
+    void retiradaDoUltimoExemplarReduzTitulosDisponiveis() {
+        metricas.reconciliar();
+
+        metricas.aoRealizarEmprestimo(new EmprestimoRealizadoEvent(emprestimo(1, LocalDate.now().plusDays(7))));
+        metricas.aoRealizarEmprestimo(new EmprestimoRealizadoEvent(emprestimo(0, LocalDate.now().plusDays(7))));
+
+        EstatisticasGerais totais = metricas.obterTotais();
+        assertEquals(5L, totais.getEmprestimosAtivos());
+        assertEquals(7L, totais.getLivrosDisponiveis());
+    }
+
+    @Test
+    void devolucaoAtrasadaReduzAtrasosEDevolveTituloDisponivel() {
+        metricas.reconciliar();
+
+        metricas.aoDevolverEmprestimo(new EmprestimoDevolvidoEvent(emprestimo(1, LocalDate.now().minusDays(2))));
+
+        EstatisticasGerais totais = metricas.obterTotais();
+        assertEquals(2L, totais.getEmprestimosAtivos());
+        assertEquals(0L, totais.getEmprestimosAtrasados());
+        assertEquals(9L, totais.getLivrosDisponiveis());
+    }
+
+    @Test
+    void reconciliacaoCorrigeDiferencas() {
+        metricas.reconciliar();
+        metricas.ajustar(MetricasService.Contador.USUARIOS_ATIVOS, 5);
+        assertEquals(25L, metricas.obterTotais().getTotalUsuarios());
+
+        metricas.reconciliar();
+
+        assertEquals(20L, metricas.obterTotais().getTotalUsuarios());
+    }
+
+    private static Emprestimo emprestimo(int disponivelDepois, LocalDate devolucaoPrevista) {
+        Livro livro = new Livro();
+        livro.setId(1L);
+        livro.setQuantidadeDisponivel(disponivelDepois);
+        Usuario usuario = new Usuario();
+        usuario.setId(1L);
+        return new Emprestimo(usuario, livro, devolucaoPrevista.minusDays(7), devolucaoPrevista);
+    }
+}
@@ -0,0 +1,230 @@
+package com.bibliotech.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PainelEventosServiceTest {
+
+    private PainelEventosService painel;
+    private DashboardService dashboardService;
+    private final Map<String, Object> estatisticas = new HashMap<>();
+
+    /**
+     * Emissor que registra os totais enviados; opcionalmente fica preso no
+     * envio até ser liberado, simulando um cliente lento.
+     */
+    static class EmissorDeTeste extends SseEmitter {
+        final List<Map<?, ?>> recebidos = new CopyOnWriteArrayList<>();
+        final CountDownLatch liberar;
+        final CountDownLatch primeiroEnvio = new CountDownLatch(1);
+
+        EmissorDeTeste(boolean lento) {
+            liberar = new CountDownLatch(lento ? 1 : 0);
+        }
+
+        @Override
+        public void send(SseEventBuilder evento) throws IOException {
+            primeiroEnvio.countDown();
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            for (var dado : evento.build()) {
+                if (dado.getData() instanceof Map<?, ?> mapa) {
+                    recebidos.add(mapa);
+                }
+            }
+        }
+    }
+
+    /**
+     * Emissor cuja escrita nunca termina, como um socket de cliente que
+     * parou de ler: ignora interrupções até o fim do teste. Como no
+     * {@link SseEmitter} real, a escrita segura o monitor do emissor, o
+     * mesmo que {@code complete()} precisa.
+     */
+    static class EmissorPreso extends SseEmitter {
+        final CountDownLatch fimDoTeste = new CountDownLatch(1);
+        final CountDownLatch escritaIniciada = new CountDownLatch(1);
+        final CountDownLatch encerrado = new CountDownLatch(1);
+
+        @Override
+        public synchronized void send(SseEventBuilder evento) {
+            escritaIniciada.countDown();
+            while (fimDoTeste.getCount() > 0) {
+                try {
+                    fimDoTeste.await();
+                } catch (InterruptedException e) {
+                    // escrita bloqueada não responde a interrupções
+                }
+            }
+        }
+
+        @Override
+        public synchronized void complete() {
+            super.complete();
+            encerrado.countDown();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        dashboardService = mock(DashboardService.class);
+        when(dashboardService.obterEstatisticas()).thenAnswer(i -> new HashMap<>(estatisticas));
+        estatisticas.put("totalLivros", 10L);
+        estatisticas.put("emprestimosAtivos", 3L);
+
+        painel = new PainelEventosService();
+        ReflectionTestUtils.setField(painel, "dashboardService", dashboardService);
+        painel.iniciar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        painel.encerrar();
+    }
+
+    @Test
+    void conexaoRecebeTodosOsTotaisEDepoisApenasAlteracoes() throws Exception {
+        EmissorDeTeste emissor = new EmissorDeTeste(false);
+        painel.registrar(emissor);
+        aguardar(() -> emissor.recebidos.size() == 1);
+        assertEquals(Map.of("totalLivros", 10L, "emprestimosAtivos", 3L), emissor.recebidos.get(0));
+
+        painel.difundir();
+        estatisticas.put("emprestimosAtivos", 4L);
+        painel.difundir();
+        painel.difundir();
+
+        aguardar(() -> emissor.recebidos.size() >= 2);
+        Thread.sleep(100);
+        assertEquals(2, emissor.recebidos.size());
+        assertEquals(Map.of("emprestimosAtivos", 4L), emissor.recebidos.get(1));
+    }
+
+    @Test
+    void clienteLentoNaoAtrasaOsDemaisERecebeValoresMesclados() throws Exception {
+        EmissorDeTeste lento = new EmissorDeTeste(true);
+        EmissorDeTeste rapido = new EmissorDeTeste(false);
+        painel.registrar(lento);
+        assertTrue(lento.primeiroEnvio.await(2, TimeUnit.SECONDS));
+        painel.registrar(rapido);
+        painel.difundir();
+
+        for (long ativos = 4; ativos <= 8; ativos++) {
+            estatisticas.put("emprestimosAtivos", ativos);
+            painel.difundir();
+        }
+        estatisticas.put("totalLivros", 11L);
+        painel.difundir();
+
+        aguardar(() -> rapido.recebidos.stream().anyMatch(m -> Long.valueOf(11L).equals(m.get("totalLivros"))));
+        assertTrue(lento.recebidos.isEmpty());
+
+        lento.liberar.countDown();
+        aguardar(() -> lento.recebidos.size() == 2);
+        assertEquals(Map.of("emprestimosAtivos", 8L, "totalLivros", 11L), lento.recebidos.get(1));
+        assertEquals(2, painel.getConexoes());
+    }
+
+    @Test
+    void clientesPresosNaoOcupamOsEnviosDosDemais() throws Exception {
+        reiniciar(2, 200L);
+
+        EmissorPreso preso1 = new EmissorPreso();
+        EmissorPreso preso2 = new EmissorPreso();
+        try {
+            painel.registrar(preso1);
+            painel.registrar(preso2);
+            assertTrue(preso1.escritaIniciada.await(1, TimeUnit.SECONDS));
+            assertTrue(preso2.escritaIniciada.await(1, TimeUnit.SECONDS));
+            EmissorDeTeste rapido = new EmissorDeTeste(false);
+            painel.registrar(rapido);
+
+            // Os dois envios simultâneos estão nos presos: o rápido só é
+            // atendido se eles liberarem o pool ao exceder o limite
+            aguardar(() -> rapido.recebidos.size() == 1);
+            aguardar(() -> painel.getConexoes() == 1);
+
+            estatisticas.put("emprestimosAtivos", 4L);
+            painel.difundir();
+            aguardar(() -> rapido.recebidos.size() == 2);
+            assertEquals(1, preso1.encerrado.getCount());
+        } finally {
+            preso1.fimDoTeste.countDown();
+            preso2.fimDoTeste.countDown();
+        }
+        // Encerrados pela própria escrita, assim que ela retornou
+        assertTrue(preso1.encerrado.await(1, TimeUnit.SECONDS));
+        assertTrue(preso2.encerrado.await(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void escritasPresasNaoCriamThreadsSemLimiteNemDerrubamOsDemais() throws Exception {
+        reiniciar(1, 100L);
+
+        List<EmissorPreso> presos = List.of(new EmissorPreso(), new EmissorPreso());
+        EmissorDeTeste rapido = new EmissorDeTeste(false);
+        try {
+            for (EmissorPreso preso : presos) {
+                painel.registrar(preso);
+            }
+            // Duas escritas presas esgotam o pool; o rápido fica com o envio
+            // adiado, mas continua conectado
+            aguardar(() -> painel.getConexoes() == 0);
+            painel.registrar(rapido);
+            estatisticas.put("emprestimosAtivos", 4L);
+            painel.difundir();
+            Thread.sleep(100);
+            painel.difundir();
+
+            assertEquals(1, painel.getConexoes());
+            assertTrue(rapido.recebidos.isEmpty());
+            ThreadPoolExecutor escritas = (ThreadPoolExecutor) ReflectionTestUtils.getField(painel, "escritas");
+            assertEquals(2, escritas.getLargestPoolSize());
+        } finally {
+            presos.forEach(preso -> preso.fimDoTeste.countDown());
+        }
+
+        // Liberada uma thread de escrita, o próximo ciclo entrega o conteúdo mesclado
+        aguardar(() -> {
+            painel.difundir();
+            return rapido.recebidos.size() == 1;
+        });
+        assertEquals(4L, rapido.recebidos.get(0).get("emprestimosAtivos"));
+        assertEquals(1, painel.getConexoes());
+    }
+
+    private void reiniciar(int enviosSimultaneos, long limiteEnvioMs) {
+        painel.encerrar();
+        painel = new PainelEventosService();
+        ReflectionTestUtils.setField(painel, "dashboardService", dashboardService);
+        ReflectionTestUtils.setField(painel, "enviosSimultaneos", enviosSimultaneos);
+        ReflectionTestUtils.setField(painel, "limiteEnvioMs", limiteEnvioMs);
+        painel.iniciar();
+    }
+
+    private static void aguardar(java.util.function.BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 3000;
+        while (!condicao.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < limite, "Condição não atendida a tempo");
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.bibliotech.service;
+
+import com.bibliotech.event.EmprestimoRealizadoEvent;
+import com.bibliotech.model.Emprestimo;
+import com.bibliotech.model.Livro;
+import com.bibliotech.repository.EmprestimoRepository;
+import com.bibliotech.service.PopularidadeService.Janela;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PopularidadeServiceTest {
+
+    @InjectMocks
+    private PopularidadeService popularidadeService;
+
+    @Mock
+    private EmprestimoRepository emprestimoRepository;
+
+    private LocalDate hoje;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        hoje = LocalDate.now();
+    }
+
+    @Test
+    void janelasDevemConsiderarApenasOsDiasRecentes() {
+        popularidadeService.registrar(1L, hoje.minusDays(2), 3, hoje);
+        popularidadeService.registrar(2L, hoje.minusDays(10), 5, hoje);
+        popularidadeService.registrar(3L, hoje.minusDays(100), 9, hoje);
+
+        assertEquals(Arrays.asList(1L), ids(popularidadeService.obterTopo(Janela.SEMANA, 5, hoje)));
+        assertEquals(Arrays.asList(2L, 1L), ids(popularidadeService.obterTopo(Janela.MES, 5, hoje)));
+        assertEquals(Arrays.asList(3L, 2L, 1L), ids(popularidadeService.obterTopo(Janela.ANO, 5, hoje)));
+    }
+
+    @Test
+    void viradaDoDiaDeveRetirarContagensQueSaemDaJanela() {
+        popularidadeService.registrar(1L, hoje, 4, hoje);
+
+        assertEquals(4L, popularidadeService.obterTopo(Janela.SEMANA, 1, hoje.plusDays(6)).get(0).getTotal());
+        assertTrue(popularidadeService.obterTopo(Janela.SEMANA, 1, hoje.plusDays(7)).isEmpty());
+        assertEquals(4L, popularidadeService.obterTopo(Janela.MES, 1, hoje.plusDays(29)).get(0).getTotal());
+        assertTrue(popularidadeService.obterTopo(Janela.MES, 1, hoje.plusDays(30)).isEmpty());
+        assertEquals(4L, popularidadeService.obterTopo(Janela.ANO, 1, hoje.plusDays(364)).get(0).getTotal());
+        assertTrue(popularidadeService.obterTopo(Janela.ANO, 1, hoje.plusDays(365)).isEmpty());
+    }
+
+    @Test
+    void topoDeveSerLimitadoEOrdenado() {
+        for (long id = 1; id <= 20; id++) {
+            popularidadeService.registrar(id, hoje, id, hoje);
+        }
+
+        List<ContagemLivro> topo = popularidadeService.obterTopo(Janela.SEMANA, 3, hoje);
+
+        assertEquals(Arrays.asList(20L, 19L, 18L), ids(topo));
+    }
+
+    @Test
+    void carregarDeveReconstruirAPartirDasContagensDiarias() {
+        when(emprestimoRepository.contarPorLivroEDiaDesde(hoje.minusDays(364))).thenReturn(Arrays.asList(
+                new Object[] { 1L, hoje.minusDays(1), 2L },
+                new Object[] { 2L, hoje.minusDays(40), 7L }));
+
+        popularidadeService.carregar();
+
+        assertEquals(Arrays.asList(1L), ids(popularidadeService.obterTopo(Janela.SEMANA, 5)));
+        assertEquals(Arrays.asList(2L, 1L), ids(popularidadeService.obterTopo(Janela.ANO, 5)));
+    }
+
+    @Test
+    void antesDaCargaOTopoDeveVirDoBanco() {
+        when(emprestimoRepository.contarPorLivroDesde(eq(hoje.minusDays(6)), any())).thenReturn(Arrays.asList(
+                new Object[] { 4L, 3L }, new Object[] { 2L, 1L }));
+
+        assertEquals(Arrays.asList(4L, 2L), ids(popularidadeService.obterTopo(Janela.SEMANA, 5)));
+
+        popularidadeService.carregar();
+        assertTrue(popularidadeService.obterTopo(Janela.SEMANA, 5).isEmpty());
+    }
+
+    @Test
+    void retiradaDuranteACargaNaoDeveSePerderNemSerContadaDuasVezes() {
+        Emprestimo vista = emprestimo(50L, 1L);
+        Emprestimo naoVista = emprestimo(51L, 2L);
+        when(emprestimoRepository.contarPorLivroEDiaDesde(hoje.minusDays(364))).thenAnswer(i -> {
+            // Confirmadas durante a leitura; só a primeira entrou no instantâneo
+            popularidadeService.aoRealizarEmprestimo(new EmprestimoRealizadoEvent(vista));
+            popularidadeService.aoRealizarEmprestimo(new EmprestimoRealizadoEvent(naoVista));
+            return Arrays.<Object[]>asList(new Object[] { 1L, hoje, 1L });
+        });
+        when(emprestimoRepository.findIdsExistentes(any())).thenReturn(Arrays.asList(50L));
+
+        popularidadeService.carregar();
+
+        List<ContagemLivro> topo = popularidadeService.obterTopo(Janela.SEMANA, 5);
+        assertEquals(Arrays.asList(1L, 2L), ids(topo));
+        assertEquals(1L, topo.get(0).getTotal());
+        assertEquals(1L, topo.get(1).getTotal());
+    }
+
+    @Test
+    void livroExcluidoDeveSairDeTodasAsJanelas() {
+        popularidadeService.registrar(1L, hoje, 5, hoje);
+        popularidadeService.registrar(2L, hoje.minusDays(20), 3, hoje);
+
+        popularidadeService.remover(1L);
+
+        assertTrue(popularidadeService.obterTopo(Janela.SEMANA, 5, hoje).isEmpty());
+        assertEquals(Arrays.asList(2L), ids(popularidadeService.obterTopo(Janela.MES, 5, hoje)));
+        assertEquals(Arrays.asList(2L), ids(popularidadeService.obterTopo(Janela.ANO, 5, hoje)));
+    }
+
+    @Test
+    void janelaInvalidaDeveLancarExcecao() {
+        assertThrows(IllegalArgumentException.class, () -> Janela.deDias(14));
+        assertEquals(Janela.MES, Janela.deDias(30));
+    }
+
+    private Emprestimo emprestimo(Long id, Long livroId) {
+        Livro livro = new Livro();
+        livro.setId(livroId);
+        Emprestimo emprestimo = new Emprestimo();
+        emprestimo.setId(id);
+        emprestimo.setLivro(livro);
+        emprestimo.setDataEmprestimo(hoje);
+        return emprestimo;
+    }
+
+    private List<Long> ids(List<ContagemLivro> contagens) {
+        return contagens.stream().map(ContagemLivro::getLivroId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,128 @@
+package com.bibliotech.service;
+
+import com.bibliotech.event.EmprestimoRealizadoEvent;
+import com.bibliotech.model.Emprestimo;
+import com.bibliotech.model.Livro;
+import com.bibliotech.repository.LivroRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RankingServiceTest {
+
+    @InjectMocks
+    private RankingService rankingService;
+
+    @Mock
+    private LivroRepository livroRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(rankingService, "capacidade", 3);
+    }
+
+    @Test
+    void carregarDeveSemearRankingComContadoresPersistidos() {
+        when(livroRepository.findContadoresEmprestimo()).thenReturn(Arrays.asList(
+                new Object[] { 1L, 5L },
+                new Object[] { 2L, 9L },
+                new Object[] { 3L, 1L },
+                new Object[] { 4L, 7L }));
+
+        rankingService.carregar();
+
+        List<ContagemLivro> topo = rankingService.obterTopo(10);
+        assertEquals(Arrays.asList(2L, 4L, 1L), ids(topo));
+        assertEquals(9L, topo.get(0).getTotal());
+    }
+
+    @Test
+    void livroForaDoTopoDeveEntrarAoSuperarOMenor() {
+        for (int i = 0; i < 3; i++) rankingService.registrarEmprestimo(1L);
+        for (int i = 0; i < 2; i++) rankingService.registrarEmprestimo(2L);
+        rankingService.registrarEmprestimo(3L);
+        rankingService.registrarEmprestimo(4L);
+
+        // Empate com o menor do topo: mantém o de menor id
+        assertEquals(Arrays.asList(1L, 2L, 3L), ids(rankingService.obterTopo(3)));
+
+        rankingService.registrarEmprestimo(4L);
+
+        assertEquals(Arrays.asList(1L, 2L, 4L), ids(rankingService.obterTopo(3)));
+    }
+
+    @Test
+    void rankingDeveCoincidirComContagemCompleta() {
+        ReflectionTestUtils.setField(rankingService, "capacidade", 5);
+        Random random = new Random(42);
+        Map<Long, Long> esperado = new HashMap<>();
+
+        for (int i = 0; i < 5000; i++) {
+            long livroId = 1 + (long) Math.abs(random.nextGaussian() * 15);
+            esperado.merge(livroId, 1L, Long::sum);
+            rankingService.registrarEmprestimo(livroId);
+        }
+
+        List<Long> topoEsperado = esperado.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(5)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+
+        assertEquals(topoEsperado, ids(rankingService.obterTopo(5)));
+    }
+
+    @Test
+    void livroExcluidoDeveSairDoTopoDandoLugarAoMelhorDeFora() {
+        when(livroRepository.findContadoresEmprestimo()).thenReturn(Arrays.asList(
+                new Object[] { 1L, 5L },
+                new Object[] { 2L, 9L },
+                new Object[] { 3L, 1L },
+                new Object[] { 4L, 7L },
+                new Object[] { 5L, 4L }));
+        rankingService.carregar();
+
+        rankingService.remover(2L);
+        assertEquals(Arrays.asList(4L, 1L, 5L), ids(rankingService.obterTopo(3)));
+
+        // Livro fora do topo: nada muda no topo
+        rankingService.remover(3L);
+        assertEquals(Arrays.asList(4L, 1L, 5L), ids(rankingService.obterTopo(3)));
+
+        rankingService.remover(4L);
+        rankingService.remover(1L);
+        assertEquals(Arrays.asList(5L), ids(rankingService.obterTopo(3)));
+    }
+
+    @Test
+    void emprestimoRealizadoDeveIncrementarContadorPersistente() {
+        Livro livro = new Livro();
+        livro.setId(8L);
+        Emprestimo emprestimo = new Emprestimo();
+        emprestimo.setLivro(livro);
+
+        EmprestimoRealizadoEvent evento = new EmprestimoRealizadoEvent(emprestimo);
+        rankingService.aoRealizarEmprestimo(evento);
+
+        verify(livroRepository, times(1)).incrementarTotalEmprestimos(8L);
+        assertTrue(rankingService.obterTopo(1).isEmpty(), "Ranking só muda após o commit");
+
+        rankingService.aoConfirmarEmprestimo(evento);
+        assertEquals(1L, rankingService.obterTopo(1).get(0).getTotal());
+    }
+
+    private List<Long> ids(List<ContagemLivro> contagens) {
+        return contagens.stream().map(ContagemLivro::getLivroId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,135 @@
+package com.bibliotech.service;
+
+import com.bibliotech.model.Emprestimo;
+import com.bibliotech.model.Livro;
+import com.bibliotech.model.Usuario;
+import com.bibliotech.repository.EmprestimoRepository;
+import com.bibliotech.repository.LivroRepository;
+import com.bibliotech.repository.UsuarioRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:relatorio;DB_CLOSE_DELAY=-1",
+    "spring.jpa.show-sql=false",
+    "bibliotech.tendencias.arquivo=",
+    "logging.level.org.hibernate.SQL=WARN",
+    "bibliotech.relatorios.bloco=3",
+    "bibliotech.relatorios.paralelismo=2"
+})
+class RelatorioCirculacaoServiceTest {
+
+    @Autowired
+    private RelatorioCirculacaoService relatorioService;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private LivroRepository livroRepository;
+
+    @Autowired
+    private EmprestimoRepository emprestimoRepository;
+
+    private Emprestimo emprestimo(Usuario usuario, Livro livro, LocalDate retirada,
+                                  LocalDate devolucao, double multa) {
+        Emprestimo emprestimo = new Emprestimo(usuario, livro, retirada, retirada.plusDays(14));
+        if (devolucao != null) {
+            emprestimo.setDataDevolucaoReal(devolucao);
+            emprestimo.setMulta(multa);
+            emprestimo.setAtivo(false);
+        }
+        return emprestimoRepository.save(emprestimo);
+    }
+
+    @Test
+    void gerarAgregaPorMesTipoEditoraEDecadaEmBlocos() throws Exception {
+        Usuario aluno = usuarioRepository.save(new Usuario("Aluno Relatório", "aluno@relatorio.com",
+                "800.800.801-08", "senha", Usuario.TipoUsuario.ALUNO));
+        Usuario professor = usuarioRepository.save(new Usuario("Professor Relatório", "prof@relatorio.com",
+                "800.800.802-08", "senha", Usuario.TipoUsuario.PROFESSOR));
+        Livro antigo = livroRepository.save(new Livro("Livro Antigo", "Autor", "978-0-00-000101-1",
+                "Editora A", 1987, 10));
+        Livro novo = livroRepository.save(new Livro("Livro Novo", "Autor", "978-0-00-000102-1",
+                "Editora; B", 2015, 10));
+
+        LocalDate janeiro = LocalDate.of(2001, 1, 10);
+        LocalDate fevereiro = LocalDate.of(2001, 2, 5);
+        emprestimo(aluno, antigo, janeiro, janeiro.plusDays(10), 0.0);
+        emprestimo(aluno, novo, janeiro, janeiro.plusDays(20), 12.0);
+        emprestimo(professor, antigo, janeiro.plusDays(1), null, 0.0);
+        emprestimo(professor, novo, fevereiro, fevereiro.plusDays(4), 0.0);
+        emprestimo(aluno, novo, fevereiro, fevereiro.plusDays(16), 4.0);
+        emprestimo(aluno, antigo, fevereiro.plusDays(2), null, 0.0);
+        emprestimo(aluno, antigo, fevereiro.plusDays(3), null, 0.0);
+        // Fora do período
+        emprestimo(aluno, antigo, LocalDate.of(2001, 3, 1), null, 0.0);
+
+        RelatorioCirculacao relatorio = relatorioService.gerar(LocalDate.of(2001, 1, 1), LocalDate.of(2001, 2, 28));
+
+        assertEquals(7, relatorio.getLinhas());
+        assertTrue(relatorio.getBlocos() > 1, "A faixa de ids deve ser dividida em blocos");
+        assertEquals(2, relatorio.getMeses().size());
+
+        RelatorioCirculacao.Mes jan = relatorio.getMeses().get(YearMonth.of(2001, 1));
+        assertEquals(3, jan.getTotal().getEmprestimos());
+        assertEquals(2, jan.getTotal().getDevolvidos());
+        assertEquals(15.0, jan.getTotal().getDuracaoMedia(), 0.001);
+        assertEquals(12.0, jan.getTotal().getMultas(), 0.001);
+        assertEquals(2, jan.getPorTipoUsuario().get(Usuario.TipoUsuario.ALUNO).getEmprestimos());
+        assertEquals(1, jan.getPorTipoUsuario().get(Usuario.TipoUsuario.PROFESSOR).getEmprestimos());
+        assertEquals(2, jan.getPorEditora().get("Editora A").getEmprestimos());
+        assertEquals(2, jan.getPorDecada().get("1980-1989").getEmprestimos());
+        assertEquals(1, jan.getPorDecada().get("2010-2019").getEmprestimos());
+
+        RelatorioCirculacao.Mes fev = relatorio.getMeses().get(YearMonth.of(2001, 2));
+        assertEquals(4, fev.getTotal().getEmprestimos());
+        assertEquals(10.0, fev.getTotal().getDuracaoMedia(), 0.001);
+        assertEquals(4.0, fev.getTotal().getMultas(), 0.001);
+        assertEquals(2, fev.getPorEditora().get("Editora; B").getEmprestimos());
+
+        StringWriter csv = new StringWriter();
+        relatorioService.escreverCsv(relatorio, csv);
+        String[] linhas = csv.toString().split("\n");
+        assertEquals("mes;dimensao;grupo;emprestimos;devolvidos;duracao_media_dias;multas", linhas[0]);
+        assertEquals("2001-01;TOTAL;;3;2;15.00;12.00", linhas[1]);
+        assertTrue(csv.toString().contains("2001-02;EDITORA;\"Editora; B\";2;2;10.00;4.00"));
+        assertTrue(csv.toString().contains("2001-02;TIPO_USUARIO;PROFESSOR;1;1;4.00;0.00"));
+    }
+
+    @Test
+    void gerarPeriodoSemEmprestimosRetornaRelatorioVazio() {
+        RelatorioCirculacao relatorio = relatorioService.gerar(LocalDate.of(1990, 1, 1), LocalDate.of(1990, 12, 31));
+
+        assertEquals(0, relatorio.getLinhas());
+        assertTrue(relatorio.getMeses().isEmpty());
+    }
+
+    @Test
+    void gerarIntervaloInvertidoLancaExcecao() {
+        assertThrows(IllegalArgumentException.class,
+                () -> relatorioService.gerar(LocalDate.of(2001, 2, 1), LocalDate.of(2001, 1, 1)));
+    }
+
+    @Test
+    void paralelismoAutomaticoDeixaConexoesLivres() {
+        RelatorioCirculacaoService servico = new RelatorioCirculacaoService();
+        ReflectionTestUtils.setField(servico, "conexoes", 3);
+        servico.iniciar();
+        try {
+            ForkJoinPool pool = (ForkJoinPool) ReflectionTestUtils.getField(servico, "pool");
+            assertEquals(1, pool.getParallelism());
+        } finally {
+            servico.encerrar();
+        }
+    }
+}
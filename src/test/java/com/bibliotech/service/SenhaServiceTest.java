@@ -0,0 +1,98 @@
+package com.bibliotech.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SenhaServiceTest {
+
+    private SenhaService senhaService;
+
+    @BeforeEach
+    void setUp() {
+        senhaService = new SenhaService();
+        ReflectionTestUtils.setField(senhaService, "custo", 4);
+        ReflectionTestUtils.setField(senhaService, "verificacoesSimultaneas", 1);
+        ReflectionTestUtils.setField(senhaService, "fila", 1);
+        senhaService.iniciar();
+    }
+
+    @AfterEach
+    void tearDown() {
+        senhaService.encerrar();
+    }
+
+    @Test
+    void codificarDeveGerarHashComSalDiferenteACadaVez() {
+        String hash1 = senhaService.codificar("senha123");
+        String hash2 = senhaService.codificar("senha123");
+
+        assertNotEquals(hash1, hash2);
+        assertTrue(senhaService.estaCodificada(hash1));
+        assertFalse(senhaService.estaCodificada("senha123"));
+        assertTrue(senhaService.verificar("senha123", hash1));
+        assertFalse(senhaService.verificar("outra", hash1));
+    }
+
+    @Test
+    void senhaLegadaEmTextoPuroDeveSerAceitaERecodificada() {
+        assertTrue(senhaService.verificar("senha123", "senha123"));
+        assertFalse(senhaService.verificar("senha12", "senha123"));
+        assertTrue(senhaService.precisaRecodificar("senha123"));
+    }
+
+    @Test
+    void hashComCustoDiferenteDeveSerRecodificado() {
+        String atual = senhaService.codificar("senha123");
+        String antigo = atual.replaceFirst("\\$04\\$", "\\$05\\$");
+
+        assertFalse(senhaService.precisaRecodificar(atual));
+        assertTrue(senhaService.precisaRecodificar(antigo));
+    }
+
+    @Test
+    void emailInexistenteNaoDeveAutenticar() {
+        assertFalse(senhaService.verificar("senha123", null));
+        assertFalse(senhaService.verificar(null, senhaService.codificar("senha123")));
+    }
+
+    @Test
+    void poolSaturadoDeveRecusarImediatamente() throws Exception {
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(senhaService, "executor");
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch ocupado = new CountDownLatch(1);
+        executor.submit(() -> {
+            ocupado.countDown();
+            liberar.await();
+            return null;
+        });
+        ocupado.await();
+        executor.submit(() -> null); // ocupa a única posição da fila
+
+        RuntimeException ex = assertThrows(RuntimeException.class,
+                () -> senhaService.verificar("senha123", "senha123"));
+        assertEquals("Muitos acessos simultâneos. Tente novamente em instantes", ex.getMessage());
+
+        liberar.countDown();
+    }
+
+    @Test
+    void filaPadraoDeveTerDuasPosicoesPorVerificador() {
+        SenhaService padrao = new SenhaService();
+        ReflectionTestUtils.setField(padrao, "custo", 4);
+        ReflectionTestUtils.setField(padrao, "verificacoesSimultaneas", 3);
+        padrao.iniciar();
+        try {
+            ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(padrao, "executor");
+            assertEquals(6, executor.getQueue().remainingCapacity());
+        } finally {
+            padrao.encerrar();
+        }
+    }
+}
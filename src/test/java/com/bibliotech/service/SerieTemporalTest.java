@@ -0,0 +1,79 @@
+package com.bibliotech.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SerieTemporalTest {
+
+    @Test
+    void colunaPreservaValoresNegativosGrandesEVariacoes() {
+        ColunaCompactada coluna = new ColunaCompactada();
+        long[] valores = {0, 1, -1, 500, 499, Long.MAX_VALUE, Long.MIN_VALUE, 42};
+        for (long valor : valores) {
+            coluna.adicionar(valor);
+        }
+
+        assertArrayEquals(valores, coluna.valores());
+        assertEquals(42, coluna.ultimo());
+    }
+
+    @Test
+    void instantesConsecutivosEContadoresPequenosOcupamUmBytePorValor() {
+        SerieTemporal serie = new SerieTemporal(4);
+        long hora = 480_000;
+        for (int i = 0; i < 10_000; i++) {
+            serie.adicionar(hora + i, i % 7, i % 5, 30 + i % 3, 0);
+        }
+
+        // o primeiro instante ocupa 3 bytes; os demais, 1 byte por coluna
+        assertTrue(serie.tamanhoEmBytes() <= 5 * 10_000 + 10, "Bytes: " + serie.tamanhoEmBytes());
+        List<long[]> pontos = serie.entre(hora + 100, hora + 103);
+        assertEquals(3, pontos.size());
+        assertArrayEquals(new long[] {hora + 100, 100 % 7, 0, 31, 0}, pontos.get(0));
+    }
+
+    @Test
+    void manterDesdeDescartaPontosAntigos() {
+        SerieTemporal serie = new SerieTemporal(1);
+        for (int i = 0; i < 10; i++) {
+            serie.adicionar(i, i * 10);
+        }
+
+        SerieTemporal recente = serie.manterDesde(7);
+
+        assertEquals(3, recente.tamanho());
+        assertEquals(9, recente.ultimoInstante());
+        assertArrayEquals(new long[] {7, 70}, recente.entre(Long.MIN_VALUE, Long.MAX_VALUE).get(0));
+    }
+
+    @Test
+    void instanteForaDeOrdemLancaExcecao() {
+        SerieTemporal serie = new SerieTemporal(1);
+        serie.adicionar(5, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> serie.adicionar(5, 2));
+    }
+
+    @Test
+    void gravacaoELeituraPreservamASerie() throws Exception {
+        SerieTemporal serie = new SerieTemporal(2);
+        serie.adicionar(100, 1, -3);
+        serie.adicionar(103, 2, 7);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        serie.gravar(new DataOutputStream(bytes));
+        SerieTemporal lida = SerieTemporal.ler(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(2, lida.tamanho());
+        assertArrayEquals(new long[] {103, 2, 7}, lida.entre(0, 1000).get(1));
+        lida.adicionar(104, 0, 0);
+        assertEquals(104, lida.ultimoInstante());
+    }
+}
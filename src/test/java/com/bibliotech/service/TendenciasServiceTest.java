@@ -0,0 +1,101 @@
+package com.bibliotech.service;
+
+import com.bibliotech.repository.EmprestimoRepository;
+import com.bibliotech.repository.EstatisticasGerais;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class TendenciasServiceTest {
+
+    @TempDir
+    Path pasta;
+
+    private EmprestimoRepository emprestimoRepository;
+    private MetricasService metricasService;
+    private final LocalDate hoje = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        emprestimoRepository = mock(EmprestimoRepository.class);
+        metricasService = mock(MetricasService.class);
+        when(metricasService.obterTotais()).thenReturn(new EstatisticasGerais(0L, 0L, 0L, 0L, 2L));
+
+        // 3 retiradas há 10 dias (vencimento há 3 dias): uma devolvida há 5 dias,
+        // uma devolvida ontem com atraso (multa R$ 4,50) e uma ainda em aberto
+        when(emprestimoRepository.contarRetiradasPorDia(any())).thenReturn(List.<Object[]>of(
+                new Object[] {hoje.minusDays(10), 3L}));
+        when(emprestimoRepository.contarDevolucoesPorDia(any())).thenReturn(List.of(
+                new Object[] {hoje.minusDays(5), 1L, 0.0},
+                new Object[] {hoje.minusDays(1), 1L, 4.5}));
+        when(emprestimoRepository.contarPorVencimentoEDevolucao(any())).thenReturn(List.of(
+                new Object[] {hoje.minusDays(3), hoje.minusDays(5), 1L},
+                new Object[] {hoje.minusDays(3), hoje.minusDays(1), 1L},
+                new Object[] {hoje.minusDays(3), null, 1L}));
+    }
+
+    @Test
+    void primeiraCargaReconstroiDiasAPartirDoHistorico() {
+        TendenciasService tendencias = novoServico(pasta.resolve("tendencias.bin"));
+        tendencias.carregar();
+
+        List<PontoTendencia> pontos = tendencias.consultar(
+                TendenciasService.Resolucao.DIA, hoje.minusDays(30), hoje);
+
+        assertEquals(10, pontos.size());
+        assertEquals(hoje.minusDays(10).atStartOfDay(), pontos.get(0).getInicio());
+        assertEquals(3, pontos.get(0).getEmprestimos());
+        // vencido desde hoje-2: dois atrasados até ontem, quando um foi devolvido
+        assertEquals(0, pontos.get(7).getAtrasados());
+        assertEquals(2, pontos.get(8).getAtrasados());
+        PontoTendencia ontem = pontos.get(9);
+        assertEquals(1, ontem.getDevolucoes());
+        assertEquals(4.5, ontem.getMultas(), 0.001);
+        assertEquals(1, ontem.getAtrasados());
+    }
+
+    @Test
+    void seriesSaoGravadasEmArquivoERelidasSemConsultarOHistorico() {
+        Path arquivo = pasta.resolve("dados/tendencias.bin");
+        TendenciasService primeira = novoServico(arquivo);
+        primeira.carregar();
+        primeira.encerrar();
+
+        clearInvocations(emprestimoRepository);
+        TendenciasService segunda = novoServico(arquivo);
+        segunda.carregar();
+
+        verifyNoInteractions(emprestimoRepository);
+        assertEquals(10, segunda.consultar(TendenciasService.Resolucao.DIA, hoje.minusDays(30), hoje).size());
+    }
+
+    @Test
+    void mesesSomamOsDias() {
+        TendenciasService tendencias = novoServico(null);
+        tendencias.carregar();
+
+        List<PontoTendencia> meses = tendencias.consultar(
+                TendenciasService.Resolucao.MES, hoje.minusYears(1), hoje);
+
+        assertEquals(3, meses.stream().mapToLong(PontoTendencia::getEmprestimos).sum());
+        assertEquals(2, meses.stream().mapToLong(PontoTendencia::getDevolucoes).sum());
+        assertEquals(1, meses.get(meses.size() - 1).getAtrasados());
+    }
+
+    private TendenciasService novoServico(Path arquivo) {
+        TendenciasService tendencias = new TendenciasService();
+        ReflectionTestUtils.setField(tendencias, "emprestimoRepository", emprestimoRepository);
+        ReflectionTestUtils.setField(tendencias, "metricasService", metricasService);
+        ReflectionTestUtils.setField(tendencias, "arquivo", arquivo != null ? arquivo.toString() : "");
+        return tendencias;
+    }
+}
@@ -0,0 +1,67 @@
+package com.bibliotech.service;
+
+import com.bibliotech.repository.UsuarioRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UnicidadeUsuarioServiceTest {
+
+    private UnicidadeUsuarioService unicidade;
+    private UsuarioRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(UsuarioRepository.class);
+        unicidade = new UnicidadeUsuarioService();
+        ReflectionTestUtils.setField(unicidade, "usuarioRepository", repository);
+        ReflectionTestUtils.setField(unicidade, "capacidade", 10);
+    }
+
+    @Test
+    void cadastroFeitoDuranteACargaNaoSePerde() {
+        when(repository.findEmailsECpfs()).thenAnswer(i -> {
+            // Cadastro concluído enquanto a consulta da carga ainda roda
+            unicidade.registrar("novo@email.com", "123.456.789-09");
+            return List.<Object[]>of(new Object[] {"antigo@email.com", "987.654.321-00"});
+        });
+
+        unicidade.carregar();
+
+        assertTrue(unicidade.podeExistirEmail("novo@email.com"));
+        assertTrue(unicidade.podeExistirCpf("123.456.789-09"));
+        assertTrue(unicidade.podeExistirEmail("antigo@email.com"));
+    }
+
+    @Test
+    void filtrosSaoRecarregadosQuandoOsCadastrosPassamDaCapacidade() {
+        List<Object[]> cadastrados = new ArrayList<>();
+        when(repository.findEmailsECpfs()).thenAnswer(i -> new ArrayList<>(cadastrados));
+        unicidade.carregar();
+
+        for (int i = 0; i < 10; i++) {
+            cadastrados.add(new Object[] {"usuario" + i + "@email.com", "cpf" + i});
+            unicidade.registrar("usuario" + i + "@email.com", "cpf" + i);
+        }
+        unicidade.recarregarSeSaturado();
+        verify(repository, times(1)).findEmailsECpfs();
+
+        cadastrados.add(new Object[] {"usuario10@email.com", "cpf10"});
+        unicidade.registrar("usuario10@email.com", "cpf10");
+        unicidade.recarregarSeSaturado();
+        verify(repository, times(2)).findEmailsECpfs();
+
+        // Recarregado com folga para o dobro dos cadastrados
+        unicidade.recarregarSeSaturado();
+        verify(repository, times(2)).findEmailsECpfs();
+        for (int i = 0; i <= 10; i++) {
+            assertTrue(unicidade.podeExistirEmail("usuario" + i + "@email.com"));
+        }
+    }
+}
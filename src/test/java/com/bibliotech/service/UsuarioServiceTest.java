@@ -1,19 +1,29 @@
 package com.bibliotech.service;
 
+import com.bibliotech.event.UsuarioExcluidoEvent;
 import com.bibliotech.model.Usuario;
 import com.bibliotech.model.Usuario.TipoUsuario;
+import com.bibliotech.repository.EmprestimoRepository;
+import com.bibliotech.repository.UsuarioRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.LocalDateTime;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 class UsuarioServiceTest {
 
     private UsuarioService usuarioService;
     private Usuario usuario;
     private Map<Long, Usuario> bancoSimulado; // simula o "banco" do repository
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
 
     @BeforeEach
     void setup() {
@@ -25,7 +35,7 @@ class UsuarioServiceTest {
         usuario.setId(1L);
         usuario.setNome("Carlos");
         usuario.setEmail("carlos@email.com");
-        usuario.setCpf("123.456.789-01");
+        usuario.setCpf("123.456.789-09");
         usuario.setSenha("senha123");
         usuario.setAtivo(true);
         usuario.setTipo(TipoUsuario.ALUNO);
@@ -37,13 +47,14 @@ class UsuarioServiceTest {
     // RN-07: Validação de CPF - RF-02 :Validação de CPF
     @Test
     void testValidarCPFValido() {
-        assertTrue(usuarioService.validarCPF("123.456.789-01"));
+        assertTrue(usuarioService.validarCPF("123.456.789-09"));
     }
  // RN-07: Validação de CPF - RF-02 :Validação de CPF
     @Test
     void testValidarCPFInvalido() {
         assertFalse(usuarioService.validarCPF("123"));
         assertFalse(usuarioService.validarCPF("abcdefghijk"));
+        assertFalse(usuarioService.validarCPF("123.456.789-01")); // dígitos verificadores errados
     }
 
     // RN-08: Autenticação - RN-03:Autentificação de Usuario
@@ -167,4 +178,226 @@ class UsuarioServiceTest {
             "Falhou: a autenticação não funcionou devido ao uso de '==' para comparar Strings.");
     }
 
+    // RN-08: Autenticação com senha codificada (BCrypt)
+    @Test
+    void testAutenticarEmailInexistenteRetornaVazio() {
+        UsuarioRepository repository = mock(UsuarioRepository.class);
+        configurarServico(repository);
+        when(repository.findByEmail("naoexiste@email.com")).thenReturn(Optional.empty());
+
+        assertTrue(usuarioService.autenticar("naoexiste@email.com", "senha123").isEmpty());
+    }
+
+    @Test
+    void testAutenticarSenhaLegadaRecodificaNoLogin() {
+        UsuarioRepository repository = mock(UsuarioRepository.class);
+        SenhaService senhaService = configurarServico(repository);
+        when(repository.findByEmail("carlos@email.com")).thenReturn(Optional.of(usuario));
+
+        assertTrue(usuarioService.autenticar("carlos@email.com", "senha123").isPresent());
+        assertTrue(senhaService.estaCodificada(usuario.getSenha()));
+        verify(repository).save(usuario);
+
+        // Segundo login já usa o hash e não grava de novo
+        assertTrue(usuarioService.autenticar("carlos@email.com", "senha123").isPresent());
+        assertFalse(usuarioService.autenticar("carlos@email.com", "errada").isPresent());
+        verify(repository, times(1)).save(any());
+    }
+
+    @Test
+    void testSalvarUsuarioSempreCodificaSenhaInformada() {
+        UsuarioRepository repository = mock(UsuarioRepository.class);
+        SenhaService senhaService = configurarServico(repository);
+        when(repository.findByEmail(any())).thenReturn(Optional.empty());
+        when(repository.findByCpf(any())).thenReturn(Optional.empty());
+        when(repository.save(any())).thenAnswer(i -> i.getArgument(0));
+
+        usuario.setId(null);
+        usuarioService.salvar(usuario);
+        String hash = usuario.getSenha();
+        assertTrue(senhaService.verificar("senha123", hash));
+
+        // Texto com formato de hash digitado no formulário também é codificado
+        usuario.setSenha(hash);
+        usuarioService.salvar(usuario);
+        assertNotEquals(hash, usuario.getSenha());
+        assertTrue(senhaService.verificar(hash, usuario.getSenha()));
+    }
+
+    @Test
+    void testEditarUsuarioComSenhaEmBrancoMantemSenhaCadastrada() {
+        UsuarioRepository repository = mock(UsuarioRepository.class);
+        configurarServico(repository);
+        when(repository.findSenhaById(1L)).thenReturn("$2a$04$hashgravado");
+        when(repository.save(any())).thenAnswer(i -> i.getArgument(0));
+
+        usuario.setSenha("");
+        usuarioService.salvar(usuario);
+
+        assertEquals("$2a$04$hashgravado", usuario.getSenha());
+    }
+
+    @Test
+    void testEditarUsuarioExcluidoLancaExcecao() {
+        UsuarioRepository repository = mock(UsuarioRepository.class);
+        configurarServico(repository);
+        when(repository.findExcluidoEmById(1L)).thenReturn(LocalDateTime.now());
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> usuarioService.salvar(usuario));
+
+        assertEquals("Usuário não encontrado", ex.getMessage());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void testBuscarParaEdicaoIgnoraUsuarioExcluido() {
+        UsuarioRepository repository = mock(UsuarioRepository.class);
+        configurarServico(repository);
+        usuario.setExcluidoEm(LocalDateTime.now());
+        when(repository.findById(1L)).thenReturn(Optional.of(usuario));
+
+        assertTrue(usuarioService.buscarParaEdicao(1L).isEmpty());
+    }
+
+    @Test
+    void testSalvarUsuarioNovoSemSenhaLancaExcecao() {
+        UsuarioRepository repository = mock(UsuarioRepository.class);
+        configurarServico(repository);
+
+        usuario.setId(null);
+        usuario.setSenha(" ");
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> usuarioService.salvar(usuario));
+
+        assertEquals("Senha é obrigatória", ex.getMessage());
+        verify(repository, never()).save(any());
+    }
+
+    // RN-10 / RN-11: pré-verificação de unicidade em memória
+    @Test
+    void testSalvarUsuarioNovoNaoConsultaBancoQuandoFiltroDescarta() {
+        UsuarioRepository repository = mock(UsuarioRepository.class);
+        when(repository.findEmailsECpfs()).thenReturn(List.<Object[]>of(
+                new Object[] {"existente@email.com", "999.999.999-99"}));
+        configurarServico(repository);
+        when(repository.save(any())).thenAnswer(i -> i.getArgument(0));
+
+        usuario.setId(null);
+        usuarioService.salvar(usuario);
+
+        verify(repository, never()).findByEmail(any());
+        verify(repository, never()).findByCpf(any());
+    }
+
+    @Test
+    void testSalvarUsuarioPossivelDuplicataConsultaBanco() {
+        UsuarioRepository repository = mock(UsuarioRepository.class);
+        when(repository.findEmailsECpfs()).thenReturn(List.<Object[]>of(
+                new Object[] {"carlos@email.com", "999.999.999-99"}));
+        configurarServico(repository);
+        when(repository.findByEmail("carlos@email.com")).thenReturn(Optional.of(new Usuario()));
+
+        usuario.setId(null);
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> usuarioService.salvar(usuario));
+
+        assertEquals("Email já cadastrado", ex.getMessage());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void testSalvarUsuarioRegistraNoFiltro() {
+        UsuarioRepository repository = mock(UsuarioRepository.class);
+        configurarServico(repository);
+        when(repository.save(any())).thenAnswer(i -> i.getArgument(0));
+        when(repository.findByEmail(any())).thenReturn(Optional.empty());
+        when(repository.findByCpf(any())).thenReturn(Optional.empty());
+
+        usuario.setId(null);
+        usuarioService.salvar(usuario);
+
+        Usuario repetido = new Usuario("Outro", "carlos@email.com", "123.456.780-62",
+                "senha", TipoUsuario.ALUNO);
+        when(repository.findByEmail("carlos@email.com")).thenReturn(Optional.of(usuario));
+        assertThrows(RuntimeException.class, () -> usuarioService.salvar(repetido));
+        verify(repository).findByEmail("carlos@email.com");
+    }
+
+    @Test
+    void testExcluirUsuarioAnonimizaSemCarregarHistorico() {
+        UsuarioRepository repository = mock(UsuarioRepository.class);
+        EmprestimoRepository emprestimos = mock(EmprestimoRepository.class);
+        configurarServico(repository);
+        ReflectionTestUtils.setField(usuarioService, "emprestimoRepository", emprestimos);
+        when(repository.findComBloqueioById(1L)).thenReturn(Optional.of(usuario));
+        when(repository.anonimizar(eq(1L), any(), any(), any())).thenReturn(1);
+
+        usuarioService.excluir(1L);
+
+        verify(repository).anonimizar(eq(1L), eq(UsuarioService.NOME_EXCLUIDO),
+                eq(SenhaService.SENHA_BLOQUEADA), any());
+        verify(repository, never()).findById(any());
+        verify(repository, never()).delete(any());
+        // Índice e contadores só mudam após o commit, pelo evento
+        verify(eventPublisher).publishEvent(argThat((Object evento) ->
+                evento instanceof UsuarioExcluidoEvent excluido
+                        && excluido.getUsuarioId() == 1L && excluido.isEstavaAtivo()));
+    }
+
+    @Test
+    void testExcluirUsuarioComEmprestimosAtivosLancaExcecao() {
+        UsuarioRepository repository = mock(UsuarioRepository.class);
+        EmprestimoRepository emprestimos = mock(EmprestimoRepository.class);
+        configurarServico(repository);
+        ReflectionTestUtils.setField(usuarioService, "emprestimoRepository", emprestimos);
+        when(repository.findComBloqueioById(1L)).thenReturn(Optional.of(usuario));
+        // A própria atualização recusa o usuário com empréstimo ativo
+        when(repository.anonimizar(eq(1L), any(), any(), any())).thenReturn(0);
+        when(emprestimos.existsByUsuarioIdAndAtivoTrue(1L)).thenReturn(true);
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> usuarioService.excluir(1L));
+
+        assertEquals("Não é possível excluir usuário com empréstimos ativos", ex.getMessage());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void testExcluirUsuarioInexistenteLancaExcecao() {
+        UsuarioRepository repository = mock(UsuarioRepository.class);
+        configurarServico(repository);
+        ReflectionTestUtils.setField(usuarioService, "emprestimoRepository", mock(EmprestimoRepository.class));
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> usuarioService.excluir(99L));
+
+        assertEquals("Usuário não encontrado", ex.getMessage());
+    }
+
+    @Test
+    void testExcluirUsuarioJaExcluidoLancaExcecao() {
+        UsuarioRepository repository = mock(UsuarioRepository.class);
+        EmprestimoRepository emprestimos = mock(EmprestimoRepository.class);
+        configurarServico(repository);
+        ReflectionTestUtils.setField(usuarioService, "emprestimoRepository", emprestimos);
+        when(repository.findComBloqueioById(1L)).thenReturn(Optional.of(usuario));
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> usuarioService.excluir(1L));
+
+        assertEquals("Usuário não encontrado", ex.getMessage());
+    }
+
+    private SenhaService configurarServico(UsuarioRepository repository) {
+        SenhaService senhaService = new SenhaService();
+        ReflectionTestUtils.setField(senhaService, "custo", 4);
+        senhaService.iniciar();
+        UnicidadeUsuarioService unicidade = new UnicidadeUsuarioService();
+        ReflectionTestUtils.setField(unicidade, "usuarioRepository", repository);
+        ReflectionTestUtils.setField(unicidade, "capacidade", 1000);
+        unicidade.carregar();
+
+        ReflectionTestUtils.setField(usuarioService, "usuarioRepository", repository);
+        ReflectionTestUtils.setField(usuarioService, "senhaService", senhaService);
+        ReflectionTestUtils.setField(usuarioService, "unicidadeUsuarioService", unicidade);
+        ReflectionTestUtils.setField(usuarioService, "indiceBuscaService", new IndiceBuscaService());
+        ReflectionTestUtils.setField(usuarioService, "metricasService", new MetricasService());
+        ReflectionTestUtils.setField(usuarioService, "eventPublisher", eventPublisher);
+        return senhaService;
+    }
 }
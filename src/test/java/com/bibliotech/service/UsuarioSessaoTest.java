@@ -0,0 +1,48 @@
+package com.bibliotech.service;
+
+import com.bibliotech.model.Emprestimo;
+import com.bibliotech.model.Usuario;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UsuarioSessaoTest {
+
+    @Test
+    void deveGuardarApenasIdNomeETipo() {
+        Usuario usuario = new Usuario("Maria", "maria@email.com", "222.222.222-22",
+                "senha123", Usuario.TipoUsuario.PROFESSOR);
+        usuario.setId(7L);
+        usuario.getEmprestimos().add(new Emprestimo());
+
+        UsuarioSessao sessao = UsuarioSessao.de(usuario);
+
+        assertEquals(7L, sessao.getId());
+        assertEquals("Maria", sessao.getNome());
+        assertEquals(Usuario.TipoUsuario.PROFESSOR, sessao.getTipo());
+    }
+
+    @Test
+    void deveSerializarDeFormaCompacta() throws Exception {
+        UsuarioSessao sessao = new UsuarioSessao(7L, "Maria", Usuario.TipoUsuario.ALUNO);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream saida = new ObjectOutputStream(bytes)) {
+            saida.writeObject(sessao);
+        }
+        UsuarioSessao lida;
+        try (ObjectInputStream entrada = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            lida = (UsuarioSessao) entrada.readObject();
+        }
+
+        assertEquals(7L, lida.getId());
+        assertEquals("Maria", lida.getNome());
+        assertEquals(Usuario.TipoUsuario.ALUNO, lida.getTipo());
+        assertTrue(bytes.size() < 512, "Sessão serializada com " + bytes.size() + " bytes");
+    }
+}
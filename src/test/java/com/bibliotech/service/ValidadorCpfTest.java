@@ -0,0 +1,64 @@
+package com.bibliotech.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidadorCpfTest {
+
+    @Test
+    void deveAceitarCpfComMascaraOuSoDigitos() {
+        assertEquals(12345678909L, ValidadorCpf.normalizar("123.456.789-09"));
+        assertEquals(12345678909L, ValidadorCpf.normalizar("12345678909"));
+        assertEquals(40040040127L, ValidadorCpf.normalizar("400.400.401-27"));
+    }
+
+    @Test
+    void deveRejeitarDigitosVerificadoresErrados() {
+        assertFalse(ValidadorCpf.validar("123.456.789-01")); // primeiro dígito errado
+        assertFalse(ValidadorCpf.validar("123.456.789-00")); // segundo dígito errado
+        assertFalse(ValidadorCpf.validar("12345678900"));
+    }
+
+    @Test
+    void deveRejeitarCpfComTodosOsDigitosIguais() {
+        // Os verificadores conferem, mas o CPF não existe
+        for (char c = '0'; c <= '9'; c++) {
+            String digitos = String.valueOf(c).repeat(11);
+            assertFalse(ValidadorCpf.validar(digitos), digitos);
+            assertFalse(ValidadorCpf.validar(digitos.substring(0, 3) + "." + digitos.substring(3, 6) + "."
+                    + digitos.substring(6, 9) + "-" + digitos.substring(9)), digitos);
+        }
+    }
+
+    @Test
+    void deveRejeitarFormatoInvalido() {
+        assertFalse(ValidadorCpf.validar(null));
+        assertFalse(ValidadorCpf.validar(""));
+        assertFalse(ValidadorCpf.validar("123"));
+        assertFalse(ValidadorCpf.validar("abcdefghijk"));
+        assertFalse(ValidadorCpf.validar("123-456-789.09"));
+        assertFalse(ValidadorCpf.validar("123.456.7a9-09"));
+        assertFalse(ValidadorCpf.validar(" 123.456.789-09"));
+    }
+
+    @Test
+    void formatarDeveRestaurarMascaraComZerosAEsquerda() {
+        assertEquals("123.456.789-09", ValidadorCpf.formatar(12345678909L));
+        assertEquals("000.000.001-91", ValidadorCpf.formatar(ValidadorCpf.normalizar("00000000191")));
+    }
+
+    @Test
+    void normalizarLoteDevePreencherNaMesmaOrdem() {
+        long[] destino = new long[4];
+
+        int validos = ValidadorCpf.normalizarLote(
+                List.of("123.456.789-09", "123", "40040040127", "123.456.789-01"), destino);
+
+        assertEquals(2, validos);
+        assertArrayEquals(new long[] {12345678909L, ValidadorCpf.INVALIDO, 40040040127L, ValidadorCpf.INVALIDO},
+                destino);
+    }
+}
@@ -0,0 +1,137 @@
+package com.bibliotech.stress;
+
+import com.bibliotech.service.AquecimentoService;
+import com.bibliotech.service.IndiceBuscaService;
+import com.bibliotech.service.PopularidadeService;
+import com.bibliotech.service.PopularidadeService.Janela;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de estresse da carga das estruturas em memória sobre uma base
+ * grande: o aquecimento não pode segurar a thread que o dispara, a busca
+ * e os mais emprestados devem responder enquanto ele roda e a carga
+ * completa deve caber no orçamento.
+ *
+ * <p>Executado apenas com {@code mvn test -Pstress}. O volume pode ser
+ * ajustado com {@code -Dstress.usuarios=N}, {@code -Dstress.livros=N} e
+ * {@code -Dstress.emprestimos=N}; o orçamento, com
+ * {@code -Dstress.aquecimento-max-ms=N}.</p>
+ */
+@Tag("stress")
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:stress-aquecimento;DB_CLOSE_DELAY=-1",
+    "spring.jpa.show-sql=false",
+    "bibliotech.tendencias.arquivo=",
+    // A carga da subida roda sobre os dados de exemplo, antes do volume do teste
+    "bibliotech.aquecimento.em-segundo-plano=false",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.com.bibliotech=INFO"
+})
+class AquecimentoStressTest {
+
+    private static final int USUARIOS = Integer.getInteger("stress.usuarios", 50_000);
+    private static final int LIVROS = Integer.getInteger("stress.livros", 20_000);
+    private static final int EMPRESTIMOS = Integer.getInteger("stress.emprestimos", 200_000);
+    private static final long ORCAMENTO_MS = Long.getLong("stress.aquecimento-max-ms", 60_000L);
+    private static final long PRIMEIRO_ID = 1_000_000L;
+    private static final int LOTE = 1000;
+
+    @Autowired
+    private AquecimentoService aquecimentoService;
+
+    @Autowired
+    private IndiceBuscaService indiceBuscaService;
+
+    @Autowired
+    private PopularidadeService popularidadeService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> linhas = new ArrayList<>(LOTE);
+        for (int i = 0; i < USUARIOS; i++) {
+            linhas.add(new Object[] { PRIMEIRO_ID + i, "Leitor Volume " + i, "volume" + i + "@stress.com",
+                String.format("%03d.%03d.%03d-%02d", i / 1_000_000 % 1000, i / 1000 % 1000, i % 1000, 99),
+                "senha123", "ALUNO" });
+            if (linhas.size() == LOTE || i == USUARIOS - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO usuarios (id, nome, email, cpf, senha, tipo, ativo) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, TRUE)", linhas);
+                linhas.clear();
+            }
+        }
+        for (int i = 0; i < LIVROS; i++) {
+            linhas.add(new Object[] { PRIMEIRO_ID + i, "Livro Volume " + i, "Autor " + (i % 500),
+                "VOL-" + i, "Editora " + (i % 40) });
+            if (linhas.size() == LOTE || i == LIVROS - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO livros (id, titulo, autor, isbn, editora, ano, "
+                    + "quantidade_exemplares, quantidade_disponivel, total_emprestimos, versao) "
+                    + "VALUES (?, ?, ?, ?, ?, 2020, 3, 3, 0, 0)", linhas);
+                linhas.clear();
+            }
+        }
+        LocalDate hoje = LocalDate.now();
+        for (int i = 0; i < EMPRESTIMOS; i++) {
+            LocalDate retirada = hoje.minusDays(i % 365);
+            linhas.add(new Object[] { PRIMEIRO_ID + i, PRIMEIRO_ID + (i * 7L) % USUARIOS,
+                PRIMEIRO_ID + (i * 13L) % LIVROS, Date.valueOf(retirada), Date.valueOf(retirada.plusDays(14)),
+                Date.valueOf(retirada.plusDays(10)) });
+            if (linhas.size() == LOTE || i == EMPRESTIMOS - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO emprestimos (id, usuario_id, livro_id, data_emprestimo, "
+                    + "data_devolucao_prevista, data_devolucao_real, ativo, multa, versao) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, FALSE, 0.0, 0)", linhas);
+                linhas.clear();
+            }
+        }
+    }
+
+    @Test
+    void aquecimentoNaoDeveSegurarASubidaNemDeixarConsultasSemResposta() throws Exception {
+        long inicio = System.nanoTime();
+        CompletableFuture<Void> conclusao = aquecimentoService.aquecer();
+        long disparoMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        // Respondem pelo índice ou, se a carga ainda não chegou lá, pelo banco
+        long consultaInicio = System.nanoTime();
+        int usuariosEncontrados = indiceBuscaService.buscarUsuarios("Leitor Volume 4242", 10).size();
+        int livrosEncontrados = indiceBuscaService.buscarLivros("Livro Volume 1234", 10).size();
+        int populares = popularidadeService.obterTopo(Janela.MES, 10).size();
+        long consultaMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - consultaInicio);
+        boolean concluidoNasConsultas = conclusao.isDone();
+
+        conclusao.get(ORCAMENTO_MS, TimeUnit.MILLISECONDS);
+        long totalMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+
+        System.out.println("\n========== STRESS: aquecimento sobre base grande ==========");
+        System.out.printf("Usuários: %d | Livros: %d | Empréstimos: %d%n", USUARIOS, LIVROS, EMPRESTIMOS);
+        System.out.printf("Disparo: %d ms | Consultas durante a carga: %d ms (carga %s)%n",
+            disparoMs, consultaMs, concluidoNasConsultas ? "já concluída" : "em andamento");
+        System.out.printf("Aquecimento completo: %d ms (orçamento %d ms)%n", totalMs, ORCAMENTO_MS);
+        System.out.println("===========================================================\n");
+
+        assertTrue(disparoMs < 1000, "O aquecimento segurou a thread que o disparou por " + disparoMs + " ms");
+        assertTrue(usuariosEncontrados >= 1, "Busca de usuários sem resposta durante a carga");
+        assertTrue(livrosEncontrados >= 1, "Busca de livros sem resposta durante a carga");
+        assertEquals(10, populares, "Mais emprestados sem resposta durante a carga");
+        assertTrue(totalMs <= ORCAMENTO_MS, "Aquecimento levou " + totalMs + " ms");
+
+        // Depois da carga, as estruturas em memória respondem o mesmo
+        assertEquals(1, indiceBuscaService.buscarUsuarios("volume4242@stress.com", 10).size());
+        assertEquals(10, popularidadeService.obterTopo(Janela.MES, 10).size());
+    }
+}
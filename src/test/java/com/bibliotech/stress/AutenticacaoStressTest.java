@@ -0,0 +1,100 @@
+package com.bibliotech.stress;
+
+import com.bibliotech.service.SenhaService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Mede logins/s da verificação BCrypt sob um pico de acessos simultâneos
+ * (muito mais threads de requisição do que threads de verificação).
+ *
+ * <p>Executado apenas com {@code mvn test -Pstress}. Ajustável com
+ * {@code -Dstress.logins=N}, {@code -Dstress.threads=N},
+ * {@code -Dstress.custo=N} e {@code -Dstress.fila=N} (0 usa a fila padrão
+ * do serviço, de duas posições por verificador).</p>
+ */
+@Tag("stress")
+class AutenticacaoStressTest {
+
+    private static final int LOGINS = Integer.getInteger("stress.logins", 500);
+    private static final int THREADS = Integer.getInteger("stress.threads", 100);
+    private static final int CUSTO = Integer.getInteger("stress.custo", 10);
+    private static final int FILA = Integer.getInteger("stress.fila", 0);
+
+    private SenhaService senhaService;
+    private String hash;
+
+    @BeforeEach
+    void setUp() {
+        senhaService = new SenhaService();
+        ReflectionTestUtils.setField(senhaService, "custo", CUSTO);
+        ReflectionTestUtils.setField(senhaService, "fila", FILA);
+        ReflectionTestUtils.setField(senhaService, "esperaMaximaMs", 60_000L);
+        senhaService.iniciar();
+        hash = senhaService.codificar("senha123");
+    }
+
+    @AfterEach
+    void tearDown() {
+        senhaService.encerrar();
+    }
+
+    @Test
+    void picoDeLoginsNaoDeveEsgotarThreadsDeRequisicao() throws Exception {
+        ExecutorService requisicoes = Executors.newFixedThreadPool(THREADS);
+        AtomicInteger autenticados = new AtomicInteger();
+        AtomicInteger recusados = new AtomicInteger();
+        long[] latencias = new long[LOGINS];
+
+        long inicio = System.nanoTime();
+        CountDownLatch fim = new CountDownLatch(LOGINS);
+        for (int i = 0; i < LOGINS; i++) {
+            int indice = i;
+            requisicoes.execute(() -> {
+                long t0 = System.nanoTime();
+                try {
+                    if (senhaService.verificar("senha123", hash)) {
+                        autenticados.incrementAndGet();
+                    }
+                } catch (RuntimeException e) {
+                    recusados.incrementAndGet();
+                } finally {
+                    latencias[indice] = System.nanoTime() - t0;
+                    fim.countDown();
+                }
+            });
+        }
+        assertTrue(fim.await(10, TimeUnit.MINUTES), "Logins não terminaram a tempo");
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        requisicoes.shutdown();
+
+        Arrays.sort(latencias);
+        System.out.println("\n========== STRESS: logins com BCrypt ==========");
+        int verificadores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("Logins: %d em %d threads | custo %d | %d verificadores | fila %d%n",
+            LOGINS, THREADS, CUSTO, verificadores, FILA > 0 ? FILA : verificadores * 2);
+        System.out.printf("Autenticados: %d | Recusados (pool cheio): %d%n",
+            autenticados.get(), recusados.get());
+        System.out.printf("Vazão: %.1f logins/s%n", autenticados.get() / segundos);
+        System.out.printf("Latência p50: %.2f ms | p99: %.2f ms | máx: %.2f ms%n",
+            percentil(latencias, 50), percentil(latencias, 99), latencias[LOGINS - 1] / 1e6);
+        System.out.println("===============================================\n");
+
+        assertEquals(LOGINS, autenticados.get() + recusados.get());
+        assertTrue(autenticados.get() > 0);
+    }
+
+    private static double percentil(long[] ordenadas, int p) {
+        int indice = (int) Math.ceil(p / 100.0 * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, indice)] / 1e6;
+    }
+}
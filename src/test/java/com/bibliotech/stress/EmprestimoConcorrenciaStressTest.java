@@ -0,0 +1,170 @@
+package com.bibliotech.stress;
+
+import com.bibliotech.model.Emprestimo;
+import com.bibliotech.model.Livro;
+import com.bibliotech.model.Usuario;
+import com.bibliotech.repository.EmprestimoRepository;
+import com.bibliotech.repository.LivroRepository;
+import com.bibliotech.repository.UsuarioRepository;
+import com.bibliotech.service.EmprestimoService;
+import com.bibliotech.service.LivroService;
+import com.bibliotech.service.UsuarioService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Teste de estresse de retiradas e devoluções concorrentes sobre poucos
+ * livros muito disputados, usando o contexto Spring real e o H2.
+ *
+ * <p>Executado apenas com {@code mvn test -Pstress}. O volume pode ser
+ * ajustado com {@code -Dstress.operacoes=N} e {@code -Dstress.threads=N}.</p>
+ */
+@Tag("stress")
+@SpringBootTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:stress;DB_CLOSE_DELAY=-1",
+    "spring.jpa.show-sql=false",
+    "bibliotech.tendencias.arquivo=",
+    "logging.level.org.hibernate.SQL=WARN",
+    "logging.level.com.bibliotech=INFO"
+})
+class EmprestimoConcorrenciaStressTest {
+
+    private static final int OPERACOES = Integer.getInteger("stress.operacoes", 4000);
+    private static final int THREADS = Integer.getInteger("stress.threads", 32);
+    private static final int LIVROS_DISPUTADOS = 3;
+    private static final int EXEMPLARES = 5;
+    private static final int USUARIOS = 50;
+
+    @Autowired
+    private EmprestimoService emprestimoService;
+
+    @Autowired
+    private LivroService livroService;
+
+    @Autowired
+    private UsuarioService usuarioService;
+
+    @Autowired
+    private LivroRepository livroRepository;
+
+    @Autowired
+    private UsuarioRepository usuarioRepository;
+
+    @Autowired
+    private EmprestimoRepository emprestimoRepository;
+
+    private final List<Long> livros = new ArrayList<>();
+    private final List<Long> usuarios = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < LIVROS_DISPUTADOS; i++) {
+            Livro livro = new Livro("Livro Disputado " + i, "Autor " + i,
+                "STRESS-" + System.nanoTime() + "-" + i, "Editora", 2020, EXEMPLARES);
+            livros.add(livroRepository.save(livro).getId());
+        }
+        for (int i = 0; i < USUARIOS; i++) {
+            long n = System.nanoTime() % 1_000_000_000L;
+            Usuario usuario = new Usuario("Leitor " + i, "leitor" + n + "." + i + "@stress.com",
+                String.format("%03d.%03d.%03d-%02d", i, n / 1_000_000 % 1000, n / 1000 % 1000, i % 100),
+                "senha123", Usuario.TipoUsuario.ALUNO);
+            usuarios.add(usuarioRepository.save(usuario).getId());
+        }
+    }
+
+    @Test
+    void retiradasEDevolucoesConcorrentesDevemPreservarDisponibilidade() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        ConcurrentLinkedDeque<Long> emprestimosAbertos = new ConcurrentLinkedDeque<>();
+        long[] latencias = new long[OPERACOES];
+        AtomicInteger retiradas = new AtomicInteger();
+        AtomicInteger devolucoes = new AtomicInteger();
+        AtomicInteger rejeitadas = new AtomicInteger();
+        ConcurrentHashMap<String, AtomicInteger> motivos = new ConcurrentHashMap<>();
+        CountDownLatch largada = new CountDownLatch(1);
+
+        List<Future<?>> futuros = new ArrayList<>(OPERACOES);
+        for (int i = 0; i < OPERACOES; i++) {
+            final int op = i;
+            futuros.add(pool.submit(() -> {
+                largada.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long inicio = System.nanoTime();
+                try {
+                    Long aberto = random.nextInt(100) < 40 ? emprestimosAbertos.pollFirst() : null;
+                    if (aberto != null) {
+                        emprestimoService.registrarDevolucao(aberto);
+                        devolucoes.incrementAndGet();
+                    } else {
+                        // Mesmo fluxo do EmprestimoController.realizar
+                        Usuario usuario = usuarioService.buscarPorId(
+                            usuarios.get(random.nextInt(usuarios.size()))).orElseThrow();
+                        Livro livro = livroService.buscarPorId(
+                            livros.get(random.nextInt(livros.size()))).orElseThrow();
+                        Emprestimo emprestimo = emprestimoService.realizarEmprestimo(usuario, livro);
+                        emprestimosAbertos.add(emprestimo.getId());
+                        retiradas.incrementAndGet();
+                    }
+                } catch (RuntimeException e) {
+                    rejeitadas.incrementAndGet();
+                    String mensagem = String.valueOf(e.getMessage());
+                    motivos.computeIfAbsent(e.getClass().getSimpleName() + ": "
+                            + mensagem.substring(0, Math.min(60, mensagem.length())),
+                        m -> new AtomicInteger()).incrementAndGet();
+                } finally {
+                    latencias[op] = System.nanoTime() - inicio;
+                }
+                return null;
+            }));
+        }
+
+        long inicio = System.nanoTime();
+        largada.countDown();
+        for (Future<?> futuro : futuros) {
+            futuro.get(5, TimeUnit.MINUTES);
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        pool.shutdown();
+
+        Arrays.sort(latencias);
+        System.out.println("\n========== STRESS: retiradas/devoluções concorrentes ==========");
+        System.out.printf("Operações: %d em %d threads sobre %d livros (%d exemplares cada)%n",
+            OPERACOES, THREADS, LIVROS_DISPUTADOS, EXEMPLARES);
+        System.out.printf("Retiradas: %d | Devoluções: %d | Rejeitadas: %d%n",
+            retiradas.get(), devolucoes.get(), rejeitadas.get());
+        motivos.forEach((motivo, total) -> System.out.printf("  %5d x %s%n", total.get(), motivo));
+        System.out.printf("Vazão: %.1f ops/s%n", OPERACOES / segundos);
+        System.out.printf("Latência p50: %.2f ms | p99: %.2f ms | máx: %.2f ms%n",
+            percentil(latencias, 50), percentil(latencias, 99), latencias[latencias.length - 1] / 1e6);
+        System.out.println("===============================================================\n");
+
+        for (Long livroId : livros) {
+            Livro livro = livroRepository.findById(livroId).orElseThrow();
+            long ativos = emprestimoRepository.findByLivro(livro).stream()
+                .filter(Emprestimo::getAtivo)
+                .count();
+
+            assertTrue(ativos <= livro.getQuantidadeExemplares(),
+                "Oversell em " + livro.getTitulo() + ": " + ativos + " empréstimos ativos para "
+                    + livro.getQuantidadeExemplares() + " exemplares");
+            assertEquals(livro.getQuantidadeExemplares() - ativos, (long) livro.getQuantidadeDisponivel(),
+                "quantidadeDisponivel inconsistente com empréstimos ativos em " + livro.getTitulo());
+        }
+    }
+
+    private static double percentil(long[] ordenadas, int p) {
+        int indice = (int) Math.ceil(p / 100.0 * ordenadas.length) - 1;
+        return ordenadas[Math.max(0, indice)] / 1e6;
+    }
+}